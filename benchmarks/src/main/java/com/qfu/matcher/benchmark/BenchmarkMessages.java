@@ -0,0 +1,56 @@
+package com.qfu.matcher.benchmark;
+
+import quickfix.Group;
+import quickfix.Message;
+import quickfix.field.SenderCompID;
+import quickfix.field.SenderSubID;
+import quickfix.field.TargetCompID;
+import quickfix.fix44.NewOrderSingle;
+
+/**
+ * Messages of configurable size used by the benchmarks.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+final class BenchmarkMessages {
+
+    static final int FIRST_CUSTOM_TAG = 5000;
+    static final int GROUP_TAG = 5999;
+    static final int GROUP_DELIMITER_TAG = 6000;
+    static final int GROUP_FIELD_TAG = 6001;
+
+    private BenchmarkMessages() {
+    }
+
+    /**
+     * @return NewOrderSingle with fieldCount custom string fields (tag 5000 + i = value-i)
+     */
+    static Message message(int fieldCount) {
+        Message message = new NewOrderSingle();
+        message.getHeader().setField(new SenderCompID("sender"));
+        message.getHeader().setField(new TargetCompID("target"));
+        message.getHeader().setField(new SenderSubID("senderSubId-123"));
+        for (int i = 0; i < fieldCount; i++) {
+            message.setString(FIRST_CUSTOM_TAG + i, value(i));
+        }
+        return message;
+    }
+
+    static void addGroups(Message message, int groupCount) {
+        for (int i = 0; i < groupCount; i++) {
+            Group group = new Group(GROUP_TAG, GROUP_DELIMITER_TAG);
+            group.setString(GROUP_DELIMITER_TAG, "entry-" + i);
+            group.setString(GROUP_FIELD_TAG, value(i));
+            message.addGroup(group);
+        }
+    }
+
+    static String value(int i) {
+        return "value-" + i;
+    }
+
+    static byte[] raw(Message message) {
+        return message.toString().getBytes();
+    }
+}
@@ -0,0 +1,62 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import org.openjdk.jmh.annotations.*;
+import quickfix.Message;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+
+/**
+ * Matching of a single field of each supported value type.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldTypeBenchmark {
+
+    @Param({"STRING", "CHAR", "INT", "DOUBLE", "DECIMAL", "TIMESTAMP", "BOOLEAN"})
+    public ValueType valueType;
+
+    @Param({"true", "false"})
+    public boolean hit;
+
+    private Message message;
+    private ByteBuffer rawMessage;
+    private FIXMessageMatcher matcher;
+    private CompiledFIXMessageMatcher compiledMatcher;
+
+    @Setup
+    public void setUp() {
+        message = BenchmarkMessages.message(10);
+        valueType.setValue(message);
+        rawMessage = ByteBuffer.wrap(BenchmarkMessages.raw(message));
+
+        matcher = isFIXMessage().with(valueType.fieldId, hit ? valueType.value : valueType.otherValue);
+        compiledMatcher = matcher.compile();
+    }
+
+    @Benchmark
+    public boolean matcher() {
+        return matcher.matches(message);
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        return compiledMatcher.matches(message);
+    }
+
+    @Benchmark
+    public boolean rawMessage() {
+        return compiledMatcher.mayMatch(rawMessage);
+    }
+}
@@ -0,0 +1,74 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import org.openjdk.jmh.annotations.*;
+import quickfix.Message;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+
+/**
+ * Matching of a repeating group entry depending on the number of entries and the position of the expected one.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupBenchmark {
+
+    public enum Position {
+        FIRST,
+        MIDDLE,
+        LAST
+    }
+
+    @Param({"1", "10", "100"})
+    public int groupCount;
+
+    @Param({"FIRST", "MIDDLE", "LAST"})
+    public Position position;
+
+    @Param({"true", "false"})
+    public boolean hit;
+
+    private Message message;
+    private ByteBuffer rawMessage;
+    private FIXMessageMatcher matcher;
+    private CompiledFIXMessageMatcher compiledMatcher;
+
+    @Setup
+    public void setUp() {
+        message = BenchmarkMessages.message(10);
+        BenchmarkMessages.addGroups(message, groupCount);
+        rawMessage = ByteBuffer.wrap(BenchmarkMessages.raw(message));
+
+        int index = position == Position.FIRST ? 1 : (position == Position.MIDDLE ? (groupCount + 1) / 2 : groupCount);
+        matcher = isFIXMessage().with(group(index, BenchmarkMessages.GROUP_TAG)
+                .with(BenchmarkMessages.GROUP_FIELD_TAG, hit ? BenchmarkMessages.value(index - 1) : "other"));
+        compiledMatcher = matcher.compile();
+    }
+
+    @Benchmark
+    public boolean matcher() {
+        return matcher.matches(message);
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        return compiledMatcher.matches(message);
+    }
+
+    @Benchmark
+    public boolean rawMessage() {
+        return compiledMatcher.mayMatch(rawMessage);
+    }
+}
@@ -0,0 +1,74 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import com.qfu.matcher.IndexedMessageStore;
+import org.openjdk.jmh.annotations.*;
+import quickfix.Message;
+import quickfix.field.Account;
+import quickfix.field.Side;
+import quickfix.field.Symbol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+
+/**
+ * Finding all captured messages matching a matcher - intersecting tag indexes compared to evaluating every message.
+ *
+ * @author agent
+ * @since 10/18/26 10:09 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexedMessageStoreBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int messageCount;
+
+    private IndexedMessageStore store;
+    private List<Message> messages;
+    private FIXMessageMatcher matcher;
+    private CompiledFIXMessageMatcher compiledMatcher;
+
+    @Setup
+    public void setUp() {
+        store = new IndexedMessageStore(Symbol.FIELD, Side.FIELD, Account.FIELD);
+        messages = new ArrayList<Message>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            Message message = BenchmarkMessages.message(10);
+            message.setField(new Symbol("symbol-" + (i % 500)));
+            message.setField(new Side(i % 2 == 0 ? Side.BUY : Side.SELL));
+            message.setField(new Account("account-" + (i % 7)));
+            messages.add(message);
+            store.add(message);
+        }
+        matcher = isFIXMessage()
+                .with(Symbol.FIELD, "symbol-42")
+                .with(Side.FIELD, Side.BUY)
+                .with(Account.FIELD, "account-0");
+        compiledMatcher = matcher.compile();
+    }
+
+    @Benchmark
+    public int[] index() {
+        return store.findMatchingIds(matcher);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int matches = 0;
+        for (Message message : messages) {
+            if (compiledMatcher.matches(message)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,74 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import com.qfu.matcher.MatcherIndex;
+import org.openjdk.jmh.annotations.*;
+import quickfix.Message;
+import quickfix.field.Account;
+import quickfix.field.Symbol;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+
+/**
+ * Finding all matching rules for a message - index lookup compared to evaluating every rule.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherIndexBenchmark {
+
+    @Param({"100", "1000", "20000"})
+    public int ruleCount;
+
+    private Message message;
+    private MatcherIndex index;
+    private CompiledFIXMessageMatcher[] compiledMatchers;
+
+    @Setup
+    public void setUp() {
+        List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>();
+        for (int i = 0; i < ruleCount; i++) {
+            matchers.add(isFIXMessage(i % 2 == 0 ? NewOrderSingle.class : ExecutionReport.class)
+                    .with(Symbol.FIELD, "symbol-" + (i % 500))
+                    .with(Account.FIELD, "account-" + (i % 7)));
+        }
+        index = new MatcherIndex(matchers);
+        compiledMatchers = new CompiledFIXMessageMatcher[ruleCount];
+        for (int i = 0; i < ruleCount; i++) {
+            compiledMatchers[i] = matchers.get(i).compile();
+        }
+
+        message = BenchmarkMessages.message(10);
+        message.setField(new Symbol("symbol-42"));
+        message.setField(new Account("account-0"));
+    }
+
+    @Benchmark
+    public int[] index() {
+        return index.findMatchingIndexes(message);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int matches = 0;
+        for (CompiledFIXMessageMatcher compiledMatcher : compiledMatchers) {
+            if (compiledMatcher.matches(message)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
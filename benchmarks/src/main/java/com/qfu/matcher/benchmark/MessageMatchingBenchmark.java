@@ -0,0 +1,88 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import org.openjdk.jmh.annotations.*;
+import quickfix.Message;
+import quickfix.field.SenderSubID;
+import quickfix.fix44.NewOrderSingle;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Header.header;
+
+/**
+ * Matching of whole messages depending on message size, number of expected fields and where the match fails.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageMatchingBenchmark {
+
+    public enum Outcome {
+        HIT,
+        EARLY_MISS,
+        LATE_MISS
+    }
+
+    @Param({"10", "50", "200"})
+    public int messageSize;
+
+    @Param({"1", "5", "20"})
+    public int expectedFields;
+
+    @Param({"HIT", "EARLY_MISS", "LATE_MISS"})
+    public Outcome outcome;
+
+    private Message message;
+    private ByteBuffer rawMessage;
+    private FIXMessageMatcher matcher;
+    private CompiledFIXMessageMatcher compiledMatcher;
+    private CompiledFIXMessageMatcher adaptiveMatcher;
+
+    @Setup
+    public void setUp() {
+        message = BenchmarkMessages.message(messageSize);
+        rawMessage = ByteBuffer.wrap(BenchmarkMessages.raw(message));
+
+        int fieldCount = Math.min(expectedFields, messageSize);
+        matcher = isFIXMessage(NewOrderSingle.class)
+                .with(header().with(SenderSubID.FIELD, "senderSubId-123"));
+        for (int i = 0; i < fieldCount; i++) {
+            // expected fields are spread over the whole message
+            int fieldIndex = i * messageSize / fieldCount;
+            boolean miss = (outcome == Outcome.EARLY_MISS && i == 0) || (outcome == Outcome.LATE_MISS && i == fieldCount - 1);
+            matcher.with(BenchmarkMessages.FIRST_CUSTOM_TAG + fieldIndex, miss ? "other" : BenchmarkMessages.value(fieldIndex));
+        }
+        compiledMatcher = matcher.compile();
+        adaptiveMatcher = matcher.compileAdaptive();
+    }
+
+    @Benchmark
+    public boolean matcher() {
+        return matcher.matches(message);
+    }
+
+    @Benchmark
+    public boolean compiledMatcher() {
+        return compiledMatcher.matches(message);
+    }
+
+    @Benchmark
+    public boolean adaptiveMatcher() {
+        return adaptiveMatcher.matches(message);
+    }
+
+    @Benchmark
+    public boolean rawMessage() {
+        return compiledMatcher.mayMatch(rawMessage);
+    }
+}
@@ -0,0 +1,97 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import com.qfu.matcher.MatchResult;
+import org.hamcrest.StringDescription;
+import org.openjdk.jmh.annotations.*;
+import quickfix.Message;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+
+/**
+ * Failure path of an assertion - matching followed by describing the expectation and the mismatch.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MismatchDescriptionBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int expectedFields;
+
+    @Param({"0", "2"})
+    public int expectedGroups;
+
+    private Message message;
+    private FIXMessageMatcher matcher;
+    private CompiledFIXMessageMatcher compiledMatcher;
+    private Message matchingMessage;
+    private CompiledFIXMessageMatcher matchingMatcher;
+
+    @Setup
+    public void setUp() {
+        message = BenchmarkMessages.message(50);
+        BenchmarkMessages.addGroups(message, 1);
+
+        matcher = isFIXMessage();
+        for (int i = 0; i < expectedFields; i++) {
+            matcher.with(BenchmarkMessages.FIRST_CUSTOM_TAG + i, "other");
+        }
+        for (int i = 1; i <= expectedGroups; i++) {
+            // the second group entry is missing
+            matcher.with(group(i, BenchmarkMessages.GROUP_TAG).with(BenchmarkMessages.GROUP_FIELD_TAG, "other"));
+        }
+        compiledMatcher = matcher.compile();
+
+        matchingMessage = message;
+        FIXMessageMatcher matching = isFIXMessage();
+        for (int i = 0; i < expectedFields; i++) {
+            matching.with(BenchmarkMessages.FIRST_CUSTOM_TAG + i, BenchmarkMessages.value(i));
+        }
+        matchingMatcher = matching.compile();
+    }
+
+    @Benchmark
+    public String describeMismatch() {
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(message, description);
+        return description.toString();
+    }
+
+    @Benchmark
+    public String failedAssertion() {
+        // what assertThat does when the message doesn't match
+        if (matcher.matches(message)) {
+            return null;
+        }
+        StringDescription description = new StringDescription();
+        description.appendText("Expected: ").appendDescriptionOf(matcher).appendText("\n     but: ");
+        matcher.describeMismatch(message, description);
+        return description.toString();
+    }
+
+    @Benchmark
+    public MatchResult evaluateMismatch() {
+        return compiledMatcher.evaluate(message);
+    }
+
+    @Benchmark
+    public String evaluateAndDescribeMismatch() {
+        return compiledMatcher.evaluate(message).toString();
+    }
+
+    @Benchmark
+    public boolean evaluateMatch() {
+        return matchingMatcher.evaluate(matchingMessage).matches();
+    }
+}
@@ -0,0 +1,49 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.RuleParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a rule set - parsing and compiling each rule (one per line).
+ *
+ * @author agent
+ * @since 10/18/26 9:39 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RuleParserBenchmark {
+
+    @Param({"1000", "100000"})
+    public int ruleCount;
+
+    private String rules;
+    private RuleParser parser;
+
+    @Setup
+    public void setUp() {
+        StringBuilder rules = new StringBuilder();
+        for (int i = 0; i < ruleCount; i++) {
+            rules.append("35=8 & 55=symbol-").append(i)
+                    .append(" & 39 in (1,2) & 44>").append(i % 100).append(".25")
+                    .append(" & NoLegs[*].600=EUR").append(i % 50)
+                    .append('\n');
+        }
+        this.rules = rules.toString();
+        parser = new RuleParser();
+    }
+
+    @Benchmark
+    public List<CompiledFIXMessageMatcher> compileAll() throws IOException {
+        return parser.compileAll(new StringReader(rules));
+    }
+}
@@ -0,0 +1,79 @@
+package com.qfu.matcher.benchmark;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import org.openjdk.jmh.annotations.*;
+import quickfix.Message;
+import quickfix.fix44.NewOrderSingle;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+
+/**
+ * Evaluating many different matchers one after another - interpreted checks compared to generated matcher classes.
+ *
+ * @author agent
+ * @since 10/18/26 9:51 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecializedMatcherBenchmark {
+
+    @Param({"1", "16", "1000"})
+    public int matcherCount;
+
+    private Message message;
+    private CompiledFIXMessageMatcher[] compiledMatchers;
+    private CompiledFIXMessageMatcher[] specializedMatchers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        message = BenchmarkMessages.message(20);
+        compiledMatchers = new CompiledFIXMessageMatcher[matcherCount];
+        specializedMatchers = new CompiledFIXMessageMatcher[matcherCount];
+        for (int i = 0; i < matcherCount; i++) {
+            // mix of value types, so that the interpreted checks are megamorphic
+            FIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+                    .with(BenchmarkMessages.FIRST_CUSTOM_TAG + (i % 20), BenchmarkMessages.value(i % 20));
+            switch (i % 3) {
+                case 0:
+                    matcher.with(BenchmarkMessages.FIRST_CUSTOM_TAG + 1, 'x');
+                    break;
+                case 1:
+                    matcher.with(BenchmarkMessages.FIRST_CUSTOM_TAG + 2, 42);
+                    break;
+                default:
+                    matcher.with(BenchmarkMessages.FIRST_CUSTOM_TAG + 3, new BigDecimal("1.25"));
+            }
+            compiledMatchers[i] = matcher.compile();
+            specializedMatchers[i] = matcher.compileSpecialized();
+        }
+    }
+
+    @Benchmark
+    public boolean compiledMatchers() {
+        return compiledMatchers[nextIndex()].matches(message);
+    }
+
+    @Benchmark
+    public boolean specializedMatchers() {
+        return specializedMatchers[nextIndex()].matches(message);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == matcherCount ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,57 @@
+package com.qfu.matcher.benchmark;
+
+import quickfix.FieldMap;
+import quickfix.field.ClOrdID;
+import quickfix.field.NumDaysInterest;
+import quickfix.field.Price;
+import quickfix.field.Side;
+import quickfix.field.SolicitedFlag;
+import quickfix.field.TransactTime;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Field value types supported by the matchers, each with a matching and a different value.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+public enum ValueType {
+
+    STRING(ClOrdID.FIELD, "clOrdId-123", "clOrdId-456"),
+    CHAR(Side.FIELD, Side.BUY, Side.SELL),
+    INT(NumDaysInterest.FIELD, 3, 10),
+    DOUBLE(Price.FIELD, 1.25d, 3.5d),
+    DECIMAL(Price.FIELD, new BigDecimal("1.25"), new BigDecimal("3.5")),
+    TIMESTAMP(TransactTime.FIELD, new Date(1382123456789L), new Date(1382123456889L)),
+    BOOLEAN(SolicitedFlag.FIELD, false, true);
+
+    public final int fieldId;
+    public final Object value;
+    public final Object otherValue;
+
+    ValueType(int fieldId, Object value, Object otherValue) {
+        this.fieldId = fieldId;
+        this.value = value;
+        this.otherValue = otherValue;
+    }
+
+    public void setValue(FieldMap fieldMap) {
+        if (value instanceof String) {
+            fieldMap.setString(fieldId, (String) value);
+        } else if (value instanceof Character) {
+            fieldMap.setChar(fieldId, (Character) value);
+        } else if (value instanceof Integer) {
+            fieldMap.setInt(fieldId, (Integer) value);
+        } else if (value instanceof Double) {
+            fieldMap.setDouble(fieldId, (Double) value);
+        } else if (value instanceof BigDecimal) {
+            fieldMap.setDecimal(fieldId, (BigDecimal) value);
+        } else if (value instanceof Date) {
+            fieldMap.setUtcTimeStamp(fieldId, (Date) value, true);
+        } else if (value instanceof Boolean) {
+            fieldMap.setBoolean(fieldId, (Boolean) value);
+        }
+    }
+}
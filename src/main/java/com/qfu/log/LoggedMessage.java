@@ -0,0 +1,56 @@
+package com.qfu.log;
+
+import quickfix.Message;
+
+import static java.lang.String.format;
+
+/**
+ * Message found in a QuickFIX/J message log together with its position in the log.
+ *
+ * @author agent
+ * @since 10/18/26 8:56 AM
+ */
+public final class LoggedMessage {
+
+    private final long offset;
+    private final int length;
+    private final int seqNum;
+    private final Message message;
+
+    LoggedMessage(long offset, int length, int seqNum, Message message) {
+        this.offset = offset;
+        this.length = length;
+        this.seqNum = seqNum;
+        this.message = message;
+    }
+
+    /**
+     * @return position of the message's first byte (the one of "8=FIX") in the log file
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return number of bytes of the message (from BeginString up to and including the CheckSum delimiter)
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return MsgSeqNum(34) of the message or -1 if it has none
+     */
+    public int getSeqNum() {
+        return seqNum;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return format("LoggedMessage{offset=%d, length=%d, seqNum=%d, message=%s}", offset, length, seqNum, message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.qfu.log;
+
+/**
+ * Receives messages found by {@link MessageLogScanner}, in the order they are present in the log.
+ *
+ * @author agent
+ * @since 10/18/26 8:56 AM
+ */
+public interface LoggedMessageHandler {
+
+    void onMessage(LoggedMessage loggedMessage);
+}
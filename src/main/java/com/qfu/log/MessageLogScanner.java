@@ -0,0 +1,346 @@
+package com.qfu.log;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import quickfix.DataDictionary;
+import quickfix.DefaultMessageFactory;
+import quickfix.FieldException;
+import quickfix.FieldNotFound;
+import quickfix.InvalidMessage;
+import quickfix.Message;
+import quickfix.MessageFactory;
+import quickfix.MessageUtils;
+import quickfix.field.MsgSeqNum;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static java.lang.String.format;
+
+/**
+ * Finds messages matching a {@link FIXMessageMatcher} in a QuickFIX/J message log (one message per line, optionally
+ * prefixed with a timestamp - as written by {@code FileLog}).
+ * <p>
+ * The log is memory mapped and split into chunks scanned in parallel on a {@link ForkJoinPool}. A message belongs to
+ * the chunk its line starts in, so messages crossing chunk boundaries are found exactly once. Each message (8=FIX ...
+ * 10=xxx) is first evaluated against the raw bytes and only candidates passing this prefilter are parsed into a
+ * {@link Message} and verified. Messages that can not be parsed are skipped.
+ * <p>
+ * Groups are only parsed into a {@link Message} when a {@link DataDictionary} is provided, so matchers with group
+ * expectations need one.
+ *
+ * @author agent
+ * @since 10/18/26 8:56 AM
+ */
+public final class MessageLogScanner {
+
+    private static final Charset CHARSET = Charset.forName("ISO-8859-1");
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+    // how far a chunk scan can read past its end to finish its last message
+    private static final int MAX_MESSAGE_LENGTH = 1024 * 1024;
+
+    private static final byte SOH = 0x01;
+    private static final byte NEW_LINE = '\n';
+    private static final byte[] BEGIN_STRING_PREFIX = "8=FIX".getBytes(CHARSET);
+    private static final byte[] BODY_LENGTH_PREFIX = {SOH, '9', '='};
+    private static final byte[] CHECK_SUM_PREFIX = {SOH, '1', '0', '='};
+    // "10=xxx" + SOH
+    private static final int CHECK_SUM_FIELD_LENGTH = 7;
+
+    private final File logFile;
+    private final MessageFactory messageFactory;
+    private final DataDictionary dataDictionary;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public MessageLogScanner(File logFile) {
+        this(logFile, new DefaultMessageFactory(), null);
+    }
+
+    public MessageLogScanner(File logFile, MessageFactory messageFactory, DataDictionary dataDictionary) {
+        this.logFile = logFile;
+        this.messageFactory = messageFactory;
+        this.dataDictionary = dataDictionary;
+    }
+
+    public MessageLogScanner withPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    public MessageLogScanner withChunkSize(int chunkSize) {
+        if (chunkSize < 1 || chunkSize > Integer.MAX_VALUE - MAX_MESSAGE_LENGTH - 1) {
+            throw new IllegalArgumentException(format("invalid chunk size %d", chunkSize));
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @return all messages matching the matcher, in the order they are present in the log
+     */
+    public List<LoggedMessage> findAll(FIXMessageMatcher matcher) throws IOException {
+        final List<LoggedMessage> result = new ArrayList<LoggedMessage>();
+        scan(matcher, new LoggedMessageHandler() {
+            @Override
+            public void onMessage(LoggedMessage loggedMessage) {
+                result.add(loggedMessage);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Passes messages matching the matcher to the handler (on the calling thread) in the order they are present in
+     * the log. Matches of a chunk are handed over as soon as the chunk and all the ones before it are scanned.
+     */
+    public void scan(FIXMessageMatcher matcher, LoggedMessageHandler handler) throws IOException {
+        CompiledFIXMessageMatcher compiledMatcher = matcher.compile();
+        FileChannel channel = new RandomAccessFile(logFile, "r").getChannel();
+        List<ChunkScan> chunkScans = new ArrayList<ChunkScan>();
+        try {
+            long fileSize = channel.size();
+            for (long chunkStart = 0; chunkStart < fileSize; chunkStart += chunkSize) {
+                long chunkEnd = Math.min(fileSize, chunkStart + chunkSize);
+                ChunkScan chunkScan = new ChunkScan(channel, fileSize, chunkStart, chunkEnd, compiledMatcher);
+                chunkScans.add(chunkScan);
+                pool.execute(chunkScan);
+            }
+
+            for (ChunkScan chunkScan : chunkScans) {
+                List<LoggedMessage> loggedMessages = chunkScan.join();
+                if (chunkScan.failure != null) {
+                    throw chunkScan.failure;
+                }
+                for (LoggedMessage loggedMessage : loggedMessages) {
+                    handler.onMessage(loggedMessage);
+                }
+            }
+        } finally {
+            // stops scanning of the remaining chunks if the scan or the handler failed
+            for (ChunkScan chunkScan : chunkScans) {
+                chunkScan.cancel(false);
+            }
+            channel.close();
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * scans messages whose line starts within [chunkStart, chunkEnd)
+     */
+    @SuppressWarnings("serial")
+    private final class ChunkScan extends RecursiveTask<List<LoggedMessage>> {
+
+        private final FileChannel channel;
+        private final long fileSize;
+        private final long chunkStart;
+        private final long chunkEnd;
+        private final CompiledFIXMessageMatcher compiledMatcher;
+        private IOException failure;
+
+        ChunkScan(FileChannel channel, long fileSize, long chunkStart, long chunkEnd, CompiledFIXMessageMatcher compiledMatcher) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.chunkStart = chunkStart;
+            this.chunkEnd = chunkEnd;
+            this.compiledMatcher = compiledMatcher;
+        }
+
+        @Override
+        protected List<LoggedMessage> compute() {
+            try {
+                return scanChunk();
+            } catch (IOException e) {
+                failure = e;
+                return Collections.emptyList();
+            }
+        }
+
+        private List<LoggedMessage> scanChunk() throws IOException {
+            // the byte before the chunk tells whether a line starts at the beginning of the chunk
+            long mapStart = Math.max(0, chunkStart - 1);
+            long mapEnd = Math.min(fileSize, chunkEnd + MAX_MESSAGE_LENGTH);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int limit = buffer.limit();
+            int end = (int) (chunkEnd - mapStart);
+
+            List<LoggedMessage> result = new ArrayList<LoggedMessage>();
+            int lineStart = chunkStart == 0 ? 0 : nextLineStart(buffer, 0, limit);
+            while (lineStart >= 0 && lineStart < end) {
+                int lineEnd = indexOf(buffer, NEW_LINE, lineStart, limit);
+                if (lineEnd < 0) {
+                    if (mapEnd < fileSize) {
+                        // line longer than MAX_MESSAGE_LENGTH
+                        break;
+                    }
+                    lineEnd = limit;
+                }
+
+                int messageStart = findMessageStart(buffer, lineStart, lineEnd);
+                if (messageStart < 0) {
+                    lineStart = lineEnd + 1;
+                    continue;
+                }
+                int messageEnd = findMessageEnd(buffer, messageStart, lineEnd, limit);
+                if (messageEnd < 0) {
+                    // truncated message
+                    lineStart = lineEnd + 1;
+                    continue;
+                }
+
+                LoggedMessage loggedMessage = evaluate(buffer, mapStart, messageStart, messageEnd);
+                if (loggedMessage != null) {
+                    result.add(loggedMessage);
+                }
+                lineStart = nextLineStart(buffer, messageEnd, limit);
+            }
+            return result;
+        }
+
+        private LoggedMessage evaluate(MappedByteBuffer buffer, long mapStart, int messageStart, int messageEnd) {
+            int capacity = buffer.capacity();
+            buffer.limit(messageEnd).position(messageStart);
+            boolean isCandidate = compiledMatcher.mayMatch(buffer);
+            buffer.limit(capacity);
+            if (!isCandidate) {
+                return null;
+            }
+
+            byte[] bytes = new byte[messageEnd - messageStart];
+            buffer.position(messageStart);
+            buffer.get(bytes);
+            Message message = parse(new String(bytes, CHARSET));
+            if (message == null || !compiledMatcher.matches(message)) {
+                return null;
+            }
+            return new LoggedMessage(mapStart + messageStart, bytes.length, seqNumOf(message), message);
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private Message parse(String rawMessage) {
+        try {
+            String beginString = rawMessage.substring(2, rawMessage.indexOf(SOH));
+            Message message = messageFactory.create(beginString, MessageUtils.getMessageType(rawMessage));
+            message.fromString(rawMessage, dataDictionary, false);
+            return message;
+        } catch (InvalidMessage e) {
+            return null;
+        }
+    }
+
+    private static int seqNumOf(Message message) {
+        Message.Header header = message.getHeader();
+        if (!header.isSetField(MsgSeqNum.FIELD)) {
+            return -1;
+        }
+        try {
+            return header.getInt(MsgSeqNum.FIELD);
+        } catch (FieldNotFound e) {
+            return -1;
+        } catch (FieldException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return start of "8=FIX" placed at the start of the line or after the timestamp prefix, -1 if there is none
+     */
+    private static int findMessageStart(MappedByteBuffer buffer, int lineStart, int lineEnd) {
+        for (int i = lineStart; i <= lineEnd - BEGIN_STRING_PREFIX.length; i++) {
+            if ((i == lineStart || buffer.get(i - 1) == ' ') && startsWith(buffer, i, lineEnd, BEGIN_STRING_PREFIX)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return position right after the CheckSum delimiter, -1 if the message is incomplete
+     */
+    private static int findMessageEnd(MappedByteBuffer buffer, int messageStart, int lineEnd, int limit) {
+        // BodyLength tells exactly where the CheckSum is (and lets data fields contain anything)
+        int bodyLengthStart = indexOf(buffer, SOH, messageStart, limit);
+        if (bodyLengthStart >= 0 && startsWith(buffer, bodyLengthStart, limit, BODY_LENGTH_PREFIX)) {
+            int bodyStart = -1;
+            long bodyLength = 0;
+            for (int i = bodyLengthStart + BODY_LENGTH_PREFIX.length; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == SOH) {
+                    bodyStart = i + 1;
+                    break;
+                } else if (b < '0' || b > '9' || bodyLength > Integer.MAX_VALUE) {
+                    break;
+                }
+                bodyLength = bodyLength * 10 + (b - '0');
+            }
+            if (bodyStart >= 0 && bodyStart + bodyLength + CHECK_SUM_FIELD_LENGTH <= limit) {
+                int checkSumStart = (int) (bodyStart + bodyLength - 1);
+                int messageEnd = checkSumStart + 1 + CHECK_SUM_FIELD_LENGTH;
+                if (startsWith(buffer, checkSumStart, limit, CHECK_SUM_PREFIX) && buffer.get(messageEnd - 1) == SOH) {
+                    return messageEnd;
+                }
+            }
+        }
+
+        // invalid BodyLength - fall back to the first CheckSum field on the same line
+        int checkSumStart = indexOf(buffer, CHECK_SUM_PREFIX, messageStart, lineEnd);
+        if (checkSumStart < 0) {
+            return -1;
+        }
+        int checkSumEnd = indexOf(buffer, SOH, checkSumStart + CHECK_SUM_PREFIX.length, lineEnd);
+        return checkSumEnd < 0 ? -1 : checkSumEnd + 1;
+    }
+
+    private static int nextLineStart(MappedByteBuffer buffer, int from, int limit) {
+        int lineEnd = indexOf(buffer, NEW_LINE, from, limit);
+        return lineEnd < 0 ? -1 : lineEnd + 1;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, byte[] value, int from, int to) {
+        for (int i = from; i <= to - value.length; i++) {
+            if (startsWith(buffer, i, to, value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(MappedByteBuffer buffer, int from, int to, byte[] prefix) {
+        if (from + prefix.length > to) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(from + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,273 @@
+package com.qfu.matcher;
+
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+
+/**
+ * Evaluates the checks of a compiled matcher in an order adapted to the matched traffic.
+ * <p>
+ * On average every {@value #SAMPLE_INTERVAL}th evaluation is a sample evaluating all the checks (so that each check's
+ * rejection rate is independent of the current order) while measuring their cost. Every {@value #SAMPLES_PER_REORDER} samples
+ * the checks are reordered by their expected cost per rejection - cheap checks rejecting most of the messages go first,
+ * group checks always go last. Older samples are given half of the weight after each reorder, so the order follows
+ * changes in the traffic. As all checks are side effect free, the result doesn't depend on the order.
+ * <p>
+ * Only one thread samples at a time, other threads meanwhile evaluate the current order, so the statistics need no
+ * synchronization of their own. Samples are picked at random by each thread, so that evaluations don't write any shared
+ * state (a shared evaluation counter would be contended by all evaluating threads).
+ *
+ * @author agent
+ * @since 10/18/26 9:03 AM
+ */
+final class AdaptiveCheckOrder {
+
+    static final int SAMPLE_INTERVAL = 1024;
+    static final int SAMPLES_PER_REORDER = 16;
+
+    private final Check[] checks;
+    private volatile Check[] order;
+
+    private final AtomicBoolean sampling = new AtomicBoolean();
+    private final double[] weights;
+    private final double[] rejections;
+    private final double[] nanos;
+    private int sampleCount;
+
+    AdaptiveCheckOrder(Class<? extends Message> messageType, FieldCheck[] headerChecks, FieldCheck[] bodyChecks, GroupCheck[] groupChecks, GroupWalk[] groupWalks) {
+        List<Check> checks = new ArrayList<Check>();
+        if (messageType != null) {
+            checks.add(new TypeCheck(messageType));
+        }
+        // same initial order as the fixed evaluation
+        for (FieldCheck bodyCheck : bodyChecks) {
+            checks.add(new BodyFieldCheck(bodyCheck));
+        }
+        for (FieldCheck headerCheck : headerChecks) {
+            checks.add(new HeaderFieldCheck(headerCheck));
+        }
+        for (GroupCheck groupCheck : groupChecks) {
+            checks.add(new GroupEntryCheck(groupCheck));
+        }
+        for (GroupWalk groupWalk : groupWalks) {
+            checks.add(new GroupWalkCheck(groupWalk));
+        }
+        this.checks = checks.toArray(new Check[checks.size()]);
+        this.order = this.checks.clone();
+        this.weights = new double[this.checks.length];
+        this.rejections = new double[this.checks.length];
+        this.nanos = new double[this.checks.length];
+    }
+
+    boolean matches(Message message) {
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) == 0 && sampling.compareAndSet(false, true)) {
+            try {
+                return sample(message);
+            } finally {
+                sampling.set(false);
+            }
+        }
+
+        for (Check check : order) {
+            if (!check.matches(message)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return descriptions of the checks in their current order
+     */
+    List<String> currentOrder() {
+        List<String> descriptions = new ArrayList<String>();
+        for (Check check : order) {
+            descriptions.add(check.toString());
+        }
+        return descriptions;
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private boolean sample(Message message) {
+        boolean matches = true;
+        for (int i = 0; i < checks.length; i++) {
+            long start = System.nanoTime();
+            boolean checkMatches = checks[i].matches(message);
+            nanos[i] += System.nanoTime() - start;
+            weights[i] += 1;
+            if (!checkMatches) {
+                rejections[i] += 1;
+                matches = false;
+            }
+        }
+
+        if (++sampleCount == SAMPLES_PER_REORDER) {
+            sampleCount = 0;
+            reorder();
+        }
+        return matches;
+    }
+
+    private void reorder() {
+        final double[] scores = new double[checks.length];
+        Integer[] positions = new Integer[checks.length];
+        for (int i = 0; i < checks.length; i++) {
+            // smoothed, so that checks that never rejected still get ordered by their cost
+            double rejectionRate = (rejections[i] + 1) / (weights[i] + 2);
+            double cost = (nanos[i] + 1) / (weights[i] + 1);
+            scores[i] = cost / rejectionRate;
+            positions[i] = i;
+
+            weights[i] /= 2;
+            rejections[i] /= 2;
+            nanos[i] /= 2;
+        }
+
+        // stable sort - checks with the same score keep their declared order
+        Arrays.sort(positions, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer position1, Integer position2) {
+                boolean isGroup1 = checks[position1].isGroupCheck();
+                boolean isGroup2 = checks[position2].isGroupCheck();
+                if (isGroup1 != isGroup2) {
+                    return isGroup1 ? 1 : -1;
+                }
+                return Double.compare(scores[position1], scores[position2]);
+            }
+        });
+
+        Check[] newOrder = new Check[checks.length];
+        for (int i = 0; i < positions.length; i++) {
+            newOrder[i] = checks[positions[i]];
+        }
+        order = newOrder;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static abstract class Check {
+
+        abstract boolean matches(Message message);
+
+        boolean isGroupCheck() {
+            return false;
+        }
+    }
+
+    private static final class TypeCheck extends Check {
+
+        private final Class<? extends Message> messageType;
+
+        TypeCheck(Class<? extends Message> messageType) {
+            this.messageType = messageType;
+        }
+
+        @Override
+        boolean matches(Message message) {
+            return messageType.isAssignableFrom(message.getClass());
+        }
+
+        @Override
+        public String toString() {
+            return format("type %s", messageType.getSimpleName());
+        }
+    }
+
+    private static final class BodyFieldCheck extends Check {
+
+        private final FieldCheck fieldCheck;
+
+        BodyFieldCheck(FieldCheck fieldCheck) {
+            this.fieldCheck = fieldCheck;
+        }
+
+        @Override
+        boolean matches(Message message) {
+            return fieldCheck.matches(message);
+        }
+
+        @Override
+        public String toString() {
+            return format("field %d", fieldCheck.getFieldId());
+        }
+    }
+
+    private static final class HeaderFieldCheck extends Check {
+
+        private final FieldCheck fieldCheck;
+
+        HeaderFieldCheck(FieldCheck fieldCheck) {
+            this.fieldCheck = fieldCheck;
+        }
+
+        @Override
+        boolean matches(Message message) {
+            return fieldCheck.matches(message.getHeader());
+        }
+
+        @Override
+        public String toString() {
+            return format("header field %d", fieldCheck.getFieldId());
+        }
+    }
+
+    private static final class GroupEntryCheck extends Check {
+
+        private final GroupCheck groupCheck;
+
+        GroupEntryCheck(GroupCheck groupCheck) {
+            this.groupCheck = groupCheck;
+        }
+
+        @Override
+        boolean matches(Message message) {
+            return groupCheck.matches(message);
+        }
+
+        @Override
+        boolean isGroupCheck() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return format("%d. group %d", groupCheck.index, groupCheck.groupTag);
+        }
+    }
+
+    private static final class GroupWalkCheck extends Check {
+
+        private final GroupWalk groupWalk;
+
+        GroupWalkCheck(GroupWalk groupWalk) {
+            this.groupWalk = groupWalk;
+        }
+
+        @Override
+        boolean matches(Message message) {
+            return groupWalk.matches(message);
+        }
+
+        @Override
+        boolean isGroupCheck() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return format("groups %d", groupWalk.groupTag);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.qfu.matcher;
+
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static java.lang.String.format;
+
+/**
+ * Evaluates matchers against large in-memory batches of messages, splitting the batch across a {@link ForkJoinPool}.
+ * <p>
+ * The result is a {@link BitSet} per matcher with bit i set if the i-th message matches. Batches are split into
+ * ranges aligned to 64 messages, so every task fills its own words of the result and no synchronization is needed.
+ * Batches smaller than the sequential threshold are evaluated on the calling thread. Many matchers are evaluated
+ * through a {@link MatcherIndex}, so that each message is evaluated only against its candidate matchers.
+ *
+ * @author agent
+ * @since 10/18/26 9:11 AM
+ */
+public final class BatchMatcher {
+
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 8192;
+
+    // from this number of matchers on the messages are evaluated through a MatcherIndex
+    private static final int INDEX_THRESHOLD = 8;
+    private static final int MIN_TASK_SIZE = 1024;
+    // tasks per worker thread, so that workers finishing early can steal remaining work
+    private static final int TASKS_PER_THREAD = 8;
+
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+
+    public BatchMatcher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * @param sequentialThreshold batches with fewer messages are evaluated on the calling thread
+     */
+    public BatchMatcher(ForkJoinPool pool, int sequentialThreshold) {
+        if (sequentialThreshold < 0) {
+            throw new IllegalArgumentException(format("invalid sequential threshold %d", sequentialThreshold));
+        }
+        this.pool = pool;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    /**
+     * @return bit set with bit i set if the i-th message matches the matcher
+     */
+    public BitSet matchAll(List<Message> messages, FIXMessageMatcher matcher) {
+        List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>(1);
+        matchers.add(matcher);
+        return matchAll(messages, matchers).get(0);
+    }
+
+    /**
+     * @return for each matcher (in the order of the collection) a bit set with bit i set if the i-th message matches it
+     */
+    public List<BitSet> matchAll(List<Message> messages, Collection<FIXMessageMatcher> matchers) {
+        Message[] messageArray = messages.toArray(new Message[messages.size()]);
+        Evaluation evaluation = new Evaluation(messageArray, matchers);
+
+        if (messageArray.length < sequentialThreshold || messageArray.length <= MIN_TASK_SIZE) {
+            evaluation.evaluate(0, messageArray.length);
+        } else {
+            int taskCount = pool.getParallelism() * TASKS_PER_THREAD;
+            int taskSize = Math.max(MIN_TASK_SIZE, messageArray.length / taskCount);
+            // ranges aligned to whole words of the bit sets
+            taskSize = (taskSize + 63) & ~63;
+            pool.invoke(new MatchTask(evaluation, 0, messageArray.length, taskSize));
+        }
+
+        List<BitSet> result = new ArrayList<BitSet>(evaluation.words.length);
+        for (long[] words : evaluation.words) {
+            result.add(BitSet.valueOf(words));
+        }
+        return result;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Evaluation {
+
+        private final Message[] messages;
+        private final CompiledFIXMessageMatcher[] compiledMatchers;
+        private final MatcherIndex matcherIndex;
+        // words of the resulting bit set of each matcher
+        private final long[][] words;
+
+        Evaluation(Message[] messages, Collection<FIXMessageMatcher> matchers) {
+            this.messages = messages;
+            if (matchers.size() >= INDEX_THRESHOLD) {
+                this.compiledMatchers = null;
+                this.matcherIndex = new MatcherIndex(matchers);
+            } else {
+                this.compiledMatchers = new CompiledFIXMessageMatcher[matchers.size()];
+                int i = 0;
+                for (FIXMessageMatcher matcher : matchers) {
+                    compiledMatchers[i++] = matcher.compile();
+                }
+                this.matcherIndex = null;
+            }
+            this.words = new long[matchers.size()][(messages.length + 63) >>> 6];
+        }
+
+        void evaluate(int from, int to) {
+            for (int i = from; i < to; i++) {
+                Message message = messages[i];
+                long bit = 1L << i;
+                int word = i >>> 6;
+                if (matcherIndex != null) {
+                    for (int m : matcherIndex.findMatchingIndexes(message)) {
+                        words[m][word] |= bit;
+                    }
+                } else {
+                    for (int m = 0; m < compiledMatchers.length; m++) {
+                        if (compiledMatchers[m].matches(message)) {
+                            words[m][word] |= bit;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class MatchTask extends RecursiveAction {
+
+        private final Evaluation evaluation;
+        private final int from;
+        private final int to;
+        private final int taskSize;
+
+        MatchTask(Evaluation evaluation, int from, int to, int taskSize) {
+            this.evaluation = evaluation;
+            this.from = from;
+            this.to = to;
+            this.taskSize = taskSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= taskSize) {
+                evaluation.evaluate(from, to);
+                return;
+            }
+            // split point aligned to a multiple of the (word aligned) task size
+            int middle = from + ((to - from) / taskSize / 2) * taskSize;
+            if (middle == from) {
+                middle += taskSize;
+            }
+            invokeAll(
+                    new MatchTask(evaluation, from, middle, taskSize),
+                    new MatchTask(evaluation, middle, to, taskSize)
+            );
+        }
+    }
+}
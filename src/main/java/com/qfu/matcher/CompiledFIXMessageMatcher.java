@@ -0,0 +1,299 @@
+package com.qfu.matcher;
+
+import quickfix.FieldMap;
+import quickfix.Message;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Immutable predicate created by {@link FIXMessageMatcher#compile()}.
+ * <p>
+ * Each expected value is resolved up front into a check specialized for its type (int, char, double, boolean, String,
+ * decimal, timestamp), so matching a message does no boxing, no type tests and no allocation of its own.
+ * It evaluates the same expectations in the same order as the {@link FIXMessageMatcher} it was compiled from
+ * (unless created by {@link FIXMessageMatcher#compileAdaptive()}, see {@link AdaptiveCheckOrder}) and can be safely
+ * shared between threads. If created by {@link FIXMessageMatcher#compileSpecialized()}, {@link #matches(Message)}
+ * runs a class generated for its checks (see {@link MatcherClassGenerator}).
+ * <p>
+ * It can also match raw (unparsed) messages, so that most of the traffic can be filtered out without building
+ * a {@link Message} first.
+ *
+ * @author agent
+ * @since 10/18/26 8:42 AM
+ */
+public final class CompiledFIXMessageMatcher {
+
+    private static final ThreadLocal<MatchResult> MATCH_RESULTS = new ThreadLocal<MatchResult>() {
+        @Override
+        protected MatchResult initialValue() {
+            return new MatchResult();
+        }
+    };
+
+    private final Class<? extends Message> messageType;
+    private final FieldCheck[] headerChecks;
+    private final FieldCheck[] bodyChecks;
+    private final GroupCheck[] groupChecks;
+    private final GroupWalk[] groupWalks;
+    private final RawMessageScanner rawMessageScanner;
+    private final AdaptiveCheckOrder adaptiveCheckOrder;
+    // null if the checks are interpreted
+    private final MatcherClassGenerator.GeneratedMatcher generatedMatcher;
+
+    CompiledFIXMessageMatcher(Class<? extends Message> messageType, FieldCheck[] headerChecks, FieldCheck[] bodyChecks, GroupCheck[] groupChecks, GroupWalk[] groupWalks, boolean adaptive) {
+        this(messageType, headerChecks, bodyChecks, groupChecks, groupWalks, adaptive, null, null);
+    }
+
+    /**
+     * @param bodyGroups tags that can occur in the entries of each group of the message type by the group tag,
+     *                   null if not known
+     */
+    CompiledFIXMessageMatcher(Class<? extends Message> messageType, FieldCheck[] headerChecks, FieldCheck[] bodyChecks, GroupCheck[] groupChecks, GroupWalk[] groupWalks, boolean adaptive, MatcherClassGenerator.GeneratedMatcher generatedMatcher, SortedMap<Integer, int[]> bodyGroups) {
+        this.messageType = messageType;
+        this.headerChecks = headerChecks;
+        this.bodyChecks = bodyChecks;
+        this.groupChecks = groupChecks;
+        this.groupWalks = groupWalks;
+        this.rawMessageScanner = new RawMessageScanner(messageType, headerChecks, bodyChecks, groupChecks, bodyGroups);
+        this.adaptiveCheckOrder = adaptive ? new AdaptiveCheckOrder(messageType, headerChecks, bodyChecks, groupChecks, groupWalks) : null;
+        this.generatedMatcher = generatedMatcher;
+    }
+
+    public boolean matches(Message message) {
+        if (generatedMatcher != null) {
+            return generatedMatcher.matches(message);
+        }
+        if (adaptiveCheckOrder != null) {
+            return adaptiveCheckOrder.matches(message);
+        }
+        if (messageType != null && !messageType.isAssignableFrom(message.getClass())) {
+            return false;
+        }
+        if (!FieldCheck.matchesAll(message, bodyChecks)) {
+            return false;
+        }
+        if (!FieldCheck.matchesAll(message.getHeader(), headerChecks)) {
+            return false;
+        }
+        for (GroupCheck groupCheck : groupChecks) {
+            if (!groupCheck.matches(message)) {
+                return false;
+            }
+        }
+        return GroupWalk.matchesAll(message, groupWalks);
+    }
+
+    /**
+     * Evaluates the message in a single pass and records the first failed expectation (in the declared order: type,
+     * body, header, groups). The returned result is owned by the calling thread and reused by its next evaluation.
+     */
+    public MatchResult evaluate(Message message) {
+        return evaluate(message, MATCH_RESULTS.get());
+    }
+
+    /**
+     * Like {@link #evaluate(Message)}, but records the outcome into the given result.
+     */
+    public MatchResult evaluate(Message message, MatchResult result) {
+        result.reset();
+        if (messageType != null && !messageType.isAssignableFrom(message.getClass())) {
+            result.typeMismatch(messageType, message.getClass());
+            return result;
+        }
+        if (!evaluateFields(message, bodyChecks, MatchResult.Location.BODY, result)) {
+            return result;
+        }
+        if (!evaluateFields(message.getHeader(), headerChecks, MatchResult.Location.HEADER, result)) {
+            return result;
+        }
+        for (GroupCheck groupCheck : groupChecks) {
+            FieldMap entry = groupCheck.entry(message);
+            if (entry == null) {
+                result.groupMismatch(groupCheck.index, groupCheck.groupTag, 0, null, null);
+                return result;
+            }
+            for (FieldCheck fieldCheck : groupCheck.fieldChecks) {
+                String actualValue = FieldLookup.getString(entry, fieldCheck.fieldId);
+                if (actualValue == null || !fieldCheck.matches(actualValue)) {
+                    result.groupMismatch(groupCheck.index, groupCheck.groupTag, fieldCheck.fieldId, fieldCheck.getExpectedValue(), actualValue);
+                    return result;
+                }
+            }
+        }
+        for (GroupWalk groupWalk : groupWalks) {
+            int failure = groupWalk.firstFailure(message);
+            if (failure >= 0) {
+                result.groupMismatch(0, groupWalk.groupTag, 0, groupWalk.describe(failure), null);
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return number of expectations counted by {@link #evaluateAll} - the message type, each header, body and group
+     * field (an indexed group entry without field expectations counts as one) and each group quantifier or nested group
+     */
+    int expectationCount() {
+        int count = (messageType != null ? 1 : 0) + headerChecks.length + bodyChecks.length + groupWalks.length;
+        for (GroupCheck groupCheck : groupChecks) {
+            count += Math.max(1, groupCheck.fieldChecks.length);
+        }
+        return count;
+    }
+
+    /**
+     * Evaluates all expectations, not only until the first failed one (in the order of {@link #evaluate(Message)}).
+     *
+     * @param mismatches gets a result for each failed expectation (a missing group entry is reported once), may be null
+     * @return number of satisfied expectations
+     */
+    int evaluateAll(Message message, List<MatchResult> mismatches) {
+        int satisfiedCount = 0;
+        if (messageType != null) {
+            if (messageType.isAssignableFrom(message.getClass())) {
+                satisfiedCount++;
+            } else if (mismatches != null) {
+                MatchResult mismatch = new MatchResult();
+                mismatch.typeMismatch(messageType, message.getClass());
+                mismatches.add(mismatch);
+            }
+        }
+        satisfiedCount += evaluateAllFields(message, bodyChecks, MatchResult.Location.BODY, mismatches);
+        satisfiedCount += evaluateAllFields(message.getHeader(), headerChecks, MatchResult.Location.HEADER, mismatches);
+        for (GroupCheck groupCheck : groupChecks) {
+            FieldMap entry = groupCheck.entry(message);
+            if (entry == null) {
+                if (mismatches != null) {
+                    MatchResult mismatch = new MatchResult();
+                    mismatch.groupMismatch(groupCheck.index, groupCheck.groupTag, 0, null, null);
+                    mismatches.add(mismatch);
+                }
+                continue;
+            }
+            if (groupCheck.fieldChecks.length == 0) {
+                satisfiedCount++;
+            }
+            for (FieldCheck fieldCheck : groupCheck.fieldChecks) {
+                String actualValue = FieldLookup.getString(entry, fieldCheck.fieldId);
+                if (actualValue != null && fieldCheck.matches(actualValue)) {
+                    satisfiedCount++;
+                } else if (mismatches != null) {
+                    MatchResult mismatch = new MatchResult();
+                    mismatch.groupMismatch(groupCheck.index, groupCheck.groupTag, fieldCheck.fieldId, fieldCheck.getExpectedValue(), actualValue);
+                    mismatches.add(mismatch);
+                }
+            }
+        }
+        for (GroupWalk groupWalk : groupWalks) {
+            int failure = groupWalk.firstFailure(message);
+            if (failure < 0) {
+                satisfiedCount++;
+            } else if (mismatches != null) {
+                MatchResult mismatch = new MatchResult();
+                mismatch.groupMismatch(0, groupWalk.groupTag, 0, groupWalk.describe(failure), null);
+                mismatches.add(mismatch);
+            }
+        }
+        return satisfiedCount;
+    }
+
+    /**
+     * Matches a raw tag=value SOH delimited message without parsing it, with the same result as matching the parsed
+     * message. The message type is matched using the BeginString and MsgType implied by the expected message class.
+     * Fields of repeating group entries can be told from body fields only by the data dictionary of a matcher having
+     * a message type, so matchers with body or group field expectations but without them, as well as matchers with
+     * group quantifiers and nested groups, fail with an {@link IllegalStateException} and can only prefilter raw
+     * messages via {@link #mayMatch(ByteBuffer)}.
+     *
+     * @see RawMessageScanner
+     */
+    public boolean matches(byte[] bytes, int offset, int length) {
+        checkRawMatchingIsSupported();
+        return rawMessageScanner.matches(bytes, offset, length);
+    }
+
+    public boolean matches(byte[] bytes) {
+        checkRawMatchingIsSupported();
+        return rawMessageScanner.matches(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Matches a raw message held between the position and limit of the buffer. The buffer position is not changed.
+     *
+     * @see #matches(byte[], int, int)
+     */
+    public boolean matches(ByteBuffer buffer) {
+        checkRawMatchingIsSupported();
+        return rawMessageScanner.matches(buffer);
+    }
+
+    /**
+     * Prefilters a raw message (held between the position and limit of the buffer) - false means the message doesn't
+     * match, true means it might. Group quantifiers and nested groups are not evaluated on raw messages and without
+     * a data dictionary and message type an expected field is satisfied by any of its occurrences (in the body or in
+     * a group entry), see {@link RawMessageScanner}. The buffer position is not changed.
+     */
+    public boolean mayMatch(ByteBuffer buffer) {
+        return rawMessageScanner.matches(buffer);
+    }
+
+    /**
+     * @return MsgType implied by the expected message class, null if messages of any type can match
+     */
+    public String getMsgType() {
+        return messageType != null ? FIXTags.msgTypeOf(messageType) : null;
+    }
+
+    /**
+     * @return null if the checks are evaluated in the fixed order
+     */
+    AdaptiveCheckOrder getAdaptiveCheckOrder() {
+        return adaptiveCheckOrder;
+    }
+
+    boolean isSpecialized() {
+        return generatedMatcher != null;
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void checkRawMatchingIsSupported() {
+        if (groupWalks.length > 0) {
+            throw new IllegalStateException("group quantifiers and nested groups can't be matched against raw messages, use mayMatch(ByteBuffer) to prefilter them");
+        }
+        if (rawMessageScanner.getPrefilterOnlyReason() != null) {
+            throw new IllegalStateException(rawMessageScanner.getPrefilterOnlyReason());
+        }
+    }
+
+    private static int evaluateAllFields(FieldMap fieldMap, FieldCheck[] fieldChecks, MatchResult.Location location, List<MatchResult> mismatches) {
+        int satisfiedCount = 0;
+        for (FieldCheck fieldCheck : fieldChecks) {
+            String actualValue = FieldLookup.getString(fieldMap, fieldCheck.fieldId);
+            if (actualValue != null && fieldCheck.matches(actualValue)) {
+                satisfiedCount++;
+            } else if (mismatches != null) {
+                MatchResult mismatch = new MatchResult();
+                mismatch.fieldMismatch(location, fieldCheck.fieldId, fieldCheck.getExpectedValue(), actualValue);
+                mismatches.add(mismatch);
+            }
+        }
+        return satisfiedCount;
+    }
+
+    private static boolean evaluateFields(FieldMap fieldMap, FieldCheck[] fieldChecks, MatchResult.Location location, MatchResult result) {
+        for (FieldCheck fieldCheck : fieldChecks) {
+            String actualValue = FieldLookup.getString(fieldMap, fieldCheck.fieldId);
+            if (actualValue == null || !fieldCheck.matches(actualValue)) {
+                result.fieldMismatch(location, fieldCheck.fieldId, fieldCheck.getExpectedValue(), actualValue);
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,222 @@
+package com.qfu.matcher;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import static java.lang.String.format;
+
+/**
+ * Expected value of a decimal field (Price, Qty, Amt, ...) - an exact value, a value with a tolerance or a range, e.g.
+ * {@code with(LastPx.FIELD, decimal("1.2345").within(new BigDecimal("0.0001")))} or {@code with(OrderQty.FIELD, atLeast(new BigDecimal("100")))}.
+ * <p>
+ * The raw field value is parsed into an unscaled long and its scale and compared with the bounds as scaled longs,
+ * so matching doesn't allocate. Only values with too many digits to fit a long fall back to {@link BigDecimal}.
+ *
+ * @author agent
+ * @since 10/18/26 9:18 AM
+ */
+public final class Decimal {
+
+    private final Bound lower;
+    private final Bound upper;
+
+    private Decimal(Bound lower, Bound upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    public static Decimal decimal(String value) {
+        return decimal(new BigDecimal(value));
+    }
+
+    public static Decimal decimal(BigDecimal value) {
+        return new Decimal(new Bound(value, true), new Bound(value, true));
+    }
+
+    public static Decimal above(BigDecimal value) {
+        return new Decimal(new Bound(value, false), null);
+    }
+
+    public static Decimal atLeast(BigDecimal value) {
+        return new Decimal(new Bound(value, true), null);
+    }
+
+    public static Decimal below(BigDecimal value) {
+        return new Decimal(null, new Bound(value, false));
+    }
+
+    public static Decimal atMost(BigDecimal value) {
+        return new Decimal(null, new Bound(value, true));
+    }
+
+    /**
+     * values from low to high (both inclusive)
+     */
+    public static Decimal between(BigDecimal low, BigDecimal high) {
+        if (low.compareTo(high) > 0) {
+            throw new IllegalArgumentException(format("invalid range %s - %s", low.toPlainString(), high.toPlainString()));
+        }
+        return new Decimal(new Bound(low, true), new Bound(high, true));
+    }
+
+    /**
+     * @return expectation matching values at most the given tolerance below or above this (exact) value
+     */
+    public Decimal within(BigDecimal tolerance) {
+        if (lower == null || upper == null || lower.value.compareTo(upper.value) != 0) {
+            throw new IllegalArgumentException(format("tolerance can be applied only to an exact value, not to %s", this));
+        }
+        if (tolerance.signum() < 0) {
+            throw new IllegalArgumentException(format("invalid tolerance %s", tolerance.toPlainString()));
+        }
+        return new Decimal(new Bound(lower.value.subtract(tolerance), true), new Bound(upper.value.add(tolerance), true));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Decimal decimal = (Decimal) o;
+
+        if (lower != null ? !lower.equals(decimal.lower) : decimal.lower != null) return false;
+        if (upper != null ? !upper.equals(decimal.upper) : decimal.upper != null) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = lower != null ? lower.hashCode() : 0;
+        result = 31 * result + (upper != null ? upper.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        if (lower != null && upper != null) {
+            if (lower.value.compareTo(upper.value) == 0) {
+                return lower.value.toPlainString();
+            }
+            return format("between %s and %s", lower.value.toPlainString(), upper.value.toPlainString());
+        } else if (lower != null) {
+            return format("%s %s", lower.inclusive ? "at least" : "above", lower.value.toPlainString());
+        } else {
+            return format("%s %s", upper.inclusive ? "at most" : "below", upper.value.toPlainString());
+        }
+    }
+
+    /**
+     * @param actualValue raw field value
+     */
+    boolean matches(String actualValue) {
+        long unscaled = ValueParser.parseUnscaled(actualValue);
+        if (unscaled != ValueParser.INVALID && fitsLong()) {
+            return matches(unscaled, ValueParser.scale(actualValue));
+        }
+        // too many digits to compare as scaled longs
+        try {
+            return matches(new BigDecimal(actualValue));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    boolean matches(ByteBuffer buffer, int from, int to) {
+        long unscaled = ValueParser.parseUnscaled(buffer, from, to);
+        if (unscaled != ValueParser.INVALID && fitsLong()) {
+            return matches(unscaled, ValueParser.scale(buffer, from, to));
+        }
+        return matches(ValueParser.toString(buffer, from, to));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private boolean fitsLong() {
+        return (lower == null || lower.fitsLong) && (upper == null || upper.fitsLong);
+    }
+
+    private boolean matches(long unscaled, int scale) {
+        if (lower != null) {
+            int comparison = ValueParser.decimalCompare(unscaled, scale, lower.unscaled, lower.scale);
+            if (comparison < 0 || (comparison == 0 && !lower.inclusive)) {
+                return false;
+            }
+        }
+        if (upper != null) {
+            int comparison = ValueParser.decimalCompare(unscaled, scale, upper.unscaled, upper.scale);
+            if (comparison > 0 || (comparison == 0 && !upper.inclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(BigDecimal value) {
+        if (lower != null) {
+            int comparison = value.compareTo(lower.value);
+            if (comparison < 0 || (comparison == 0 && !lower.inclusive)) {
+                return false;
+            }
+        }
+        if (upper != null) {
+            int comparison = value.compareTo(upper.value);
+            if (comparison > 0 || (comparison == 0 && !upper.inclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Bound {
+
+        private final BigDecimal value;
+        private final boolean inclusive;
+        private final boolean fitsLong;
+        private final long unscaled;
+        private final int scale;
+        // of the normalized value, so that equal values of different scales have the same hash
+        private final int hash;
+
+        Bound(BigDecimal value, boolean inclusive) {
+            this.value = value;
+            this.inclusive = inclusive;
+
+            BigDecimal normalized = value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+            if (normalized.scale() < 0) {
+                normalized = normalized.setScale(0);
+            }
+            boolean fitsLong = normalized.unscaledValue().bitLength() < 63;
+            this.fitsLong = fitsLong;
+            this.unscaled = fitsLong ? normalized.unscaledValue().longValue() : 0L;
+            this.scale = normalized.scale();
+            this.hash = fitsLong ? 31 * (int) (unscaled ^ (unscaled >>> 32)) + scale : normalized.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Bound bound = (Bound) o;
+
+            if (inclusive != bound.inclusive) return false;
+            if (value.compareTo(bound.value) != 0) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = hash;
+            result = 31 * result + (inclusive ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.qfu.matcher;
 
 import quickfix.Message;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 /**
  * @author mtymes
  * @since 10/7/13 6:12 PM
@@ -15,4 +18,37 @@ public class FIXMatchers {
     public static FIXMessageMatcher isFIXMessage(Class<? extends Message> messageType) {
         return new FIXMessageMatcher().ofType(messageType);
     }
+
+    /**
+     * the messages match the matchers one by one, in the same order
+     */
+    public static FIXMessageListMatcher containsFIXMessagesInOrder(FIXMessageMatcher... matchers) {
+        return containsFIXMessagesInOrder(Arrays.asList(matchers));
+    }
+
+    public static FIXMessageListMatcher containsFIXMessagesInOrder(Collection<FIXMessageMatcher> matchers) {
+        return new FIXMessageListMatcher(FIXMessageListMatcher.Mode.IN_ORDER, matchers);
+    }
+
+    /**
+     * each message matches a different matcher (in any order) and there is no other message
+     */
+    public static FIXMessageListMatcher containsFIXMessagesInAnyOrder(FIXMessageMatcher... matchers) {
+        return containsFIXMessagesInAnyOrder(Arrays.asList(matchers));
+    }
+
+    public static FIXMessageListMatcher containsFIXMessagesInAnyOrder(Collection<FIXMessageMatcher> matchers) {
+        return new FIXMessageListMatcher(FIXMessageListMatcher.Mode.IN_ANY_ORDER, matchers);
+    }
+
+    /**
+     * each matcher matches a different message, other messages are allowed
+     */
+    public static FIXMessageListMatcher hasFIXMessages(FIXMessageMatcher... matchers) {
+        return hasFIXMessages(Arrays.asList(matchers));
+    }
+
+    public static FIXMessageListMatcher hasFIXMessages(Collection<FIXMessageMatcher> matchers) {
+        return new FIXMessageListMatcher(FIXMessageListMatcher.Mode.SUBSET, matchers);
+    }
 }
@@ -0,0 +1,194 @@
+package com.qfu.matcher;
+
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Matches a collection of messages against a list of {@link FIXMessageMatcher}s - in order, in any order or as a subset
+ * (see {@link FIXMatchers#containsFIXMessagesInOrder}, {@link FIXMatchers#containsFIXMessagesInAnyOrder} and
+ * {@link FIXMatchers#hasFIXMessages}).
+ * <p>
+ * Unordered expectations are assigned to messages through {@link MessageAssignment}, so every message is evaluated only
+ * against the expectations of its type and key field values and an expectation satisfiable by several messages never
+ * takes a message another expectation needs. The expectations are compiled (and indexed) once when the matcher is
+ * created. Nothing is kept between evaluations (the collection may change and can be large), so describing the mismatch
+ * evaluates the collection again - which only happens on failures.
+ *
+ * @author agent
+ * @since 10/18/26 9:25 AM
+ */
+public final class FIXMessageListMatcher extends TypeSafeMatcher<Collection<? extends Message>> {
+
+    enum Mode {
+        IN_ORDER, IN_ANY_ORDER, SUBSET
+    }
+
+    // how many unmatched expectations / messages are described
+    private static final int MAX_DESCRIBED = 10;
+
+    private final Mode mode;
+    private final List<FIXMessageMatcher> expectations;
+    // compiled expectations for IN_ORDER, null otherwise
+    private final CompiledFIXMessageMatcher[] compiledExpectations;
+    // indexed expectations for IN_ANY_ORDER and SUBSET, null otherwise
+    private final MessageAssignment.Expectations assignedExpectations;
+
+    FIXMessageListMatcher(Mode mode, Collection<FIXMessageMatcher> expectations) {
+        super(Collection.class);
+        this.mode = mode;
+        this.expectations = new ArrayList<FIXMessageMatcher>(expectations.size());
+        for (FIXMessageMatcher expectation : expectations) {
+            // later changes of the passed matchers don't affect this one
+            this.expectations.add(expectation.copy());
+        }
+        if (mode == Mode.IN_ORDER) {
+            this.compiledExpectations = new CompiledFIXMessageMatcher[this.expectations.size()];
+            for (int i = 0; i < compiledExpectations.length; i++) {
+                compiledExpectations[i] = this.expectations.get(i).compile();
+            }
+            this.assignedExpectations = null;
+        } else {
+            this.compiledExpectations = null;
+            this.assignedExpectations = new MessageAssignment.Expectations(this.expectations);
+        }
+    }
+
+    @Override
+    protected boolean matchesSafely(Collection<? extends Message> messages) {
+        return evaluate(messages).matches();
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        switch (mode) {
+            case IN_ORDER:
+                description.appendText(format("%d fix messages in order", expectations.size()));
+                break;
+            case IN_ANY_ORDER:
+                description.appendText(format("%d fix messages in any order", expectations.size()));
+                break;
+            case SUBSET:
+                description.appendText(format("fix messages containing %d expected ones", expectations.size()));
+                break;
+        }
+        description.appendText(": ");
+        describeExpectations(allPositions(expectations.size()), description);
+    }
+
+    @Override
+    protected void describeMismatchSafely(Collection<? extends Message> messages, Description description) {
+        Outcome outcome = evaluate(messages);
+        List<? extends Message> messageList = outcome.messages;
+        description.appendText(format("was %d messages", messageList.size()));
+        if (mode == Mode.IN_ORDER) {
+            if (outcome.firstMismatch >= 0) {
+                Message message = messageList.get(outcome.firstMismatch);
+                description.appendText(format(" with message %d ", outcome.firstMismatch + 1));
+                expectations.get(outcome.firstMismatch).describeMismatch(message, description);
+            }
+            return;
+        }
+        if (!outcome.unmatchedExpectations.isEmpty()) {
+            description.appendText(format(" with %d unmatched expectations: ", outcome.unmatchedExpectations.size()));
+            describeExpectations(outcome.unmatchedExpectations, description);
+        }
+        if (mode == Mode.IN_ANY_ORDER && !outcome.unmatchedMessages.isEmpty()) {
+            description.appendText(format(" with %d unmatched messages: ", outcome.unmatchedMessages.size()));
+            describeMessages(messageList, outcome.unmatchedMessages, description);
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private Outcome evaluate(Collection<? extends Message> messages) {
+        List<Message> messageList = new ArrayList<Message>(messages);
+        if (mode == Mode.IN_ORDER) {
+            int firstMismatch = -1;
+            int commonSize = Math.min(messageList.size(), expectations.size());
+            for (int i = 0; i < commonSize && firstMismatch < 0; i++) {
+                if (!compiledExpectations[i].matches(messageList.get(i))) {
+                    firstMismatch = i;
+                }
+            }
+            boolean matches = firstMismatch < 0 && messageList.size() == expectations.size();
+            return new Outcome(messageList, matches, firstMismatch, null, null);
+        }
+
+        MessageAssignment assignment = MessageAssignment.assign(assignedExpectations, messageList);
+        List<Integer> unmatchedExpectations = assignment.unassignedExpectations();
+        List<Integer> unmatchedMessages = assignment.unassignedMessages();
+        boolean matches = unmatchedExpectations.isEmpty() && (mode == Mode.SUBSET || unmatchedMessages.isEmpty());
+        return new Outcome(messageList, matches, -1, unmatchedExpectations, unmatchedMessages);
+    }
+
+    private void describeExpectations(List<Integer> positions, Description description) {
+        description.appendText("[");
+        for (int i = 0; i < positions.size() && i < MAX_DESCRIBED; i++) {
+            if (i > 0) {
+                description.appendText(", ");
+            }
+            description.appendText(format("%d. ", positions.get(i) + 1));
+            expectations.get(positions.get(i)).describeTo(description);
+        }
+        if (positions.size() > MAX_DESCRIBED) {
+            description.appendText(format(", ... %d more", positions.size() - MAX_DESCRIBED));
+        }
+        description.appendText("]");
+    }
+
+    private static void describeMessages(List<? extends Message> messages, List<Integer> positions, Description description) {
+        description.appendText("[");
+        for (int i = 0; i < positions.size() && i < MAX_DESCRIBED; i++) {
+            if (i > 0) {
+                description.appendText(", ");
+            }
+            description.appendText(format("%d. %s", positions.get(i) + 1, messages.get(positions.get(i))));
+        }
+        if (positions.size() > MAX_DESCRIBED) {
+            description.appendText(format(", ... %d more", positions.size() - MAX_DESCRIBED));
+        }
+        description.appendText("]");
+    }
+
+    private static List<Integer> allPositions(int size) {
+        List<Integer> positions = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            positions.add(i);
+        }
+        return positions;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Outcome {
+
+        private final List<? extends Message> messages;
+        private final boolean matches;
+        private final int firstMismatch;
+        private final List<Integer> unmatchedExpectations;
+        private final List<Integer> unmatchedMessages;
+
+        Outcome(List<? extends Message> messages, boolean matches, int firstMismatch, List<Integer> unmatchedExpectations, List<Integer> unmatchedMessages) {
+            this.messages = messages;
+            this.matches = matches;
+            this.firstMismatch = firstMismatch;
+            this.unmatchedExpectations = unmatchedExpectations;
+            this.unmatchedMessages = unmatchedMessages;
+        }
+
+        boolean matches() {
+            return matches;
+        }
+    }
+}
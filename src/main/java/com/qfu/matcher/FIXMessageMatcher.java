@@ -1,10 +1,12 @@
 package com.qfu.matcher;
 
 import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
 import org.hamcrest.TypeSafeMatcher;
 import quickfix.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,13 +23,19 @@ public class FIXMessageMatcher extends TypeSafeMatcher<Message> {
     private final List<FieldValue> headerFieldValues = new ArrayList<FieldValue>();
     private final List<FieldValue> fieldValues = new ArrayList<FieldValue>();
     private final Map<GroupId, List<FieldValue>> groupFieldValues = new LinkedHashMap<GroupId, List<FieldValue>>();
+    // quantified and nested group expectations
+    private final List<com.qfu.matcher.Group> groupExpectations = new ArrayList<com.qfu.matcher.Group>();
     private final FieldMatcher fieldMatcher;
+    // null if no data dictionary is used
+    private FieldTypeResolver typeResolver;
 
     public FIXMessageMatcher() {
         this(FieldMatcher.INSTANCE);
     }
 
     FIXMessageMatcher(FieldMatcher fieldMatcher) {
+        // explicit expected type spares the reflective lookup of TypeSafeMatcher on each construction
+        super(Message.class);
         this.fieldMatcher = fieldMatcher;
     }
 
@@ -36,54 +44,126 @@ public class FIXMessageMatcher extends TypeSafeMatcher<Message> {
             throw new IllegalArgumentException(format("message type already defined as %s", this.messageType.getSimpleName()));
         }
         this.messageType = messageType;
+        if (typeResolver != null) {
+            resolveAll();
+        }
+        return this;
+    }
+
+    /**
+     * Validates the expectations (added so far and later on) against the data dictionary: the fields and groups have
+     * to be defined for the message type (if it is set), the header or the group, and the values have to be valid
+     * for the field types. Invalid expectations fail with an {@link IllegalArgumentException} as soon as they are added.
+     * Expected values are converted into the type of the field (e.g. "100" or 100.0 of a QTY field into a
+     * {@link Decimal}). If the message type is set, compiled matchers use the groups of the dictionary to tell group
+     * fields from body fields when matching raw messages.
+     */
+    public FIXMessageMatcher using(DataDictionary dataDictionary) {
+        if (typeResolver != null) {
+            throw new IllegalArgumentException(format("data dictionary already defined as %s", typeResolver.getDataDictionary().getVersion()));
+        }
+        this.typeResolver = new FieldTypeResolver(dataDictionary);
+        resolveAll();
         return this;
     }
 
     @Deprecated
     public FIXMessageMatcher withHeaderField(int fieldId, Object value) {
-        headerFieldValues.add(new FieldValue(fieldId, value));
+        headerFieldValues.add(resolveHeaderField(new FieldValue(fieldId, value)));
         return this;
     }
 
     public FIXMessageMatcher with(Header header) {
-        headerFieldValues.addAll(header.getFieldValues());
+        for (FieldValue fieldValue : header.getFieldValues()) {
+            headerFieldValues.add(resolveHeaderField(fieldValue));
+        }
         return this;
     }
 
     public FIXMessageMatcher with(Field field) {
-        fieldValues.add(new FieldValue(field.getTag(), field.getObject()));
+        fieldValues.add(resolveBodyField(new FieldValue(field.getTag(), field.getObject())));
         return this;
     }
 
     public FIXMessageMatcher with(int fieldId, Object value) {
-        fieldValues.add(new FieldValue(fieldId, value));
+        fieldValues.add(resolveBodyField(new FieldValue(fieldId, value)));
         return this;
     }
 
     @Deprecated
     public FIXMessageMatcher withGroupField(int groupIndex, int groupTag, int fieldId, Object value) {
         GroupId groupId = new GroupId(groupIndex, groupTag);
-        FieldValue fieldValue = new FieldValue(fieldId, value);
+        List<FieldValue> newFieldValues = new ArrayList<FieldValue>();
+        newFieldValues.add(new FieldValue(fieldId, value));
+        if (typeResolver != null) {
+            typeResolver.resolveGroupFields(typeResolver.msgTypeOf(messageType), groupTag, newFieldValues);
+        }
         List<FieldValue> fieldValues = groupFieldValues.get(groupId);
         if (fieldValues == null) {
             fieldValues = new ArrayList<FieldValue>();
             groupFieldValues.put(groupId, fieldValues);
         }
-        fieldValues.add(fieldValue);
+        fieldValues.addAll(newFieldValues);
         return this;
     }
 
     public FIXMessageMatcher with(com.qfu.matcher.Group group) {
-        GroupId groupId = group.getGroupId();
+        com.qfu.matcher.Group groupCopy = group.copy();
+        if (typeResolver != null) {
+            typeResolver.resolveGroup(typeResolver.msgTypeOf(messageType), typeResolver.getDataDictionary(), groupCopy);
+        }
+        if (!groupCopy.isSingleEntry()) {
+            groupExpectations.add(groupCopy);
+            return this;
+        }
+        GroupId groupId = groupCopy.getGroupId();
         List<FieldValue> fieldValues = groupFieldValues.get(groupId);
         if (fieldValues == null) {
             fieldValues = new ArrayList<FieldValue>();
             groupFieldValues.put(groupId, fieldValues);
         }
-        fieldValues.addAll(group.getFieldValues());
+        fieldValues.addAll(groupCopy.getFieldValues());
         return this;
     }
 
+    /**
+     * Creates an immutable snapshot of the current expectations with each expected value resolved into a type specialized check.
+     * Further changes to this matcher are not reflected in the compiled one.
+     */
+    public CompiledFIXMessageMatcher compile() {
+        return compile(false, false);
+    }
+
+    /**
+     * Freezes the current expectations into an immutable matcher, which can be shared between threads without copying
+     * or locking (this builder can't). Further changes to this matcher are not reflected in the built one.
+     */
+    public ImmutableFIXMessageMatcher build() {
+        return new ImmutableFIXMessageMatcher(compile(), StringDescription.toString(this));
+    }
+
+    /**
+     * Like {@link #compile()}, but the compiled matcher tracks how often and at what cost each of its checks rejects
+     * messages and periodically reorders them (cheapest and most rejecting first, groups last), so that mismatches are
+     * found as early as possible. The results are the same as of the fixed order.
+     */
+    public CompiledFIXMessageMatcher compileAdaptive() {
+        return compile(true, false);
+    }
+
+    /**
+     * Like {@link #compile()}, but {@code matches(Message)} of the compiled matcher runs a class generated for this
+     * matcher, with the expected values inlined as constants (see {@link MatcherClassGenerator}), so the JIT optimizes
+     * it on its own. Pays off for a limited number of hot matchers - each generated class needs its own warm up and
+     * code cache space, so thousands of matchers evaluated alike run faster with {@link #compile()}.
+     * Evaluation, raw message matching and the results are the same as of {@link #compile()}, which is also returned
+     * if classes can't be generated (before Java 15, which has no hidden classes that could be unloaded, or the
+     * {@code qfu.matcher.generateClasses} system property set to false).
+     */
+    public CompiledFIXMessageMatcher compileSpecialized() {
+        return compile(false, true);
+    }
+
     @Override
     protected boolean matchesSafely(Message message) {
         boolean matches = true;
@@ -128,6 +208,15 @@ public class FIXMessageMatcher extends TypeSafeMatcher<Message> {
             }
         }
 
+        if (matches) {
+            for (com.qfu.matcher.Group group : groupExpectations) {
+                if (!matchesGroup(message, group)) {
+                    matches = false;
+                    break;
+                }
+            }
+        }
+
         return matches;
     }
 
@@ -153,6 +242,9 @@ public class FIXMessageMatcher extends TypeSafeMatcher<Message> {
                 description.appendText(format(" values: %s", groupValues));
             }
         }
+        for (com.qfu.matcher.Group group : groupExpectations) {
+            description.appendText(" with ").appendText(group.describe());
+        }
     }
 
     // TODO: test this
@@ -181,6 +273,16 @@ public class FIXMessageMatcher extends TypeSafeMatcher<Message> {
                 description.appendText(format(" with %d. group %d missing", groupId.getIndex(), groupId.getGroupTag()));
             }
         }
+        for (com.qfu.matcher.Group group : groupExpectations) {
+            int groupTag = group.getGroupId().getGroupTag();
+            int entryCount = message.hasGroup(groupTag) ? message.getGroups(groupTag).size() : 0;
+            description.appendText(format(" with %d entries of group %d", entryCount, groupTag));
+            if (matchesGroup(message, group)) {
+                description.appendText(format(" matching %s", group.describe()));
+            } else {
+                description.appendText(format(" not matching %s", group.describe()));
+            }
+        }
     }
 
     @Override
@@ -193,9 +295,13 @@ public class FIXMessageMatcher extends TypeSafeMatcher<Message> {
         if (fieldValues != null ? !fieldValues.equals(that.fieldValues) : that.fieldValues != null) return false;
         if (groupFieldValues != null ? !groupFieldValues.equals(that.groupFieldValues) : that.groupFieldValues != null)
             return false;
+        if (groupExpectations != null ? !groupExpectations.equals(that.groupExpectations) : that.groupExpectations != null)
+            return false;
         if (headerFieldValues != null ? !headerFieldValues.equals(that.headerFieldValues) : that.headerFieldValues != null)
             return false;
         if (messageType != null ? !messageType.equals(that.messageType) : that.messageType != null) return false;
+        // the data dictionary determines how groups of raw messages are delimited
+        if (dataDictionary() != that.dataDictionary()) return false;
 
         return true;
     }
@@ -206,13 +312,157 @@ public class FIXMessageMatcher extends TypeSafeMatcher<Message> {
         result = 31 * result + (headerFieldValues != null ? headerFieldValues.hashCode() : 0);
         result = 31 * result + (fieldValues != null ? fieldValues.hashCode() : 0);
         result = 31 * result + (groupFieldValues != null ? groupFieldValues.hashCode() : 0);
+        result = 31 * result + (groupExpectations != null ? groupExpectations.hashCode() : 0);
         return result;
     }
 
+    /**
+     * @return structurally equal matcher not affected by further changes of this one
+     */
+    FIXMessageMatcher copy() {
+        FIXMessageMatcher copy = new FIXMessageMatcher(fieldMatcher);
+        copy.messageType = messageType;
+        copy.typeResolver = typeResolver;
+        copy.headerFieldValues.addAll(headerFieldValues);
+        copy.fieldValues.addAll(fieldValues);
+        for (Map.Entry<GroupId, List<FieldValue>> entry : groupFieldValues.entrySet()) {
+            copy.groupFieldValues.put(entry.getKey(), new ArrayList<FieldValue>(entry.getValue()));
+        }
+        for (com.qfu.matcher.Group group : groupExpectations) {
+            copy.groupExpectations.add(group.copy());
+        }
+        return copy;
+    }
+
+    Class<? extends Message> getMessageType() {
+        return messageType;
+    }
+
+    List<FieldValue> getHeaderFieldValues() {
+        return headerFieldValues;
+    }
+
+    List<FieldValue> getFieldValues() {
+        return fieldValues;
+    }
+
     /* ============================== */
     /* ---     helper methods     --- */
     /* ============================== */
 
+    private CompiledFIXMessageMatcher compile(boolean adaptive, boolean specialized) {
+        String msgType = typeResolver != null ? typeResolver.msgTypeOf(messageType) : null;
+        GroupCheck[] groupChecks = new GroupCheck[groupFieldValues.size()];
+        int i = 0;
+        for (Map.Entry<GroupId, List<FieldValue>> entry : groupFieldValues.entrySet()) {
+            int groupTag = entry.getKey().getGroupTag();
+            if (msgType != null) {
+                groupChecks[i++] = new GroupCheck(entry.getKey(), entry.getValue(), typeResolver.delimiterOf(msgType, groupTag), typeResolver.entryTagsOf(msgType, groupTag));
+            } else {
+                groupChecks[i++] = new GroupCheck(entry.getKey(), entry.getValue());
+            }
+        }
+        FieldCheck[] headerChecks = FieldCheck.fieldChecks(headerFieldValues);
+        FieldCheck[] bodyChecks = FieldCheck.fieldChecks(fieldValues);
+        GroupWalk[] groupWalks = GroupWalk.groupWalks(groupExpectations);
+        return new CompiledFIXMessageMatcher(
+                messageType,
+                headerChecks,
+                bodyChecks,
+                groupChecks,
+                groupWalks,
+                adaptive,
+                specialized ? MatcherClassGenerator.generate(messageType, headerChecks, bodyChecks, groupChecks, groupWalks) : null,
+                msgType != null ? typeResolver.groupsOf(msgType) : null
+        );
+    }
+
+    private DataDictionary dataDictionary() {
+        return typeResolver != null ? typeResolver.getDataDictionary() : null;
+    }
+
+    private FieldValue resolveHeaderField(FieldValue fieldValue) {
+        return typeResolver != null ? typeResolver.resolveHeaderField(fieldValue) : fieldValue;
+    }
+
+    private FieldValue resolveBodyField(FieldValue fieldValue) {
+        return typeResolver != null ? typeResolver.resolveBodyField(typeResolver.msgTypeOf(messageType), fieldValue) : fieldValue;
+    }
+
+    /**
+     * (re)validates and converts all expectations, resolving a resolved value returns it unchanged
+     */
+    private void resolveAll() {
+        String msgType = typeResolver.msgTypeOf(messageType);
+        for (int i = 0; i < headerFieldValues.size(); i++) {
+            headerFieldValues.set(i, typeResolver.resolveHeaderField(headerFieldValues.get(i)));
+        }
+        for (int i = 0; i < fieldValues.size(); i++) {
+            fieldValues.set(i, typeResolver.resolveBodyField(msgType, fieldValues.get(i)));
+        }
+        for (Map.Entry<GroupId, List<FieldValue>> entry : groupFieldValues.entrySet()) {
+            typeResolver.resolveGroupFields(msgType, entry.getKey().getGroupTag(), entry.getValue());
+        }
+        for (com.qfu.matcher.Group group : groupExpectations) {
+            typeResolver.resolveGroup(msgType, typeResolver.getDataDictionary(), group);
+        }
+    }
+
+    private boolean matchesGroup(FieldMap fieldMap, com.qfu.matcher.Group group) {
+        int groupTag = group.getGroupId().getGroupTag();
+        List<quickfix.Group> entries = fieldMap.hasGroup(groupTag) ? fieldMap.getGroups(groupTag) : Collections.<quickfix.Group>emptyList();
+        switch (group.getQuantifier()) {
+            case INDEX:
+                int index = group.getGroupId().getIndex();
+                return index >= 1 && index <= entries.size() && matchesGroupEntry(entries.get(index - 1), group);
+            case ANY:
+                for (quickfix.Group entry : entries) {
+                    if (matchesGroupEntry(entry, group)) {
+                        return true;
+                    }
+                }
+                return false;
+            case ALL:
+                for (quickfix.Group entry : entries) {
+                    if (!matchesGroupEntry(entry, group)) {
+                        return false;
+                    }
+                }
+                return !entries.isEmpty();
+            case NONE:
+                for (quickfix.Group entry : entries) {
+                    if (matchesGroupEntry(entry, group)) {
+                        return false;
+                    }
+                }
+                return true;
+            case COUNT:
+                int count = 0;
+                for (quickfix.Group entry : entries) {
+                    if (matchesGroupEntry(entry, group)) {
+                        count++;
+                    }
+                }
+                return count == group.getCount();
+            default:
+                throw new IllegalStateException(format("unknown group quantifier %s", group.getQuantifier()));
+        }
+    }
+
+    private boolean matchesGroupEntry(FieldMap entry, com.qfu.matcher.Group group) {
+        for (FieldValue fieldValue : group.getFieldValues()) {
+            if (!fieldMatcher.hasFieldValue(entry, fieldValue)) {
+                return false;
+            }
+        }
+        for (com.qfu.matcher.Group nestedGroup : group.getNestedGroups()) {
+            if (!matchesGroup(entry, nestedGroup)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void describeActualValues(FieldMap fieldMap, List<FieldValue> fieldValues, Description description) {
         description.appendText("[");
 
@@ -0,0 +1,103 @@
+package com.qfu.matcher;
+
+import quickfix.Message;
+
+/**
+ * Tag level knowledge of the FIX wire format needed to walk raw (unparsed) messages.
+ * Header and trailer tags are the same ones QuickFIX/J uses when parsing a message.
+ *
+ * @author agent
+ * @since 10/18/26 8:45 AM
+ */
+final class FIXTags {
+
+    static final byte SOH = 0x01;
+
+    static final int BEGIN_STRING = 8;
+    static final int BODY_LENGTH = 9;
+    static final int CHECK_SUM = 10;
+    static final int MSG_SEQ_NUM = 34;
+    static final int MSG_TYPE = 35;
+
+    private static final int[] HEADER_TAGS = {
+            8, 9, 34, 35, 43, 49, 50, 52, 56, 57, 90, 91, 97, 115, 116, 122, 128, 129, 142, 143, 144, 145,
+            212, 213, 347, 369, 370, 627, 628, 629, 630, 1128, 1129, 1156
+    };
+    private static final int[] TRAILER_TAGS = {10, 89, 93};
+
+    // length field -> data field it describes (data fields may contain SOH)
+    private static final int[][] DATA_TAGS = {
+            {90, 91}, {93, 89}, {95, 96}, {212, 213}, {348, 349}, {350, 351}, {352, 353}, {354, 355}, {356, 357},
+            {358, 359}, {360, 361}, {362, 363}, {364, 365}, {445, 446}, {618, 619}, {621, 622}
+    };
+
+    private static final int LOOKUP_SIZE = 1200;
+    private static final byte HEADER = 1;
+    private static final byte TRAILER = 2;
+    private static final byte[] TAG_KIND = new byte[LOOKUP_SIZE];
+    private static final int[] DATA_TAG = new int[LOOKUP_SIZE];
+
+    static {
+        for (int tag : HEADER_TAGS) {
+            TAG_KIND[tag] = HEADER;
+        }
+        for (int tag : TRAILER_TAGS) {
+            TAG_KIND[tag] = TRAILER;
+        }
+        for (int[] pair : DATA_TAGS) {
+            DATA_TAG[pair[0]] = pair[1];
+        }
+    }
+
+    private FIXTags() {
+    }
+
+    static boolean isHeaderTag(int tag) {
+        if (tag < LOOKUP_SIZE) {
+            return tag > 0 && TAG_KIND[tag] == HEADER;
+        }
+        return tag == 1128 || tag == 1129 || tag == 1156;
+    }
+
+    static boolean isTrailerTag(int tag) {
+        return tag > 0 && tag < LOOKUP_SIZE && TAG_KIND[tag] == TRAILER;
+    }
+
+    /**
+     * @return tag of the data field which length is given by the passed field, or 0 if it's not a length field
+     */
+    static int dataTagOf(int lengthTag) {
+        return (lengthTag > 0 && lengthTag < LOOKUP_SIZE) ? DATA_TAG[lengthTag] : 0;
+    }
+
+    /**
+     * @return BeginString implied by the package of the message class or null if it can't be resolved
+     */
+    static String beginStringOf(Class<? extends Message> messageType) {
+        String className = messageType.getName();
+        if (!className.startsWith("quickfix.fix")) {
+            return null;
+        }
+        String version = className.substring("quickfix.fix".length(), className.lastIndexOf('.'));
+        if (version.startsWith("5") || version.equals("t11")) {
+            return "FIXT.1.1";
+        } else if (version.length() == 2) {
+            return "FIX." + version.charAt(0) + "." + version.charAt(1);
+        }
+        return null;
+    }
+
+    /**
+     * @return MsgType defined by the MSGTYPE constant of the message class or null if there is none
+     */
+    static String msgTypeOf(Class<? extends Message> messageType) {
+        try {
+            Object msgType = messageType.getField("MSGTYPE").get(null);
+            return msgType instanceof String ? (String) msgType : null;
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.qfu.matcher;
+
+import quickfix.FieldMap;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Expected field value resolved into a type specialized check.
+ * The value type is resolved once when the check is created, so evaluation does no type tests and no boxing.
+ *
+ * @author agent
+ * @since 10/18/26 8:42 AM
+ */
+abstract class FieldCheck {
+
+    // default encoding of QuickFIX/J
+    static final Charset CHARSET = Charset.forName("ISO-8859-1");
+
+    final int fieldId;
+    // expected value as passed into the matcher (used only for diagnostics)
+    private final Object originalValue;
+
+    FieldCheck(int fieldId, Object originalValue) {
+        this.fieldId = fieldId;
+        this.originalValue = originalValue;
+    }
+
+    static FieldCheck fieldCheck(FieldValue fieldValue) {
+        int fieldId = fieldValue.getFieldId();
+        Object value = fieldValue.getValue();
+        if (value instanceof String) {
+            return new StringCheck(fieldId, (String) value);
+        } else if (value instanceof Character) {
+            return new CharCheck(fieldId, (Character) value);
+        } else if (value instanceof Integer) {
+            return new IntCheck(fieldId, (Integer) value);
+        } else if (value instanceof Double) {
+            return new DoubleCheck(fieldId, (Double) value);
+        } else if (value instanceof BigDecimal) {
+            return new DecimalCheck(fieldId, value, Decimal.decimal((BigDecimal) value));
+        } else if (value instanceof Decimal) {
+            return new DecimalCheck(fieldId, value, (Decimal) value);
+        } else if (value instanceof Date) {
+            return new DateCheck(fieldId, (Date) value);
+        } else if (value instanceof UtcTime) {
+            return new UtcTimeCheck(fieldId, (UtcTime) value);
+        } else if (value instanceof Boolean) {
+            return new BooleanCheck(fieldId, (Boolean) value);
+        } else if (value instanceof OneOf) {
+            return new OneOfCheck(fieldId, (OneOf) value);
+        } else {
+            throw new IllegalArgumentException(format("unable to process field %d with value type %s", fieldId, value.getClass()));
+        }
+    }
+
+    static FieldCheck[] fieldChecks(List<FieldValue> fieldValues) {
+        FieldCheck[] fieldChecks = new FieldCheck[fieldValues.size()];
+        for (int i = 0; i < fieldChecks.length; i++) {
+            fieldChecks[i] = fieldCheck(fieldValues.get(i));
+        }
+        return fieldChecks;
+    }
+
+    static boolean matchesAll(FieldMap fieldMap, FieldCheck[] fieldChecks) {
+        for (FieldCheck fieldCheck : fieldChecks) {
+            if (!fieldCheck.matches(fieldMap)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int getFieldId() {
+        return fieldId;
+    }
+
+    Object getExpectedValue() {
+        return originalValue;
+    }
+
+    boolean matches(FieldMap fieldMap) {
+        String actualValue = FieldLookup.getString(fieldMap, fieldId);
+        return actualValue != null && matches(actualValue);
+    }
+
+    /**
+     * @param actualValue raw (string) value of the field, never null
+     */
+    abstract boolean matches(String actualValue);
+
+    /**
+     * matches the raw value held in bytes [from, to) of the buffer
+     */
+    abstract boolean matches(ByteBuffer buffer, int from, int to);
+
+    /* ============================== */
+    /* ---     check nodes        --- */
+    /* ============================== */
+
+    private static final class StringCheck extends FieldCheck {
+
+        private final String expectedValue;
+        private final byte[] expectedBytes;
+
+        StringCheck(int fieldId, String expectedValue) {
+            super(fieldId, expectedValue);
+            this.expectedValue = expectedValue;
+            this.expectedBytes = expectedValue.getBytes(CHARSET);
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            return expectedValue.equals(actualValue);
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            if (to - from != expectedBytes.length) {
+                return false;
+            }
+            for (int i = 0; i < expectedBytes.length; i++) {
+                if (buffer.get(from + i) != expectedBytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class CharCheck extends FieldCheck {
+
+        private final char expectedValue;
+
+        CharCheck(int fieldId, char expectedValue) {
+            super(fieldId, expectedValue);
+            this.expectedValue = expectedValue;
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            return actualValue.length() == 1 && actualValue.charAt(0) == expectedValue;
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            return to - from == 1 && (char) (buffer.get(from) & 0xFF) == expectedValue;
+        }
+    }
+
+    private static final class BooleanCheck extends FieldCheck {
+
+        private final char expectedValue;
+
+        BooleanCheck(int fieldId, boolean expectedValue) {
+            super(fieldId, expectedValue);
+            this.expectedValue = expectedValue ? 'Y' : 'N';
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            return actualValue.length() == 1 && actualValue.charAt(0) == expectedValue;
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            return to - from == 1 && (char) (buffer.get(from) & 0xFF) == expectedValue;
+        }
+    }
+
+    private static final class IntCheck extends FieldCheck {
+
+        private final int expectedValue;
+
+        IntCheck(int fieldId, int expectedValue) {
+            super(fieldId, expectedValue);
+            this.expectedValue = expectedValue;
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            long value = ValueParser.parseInt(actualValue);
+            return value != ValueParser.INVALID && value == expectedValue;
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            long value = ValueParser.parseInt(buffer, from, to);
+            return value != ValueParser.INVALID && value == expectedValue;
+        }
+    }
+
+    private static final class DoubleCheck extends FieldCheck {
+
+        private final double expectedValue;
+
+        DoubleCheck(int fieldId, double expectedValue) {
+            super(fieldId, expectedValue);
+            this.expectedValue = expectedValue;
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            // NaN is never a valid field value, so it also signals an unparseable one
+            return ValueParser.parseDouble(actualValue) == expectedValue;
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            return ValueParser.parseDouble(buffer, from, to) == expectedValue;
+        }
+    }
+
+    private static final class DecimalCheck extends FieldCheck {
+
+        private final Decimal expectedValue;
+
+        DecimalCheck(int fieldId, Object originalValue, Decimal expectedValue) {
+            super(fieldId, originalValue);
+            this.expectedValue = expectedValue;
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            return expectedValue.matches(actualValue);
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            return expectedValue.matches(buffer, from, to);
+        }
+    }
+
+    private static final class DateCheck extends FieldCheck {
+
+        private final long expectedMillis;
+
+        DateCheck(int fieldId, Date expectedValue) {
+            super(fieldId, expectedValue);
+            this.expectedMillis = expectedValue.getTime();
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            return UtcTime.matchesDate(expectedMillis, actualValue);
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            return UtcTime.matchesDate(expectedMillis, buffer, from, to);
+        }
+    }
+
+    private static final class OneOfCheck extends FieldCheck {
+
+        private final FieldCheck[] alternatives;
+
+        OneOfCheck(int fieldId, OneOf expectedValue) {
+            super(fieldId, expectedValue);
+            List<Object> values = expectedValue.getValues();
+            this.alternatives = new FieldCheck[values.size()];
+            for (int i = 0; i < alternatives.length; i++) {
+                alternatives[i] = fieldCheck(new FieldValue(fieldId, values.get(i)));
+            }
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            for (FieldCheck alternative : alternatives) {
+                if (alternative.matches(actualValue)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            for (FieldCheck alternative : alternatives) {
+                if (alternative.matches(buffer, from, to)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class UtcTimeCheck extends FieldCheck {
+
+        private final UtcTime expectedValue;
+
+        UtcTimeCheck(int fieldId, UtcTime expectedValue) {
+            super(fieldId, expectedValue);
+            this.expectedValue = expectedValue;
+        }
+
+        @Override
+        boolean matches(String actualValue) {
+            return expectedValue.matches(actualValue);
+        }
+
+        @Override
+        boolean matches(ByteBuffer buffer, int from, int to) {
+            return expectedValue.matches(buffer, from, to);
+        }
+    }
+}
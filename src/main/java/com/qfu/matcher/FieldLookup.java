@@ -0,0 +1,33 @@
+package com.qfu.matcher;
+
+import quickfix.FieldMap;
+import quickfix.FieldNotFound;
+
+/**
+ * Reads raw field values without exceptions for missing fields.
+ * <p>
+ * {@link FieldMap} getters throw {@link FieldNotFound} for missing fields, which is expensive on misses, so the field
+ * is looked up by {@link FieldMap#isSetField(int)} first.
+ *
+ * @author agent
+ * @since 10/18/26 8:52 AM
+ */
+final class FieldLookup {
+
+    private FieldLookup() {
+    }
+
+    /**
+     * @return raw value of the field or null if the field is not present
+     */
+    static String getString(FieldMap fieldMap, int fieldId) {
+        if (!fieldMap.isSetField(fieldId)) {
+            return null;
+        }
+        try {
+            return fieldMap.getString(fieldId);
+        } catch (FieldNotFound e) {
+            return null;
+        }
+    }
+}
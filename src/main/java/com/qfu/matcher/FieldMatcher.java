@@ -31,10 +31,16 @@ class FieldMatcher {
             matches = hasValue(fieldMap, fieldId, (Double) value);
         } else if (value instanceof BigDecimal) {
             matches = hasValue(fieldMap, fieldId, (BigDecimal) value);
+        } else if (value instanceof Decimal) {
+            matches = hasValue(fieldMap, fieldId, (Decimal) value);
         } else if (value instanceof Date) {
             matches = hasValue(fieldMap, fieldId, (Date) value);
+        } else if (value instanceof UtcTime) {
+            matches = hasValue(fieldMap, fieldId, (UtcTime) value);
         } else if (value instanceof Boolean) {
             matches = hasValue(fieldMap, fieldId, (Boolean) value);
+        } else if (value instanceof OneOf) {
+            matches = hasValue(fieldMap, fieldId, (OneOf) value);
         } else {
             throw new IllegalArgumentException(format("unable to process field %d with value type %s", fieldId, value.getClass()));
         }
@@ -101,6 +107,17 @@ class FieldMatcher {
         return matches;
     }
 
+    private boolean hasValue(FieldMap fieldMap, Integer fieldId, Decimal expectedValue) {
+        boolean matches;
+        try {
+            String actualValue = fieldMap.getString(fieldId);
+            matches = expectedValue.matches(actualValue);
+        } catch (FieldNotFound e) {
+            matches = false;
+        }
+        return matches;
+    }
+
     private boolean hasValue(FieldMap fieldMap, Integer fieldId, boolean expectedValue) {
         boolean matches;
         try {
@@ -115,9 +132,29 @@ class FieldMatcher {
     private boolean hasValue(FieldMap fieldMap, Integer fieldId, Date expectedValue) {
         boolean matches;
         try {
-            // FIXME: there are 3 different methods: getUtcTimeStamp, getUtcTimeOnly, getUtcDateOnly - use all of them
-            Date actualValue = fieldMap.getUtcTimeStamp(fieldId);
-            matches = expectedValue.equals(actualValue);
+            // the raw value is parsed directly, so any of UTCTimestamp, UTCTimeOnly and UTCDateOnly can match
+            String actualValue = fieldMap.getString(fieldId);
+            matches = UtcTime.matchesDate(expectedValue.getTime(), actualValue);
+        } catch (FieldNotFound e) {
+            matches = false;
+        }
+        return matches;
+    }
+
+    private boolean hasValue(FieldMap fieldMap, Integer fieldId, OneOf expectedValue) {
+        for (Object value : expectedValue.getValues()) {
+            if (hasFieldValue(fieldMap, new FieldValue(fieldId, value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasValue(FieldMap fieldMap, Integer fieldId, UtcTime expectedValue) {
+        boolean matches;
+        try {
+            String actualValue = fieldMap.getString(fieldId);
+            matches = expectedValue.matches(actualValue);
         } catch (FieldNotFound e) {
             matches = false;
         }
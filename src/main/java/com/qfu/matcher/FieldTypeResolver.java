@@ -0,0 +1,394 @@
+package com.qfu.matcher;
+
+import quickfix.DataDictionary;
+import quickfix.FieldType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+
+/**
+ * Resolves expected values against a {@link DataDictionary} when they are added to a matcher.
+ * <p>
+ * The field has to be defined by the dictionary (and by the message type, header or group it is expected in, if that
+ * is known) and the value has to be compatible with the field type and one of the enumerated values of the field.
+ * The value is converted into the type the compiled check compares cheapest and correctly for the field type -
+ * e.g. "100" or 100.0 for a QTY field into a {@link Decimal} (so that "100.00" matches too), "1" for a CHAR field into
+ * a Character and "20261018-10:00:00.123456" for a UTCTIMESTAMP field into a {@link UtcTime}. Dates are kept as they are
+ * (matching to the millisecond, as without a dictionary). Resolving a resolved value returns it unchanged.
+ *
+ * @author agent
+ * @since 10/18/26 9:31 AM
+ */
+final class FieldTypeResolver {
+
+    private final DataDictionary dataDictionary;
+
+    FieldTypeResolver(DataDictionary dataDictionary) {
+        if (dataDictionary == null) {
+            throw new IllegalArgumentException("data dictionary can't be null");
+        }
+        this.dataDictionary = dataDictionary;
+    }
+
+    DataDictionary getDataDictionary() {
+        return dataDictionary;
+    }
+
+    /**
+     * @return MsgType of the message class, null if it is not known (e.g. for {@link quickfix.Message})
+     */
+    String msgTypeOf(Class<? extends quickfix.Message> messageType) {
+        if (messageType == null) {
+            return null;
+        }
+        String msgType = FIXTags.msgTypeOf(messageType);
+        if (msgType == null) {
+            return null;
+        }
+        String beginString = FIXTags.beginStringOf(messageType);
+        if (beginString != null && !"FIXT.1.1".equals(beginString) && !beginString.equals(dataDictionary.getVersion())) {
+            throw new IllegalArgumentException(format("message type %s is not of the data dictionary version %s", messageType.getName(), dataDictionary.getVersion()));
+        }
+        if (!dataDictionary.isMsgType(msgType)) {
+            throw new IllegalArgumentException(format("message type %s is not defined by the data dictionary %s", msgType, dataDictionary.getVersion()));
+        }
+        return msgType;
+    }
+
+    FieldValue resolveHeaderField(FieldValue fieldValue) {
+        if (!dataDictionary.isHeaderField(fieldValue.getFieldId())) {
+            throw new IllegalArgumentException(format("field %d is not a header field", fieldValue.getFieldId()));
+        }
+        return resolve(fieldValue);
+    }
+
+    /**
+     * @param msgType message type of the field or null if it's not known
+     */
+    FieldValue resolveBodyField(String msgType, FieldValue fieldValue) {
+        if (msgType != null && !dataDictionary.isMsgField(msgType, fieldValue.getFieldId())) {
+            throw new IllegalArgumentException(format("field %d is not defined for message type %s", fieldValue.getFieldId(), msgType));
+        }
+        return resolve(fieldValue);
+    }
+
+    /**
+     * resolves the field values of the group expectation and of its nested groups in place
+     *
+     * @param msgType   message type of the group or null if it's not known
+     * @param container dictionary of the message or group entry containing the group
+     */
+    void resolveGroup(String msgType, DataDictionary container, Group group) {
+        int groupTag = group.getGroupId().getGroupTag();
+        DataDictionary groupDictionary = null;
+        if (msgType != null) {
+            if (!container.isGroup(msgType, groupTag)) {
+                throw new IllegalArgumentException(format("field %d is not a group of message type %s", groupTag, msgType));
+            }
+            groupDictionary = container.getGroup(msgType, groupTag).getDataDictionary();
+        }
+        resolveGroupFields(msgType, groupDictionary, groupTag, group.getFieldValues());
+        for (Group nestedGroup : group.getNestedGroups()) {
+            resolveGroup(msgType, groupDictionary, nestedGroup);
+        }
+    }
+
+    /**
+     * resolves the field values of a group entry in place
+     *
+     * @param msgType message type of the group or null if it's not known
+     */
+    void resolveGroupFields(String msgType, int groupTag, List<FieldValue> fieldValues) {
+        DataDictionary groupDictionary = null;
+        if (msgType != null) {
+            if (!dataDictionary.isGroup(msgType, groupTag)) {
+                throw new IllegalArgumentException(format("field %d is not a group of message type %s", groupTag, msgType));
+            }
+            groupDictionary = dataDictionary.getGroup(msgType, groupTag).getDataDictionary();
+        }
+        resolveGroupFields(msgType, groupDictionary, groupTag, fieldValues);
+    }
+
+    /**
+     * @param msgType   message type of the group or null if it's not known
+     * @param groupPath tags of the top level group and of the groups nested in it down to the group of the field
+     */
+    FieldValue resolveGroupField(String msgType, int[] groupPath, FieldValue fieldValue) {
+        DataDictionary groupDictionary = null;
+        if (msgType != null) {
+            groupDictionary = dataDictionary;
+            for (int groupTag : groupPath) {
+                if (!groupDictionary.isGroup(msgType, groupTag)) {
+                    throw new IllegalArgumentException(format("field %d is not a group of message type %s", groupTag, msgType));
+                }
+                groupDictionary = groupDictionary.getGroup(msgType, groupTag).getDataDictionary();
+            }
+        }
+        List<FieldValue> fieldValues = new ArrayList<FieldValue>(1);
+        fieldValues.add(fieldValue);
+        resolveGroupFields(msgType, groupDictionary, groupPath[groupPath.length - 1], fieldValues);
+        return fieldValues.get(0);
+    }
+
+    /**
+     * @return first field of each entry of the group or 0 if the message type is not known
+     */
+    int delimiterOf(String msgType, int groupTag) {
+        if (msgType == null || !dataDictionary.isGroup(msgType, groupTag)) {
+            return 0;
+        }
+        return dataDictionary.getGroup(msgType, groupTag).getDelimiterField();
+    }
+
+    /**
+     * @return sorted tags that can occur in an entry of the group (including fields of nested groups)
+     * or null if the message type is not known
+     */
+    int[] entryTagsOf(String msgType, int groupTag) {
+        if (msgType == null || !dataDictionary.isGroup(msgType, groupTag)) {
+            return null;
+        }
+        Set<Integer> tags = new TreeSet<Integer>();
+        addEntryTags(msgType, dataDictionary.getGroup(msgType, groupTag).getDataDictionary(), tags);
+        int[] entryTags = new int[tags.size()];
+        int i = 0;
+        for (int tag : tags) {
+            entryTags[i++] = tag;
+        }
+        return entryTags;
+    }
+
+    /**
+     * @return sorted tags that can occur in the entries of each group of the message type by the group tag
+     */
+    SortedMap<Integer, int[]> groupsOf(String msgType) {
+        SortedMap<Integer, int[]> groups = new TreeMap<Integer, int[]>();
+        for (int tag : dataDictionary.getOrderedFields()) {
+            if (dataDictionary.isGroup(msgType, tag)) {
+                groups.put(tag, entryTagsOf(msgType, tag));
+            }
+        }
+        return groups;
+    }
+
+    FieldValue resolve(FieldValue fieldValue) {
+        int fieldId = fieldValue.getFieldId();
+        Object value = fieldValue.getValue();
+        if (value == null) {
+            throw new IllegalArgumentException(format("field %d can't have null value", fieldId));
+        }
+        if (value instanceof OneOf) {
+            List<Object> values = ((OneOf) value).getValues();
+            List<Object> resolvedValues = new ArrayList<Object>(values.size());
+            for (Object alternative : values) {
+                resolvedValues.add(resolve(new FieldValue(fieldId, alternative)).getValue());
+            }
+            return resolvedValues.equals(values) ? fieldValue : new FieldValue(fieldId, OneOf.oneOf(resolvedValues));
+        }
+        // group dictionaries don't hold field types, only the root one does
+        FieldType fieldType = dataDictionary.getFieldType(fieldId);
+        if (fieldType == null) {
+            throw new IllegalArgumentException(format("field %d is not defined by the data dictionary %s", fieldId, dataDictionary.getVersion()));
+        }
+
+        Object resolvedValue;
+        switch (fieldType) {
+            case INT:
+            case LENGTH:
+            case SEQNUM:
+            case NUMINGROUP:
+            case DAYOFMONTH:
+                resolvedValue = intValue(fieldId, fieldType, value);
+                break;
+            case PRICE:
+            case AMT:
+            case QTY:
+            case FLOAT:
+            case PRICEOFFSET:
+            case PERCENTAGE:
+                resolvedValue = decimalValue(fieldId, fieldType, value);
+                break;
+            case CHAR:
+                resolvedValue = charValue(fieldId, fieldType, value);
+                break;
+            case BOOLEAN:
+                resolvedValue = booleanValue(fieldId, fieldType, value);
+                break;
+            case UTCTIMESTAMP:
+            case TIME:
+                resolvedValue = timestampValue(fieldId, fieldType, value);
+                break;
+            case UTCTIMEONLY:
+                resolvedValue = timeOnlyValue(fieldId, fieldType, value);
+                break;
+            case UTCDATEONLY:
+            case UTCDATE:
+                resolvedValue = dateOnlyValue(fieldId, fieldType, value);
+                break;
+            case UNKNOWN:
+                resolvedValue = value;
+                break;
+            default:
+                if (!(value instanceof String)) {
+                    throw incompatibleValue(fieldId, fieldType, value);
+                }
+                resolvedValue = value;
+                break;
+        }
+
+        checkEnumeratedValue(fieldId, resolvedValue);
+        return resolvedValue == value ? fieldValue : new FieldValue(fieldId, resolvedValue);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void resolveGroupFields(String msgType, DataDictionary groupDictionary, int groupTag, List<FieldValue> fieldValues) {
+        for (int i = 0; i < fieldValues.size(); i++) {
+            FieldValue fieldValue = fieldValues.get(i);
+            if (groupDictionary != null && !groupDictionary.isField(fieldValue.getFieldId())) {
+                throw new IllegalArgumentException(format("field %d is not a field of group %d of message type %s", fieldValue.getFieldId(), groupTag, msgType));
+            }
+            fieldValues.set(i, resolve(fieldValue));
+        }
+    }
+
+    private void addEntryTags(String msgType, DataDictionary groupDictionary, Set<Integer> tags) {
+        for (int tag : groupDictionary.getOrderedFields()) {
+            tags.add(tag);
+            if (groupDictionary.isGroup(msgType, tag)) {
+                addEntryTags(msgType, groupDictionary.getGroup(msgType, tag).getDataDictionary(), tags);
+            }
+        }
+    }
+
+    private void checkEnumeratedValue(int fieldId, Object value) {
+        if (!dataDictionary.hasFieldValue(fieldId)) {
+            return;
+        }
+        String rawValue;
+        if (value instanceof String || value instanceof Character || value instanceof Integer) {
+            rawValue = value.toString();
+        } else if (value instanceof Boolean) {
+            rawValue = (Boolean) value ? "Y" : "N";
+        } else {
+            // ranges and tolerances are not enumerated
+            return;
+        }
+        if (!dataDictionary.isFieldValue(fieldId, rawValue)) {
+            throw new IllegalArgumentException(format("%s is not a valid value of field %d", rawValue, fieldId));
+        }
+    }
+
+    private Object intValue(int fieldId, FieldType fieldType, Object value) {
+        if (value instanceof Integer) {
+            return value;
+        } else if (value instanceof String) {
+            long intValue = ValueParser.parseInt((String) value);
+            if (intValue == ValueParser.INVALID || intValue < Integer.MIN_VALUE || intValue > Integer.MAX_VALUE) {
+                throw incompatibleValue(fieldId, fieldType, value);
+            }
+            return (int) intValue;
+        }
+        throw incompatibleValue(fieldId, fieldType, value);
+    }
+
+    private Object decimalValue(int fieldId, FieldType fieldType, Object value) {
+        try {
+            if (value instanceof Decimal) {
+                return value;
+            } else if (value instanceof BigDecimal) {
+                return Decimal.decimal((BigDecimal) value);
+            } else if (value instanceof Integer) {
+                return Decimal.decimal(BigDecimal.valueOf((Integer) value));
+            } else if (value instanceof Double) {
+                // the shortest decimal representation of the double, as it was most likely written
+                return Decimal.decimal(BigDecimal.valueOf((Double) value));
+            } else if (value instanceof String) {
+                return Decimal.decimal((String) value);
+            }
+        } catch (NumberFormatException e) {
+            throw incompatibleValue(fieldId, fieldType, value);
+        }
+        throw incompatibleValue(fieldId, fieldType, value);
+    }
+
+    private Object charValue(int fieldId, FieldType fieldType, Object value) {
+        if (value instanceof Character) {
+            return value;
+        } else if (value instanceof String && ((String) value).length() == 1) {
+            return ((String) value).charAt(0);
+        }
+        throw incompatibleValue(fieldId, fieldType, value);
+    }
+
+    private Object booleanValue(int fieldId, FieldType fieldType, Object value) {
+        if (value instanceof Boolean) {
+            return value;
+        }
+        String rawValue = (value instanceof String || value instanceof Character) ? value.toString() : null;
+        if ("Y".equals(rawValue)) {
+            return Boolean.TRUE;
+        } else if ("N".equals(rawValue)) {
+            return Boolean.FALSE;
+        }
+        throw incompatibleValue(fieldId, fieldType, value);
+    }
+
+    private Object timestampValue(int fieldId, FieldType fieldType, Object value) {
+        if (value instanceof UtcTime && ((UtcTime) value).getKind() == UtcTime.Kind.TIMESTAMP) {
+            return value;
+        } else if (value instanceof Date) {
+            // compared as it is (to the millisecond), so that the data dictionary doesn't change what it matches
+            return value;
+        } else if (value instanceof String) {
+            long epochMicros = ValueParser.parseUtcTimestamp((String) value);
+            if (epochMicros != ValueParser.INVALID) {
+                return UtcTime.utcTimestampMicros(epochMicros);
+            }
+        }
+        throw incompatibleValue(fieldId, fieldType, value);
+    }
+
+    private Object timeOnlyValue(int fieldId, FieldType fieldType, Object value) {
+        if (value instanceof UtcTime && ((UtcTime) value).getKind() == UtcTime.Kind.TIME_ONLY) {
+            return value;
+        } else if (value instanceof Date) {
+            // compared as it is (to the millisecond), so that the data dictionary doesn't change what it matches
+            return value;
+        } else if (value instanceof String) {
+            long microsOfDay = ValueParser.parseUtcTimeOnly((String) value);
+            if (microsOfDay != ValueParser.INVALID) {
+                return UtcTime.utcTimeOnlyMicros(microsOfDay);
+            }
+        }
+        throw incompatibleValue(fieldId, fieldType, value);
+    }
+
+    private Object dateOnlyValue(int fieldId, FieldType fieldType, Object value) {
+        if (value instanceof UtcTime && ((UtcTime) value).getKind() == UtcTime.Kind.DATE_ONLY) {
+            return value;
+        } else if (value instanceof Date) {
+            return value;
+        } else if (value instanceof String && ValueParser.parseUtcDateOnly((String) value) != ValueParser.INVALID) {
+            // a valid date has a single representation, so it's compared as it is
+            return value;
+        }
+        throw incompatibleValue(fieldId, fieldType, value);
+    }
+
+    private static IllegalArgumentException incompatibleValue(int fieldId, FieldType fieldType, Object value) {
+        return new IllegalArgumentException(format(
+                "field %d of type %s can't have value %s of type %s", fieldId, fieldType.name(), value, value.getClass().getSimpleName()
+        ));
+    }
+}
@@ -1,34 +1,111 @@
 package com.qfu.matcher;
 
+import quickfix.DataDictionary;
 import quickfix.Field;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static java.lang.String.format;
+
 /**
+ * Expectations of repeating group entries - either of the entry at a given index or of all entries via a quantifier
+ * (any / all / none / exact count of matching entries). Groups nested in the entries are expected via {@link #with(Group)}.
+ *
  * @author mtymes
  * @since 10/2/13 12:21 AM
  */
 public class Group {
 
+    enum Quantifier {
+        INDEX, ANY, ALL, NONE, COUNT
+    }
+
     private final GroupId groupId;
+    private final Quantifier quantifier;
+    private final int count;
     private final List<FieldValue> fieldValues = new ArrayList<FieldValue>();
+    private final List<Group> nestedGroups = new ArrayList<Group>();
+    // null if no data dictionary is used
+    private FieldTypeResolver typeResolver;
 
     public Group(GroupId groupId) {
+        this(groupId, Quantifier.INDEX, 0);
+    }
+
+    private Group(GroupId groupId, Quantifier quantifier, int count) {
         this.groupId = groupId;
+        this.quantifier = quantifier;
+        this.count = count;
     }
 
     public static Group group(int groupIndex, int groupTag) {
         return new Group(new GroupId(groupIndex, groupTag));
     }
 
-    public Group with(Field field) {
-        fieldValues.add(new FieldValue(field.getTag(), field.getObject()));
+    /**
+     * at least one entry of the group matches
+     */
+    public static Group anyGroup(int groupTag) {
+        return new Group(new GroupId(0, groupTag), Quantifier.ANY, 0);
+    }
+
+    /**
+     * the group is present and all of its entries match
+     */
+    public static Group allGroups(int groupTag) {
+        return new Group(new GroupId(0, groupTag), Quantifier.ALL, 0);
+    }
+
+    /**
+     * none of the group entries matches (also if the group is not present)
+     */
+    public static Group noGroup(int groupTag) {
+        return new Group(new GroupId(0, groupTag), Quantifier.NONE, 0);
+    }
+
+    /**
+     * exactly count entries of the group match
+     */
+    public static Group groupCount(int count, int groupTag) {
+        if (count < 0) {
+            throw new IllegalArgumentException(format("invalid group count %d", count));
+        }
+        return new Group(new GroupId(0, groupTag), Quantifier.COUNT, count);
+    }
+
+    /**
+     * validates the field values (added so far and later on, including nested groups) against the data dictionary and
+     * converts them into the field types. Whether the fields belong to the group is validated once the group is added
+     * to a {@link FIXMessageMatcher} of a known message type using a data dictionary
+     * (see {@link FIXMessageMatcher#using(DataDictionary)}).
+     */
+    public Group using(DataDictionary dataDictionary) {
+        typeResolver = new FieldTypeResolver(dataDictionary);
+        typeResolver.resolveGroup(null, null, this);
         return this;
     }
 
+    public Group with(Field field) {
+        return with(field.getTag(), field.getObject());
+    }
+
     public Group with(int fieldId, Object value) {
-        fieldValues.add(new FieldValue(fieldId, value));
+        FieldValue fieldValue = new FieldValue(fieldId, value);
+        fieldValues.add(typeResolver != null ? typeResolver.resolve(fieldValue) : fieldValue);
+        return this;
+    }
+
+    /**
+     * expectation of a group nested in the entry (e.g. NoLegStipulations within NoLegs)
+     */
+    public Group with(Group nestedGroup) {
+        if (typeResolver != null) {
+            // resolved copy, so that the passed group is not changed
+            nestedGroup = nestedGroup.copy();
+            typeResolver.resolveGroup(null, null, nestedGroup);
+        }
+        nestedGroups.add(nestedGroup);
         return this;
     }
 
@@ -39,4 +116,91 @@ public class Group {
     List<FieldValue> getFieldValues() {
         return fieldValues;
     }
+
+    Quantifier getQuantifier() {
+        return quantifier;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    List<Group> getNestedGroups() {
+        return nestedGroups;
+    }
+
+    /**
+     * @return true if this is an expectation of a single indexed entry without nested groups
+     */
+    boolean isSingleEntry() {
+        return quantifier == Quantifier.INDEX && nestedGroups.isEmpty();
+    }
+
+    /**
+     * @return copy not affected by later changes of this group (or its nested groups)
+     */
+    Group copy() {
+        Group copy = new Group(groupId, quantifier, count);
+        copy.typeResolver = typeResolver;
+        copy.fieldValues.addAll(fieldValues);
+        for (Group nestedGroup : nestedGroups) {
+            copy.nestedGroups.add(nestedGroup.copy());
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Group group = (Group) o;
+
+        if (count != group.count) return false;
+        if (!fieldValues.equals(group.fieldValues)) return false;
+        if (!groupId.equals(group.groupId)) return false;
+        if (!nestedGroups.equals(group.nestedGroups)) return false;
+        if (quantifier != group.quantifier) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = groupId.hashCode();
+        result = 31 * result + quantifier.hashCode();
+        result = 31 * result + count;
+        result = 31 * result + fieldValues.hashCode();
+        result = 31 * result + nestedGroups.hashCode();
+        return result;
+    }
+
+    String describe() {
+        StringBuilder description = new StringBuilder();
+        int groupTag = groupId.getGroupTag();
+        switch (quantifier) {
+            case INDEX:
+                description.append(format("%d. group %d", groupId.getIndex(), groupTag));
+                break;
+            case ANY:
+                description.append(format("any group %d", groupTag));
+                break;
+            case ALL:
+                description.append(format("all groups %d", groupTag));
+                break;
+            case NONE:
+                description.append(format("no group %d", groupTag));
+                break;
+            case COUNT:
+                description.append(format("%d groups %d", count, groupTag));
+                break;
+        }
+        if (!fieldValues.isEmpty()) {
+            description.append(format(" values: %s", fieldValues));
+        }
+        for (Group nestedGroup : nestedGroups) {
+            description.append(" with (").append(nestedGroup.describe()).append(")");
+        }
+        return description.toString();
+    }
 }
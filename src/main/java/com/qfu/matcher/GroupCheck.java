@@ -0,0 +1,55 @@
+package com.qfu.matcher;
+
+import quickfix.FieldMap;
+
+import java.util.List;
+
+/**
+ * Compiled expectations of one repeating group entry.
+ *
+ * @author agent
+ * @since 10/18/26 8:42 AM
+ */
+class GroupCheck {
+
+    final int index;
+    final int groupTag;
+    final FieldCheck[] fieldChecks;
+    // first field of each entry, 0 if not known (without data dictionary)
+    final int delimiterTag;
+    // sorted tags which can occur in an entry, null if not known (without data dictionary)
+    final int[] entryTags;
+
+    GroupCheck(GroupId groupId, List<FieldValue> fieldValues) {
+        this(groupId, fieldValues, 0, null);
+    }
+
+    GroupCheck(GroupId groupId, List<FieldValue> fieldValues, int delimiterTag, int[] entryTags) {
+        this.index = groupId.getIndex();
+        this.groupTag = groupId.getGroupTag();
+        this.fieldChecks = FieldCheck.fieldChecks(fieldValues);
+        this.delimiterTag = delimiterTag;
+        this.entryTags = entryTags;
+    }
+
+    boolean matches(FieldMap fieldMap) {
+        FieldMap entry = entry(fieldMap);
+        return entry != null && FieldCheck.matchesAll(entry, fieldChecks);
+    }
+
+    /**
+     * @return the checked group entry or null if it is not present
+     */
+    FieldMap entry(FieldMap fieldMap) {
+        // hasGroup(tag) doesn't register an empty group list in the message as getGroups(tag) would
+        if (index < 1 || !fieldMap.hasGroup(groupTag)) {
+            return null;
+        }
+        List<quickfix.Group> groups = fieldMap.getGroups(groupTag);
+        if (groups.size() < index) {
+            return null;
+        }
+        // unlike getGroup(index, tag) this doesn't copy the group
+        return groups.get(index - 1);
+    }
+}
@@ -21,4 +21,24 @@ class GroupId {
     int getGroupTag() {
         return groupTag;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        GroupId groupId = (GroupId) o;
+
+        if (groupTag != groupId.groupTag) return false;
+        if (index != groupId.index) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = index;
+        result = 31 * result + groupTag;
+        return result;
+    }
 }
@@ -0,0 +1,213 @@
+package com.qfu.matcher;
+
+import quickfix.FieldMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Compiled expectations (indexed entries, any / all / none / count quantifiers, nested groups) of one repeating group.
+ * <p>
+ * All expectations of the group are evaluated in a single walk over its entries, which ends as soon as every
+ * expectation is decided or one of them fails. Entries are evaluated in place (the group list is not copied).
+ *
+ * @author agent
+ * @since 10/18/26 9:09 AM
+ */
+final class GroupWalk {
+
+    private static final int MAX_EXPECTATIONS = 64;
+
+    final int groupTag;
+    private final Expectation[] expectations;
+    private final long allExpectations;
+    // per thread counts of matching entries of the count expectations, null if there are none (nested groups have
+    // walks of their own, so the counts of a walk are never in use twice in the same thread)
+    private final ThreadLocal<int[]> counts;
+
+    private GroupWalk(int groupTag, List<Group> groups) {
+        if (groups.size() > MAX_EXPECTATIONS) {
+            throw new IllegalArgumentException(format("too many expectations (%d) of group %d, at most %d are supported", groups.size(), groupTag, MAX_EXPECTATIONS));
+        }
+        this.groupTag = groupTag;
+        this.expectations = new Expectation[groups.size()];
+        boolean hasCounts = false;
+        for (int i = 0; i < expectations.length; i++) {
+            expectations[i] = new Expectation(groups.get(i));
+            hasCounts |= expectations[i].quantifier == Group.Quantifier.COUNT;
+        }
+        this.allExpectations = expectations.length == MAX_EXPECTATIONS ? -1L : (1L << expectations.length) - 1;
+        this.counts = hasCounts ? new ThreadLocal<int[]>() {
+            @Override
+            protected int[] initialValue() {
+                return new int[expectations.length];
+            }
+        } : null;
+    }
+
+    /**
+     * @return one walk per group tag (in the order the tags are first used)
+     */
+    static GroupWalk[] groupWalks(List<Group> groups) {
+        Map<Integer, List<Group>> groupsByTag = new LinkedHashMap<Integer, List<Group>>();
+        for (Group group : groups) {
+            int groupTag = group.getGroupId().getGroupTag();
+            List<Group> tagGroups = groupsByTag.get(groupTag);
+            if (tagGroups == null) {
+                tagGroups = new ArrayList<Group>();
+                groupsByTag.put(groupTag, tagGroups);
+            }
+            tagGroups.add(group);
+        }
+
+        GroupWalk[] groupWalks = new GroupWalk[groupsByTag.size()];
+        int i = 0;
+        for (Map.Entry<Integer, List<Group>> entry : groupsByTag.entrySet()) {
+            groupWalks[i++] = new GroupWalk(entry.getKey(), entry.getValue());
+        }
+        return groupWalks;
+    }
+
+    static boolean matchesAll(FieldMap fieldMap, GroupWalk[] groupWalks) {
+        for (GroupWalk groupWalk : groupWalks) {
+            if (!groupWalk.matches(fieldMap)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean matches(FieldMap fieldMap) {
+        return firstFailure(fieldMap) < 0;
+    }
+
+    /**
+     * @return position of the first failed expectation or -1 if all of them match
+     */
+    int firstFailure(FieldMap fieldMap) {
+        // hasGroup(tag) doesn't register an empty group list in the message as getGroups(tag) would
+        List<quickfix.Group> entries = fieldMap.hasGroup(groupTag) ? fieldMap.getGroups(groupTag) : Collections.<quickfix.Group>emptyList();
+        int entryCount = entries.size();
+        int[] counts = null;
+        if (this.counts != null) {
+            counts = this.counts.get();
+            Arrays.fill(counts, 0);
+        }
+
+        long undecided = allExpectations;
+        for (int entryIndex = 0; entryIndex < entryCount && undecided != 0; entryIndex++) {
+            quickfix.Group entry = entries.get(entryIndex);
+            for (int i = 0; i < expectations.length; i++) {
+                long bit = 1L << i;
+                if ((undecided & bit) == 0) {
+                    continue;
+                }
+                Expectation expectation = expectations[i];
+                switch (expectation.quantifier) {
+                    case INDEX:
+                        if (expectation.index == entryIndex + 1) {
+                            if (!expectation.matchesEntry(entry)) {
+                                return i;
+                            }
+                            undecided &= ~bit;
+                        }
+                        break;
+                    case ANY:
+                        if (expectation.matchesEntry(entry)) {
+                            undecided &= ~bit;
+                        }
+                        break;
+                    case ALL:
+                        if (!expectation.matchesEntry(entry)) {
+                            return i;
+                        }
+                        break;
+                    case NONE:
+                        if (expectation.matchesEntry(entry)) {
+                            return i;
+                        }
+                        break;
+                    case COUNT:
+                        if (expectation.matchesEntry(entry) && ++counts[i] > expectation.count) {
+                            return i;
+                        }
+                        break;
+                }
+            }
+        }
+
+        // expectations not decided by any entry
+        for (int i = 0; i < expectations.length; i++) {
+            if ((undecided & (1L << i)) == 0) {
+                continue;
+            }
+            Expectation expectation = expectations[i];
+            switch (expectation.quantifier) {
+                case INDEX:
+                case ANY:
+                    return i;
+                case ALL:
+                    if (entryCount == 0) {
+                        return i;
+                    }
+                    break;
+                case NONE:
+                    break;
+                case COUNT:
+                    if (counts[i] != expectation.count) {
+                        return i;
+                    }
+                    break;
+            }
+        }
+        return -1;
+    }
+
+    String describe(int expectationIndex) {
+        return expectations[expectationIndex].describe();
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Expectation {
+
+        private final Group.Quantifier quantifier;
+        private final int index;
+        private final int count;
+        private final FieldCheck[] fieldChecks;
+        private final GroupWalk[] nestedWalks;
+        // described only when a message fails the expectation, as formatting is much more expensive than compiling
+        private final Group group;
+        private volatile String description;
+
+        Expectation(Group group) {
+            this.quantifier = group.getQuantifier();
+            this.index = group.getGroupId().getIndex();
+            this.count = group.getCount();
+            this.fieldChecks = FieldCheck.fieldChecks(group.getFieldValues());
+            this.nestedWalks = groupWalks(group.getNestedGroups());
+            this.group = group.copy();
+        }
+
+        String describe() {
+            String description = this.description;
+            if (description == null) {
+                description = group.describe();
+                this.description = description;
+            }
+            return description;
+        }
+
+        boolean matchesEntry(FieldMap entry) {
+            return FieldCheck.matchesAll(entry, fieldChecks) && matchesAll(entry, nestedWalks);
+        }
+    }
+}
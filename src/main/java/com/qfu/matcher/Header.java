@@ -1,5 +1,6 @@
 package com.qfu.matcher;
 
+import quickfix.DataDictionary;
 import quickfix.Field;
 
 import java.util.ArrayList;
@@ -12,18 +13,32 @@ import java.util.List;
 public class Header {
 
     private final List<FieldValue> fieldValues = new ArrayList<FieldValue>();
+    // null if no data dictionary is used
+    private FieldTypeResolver typeResolver;
 
     public static Header header() {
         return new Header();
     }
 
-    public Header with(Field field) {
-        fieldValues.add(new FieldValue(field.getTag(), field.getObject()));
+    /**
+     * validates the header fields (added so far and later on) against the data dictionary and converts their values
+     * into the field types (see {@link FIXMessageMatcher#using(DataDictionary)})
+     */
+    public Header using(DataDictionary dataDictionary) {
+        typeResolver = new FieldTypeResolver(dataDictionary);
+        for (int i = 0; i < fieldValues.size(); i++) {
+            fieldValues.set(i, typeResolver.resolveHeaderField(fieldValues.get(i)));
+        }
         return this;
     }
 
+    public Header with(Field field) {
+        return with(field.getTag(), field.getObject());
+    }
+
     public Header with(int fieldId, Object value) {
-        fieldValues.add(new FieldValue(fieldId, value));
+        FieldValue fieldValue = new FieldValue(fieldId, value);
+        fieldValues.add(typeResolver != null ? typeResolver.resolveHeaderField(fieldValue) : fieldValue);
         return this;
     }
 
@@ -0,0 +1,55 @@
+package com.qfu.matcher;
+
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeMatcher;
+import quickfix.Message;
+
+/**
+ * Immutable snapshot of a {@link FIXMessageMatcher} created by {@link FIXMessageMatcher#build()}.
+ * <p>
+ * Messages are matched by the array backed {@link CompiledFIXMessageMatcher} of the snapshot and its description is
+ * rendered up front, so all of its state is final and the matcher can be published to and evaluated by any number of
+ * threads (e.g. session threads of a {@code ThreadedSocketAcceptor}) without copying or locking. Changes of the
+ * builder after {@code build()} are not reflected.
+ * <p>
+ * Mismatches describe the first failed expectation (see {@link MatchResult}).
+ *
+ * @author agent
+ * @since 10/18/26 9:54 AM
+ */
+public final class ImmutableFIXMessageMatcher extends TypeSafeMatcher<Message> {
+
+    private final CompiledFIXMessageMatcher compiledMatcher;
+    private final String description;
+
+    ImmutableFIXMessageMatcher(CompiledFIXMessageMatcher compiledMatcher, String description) {
+        // explicit expected type spares the reflective lookup of TypeSafeMatcher
+        super(Message.class);
+        this.compiledMatcher = compiledMatcher;
+        this.description = description;
+    }
+
+    public CompiledFIXMessageMatcher getCompiledMatcher() {
+        return compiledMatcher;
+    }
+
+    @Override
+    protected boolean matchesSafely(Message message) {
+        return compiledMatcher.matches(message);
+    }
+
+    @Override
+    public void describeTo(Description description) {
+        description.appendText(this.description);
+    }
+
+    @Override
+    protected void describeMismatchSafely(Message message, Description description) {
+        // own result, the thread's shared one may be in use by the caller
+        MatchResult result = compiledMatcher.evaluate(message, new MatchResult());
+        if (result.matches() || result.getLocation() != MatchResult.Location.TYPE) {
+            description.appendText("was a message ");
+        }
+        result.describeTo(description);
+    }
+}
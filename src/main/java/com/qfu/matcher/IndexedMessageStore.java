@@ -0,0 +1,433 @@
+package com.qfu.matcher;
+
+import quickfix.FieldMap;
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * In-memory store of messages able to find all messages matching a {@link FIXMessageMatcher} without evaluating each
+ * one of them.
+ * <p>
+ * The store keeps an inverted index (value &rarr; ascending ids of messages having it) for each of the configured tags
+ * (a header field for header tags, a body field otherwise) and for the message class. A query uses the equality
+ * expectations of the matcher (String, char, int, boolean or one of such values) on indexed fields and its expected
+ * message type to intersect the ids of the candidates, starting with the smallest list. Only these candidates are then
+ * fully evaluated (using the compiled matcher), so the result is the same as evaluating every message one by one.
+ * A matcher without any usable expectation is evaluated against all messages.
+ * <p>
+ * Messages are indexed when they are added and should not be modified afterwards.
+ *
+ * @author agent
+ * @since 10/18/26 10:09 AM
+ */
+public final class IndexedMessageStore {
+
+    private static final IdList NO_IDS = new IdList(new int[0], 0);
+
+    // guarded by this
+    private Message[] messages = new Message[1024];
+    private int size;
+    private final Map<Integer, TagIndex> tagIndexes = new LinkedHashMap<Integer, TagIndex>();
+    private final Map<Class<?>, PostingList> idsByType = new HashMap<Class<?>, PostingList>();
+
+    /**
+     * @param indexedTags tags of the fields to index
+     */
+    public IndexedMessageStore(int... indexedTags) {
+        for (int tag : indexedTags) {
+            if (tag <= 0) {
+                throw new IllegalArgumentException(format("invalid tag %d", tag));
+            }
+            tagIndexes.put(tag, new TagIndex(FIXTags.isHeaderTag(tag), tag));
+        }
+    }
+
+    /**
+     * @return id of the message (its position within the added messages)
+     */
+    public synchronized int add(Message message) {
+        if (size == messages.length) {
+            // replaced (not changed) so that queries can keep evaluating the previous array
+            messages = Arrays.copyOf(messages, size * 2);
+        }
+        int id = size;
+        messages[id] = message;
+        for (TagIndex tagIndex : tagIndexes.values()) {
+            tagIndex.add(message, id);
+        }
+        postingListOf(idsByType, message.getClass()).add(id);
+        size++;
+        return id;
+    }
+
+    public synchronized void addAll(Collection<? extends Message> messages) {
+        for (Message message : messages) {
+            add(message);
+        }
+    }
+
+    public synchronized Message get(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException(format("no message with id %d, store size is %d", id, size));
+        }
+        return messages[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return messages that match the matcher, in the order they were added
+     */
+    public List<Message> findAll(FIXMessageMatcher matcher) {
+        Query query = plan(matcher);
+        List<Message> result = new ArrayList<Message>();
+        for (int i = 0; i < query.candidateCount(); i++) {
+            Message message = query.messages[query.candidateId(i)];
+            if (query.compiledMatcher.matches(message)) {
+                result.add(message);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return ids of messages that match the matcher, in ascending order
+     */
+    public int[] findMatchingIds(FIXMessageMatcher matcher) {
+        Query query = plan(matcher);
+        int[] result = new int[16];
+        int count = 0;
+        for (int i = 0; i < query.candidateCount(); i++) {
+            int id = query.candidateId(i);
+            if (query.compiledMatcher.matches(query.messages[id])) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @return ids of messages the index can't rule out, null if all messages have to be evaluated
+     */
+    synchronized int[] findCandidateIds(FIXMessageMatcher matcher) {
+        IdList candidates = findCandidates(matcher);
+        return candidates != null ? Arrays.copyOf(candidates.ids, candidates.length) : null;
+    }
+
+    /**
+     * @return for each message the number of the matcher's expectations usable by the index that the message satisfies
+     */
+    synchronized IndexedScores indexedScores(FIXMessageMatcher matcher) {
+        List<IdList> postings = postingsOf(matcher);
+        int[] scores = new int[size];
+        for (IdList ids : postings) {
+            for (int i = 0; i < ids.length; i++) {
+                scores[ids.ids[i]]++;
+            }
+        }
+        return new IndexedScores(messages, size, scores, postings.size());
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private Query plan(FIXMessageMatcher matcher) {
+        // compiled outside of the lock
+        CompiledFIXMessageMatcher compiledMatcher = matcher.compile();
+        synchronized (this) {
+            return new Query(compiledMatcher, messages, size, findCandidates(matcher));
+        }
+    }
+
+    private IdList findCandidates(FIXMessageMatcher matcher) {
+        List<IdList> postings = postingsOf(matcher);
+        if (postings.isEmpty()) {
+            return null;
+        }
+
+        // the smallest lists first, so that the intermediate results stay small
+        Collections.sort(postings, new Comparator<IdList>() {
+            @Override
+            public int compare(IdList ids1, IdList ids2) {
+                return ids1.length < ids2.length ? -1 : (ids1.length == ids2.length ? 0 : 1);
+            }
+        });
+        IdList candidates = postings.get(0);
+        for (int i = 1; i < postings.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, postings.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * @return ids of messages satisfying each expectation usable by the index
+     */
+    private List<IdList> postingsOf(FIXMessageMatcher matcher) {
+        List<IdList> postings = new ArrayList<IdList>();
+        if (matcher.getMessageType() != null && matcher.getMessageType() != Message.class) {
+            postings.add(idsOfType(matcher.getMessageType()));
+        }
+        for (FieldValue fieldValue : matcher.getHeaderFieldValues()) {
+            addPostings(true, fieldValue, postings);
+        }
+        for (FieldValue fieldValue : matcher.getFieldValues()) {
+            addPostings(false, fieldValue, postings);
+        }
+        return postings;
+    }
+
+    private void addPostings(boolean header, FieldValue fieldValue, List<IdList> postings) {
+        TagIndex tagIndex = tagIndexes.get(fieldValue.getFieldId());
+        if (tagIndex == null || tagIndex.header != header) {
+            return;
+        }
+        Object value = fieldValue.getValue();
+        if (value instanceof OneOf) {
+            List<Object> values = ((OneOf) value).getValues();
+            List<IdList> alternatives = new ArrayList<IdList>(values.size());
+            for (Object alternative : values) {
+                String key = keyOf(alternative);
+                if (key == null) {
+                    // any message could match this alternative
+                    return;
+                }
+                alternatives.add(tagIndex.idsOf(key));
+            }
+            postings.add(union(alternatives));
+        } else {
+            String key = keyOf(value);
+            if (key != null) {
+                postings.add(tagIndex.idsOf(key));
+            }
+        }
+    }
+
+    /**
+     * @return ids of messages of the type or its subtypes
+     */
+    private IdList idsOfType(Class<?> messageType) {
+        List<IdList> postings = new ArrayList<IdList>();
+        for (Map.Entry<Class<?>, PostingList> entry : idsByType.entrySet()) {
+            if (messageType.isAssignableFrom(entry.getKey())) {
+                postings.add(entry.getValue().view());
+            }
+        }
+        return union(postings);
+    }
+
+    // raw field value an expected value can match (ints are matched by their canonical form)
+    private static String keyOf(Object value) {
+        if (value instanceof String || value instanceof Character || value instanceof Integer) {
+            return value.toString();
+        } else if (value instanceof Boolean) {
+            return ((Boolean) value) ? "Y" : "N";
+        }
+        return null;
+    }
+
+    private static <K> PostingList postingListOf(Map<K, PostingList> postingLists, K key) {
+        PostingList postingList = postingLists.get(key);
+        if (postingList == null) {
+            postingList = new PostingList();
+            postingLists.put(key, postingList);
+        }
+        return postingList;
+    }
+
+    /**
+     * intersection of two ascending lists - each id of the smaller one is searched for in the rest of the bigger one
+     * with an exponential search, so a small list is intersected with a huge one in O(small * log(huge / small))
+     */
+    private static IdList intersect(IdList smaller, IdList bigger) {
+        int[] result = new int[smaller.length];
+        int count = 0;
+        int from = 0;
+        for (int i = 0; i < smaller.length && from < bigger.length; i++) {
+            int id = smaller.ids[i];
+            int bound = 1;
+            while (from + bound < bigger.length && bigger.ids[from + bound] < id) {
+                bound <<= 1;
+            }
+            int index = Arrays.binarySearch(bigger.ids, from, Math.min(from + bound + 1, bigger.length), id);
+            if (index >= 0) {
+                result[count++] = id;
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+        }
+        return new IdList(result, count);
+    }
+
+    /**
+     * union of ascending lists with distinct ids
+     */
+    private static IdList union(List<IdList> postings) {
+        if (postings.isEmpty()) {
+            return NO_IDS;
+        } else if (postings.size() == 1) {
+            return postings.get(0);
+        }
+        int length = 0;
+        for (IdList ids : postings) {
+            length += ids.length;
+        }
+        int[] result = new int[length];
+        int count = 0;
+        for (IdList ids : postings) {
+            System.arraycopy(ids.ids, 0, result, count, ids.length);
+            count += ids.length;
+        }
+        Arrays.sort(result);
+        // the same id is present in more lists if a message has a non canonical int value (e.g. "007" and "7")
+        int distinctCount = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinctCount++] = result[i];
+            }
+        }
+        return new IdList(result, distinctCount);
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * ids of messages by the value of one header or body field
+     */
+    private static final class TagIndex {
+
+        private final boolean header;
+        private final int tag;
+        private final Map<String, PostingList> idsByValue = new HashMap<String, PostingList>();
+
+        TagIndex(boolean header, int tag) {
+            this.header = header;
+            this.tag = tag;
+        }
+
+        void add(Message message, int id) {
+            FieldMap fieldMap = header ? message.getHeader() : message;
+            String value = FieldLookup.getString(fieldMap, tag);
+            if (value == null) {
+                return;
+            }
+            postingListOf(idsByValue, value).add(id);
+
+            // int expectations match also non canonical values like "007"
+            long intValue = ValueParser.parseInt(value);
+            if (intValue != ValueParser.INVALID) {
+                String canonicalValue = Long.toString(intValue);
+                if (!canonicalValue.equals(value)) {
+                    postingListOf(idsByValue, canonicalValue).add(id);
+                }
+            }
+        }
+
+        IdList idsOf(String value) {
+            PostingList postingList = idsByValue.get(value);
+            return postingList != null ? postingList.view() : NO_IDS;
+        }
+    }
+
+    /**
+     * ascending ids of messages
+     */
+    private static final class PostingList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * ids added later are stored beyond the view or into a new array, so the view is never changed
+         */
+        IdList view() {
+            return new IdList(ids, size);
+        }
+    }
+
+    /**
+     * the first length ids of the array
+     */
+    private static final class IdList {
+
+        private final int[] ids;
+        private final int length;
+
+        IdList(int[] ids, int length) {
+            this.ids = ids;
+            this.length = length;
+        }
+    }
+
+    /**
+     * messages with the number of indexed expectations each of them satisfies
+     */
+    static final class IndexedScores {
+
+        final Message[] messages;
+        final int size;
+        final int[] scores;
+        // number of expectations resolved by the index
+        final int indexedCount;
+
+        IndexedScores(Message[] messages, int size, int[] scores, int indexedCount) {
+            this.messages = messages;
+            this.size = size;
+            this.scores = scores;
+            this.indexedCount = indexedCount;
+        }
+    }
+
+    /**
+     * candidates of a query, evaluated outside of the lock
+     */
+    private static final class Query {
+
+        private final CompiledFIXMessageMatcher compiledMatcher;
+        private final Message[] messages;
+        private final int size;
+        // null if all messages are candidates
+        private final IdList candidateIds;
+
+        Query(CompiledFIXMessageMatcher compiledMatcher, Message[] messages, int size, IdList candidateIds) {
+            this.compiledMatcher = compiledMatcher;
+            this.messages = messages;
+            this.size = size;
+            this.candidateIds = candidateIds;
+        }
+
+        int candidateCount() {
+            return candidateIds != null ? candidateIds.length : size;
+        }
+
+        int candidateId(int index) {
+            return candidateIds != null ? candidateIds.ids[index] : index;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.qfu.matcher;
+
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+
+/**
+ * Outcome of {@link CompiledFIXMessageMatcher#evaluate(quickfix.Message)} - whether the message matched and if not,
+ * which expectation failed first.
+ * <p>
+ * The result is mutable and reused by subsequent evaluations (see {@link CompiledFIXMessageMatcher#evaluate(quickfix.Message)}),
+ * use {@link #copy()} to keep it. Recording a result doesn't allocate, text is rendered only when asked for.
+ *
+ * @author agent
+ * @since 10/18/26 9:06 AM
+ */
+public final class MatchResult {
+
+    public enum Location {
+        TYPE, HEADER, BODY, GROUP
+    }
+
+    private boolean matches;
+    private Location location;
+    private int fieldId;
+    private int groupIndex;
+    private int groupTag;
+    private Object expectedValue;
+    private Object actualValue;
+
+    public MatchResult() {
+        reset();
+    }
+
+    public boolean matches() {
+        return matches;
+    }
+
+    /**
+     * @return where the failed expectation is or null if the message matched
+     */
+    public Location getLocation() {
+        return location;
+    }
+
+    /**
+     * @return tag of the failed field or 0 if the type didn't match or the group entry is missing
+     */
+    public int getFieldId() {
+        return fieldId;
+    }
+
+    /**
+     * @return index (starting with 1) of the group entry the failed expectation belongs to or 0 if not an indexed group expectation
+     */
+    public int getGroupIndex() {
+        return groupIndex;
+    }
+
+    /**
+     * @return tag of the group the failed expectation belongs to or 0 if not a group expectation
+     */
+    public int getGroupTag() {
+        return groupTag;
+    }
+
+    /**
+     * @return expected value of the failed field, the expected message type or description of the failed group quantifier
+     */
+    public Object getExpectedValue() {
+        return expectedValue;
+    }
+
+    /**
+     * @return raw value of the failed field (null if undefined), or the actual message type
+     */
+    public Object getActualValue() {
+        return actualValue;
+    }
+
+    public MatchResult copy() {
+        MatchResult copy = new MatchResult();
+        copy.matches = matches;
+        copy.location = location;
+        copy.fieldId = fieldId;
+        copy.groupIndex = groupIndex;
+        copy.groupTag = groupTag;
+        copy.expectedValue = expectedValue;
+        copy.actualValue = actualValue;
+        return copy;
+    }
+
+    public void describeTo(Description description) {
+        if (matches) {
+            description.appendText("matched");
+            return;
+        }
+        switch (location) {
+            case TYPE:
+                description.appendText("was a message of Type '")
+                        .appendText(((Class<?>) actualValue).getSimpleName())
+                        .appendText("' instead of '")
+                        .appendText(((Class<?>) expectedValue).getSimpleName())
+                        .appendText("'");
+                return;
+            case HEADER:
+                description.appendText("with header value ");
+                break;
+            case BODY:
+                description.appendText("with value ");
+                break;
+            case GROUP:
+                if (groupIndex == 0) {
+                    // quantified or nested group expectation
+                    description.appendText("with group ").appendText(String.valueOf(groupTag))
+                            .appendText(" not matching ").appendText(String.valueOf(expectedValue));
+                    return;
+                }
+                description.appendText("with ").appendText(String.valueOf(groupIndex)).appendText(". group ").appendText(String.valueOf(groupTag));
+                if (fieldId == 0) {
+                    description.appendText(" missing");
+                    return;
+                }
+                description.appendText(" value ");
+                break;
+        }
+        if (actualValue == null) {
+            description.appendText(fieldId + " is undefined");
+        } else {
+            description.appendText(FieldValue.toString(fieldId, actualValue));
+        }
+        description.appendText(" instead of ").appendText(FieldValue.toString(fieldId, expectedValue));
+    }
+
+    @Override
+    public String toString() {
+        Description description = new StringDescription();
+        describeTo(description);
+        return description.toString();
+    }
+
+    void reset() {
+        matches = true;
+        location = null;
+        fieldId = 0;
+        groupIndex = 0;
+        groupTag = 0;
+        expectedValue = null;
+        actualValue = null;
+    }
+
+    void typeMismatch(Class<?> expectedType, Class<?> actualType) {
+        matches = false;
+        location = Location.TYPE;
+        expectedValue = expectedType;
+        actualValue = actualType;
+    }
+
+    void fieldMismatch(Location location, int fieldId, Object expectedValue, String actualValue) {
+        this.matches = false;
+        this.location = location;
+        this.fieldId = fieldId;
+        this.expectedValue = expectedValue;
+        this.actualValue = actualValue;
+    }
+
+    /**
+     * @param fieldId 0 if the whole group entry is missing
+     */
+    void groupMismatch(int groupIndex, int groupTag, int fieldId, Object expectedValue, String actualValue) {
+        fieldMismatch(Location.GROUP, fieldId, expectedValue, actualValue);
+        this.groupIndex = groupIndex;
+        this.groupTag = groupTag;
+    }
+}
@@ -0,0 +1,108 @@
+package com.qfu.matcher;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Bounded cache of compiled matchers keyed by structural equality of the {@link FIXMessageMatcher}s.
+ * <p>
+ * Structurally equal matchers (the same type and expected values, in the same order) share one compiled instance,
+ * so rebuilding the same expectation over and over again compiles it only once. Compiled matchers are immutable
+ * snapshots and can be shared across threads. The least recently used matcher is evicted once the cache is full.
+ *
+ * @author agent
+ * @since 10/18/26 9:12 AM
+ */
+public final class MatcherCache {
+
+    private final int maxSize;
+    // guarded by this
+    private final LinkedHashMap<FIXMessageMatcher, CompiledFIXMessageMatcher> compiledMatchers;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public MatcherCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(format("invalid cache size %d", maxSize));
+        }
+        this.maxSize = maxSize;
+        this.compiledMatchers = new LinkedHashMap<FIXMessageMatcher, CompiledFIXMessageMatcher>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FIXMessageMatcher, CompiledFIXMessageMatcher> eldest) {
+                if (size() > maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return compiled matcher shared by all structurally equal matchers (see {@link FIXMessageMatcher#compile()})
+     */
+    public CompiledFIXMessageMatcher compile(FIXMessageMatcher matcher) {
+        synchronized (this) {
+            CompiledFIXMessageMatcher compiledMatcher = compiledMatchers.get(matcher);
+            if (compiledMatcher != null) {
+                hitCount++;
+                return compiledMatcher;
+            }
+            missCount++;
+        }
+
+        // the key is a copy, so that later changes of the passed matcher can't corrupt the cache
+        FIXMessageMatcher key = matcher.copy();
+        CompiledFIXMessageMatcher compiledMatcher = key.compile();
+        synchronized (this) {
+            // another thread might have compiled the same matcher in the meantime
+            CompiledFIXMessageMatcher existing = compiledMatchers.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            compiledMatchers.put(key, compiledMatcher);
+            return compiledMatcher;
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int size() {
+        return compiledMatchers.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return ratio of lookups that found an already compiled matcher (0 if there were no lookups yet)
+     */
+    public synchronized double getHitRate() {
+        long lookupCount = hitCount + missCount;
+        return lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount;
+    }
+
+    public synchronized void clear() {
+        compiledMatchers.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format("MatcherCache{size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d}",
+                compiledMatchers.size(), maxSize, hitCount, missCount, evictionCount);
+    }
+}
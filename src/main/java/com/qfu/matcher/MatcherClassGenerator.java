@@ -0,0 +1,525 @@
+package com.qfu.matcher;
+
+import quickfix.Message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a dedicated class for the checks of a compiled matcher, see {@link FIXMessageMatcher#compileSpecialized()}.
+ * <p>
+ * The generated {@code matches} method is a straight-line sequence of field lookups, each followed by a comparison
+ * with the expected value inlined as a constant (String, char, boolean and int values, doubles) or by a call of the
+ * check held in a final field of the class (other value types, group checks). Each matcher so gets its own call sites,
+ * which stay monomorphic no matter how many different matchers run through the application, and the JIT can inline
+ * and optimize each of them independently. The price is a compiled method per matcher (see SpecializedMatcherBenchmark).
+ * <p>
+ * Classes are defined with the bytecode written here (no external compiler or bytecode library) as hidden classes
+ * (Java 15+), which are unloaded together with their matcher. Ordinary classes would stay in the class loader of this
+ * library for good, so each compiled matcher would leak its class - on older runtimes or when the
+ * {@value #ENABLED_PROPERTY} system property is {@code false} nothing is generated and the interpreted checks are used.
+ *
+ * @author agent
+ * @since 10/18/26 9:51 AM
+ */
+final class MatcherClassGenerator {
+
+    static final String ENABLED_PROPERTY = "qfu.matcher.generateClasses";
+
+    private static final String GENERATED_CLASS_NAME = "com/qfu/matcher/GeneratedMatcher";
+    private static final String SUPER_CLASS_NAME = "com/qfu/matcher/MatcherClassGenerator$GeneratedMatcher";
+    private static final String FIELD_CHECK = "com/qfu/matcher/FieldCheck";
+    private static final String GROUP_CHECK = "com/qfu/matcher/GroupCheck";
+    private static final String GROUP_WALK = "com/qfu/matcher/GroupWalk";
+
+    // class file of Java 5 - its methods need no stack map frames
+    private static final int CLASS_VERSION = 49;
+    // conditional branches have 16 bit offsets
+    private static final int MAX_CODE_LENGTH = Short.MAX_VALUE;
+    // constant pool strings are limited to 65535 bytes (up to 3 bytes per char)
+    private static final int MAX_INLINED_STRING_LENGTH = 0xFFFF / 3;
+
+    private static final AtomicLong CLASS_COUNTER = new AtomicLong();
+    private static final ClassDefiner CLASS_DEFINER = classDefiner();
+
+    private MatcherClassGenerator() {
+    }
+
+    static boolean isSupported() {
+        return CLASS_DEFINER != null && !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * @return instance of the generated class or null if classes can't be generated
+     */
+    static GeneratedMatcher generate(Class<? extends Message> messageType, FieldCheck[] headerChecks, FieldCheck[] bodyChecks, GroupCheck[] groupChecks, GroupWalk[] groupWalks) {
+        if (!isSupported()) {
+            return null;
+        }
+        ClassWriter writer = new ClassWriter(GENERATED_CLASS_NAME + CLASS_COUNTER.incrementAndGet());
+        if (!writer.writeMatches(messageType, headerChecks, bodyChecks, groupChecks, groupWalks)) {
+            return null;
+        }
+        try {
+            Class<?> generatedClass = CLASS_DEFINER.define(writer.toBytes());
+            return (GeneratedMatcher) generatedClass.getConstructor(Object[].class).newInstance((Object) writer.constants());
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("unable to create generated matcher", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("unable to create generated matcher", e);
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static ClassDefiner classDefiner() {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            // Java 15+ (only hidden classes can be unloaded before their class loader)
+            Class<?> classOptionType = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            final Method defineHiddenClass = MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, Array.newInstance(classOptionType, 0).getClass());
+            final Method lookupClass = MethodHandles.Lookup.class.getMethod("lookupClass");
+            final Object noOptions = Array.newInstance(classOptionType, 0);
+            return new ClassDefiner() {
+                @Override
+                Class<?> define(byte[] bytes) throws ReflectiveOperationException {
+                    Object hiddenClassLookup = defineHiddenClass.invoke(lookup, bytes, true, noOptions);
+                    return (Class<?>) lookupClass.invoke(hiddenClassLookup);
+                }
+            };
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * Super class of the generated matchers.
+     */
+    abstract static class GeneratedMatcher {
+
+        abstract boolean matches(Message message);
+    }
+
+    private abstract static class ClassDefiner {
+
+        abstract Class<?> define(byte[] bytes) throws ReflectiveOperationException;
+    }
+
+    /**
+     * Writes a class file with a constructor taking the constants (stored into final fields) and the matches method.
+     */
+    private static final class ClassWriter {
+
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_PRIVATE = 0x0002;
+        private static final int ACC_FINAL = 0x0010;
+        private static final int ACC_SUPER = 0x0020;
+
+        private static final int ICONST_0 = 0x03;
+        private static final int ICONST_1 = 0x04;
+        private static final int LDC_W = 0x13;
+        private static final int LDC2_W = 0x14;
+        private static final int ALOAD_0 = 0x2a;
+        private static final int ALOAD_1 = 0x2b;
+        private static final int ALOAD_2 = 0x2c;
+        private static final int ALOAD_3 = 0x2d;
+        private static final int AALOAD = 0x32;
+        private static final int ASTORE_2 = 0x4d;
+        private static final int ASTORE_3 = 0x4e;
+        private static final int LCMP = 0x94;
+        private static final int DCMPL = 0x97;
+        private static final int IFEQ = 0x99;
+        private static final int IFNE = 0x9a;
+        private static final int IF_ICMPNE = 0xa0;
+        private static final int IRETURN = 0xac;
+        private static final int RETURN = 0xb1;
+        private static final int GETFIELD = 0xb4;
+        private static final int PUTFIELD = 0xb5;
+        private static final int INVOKEVIRTUAL = 0xb6;
+        private static final int INVOKESPECIAL = 0xb7;
+        private static final int INVOKESTATIC = 0xb8;
+        private static final int CHECKCAST = 0xc0;
+        private static final int IFNULL = 0xc6;
+
+        private final String className;
+        private final ByteArrayOutputStream constantPool = new ByteArrayOutputStream();
+        private final Map<String, Integer> constantIndexes = new HashMap<String, Integer>();
+        private int constantCount = 1;
+
+        private final List<String> fieldNames = new ArrayList<String>();
+        private final List<String> fieldDescriptors = new ArrayList<String>();
+        private final List<Object> fieldValues = new ArrayList<Object>();
+
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        // positions of branch offsets to the "return false" instruction
+        private final List<Integer> falseBranches = new ArrayList<Integer>();
+
+        ClassWriter(String className) {
+            this.className = className;
+        }
+
+        /**
+         * @return false if the method would be too long
+         */
+        boolean writeMatches(Class<? extends Message> messageType, FieldCheck[] headerChecks, FieldCheck[] bodyChecks, GroupCheck[] groupChecks, GroupWalk[] groupWalks) {
+            // same order as the interpreted evaluation: type, body, header, groups
+            if (messageType != null) {
+                loadField("messageType", "Ljava/lang/Class;", messageType);
+                op(ALOAD_1);
+                invoke(INVOKEVIRTUAL, "java/lang/Class", "isInstance", "(Ljava/lang/Object;)Z");
+                branchToFalse(IFEQ);
+            }
+            for (FieldCheck bodyCheck : bodyChecks) {
+                writeFieldCheck(ALOAD_1, bodyCheck);
+            }
+            if (headerChecks.length > 0) {
+                op(ALOAD_1);
+                invoke(INVOKEVIRTUAL, "quickfix/Message", "getHeader", "()Lquickfix/Message$Header;");
+                op(ASTORE_3);
+                for (FieldCheck headerCheck : headerChecks) {
+                    writeFieldCheck(ALOAD_3, headerCheck);
+                }
+            }
+            for (GroupCheck groupCheck : groupChecks) {
+                loadField("groupCheck" + fieldNames.size(), "L" + GROUP_CHECK + ";", groupCheck);
+                op(ALOAD_1);
+                invoke(INVOKEVIRTUAL, GROUP_CHECK, "matches", "(Lquickfix/FieldMap;)Z");
+                branchToFalse(IFEQ);
+            }
+            if (groupWalks.length > 0) {
+                op(ALOAD_1);
+                loadField("groupWalks", "[L" + GROUP_WALK + ";", groupWalks);
+                invoke(INVOKESTATIC, GROUP_WALK, "matchesAll", "(Lquickfix/FieldMap;[L" + GROUP_WALK + ";)Z");
+                branchToFalse(IFEQ);
+            }
+            op(ICONST_1);
+            op(IRETURN);
+            int falsePosition = code.size();
+            op(ICONST_0);
+            op(IRETURN);
+            if (code.size() > MAX_CODE_LENGTH) {
+                return false;
+            }
+            byte[] bytes = code.toByteArray();
+            for (int branchPosition : falseBranches) {
+                int offset = falsePosition - (branchPosition - 1);
+                bytes[branchPosition] = (byte) (offset >> 8);
+                bytes[branchPosition + 1] = (byte) offset;
+            }
+            code.reset();
+            code.write(bytes, 0, bytes.length);
+            return true;
+        }
+
+        Object[] constants() {
+            return fieldValues.toArray();
+        }
+
+        byte[] toBytes() {
+            try {
+                int superClassIndex = classConstant(SUPER_CLASS_NAME);
+                int thisClassIndex = classConstant(className);
+                int codeAttributeIndex = utf8Constant("Code");
+                byte[] constructor = constructorCode();
+                int constructorNameIndex = utf8Constant("<init>");
+                int constructorDescriptorIndex = utf8Constant("([Ljava/lang/Object;)V");
+                int matchesNameIndex = utf8Constant("matches");
+                int matchesDescriptorIndex = utf8Constant("(Lquickfix/Message;)Z");
+                int[] fieldNameIndexes = new int[fieldNames.size()];
+                int[] fieldDescriptorIndexes = new int[fieldNames.size()];
+                for (int i = 0; i < fieldNameIndexes.length; i++) {
+                    fieldNameIndexes[i] = utf8Constant(fieldNames.get(i));
+                    fieldDescriptorIndexes[i] = utf8Constant(fieldDescriptors.get(i));
+                }
+
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(CLASS_VERSION);
+                out.writeShort(constantCount);
+                constantPool.writeTo(out);
+                out.writeShort(ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClassIndex);
+                out.writeShort(superClassIndex);
+                out.writeShort(0); // interfaces
+                out.writeShort(fieldNameIndexes.length);
+                for (int i = 0; i < fieldNameIndexes.length; i++) {
+                    out.writeShort(ACC_PRIVATE | ACC_FINAL);
+                    out.writeShort(fieldNameIndexes[i]);
+                    out.writeShort(fieldDescriptorIndexes[i]);
+                    out.writeShort(0); // attributes
+                }
+                out.writeShort(2);
+                writeMethod(out, ACC_PUBLIC, constructorNameIndex, constructorDescriptorIndex, codeAttributeIndex, 4, 2, constructor);
+                writeMethod(out, 0, matchesNameIndex, matchesDescriptorIndex, codeAttributeIndex, 6, 4, code.toByteArray());
+                out.writeShort(0); // attributes
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /* --- code --- */
+
+        /**
+         * looks up the raw field value into local variable 2 and compares it with the expected value
+         */
+        private void writeFieldCheck(int loadFieldMap, FieldCheck fieldCheck) {
+            op(loadFieldMap);
+            ldc(intConstant(fieldCheck.fieldId));
+            invoke(INVOKESTATIC, "com/qfu/matcher/FieldLookup", "getString", "(Lquickfix/FieldMap;I)Ljava/lang/String;");
+            op(ASTORE_2);
+            op(ALOAD_2);
+            branchToFalse(IFNULL);
+
+            Object expectedValue = fieldCheck.getExpectedValue();
+            if (expectedValue instanceof String && ((String) expectedValue).length() <= MAX_INLINED_STRING_LENGTH) {
+                ldc(stringConstant((String) expectedValue));
+                op(ALOAD_2);
+                invoke(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z");
+                branchToFalse(IFEQ);
+            } else if (expectedValue instanceof Character || expectedValue instanceof Boolean) {
+                char expectedChar = expectedValue instanceof Character
+                        ? (Character) expectedValue
+                        : ((Boolean) expectedValue ? 'Y' : 'N');
+                op(ALOAD_2);
+                invoke(INVOKEVIRTUAL, "java/lang/String", "length", "()I");
+                op(ICONST_1);
+                branchToFalse(IF_ICMPNE);
+                op(ALOAD_2);
+                op(ICONST_0);
+                invoke(INVOKEVIRTUAL, "java/lang/String", "charAt", "(I)C");
+                ldc(intConstant(expectedChar));
+                branchToFalse(IF_ICMPNE);
+            } else if (expectedValue instanceof Integer) {
+                // ValueParser.INVALID is out of the int range, so it never equals the expected value
+                op(ALOAD_2);
+                invoke(INVOKESTATIC, "com/qfu/matcher/ValueParser", "parseInt", "(Ljava/lang/String;)J");
+                ldc2(longConstant((Integer) expectedValue));
+                op(LCMP);
+                branchToFalse(IFNE);
+            } else if (expectedValue instanceof Double) {
+                // NaN of an unparseable value compares as not equal
+                op(ALOAD_2);
+                invoke(INVOKESTATIC, "com/qfu/matcher/ValueParser", "parseDouble", "(Ljava/lang/String;)D");
+                ldc2(doubleConstant((Double) expectedValue));
+                op(DCMPL);
+                branchToFalse(IFNE);
+            } else {
+                loadField("fieldCheck" + fieldNames.size(), "L" + FIELD_CHECK + ";", fieldCheck);
+                op(ALOAD_2);
+                invoke(INVOKEVIRTUAL, FIELD_CHECK, "matches", "(Ljava/lang/String;)Z");
+                branchToFalse(IFEQ);
+            }
+        }
+
+        /**
+         * adds a final field initialized by the constructor and loads it
+         */
+        private void loadField(String name, String descriptor, Object value) {
+            fieldNames.add(name);
+            fieldDescriptors.add(descriptor);
+            fieldValues.add(value);
+            op(ALOAD_0);
+            op(GETFIELD);
+            u2(fieldConstant(name, descriptor));
+        }
+
+        private byte[] constructorCode() {
+            ByteArrayOutputStream matchesCode = new ByteArrayOutputStream();
+            matchesCode.write(code.toByteArray(), 0, code.size());
+            code.reset();
+            op(ALOAD_0);
+            invoke(INVOKESPECIAL, SUPER_CLASS_NAME, "<init>", "()V");
+            for (int i = 0; i < fieldNames.size(); i++) {
+                String descriptor = fieldDescriptors.get(i);
+                op(ALOAD_0);
+                op(ALOAD_1);
+                ldc(intConstant(i));
+                op(AALOAD);
+                op(CHECKCAST);
+                u2(classConstant(descriptor.startsWith("L") ? descriptor.substring(1, descriptor.length() - 1) : descriptor));
+                op(PUTFIELD);
+                u2(fieldConstant(fieldNames.get(i), descriptor));
+            }
+            op(RETURN);
+            byte[] constructor = code.toByteArray();
+            code.reset();
+            code.write(matchesCode.toByteArray(), 0, matchesCode.size());
+            return constructor;
+        }
+
+        private void branchToFalse(int opcode) {
+            op(opcode);
+            falseBranches.add(code.size());
+            u2(0);
+        }
+
+        private void invoke(int opcode, String owner, String name, String descriptor) {
+            op(opcode);
+            u2(methodConstant(owner, name, descriptor));
+        }
+
+        private void ldc(int constantIndex) {
+            op(LDC_W);
+            u2(constantIndex);
+        }
+
+        private void ldc2(int constantIndex) {
+            op(LDC2_W);
+            u2(constantIndex);
+        }
+
+        private void op(int opcode) {
+            code.write(opcode);
+        }
+
+        private void u2(int value) {
+            code.write(value >> 8);
+            code.write(value);
+        }
+
+        private static void writeMethod(DataOutputStream out, int access, int nameIndex, int descriptorIndex, int codeAttributeIndex, int maxStack, int maxLocals, byte[] code) throws IOException {
+            out.writeShort(access);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            out.writeShort(1);
+            out.writeShort(codeAttributeIndex);
+            out.writeInt(12 + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0); // exception table
+            out.writeShort(0); // attributes
+        }
+
+        /* --- constant pool --- */
+
+        private int utf8Constant(String value) {
+            Integer index = constantIndexes.get("U" + value);
+            if (index == null) {
+                index = addConstant("U" + value, 1);
+                try {
+                    new DataOutputStream(constantPool).writeUTF(value);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return index;
+        }
+
+        private int classConstant(String internalName) {
+            return refConstant("C" + internalName, 7, utf8Constant(internalName));
+        }
+
+        private int stringConstant(String value) {
+            return refConstant("S" + value, 8, utf8Constant(value));
+        }
+
+        private int intConstant(int value) {
+            Integer index = constantIndexes.get("I" + value);
+            if (index == null) {
+                index = addConstant("I" + value, 3);
+                writeConstantBytes(value, 4);
+            }
+            return index;
+        }
+
+        private int longConstant(long value) {
+            Integer index = constantIndexes.get("J" + value);
+            if (index == null) {
+                index = addConstant("J" + value, 5);
+                writeConstantBytes(value, 8);
+                // takes two entries
+                constantCount++;
+            }
+            return index;
+        }
+
+        private int doubleConstant(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            Integer index = constantIndexes.get("D" + bits);
+            if (index == null) {
+                index = addConstant("D" + bits, 6);
+                writeConstantBytes(bits, 8);
+                // takes two entries
+                constantCount++;
+            }
+            return index;
+        }
+
+        private int fieldConstant(String name, String descriptor) {
+            return memberConstant(9, className, name, descriptor);
+        }
+
+        private int methodConstant(String owner, String name, String descriptor) {
+            return memberConstant(10, owner, name, descriptor);
+        }
+
+        private int memberConstant(int tag, String owner, String name, String descriptor) {
+            String key = "M" + tag + owner + "." + name + descriptor;
+            Integer index = constantIndexes.get(key);
+            if (index == null) {
+                int ownerIndex = classConstant(owner);
+                int nameAndTypeIndex = nameAndTypeConstant(name, descriptor);
+                index = addConstant(key, tag);
+                writeConstantBytes(ownerIndex, 2);
+                writeConstantBytes(nameAndTypeIndex, 2);
+            }
+            return index;
+        }
+
+        private int nameAndTypeConstant(String name, String descriptor) {
+            String key = "N" + name + descriptor;
+            Integer index = constantIndexes.get(key);
+            if (index == null) {
+                int nameIndex = utf8Constant(name);
+                int descriptorIndex = utf8Constant(descriptor);
+                index = addConstant(key, 12);
+                writeConstantBytes(nameIndex, 2);
+                writeConstantBytes(descriptorIndex, 2);
+            }
+            return index;
+        }
+
+        private int refConstant(String key, int tag, int utf8Index) {
+            Integer index = constantIndexes.get(key);
+            if (index == null) {
+                index = addConstant(key, tag);
+                writeConstantBytes(utf8Index, 2);
+            }
+            return index;
+        }
+
+        private int addConstant(String key, int tag) {
+            int index = constantCount++;
+            constantIndexes.put(key, index);
+            constantPool.write(tag);
+            return index;
+        }
+
+        private void writeConstantBytes(long value, int byteCount) {
+            for (int shift = (byteCount - 1) * 8; shift >= 0; shift -= 8) {
+                constantPool.write((int) (value >> shift));
+            }
+        }
+    }
+}
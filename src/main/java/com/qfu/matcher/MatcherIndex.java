@@ -0,0 +1,337 @@
+package com.qfu.matcher;
+
+import quickfix.FieldMap;
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of many {@link FIXMessageMatcher}s able to find all matchers matching a message
+ * without evaluating each one of them.
+ * <p>
+ * Matchers are bucketed by their expected message type and then by their most selective header or body
+ * equality expectation (String, char, int or boolean value) - the one shared with the fewest other matchers.
+ * Looking up a message touches only the buckets of its type (and super types) and the buckets of its actual
+ * field values. Only these candidates are then fully evaluated (using their compiled form), so the result is the same
+ * as evaluating every matcher one by one.
+ *
+ * @author agent
+ * @since 10/18/26 8:47 AM
+ */
+public final class MatcherIndex {
+
+    private static final int[] NO_RULES = new int[0];
+
+    private final FIXMessageMatcher[] matchers;
+    private final CompiledFIXMessageMatcher[] compiledMatchers;
+    private final Map<Class<?>, TypeBucket> typeBuckets;
+    private final TypeBucket anyTypeBucket;
+
+    public MatcherIndex(Collection<FIXMessageMatcher> matchers) {
+        this.matchers = matchers.toArray(new FIXMessageMatcher[matchers.size()]);
+        this.compiledMatchers = new CompiledFIXMessageMatcher[this.matchers.length];
+
+        Map<Class<?>, List<Integer>> rulesByType = new LinkedHashMap<Class<?>, List<Integer>>();
+        for (int ruleId = 0; ruleId < this.matchers.length; ruleId++) {
+            FIXMessageMatcher matcher = this.matchers[ruleId];
+            compiledMatchers[ruleId] = matcher.compile();
+
+            Class<?> messageType = matcher.getMessageType();
+            List<Integer> ruleIds = rulesByType.get(messageType);
+            if (ruleIds == null) {
+                ruleIds = new ArrayList<Integer>();
+                rulesByType.put(messageType, ruleIds);
+            }
+            ruleIds.add(ruleId);
+        }
+
+        TypeBucket anyTypeBucket = null;
+        this.typeBuckets = new HashMap<Class<?>, TypeBucket>();
+        for (Map.Entry<Class<?>, List<Integer>> entry : rulesByType.entrySet()) {
+            TypeBucket bucket = new TypeBucket(this.matchers, entry.getValue());
+            if (entry.getKey() == null) {
+                anyTypeBucket = bucket;
+            } else {
+                typeBuckets.put(entry.getKey(), bucket);
+            }
+        }
+        this.anyTypeBucket = anyTypeBucket;
+    }
+
+    public int size() {
+        return matchers.length;
+    }
+
+    /**
+     * @return matchers that match the message, in the order they were passed into this index
+     */
+    public List<FIXMessageMatcher> findMatching(Message message) {
+        int[] ruleIds = findMatchingIndexes(message);
+        List<FIXMessageMatcher> result = new ArrayList<FIXMessageMatcher>(ruleIds.length);
+        for (int ruleId : ruleIds) {
+            result.add(matchers[ruleId]);
+        }
+        return result;
+    }
+
+    /**
+     * @return positions (in the collection passed into this index) of matchers that match the message, in ascending order
+     */
+    public int[] findMatchingIndexes(Message message) {
+        Candidates candidates = new Candidates();
+        if (anyTypeBucket != null) {
+            anyTypeBucket.collectCandidates(message, candidates);
+        }
+        if (!typeBuckets.isEmpty()) {
+            for (Class<?> type = message.getClass(); type != null; type = type.getSuperclass()) {
+                TypeBucket bucket = typeBuckets.get(type);
+                if (bucket != null) {
+                    bucket.collectCandidates(message, candidates);
+                }
+            }
+        }
+
+        int[] ruleIds = candidates.ruleIds;
+        int count = candidates.count;
+        Arrays.sort(ruleIds, 0, count);
+        int matchCount = 0;
+        for (int i = 0; i < count; i++) {
+            int ruleId = ruleIds[i];
+            if (compiledMatchers[ruleId].matches(message)) {
+                ruleIds[matchCount++] = ruleId;
+            }
+        }
+        return Arrays.copyOf(ruleIds, matchCount);
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * rules of one message type, each one indexed by one of its equality expectations (if it has any)
+     */
+    private static final class TypeBucket {
+
+        private final AnchorTable[] anchorTables;
+        private final int[] unanchoredRules;
+
+        TypeBucket(FIXMessageMatcher[] matchers, List<Integer> ruleIds) {
+            // how many rules share the same expected value
+            Map<AnchorKey, Integer> valueFrequency = new HashMap<AnchorKey, Integer>();
+            // how many rules have an equality expectation on the same field
+            Map<AnchorKey, Integer> fieldFrequency = new HashMap<AnchorKey, Integer>();
+            for (int ruleId : ruleIds) {
+                for (AnchorKey key : anchorKeys(matchers[ruleId])) {
+                    increment(valueFrequency, key);
+                    increment(fieldFrequency, key.fieldKey());
+                }
+            }
+
+            Map<AnchorKey, AnchorTable> tables = new LinkedHashMap<AnchorKey, AnchorTable>();
+            List<Integer> unanchored = new ArrayList<Integer>();
+            for (int ruleId : ruleIds) {
+                AnchorKey best = null;
+                for (AnchorKey key : anchorKeys(matchers[ruleId])) {
+                    if (best == null || isMoreSelective(key, best, valueFrequency, fieldFrequency)) {
+                        best = key;
+                    }
+                }
+                if (best == null) {
+                    unanchored.add(ruleId);
+                } else {
+                    AnchorKey fieldKey = best.fieldKey();
+                    AnchorTable table = tables.get(fieldKey);
+                    if (table == null) {
+                        table = new AnchorTable(best.header, best.fieldId);
+                        tables.put(fieldKey, table);
+                    }
+                    table.add(best, ruleId);
+                }
+            }
+
+            this.anchorTables = tables.values().toArray(new AnchorTable[tables.size()]);
+            for (AnchorTable table : anchorTables) {
+                table.freeze();
+            }
+            this.unanchoredRules = toArray(unanchored);
+        }
+
+        void collectCandidates(Message message, Candidates candidates) {
+            candidates.addAll(unanchoredRules);
+            for (AnchorTable table : anchorTables) {
+                table.collectCandidates(message, candidates);
+            }
+        }
+
+        private static boolean isMoreSelective(AnchorKey key, AnchorKey best, Map<AnchorKey, Integer> valueFrequency, Map<AnchorKey, Integer> fieldFrequency) {
+            int frequency = valueFrequency.get(key);
+            int bestFrequency = valueFrequency.get(best);
+            if (frequency != bestFrequency) {
+                return frequency < bestFrequency;
+            }
+            // prefer fields that are used by more rules, so that fewer fields are looked up per message
+            return fieldFrequency.get(key.fieldKey()) > fieldFrequency.get(best.fieldKey());
+        }
+
+        private static List<AnchorKey> anchorKeys(FIXMessageMatcher matcher) {
+            List<AnchorKey> keys = new ArrayList<AnchorKey>();
+            for (FieldValue fieldValue : matcher.getHeaderFieldValues()) {
+                String key = keyOf(fieldValue.getValue());
+                if (key != null) {
+                    keys.add(new AnchorKey(true, fieldValue.getFieldId(), key, fieldValue.getValue() instanceof Integer));
+                }
+            }
+            for (FieldValue fieldValue : matcher.getFieldValues()) {
+                String key = keyOf(fieldValue.getValue());
+                if (key != null) {
+                    keys.add(new AnchorKey(false, fieldValue.getFieldId(), key, fieldValue.getValue() instanceof Integer));
+                }
+            }
+            return keys;
+        }
+
+        // raw field value an expected value can match (ints are normalized during lookup)
+        private static String keyOf(Object value) {
+            if (value instanceof String || value instanceof Character || value instanceof Integer) {
+                return value.toString();
+            } else if (value instanceof Boolean) {
+                return ((Boolean) value) ? "Y" : "N";
+            }
+            return null;
+        }
+
+        private static void increment(Map<AnchorKey, Integer> counts, AnchorKey key) {
+            Integer count = counts.get(key);
+            counts.put(key, count == null ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * rules indexed by the expected value of one header or body field
+     */
+    private static final class AnchorTable {
+
+        private final boolean header;
+        private final int fieldId;
+        private final Map<String, List<Integer>> building = new HashMap<String, List<Integer>>();
+        private final Map<String, int[]> rulesByValue = new HashMap<String, int[]>();
+        private boolean hasIntKeys;
+
+        AnchorTable(boolean header, int fieldId) {
+            this.header = header;
+            this.fieldId = fieldId;
+        }
+
+        void add(AnchorKey key, int ruleId) {
+            List<Integer> ruleIds = building.get(key.value);
+            if (ruleIds == null) {
+                ruleIds = new ArrayList<Integer>();
+                building.put(key.value, ruleIds);
+            }
+            ruleIds.add(ruleId);
+            hasIntKeys |= key.intValue;
+        }
+
+        void freeze() {
+            for (Map.Entry<String, List<Integer>> entry : building.entrySet()) {
+                rulesByValue.put(entry.getKey(), toArray(entry.getValue()));
+            }
+            building.clear();
+        }
+
+        void collectCandidates(Message message, Candidates candidates) {
+            FieldMap fieldMap = header ? message.getHeader() : message;
+            String value = FieldLookup.getString(fieldMap, fieldId);
+            if (value == null) {
+                return;
+            }
+            int[] ruleIds = rulesByValue.get(value);
+            candidates.addAll(ruleIds != null ? ruleIds : NO_RULES);
+
+            if (hasIntKeys) {
+                // int expectations match also non canonical values like "007"
+                long intValue = ValueParser.parseInt(value);
+                if (intValue != ValueParser.INVALID) {
+                    String canonicalValue = Long.toString(intValue);
+                    if (!canonicalValue.equals(value)) {
+                        ruleIds = rulesByValue.get(canonicalValue);
+                        candidates.addAll(ruleIds != null ? ruleIds : NO_RULES);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class AnchorKey {
+
+        private final boolean header;
+        private final int fieldId;
+        private final String value;
+        private final boolean intValue;
+
+        AnchorKey(boolean header, int fieldId, String value, boolean intValue) {
+            this.header = header;
+            this.fieldId = fieldId;
+            this.value = value;
+            this.intValue = intValue;
+        }
+
+        AnchorKey fieldKey() {
+            return new AnchorKey(header, fieldId, null, false);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            AnchorKey that = (AnchorKey) o;
+
+            if (header != that.header) return false;
+            if (fieldId != that.fieldId) return false;
+            if (value != null ? !value.equals(that.value) : that.value != null) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = header ? 1 : 0;
+            result = 31 * result + fieldId;
+            result = 31 * result + (value != null ? value.hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * ids of rules to evaluate, a rule can be present only once as it is indexed only once
+     */
+    private static final class Candidates {
+
+        private int[] ruleIds = new int[16];
+        private int count;
+
+        void addAll(int[] newRuleIds) {
+            if (count + newRuleIds.length > ruleIds.length) {
+                ruleIds = Arrays.copyOf(ruleIds, Math.max(ruleIds.length * 2, count + newRuleIds.length));
+            }
+            System.arraycopy(newRuleIds, 0, ruleIds, count, newRuleIds.length);
+            count += newRuleIds.length;
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
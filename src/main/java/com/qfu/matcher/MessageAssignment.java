@@ -0,0 +1,257 @@
+package com.qfu.matcher;
+
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assignment of messages to expectations, each expectation to a different message matching it, with as many
+ * expectations assigned as possible (maximum bipartite matching).
+ * <p>
+ * Candidate messages of each expectation are found through a {@link MatcherIndex} (bucketed by message type and key
+ * fields), so not every pair is evaluated. Structurally equal expectations are merged into one with a multiplicity,
+ * so many repeated expectations don't multiply the candidate edges. The assignment itself is a maximum flow
+ * (source - expectation - message - sink) found by Dinic's algorithm, which needs O(E * sqrt(V)) steps on such graphs.
+ *
+ * @author agent
+ * @since 10/18/26 9:25 AM
+ */
+final class MessageAssignment {
+
+    private static final int UNASSIGNED = -1;
+
+    // message assigned to each expectation or UNASSIGNED
+    private final int[] messageOfExpectation;
+    // expectation assigned to each message or UNASSIGNED
+    private final int[] expectationOfMessage;
+
+    private MessageAssignment(int[] messageOfExpectation, int[] expectationOfMessage) {
+        this.messageOfExpectation = messageOfExpectation;
+        this.expectationOfMessage = expectationOfMessage;
+    }
+
+    static MessageAssignment assign(List<FIXMessageMatcher> expectations, List<? extends Message> messages) {
+        return assign(new Expectations(expectations), messages);
+    }
+
+    /**
+     * @param expectations expectations prepared once for many assignments
+     */
+    static MessageAssignment assign(Expectations expectations, List<? extends Message> messages) {
+        List<List<Integer>> distinctExpectations = expectations.distinctExpectations;
+        MatcherIndex index = expectations.index;
+
+        int distinctCount = distinctExpectations.size();
+        int messageCount = messages.size();
+        FlowNetwork network = new FlowNetwork(distinctCount + messageCount + 2);
+        int source = distinctCount + messageCount;
+        int sink = source + 1;
+
+        for (int d = 0; d < distinctCount; d++) {
+            network.addEdge(source, d, distinctExpectations.get(d).size());
+        }
+        for (int m = 0; m < messageCount; m++) {
+            int messageNode = distinctCount + m;
+            int[] matching = index.findMatchingIndexes(messages.get(m));
+            for (int d : matching) {
+                network.addEdge(d, messageNode, 1);
+            }
+            if (matching.length > 0) {
+                network.addEdge(messageNode, sink, 1);
+            }
+        }
+        network.maxFlow(source, sink);
+
+        int[] messageOfExpectation = new int[expectations.size];
+        int[] expectationOfMessage = new int[messageCount];
+        Arrays.fill(messageOfExpectation, UNASSIGNED);
+        Arrays.fill(expectationOfMessage, UNASSIGNED);
+        for (int d = 0; d < distinctCount; d++) {
+            List<Integer> sameExpectations = distinctExpectations.get(d);
+            int next = 0;
+            for (int edge = network.head[d]; edge != -1; edge = network.next[edge]) {
+                int node = network.to[edge];
+                // forward edges into messages with the flow used
+                if (node >= distinctCount && node < source && network.capacity[edge] == 0 && (edge & 1) == 0) {
+                    int expectation = sameExpectations.get(next++);
+                    messageOfExpectation[expectation] = node - distinctCount;
+                    expectationOfMessage[node - distinctCount] = expectation;
+                }
+            }
+        }
+        return new MessageAssignment(messageOfExpectation, expectationOfMessage);
+    }
+
+    /**
+     * @return positions of expectations without an assigned message
+     */
+    List<Integer> unassignedExpectations() {
+        return unassigned(messageOfExpectation);
+    }
+
+    /**
+     * @return positions of messages without an assigned expectation
+     */
+    List<Integer> unassignedMessages() {
+        return unassigned(expectationOfMessage);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static List<Integer> unassigned(int[] assignment) {
+        List<Integer> unassigned = new ArrayList<Integer>();
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] == UNASSIGNED) {
+                unassigned.add(i);
+            }
+        }
+        return unassigned;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * Expectations merged by structural equality and indexed, so that they can be assigned to many message lists.
+     */
+    static final class Expectations {
+
+        private final int size;
+        // positions of the structurally equal expectations, in the order of the index
+        private final List<List<Integer>> distinctExpectations;
+        private final MatcherIndex index;
+
+        Expectations(List<FIXMessageMatcher> expectations) {
+            // structurally equal expectations share one node
+            Map<FIXMessageMatcher, List<Integer>> expectationsByMatcher = new LinkedHashMap<FIXMessageMatcher, List<Integer>>();
+            for (int i = 0; i < expectations.size(); i++) {
+                List<Integer> sameExpectations = expectationsByMatcher.get(expectations.get(i));
+                if (sameExpectations == null) {
+                    sameExpectations = new ArrayList<Integer>();
+                    expectationsByMatcher.put(expectations.get(i), sameExpectations);
+                }
+                sameExpectations.add(i);
+            }
+            this.size = expectations.size();
+            this.distinctExpectations = new ArrayList<List<Integer>>(expectationsByMatcher.values());
+            this.index = new MatcherIndex(expectationsByMatcher.keySet());
+        }
+    }
+
+    /**
+     * Dinic's maximum flow over edge arrays (edge e and its residual edge e ^ 1), with iterative depth first search,
+     * so long augmenting paths don't overflow the stack.
+     */
+    private static final class FlowNetwork {
+
+        private final int nodeCount;
+        private final int[] head;
+        private int[] next = new int[16];
+        private int[] to = new int[16];
+        private int[] capacity = new int[16];
+        private int edgeCount;
+
+        FlowNetwork(int nodeCount) {
+            this.nodeCount = nodeCount;
+            this.head = new int[nodeCount];
+            Arrays.fill(head, -1);
+        }
+
+        /**
+         * @return id of the added edge (always even, its residual edge is the next odd one)
+         */
+        int addEdge(int from, int toNode, int edgeCapacity) {
+            if (edgeCount + 2 > to.length) {
+                next = Arrays.copyOf(next, to.length * 2);
+                capacity = Arrays.copyOf(capacity, to.length * 2);
+                to = Arrays.copyOf(to, to.length * 2);
+            }
+            int edge = edgeCount;
+            add(from, toNode, edgeCapacity);
+            add(toNode, from, 0);
+            return edge;
+        }
+
+        long maxFlow(int source, int sink) {
+            int[] level = new int[nodeCount];
+            int[] queue = new int[nodeCount];
+            int[] current = new int[nodeCount];
+            // nodes and edges of the current path
+            int[] pathEdges = new int[nodeCount];
+            long flow = 0;
+            while (buildLevels(source, sink, level, queue)) {
+                System.arraycopy(head, 0, current, 0, nodeCount);
+                int depth = 0;
+                int node = source;
+                while (true) {
+                    if (node == sink) {
+                        int bottleneck = Integer.MAX_VALUE;
+                        for (int i = 0; i < depth; i++) {
+                            bottleneck = Math.min(bottleneck, capacity[pathEdges[i]]);
+                        }
+                        for (int i = 0; i < depth; i++) {
+                            capacity[pathEdges[i]] -= bottleneck;
+                            capacity[pathEdges[i] ^ 1] += bottleneck;
+                        }
+                        flow += bottleneck;
+                        // continue from the source, saturated edges are skipped
+                        depth = 0;
+                        node = source;
+                        continue;
+                    }
+                    int edge = current[node];
+                    while (edge != -1 && (capacity[edge] == 0 || level[to[edge]] != level[node] + 1)) {
+                        edge = next[edge];
+                    }
+                    current[node] = edge;
+                    if (edge != -1) {
+                        pathEdges[depth++] = edge;
+                        node = to[edge];
+                    } else if (node == source) {
+                        break;
+                    } else {
+                        // dead end, retreat and skip the edge into it
+                        level[node] = -1;
+                        int previousEdge = pathEdges[--depth];
+                        node = to[previousEdge ^ 1];
+                        current[node] = next[current[node]];
+                    }
+                }
+            }
+            return flow;
+        }
+
+        private boolean buildLevels(int source, int sink, int[] level, int[] queue) {
+            Arrays.fill(level, -1);
+            level[source] = 0;
+            int queueStart = 0;
+            int queueEnd = 0;
+            queue[queueEnd++] = source;
+            while (queueStart < queueEnd) {
+                int node = queue[queueStart++];
+                for (int edge = head[node]; edge != -1; edge = next[edge]) {
+                    if (capacity[edge] > 0 && level[to[edge]] < 0) {
+                        level[to[edge]] = level[node] + 1;
+                        queue[queueEnd++] = to[edge];
+                    }
+                }
+            }
+            return level[sink] >= 0;
+        }
+
+        private void add(int from, int toNode, int edgeCapacity) {
+            to[edgeCount] = toNode;
+            capacity[edgeCount] = edgeCapacity;
+            next[edgeCount] = head[from];
+            head[from] = edgeCount;
+            edgeCount++;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.qfu.matcher;
+
+import org.hamcrest.Description;
+import org.hamcrest.StringDescription;
+import quickfix.Message;
+
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Message found by {@link NearMissFinder} together with the expectations it doesn't satisfy.
+ *
+ * @author agent
+ * @since 10/18/26 10:12 AM
+ */
+public final class NearMiss {
+
+    private final int position;
+    private final Message message;
+    private final int satisfiedCount;
+    private final int expectationCount;
+    private final List<MatchResult> mismatches;
+
+    NearMiss(int position, Message message, int satisfiedCount, int expectationCount, List<MatchResult> mismatches) {
+        this.position = position;
+        this.message = message;
+        this.satisfiedCount = satisfiedCount;
+        this.expectationCount = expectationCount;
+        this.mismatches = Collections.unmodifiableList(mismatches);
+    }
+
+    /**
+     * @return position of the message within the searched messages (or its id within the {@link IndexedMessageStore})
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    public int getSatisfiedCount() {
+        return satisfiedCount;
+    }
+
+    public int getExpectationCount() {
+        return expectationCount;
+    }
+
+    /**
+     * @return one result for each failed expectation, empty if the message matches
+     */
+    public List<MatchResult> getMismatches() {
+        return mismatches;
+    }
+
+    public void describeTo(Description description) {
+        description.appendText(format("message %d satisfying %d of %d expectations", position, satisfiedCount, expectationCount));
+        for (int i = 0; i < mismatches.size(); i++) {
+            description.appendText(i == 0 ? ": " : ", ");
+            mismatches.get(i).describeTo(description);
+        }
+    }
+
+    @Override
+    public String toString() {
+        Description description = new StringDescription();
+        describeTo(description);
+        return description.toString();
+    }
+}
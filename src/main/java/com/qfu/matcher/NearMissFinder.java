@@ -0,0 +1,138 @@
+package com.qfu.matcher;
+
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static java.lang.String.format;
+
+/**
+ * Finds the messages closest to a {@link FIXMessageMatcher} - the ones satisfying most of its expectations (message
+ * type, header, body and group fields, group quantifiers and nested groups, see {@link NearMiss}), e.g. to explain
+ * why an expected message was not found among many captured ones. Closer messages come first.
+ * <p>
+ * Messages of a collection are all evaluated, equally close ones are returned in the order they are in the collection.
+ * Messages of an {@link IndexedMessageStore} are evaluated starting with those satisfying most of the indexed
+ * expectations (message type and indexed fields), counted using the index, and the search stops once the remaining
+ * messages can't get closer than the ones found - so equally close messages satisfying more indexed expectations are
+ * preferred, then the ones added earlier.
+ *
+ * @author agent
+ * @since 10/18/26 10:12 AM
+ */
+public final class NearMissFinder {
+
+    // the worst (furthest and latest) near miss first
+    private static final Comparator<Candidate> WORST_FIRST = new Comparator<Candidate>() {
+        @Override
+        public int compare(Candidate candidate1, Candidate candidate2) {
+            if (candidate1.satisfiedCount != candidate2.satisfiedCount) {
+                return candidate1.satisfiedCount < candidate2.satisfiedCount ? -1 : 1;
+            }
+            return candidate1.position > candidate2.position ? -1 : (candidate1.position == candidate2.position ? 0 : 1);
+        }
+    };
+
+    private final int maxResults;
+
+    /**
+     * @param maxResults maximum number of returned messages
+     */
+    public NearMissFinder(int maxResults) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException(format("invalid max number of results %d", maxResults));
+        }
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * @return closest messages, the closest first
+     */
+    public List<NearMiss> findClosest(FIXMessageMatcher matcher, Collection<? extends Message> messages) {
+        CompiledFIXMessageMatcher compiledMatcher = matcher.compile();
+        PriorityQueue<Candidate> closest = new PriorityQueue<Candidate>(maxResults + 1, WORST_FIRST);
+        int position = 0;
+        for (Message message : messages) {
+            offer(closest, position++, message, compiledMatcher.evaluateAll(message, null));
+        }
+        return toNearMisses(closest, compiledMatcher);
+    }
+
+    /**
+     * @return closest messages, the closest first
+     */
+    public List<NearMiss> findClosest(FIXMessageMatcher matcher, IndexedMessageStore store) {
+        CompiledFIXMessageMatcher compiledMatcher = matcher.compile();
+        IndexedMessageStore.IndexedScores indexedScores = store.indexedScores(matcher);
+        int[] scores = indexedScores.scores;
+        int unindexedCount = compiledMatcher.expectationCount() - indexedScores.indexedCount;
+
+        PriorityQueue<Candidate> closest = new PriorityQueue<Candidate>(maxResults + 1, WORST_FIRST);
+        for (int score = indexedScores.indexedCount; score >= 0; score--) {
+            // no message with this score can satisfy more expectations than this
+            int bestPossible = score + unindexedCount;
+            if (closest.size() == maxResults && closest.peek().satisfiedCount >= bestPossible) {
+                break;
+            }
+            for (int id = 0; id < indexedScores.size; id++) {
+                if (scores[id] == score) {
+                    Message message = indexedScores.messages[id];
+                    offer(closest, id, message, compiledMatcher.evaluateAll(message, null));
+                }
+            }
+        }
+        return toNearMisses(closest, compiledMatcher);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void offer(PriorityQueue<Candidate> closest, int position, Message message, int satisfiedCount) {
+        if (closest.size() < maxResults) {
+            closest.add(new Candidate(position, message, satisfiedCount));
+            return;
+        }
+        Candidate worst = closest.peek();
+        if (satisfiedCount > worst.satisfiedCount || (satisfiedCount == worst.satisfiedCount && position < worst.position)) {
+            closest.poll();
+            closest.add(new Candidate(position, message, satisfiedCount));
+        }
+    }
+
+    private static List<NearMiss> toNearMisses(PriorityQueue<Candidate> closest, CompiledFIXMessageMatcher compiledMatcher) {
+        List<Candidate> candidates = new ArrayList<Candidate>(closest);
+        Collections.sort(candidates, Collections.reverseOrder(WORST_FIRST));
+        int expectationCount = compiledMatcher.expectationCount();
+        List<NearMiss> nearMisses = new ArrayList<NearMiss>(candidates.size());
+        for (Candidate candidate : candidates) {
+            // mismatches are described only for the returned messages
+            List<MatchResult> mismatches = new ArrayList<MatchResult>();
+            compiledMatcher.evaluateAll(candidate.message, mismatches);
+            nearMisses.add(new NearMiss(candidate.position, candidate.message, candidate.satisfiedCount, expectationCount, mismatches));
+        }
+        return nearMisses;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Candidate {
+
+        private final int position;
+        private final Message message;
+        private final int satisfiedCount;
+
+        Candidate(int position, Message message, int satisfiedCount) {
+            this.position = position;
+            this.message = message;
+            this.satisfiedCount = satisfiedCount;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.qfu.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Expected value matching a field with any of the given values, e.g. OrdStatus filled or partially filled:
+ * <pre>
+ *     isFIXMessage().with(OrdStatus.FIELD, oneOf(OrdStatus.FILLED, OrdStatus.PARTIALLY_FILLED))
+ * </pre>
+ * The values can be of any type supported by {@link FIXMessageMatcher#with(int, Object)}.
+ *
+ * @author agent
+ * @since 10/18/26 9:39 AM
+ */
+public final class OneOf {
+
+    private final List<Object> values;
+
+    private OneOf(List<Object> values) {
+        this.values = Collections.unmodifiableList(values);
+    }
+
+    public static OneOf oneOf(Object... values) {
+        return oneOf(Arrays.asList(values));
+    }
+
+    public static OneOf oneOf(List<?> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("at least one value is expected");
+        }
+        for (Object value : values) {
+            if (value == null || value instanceof OneOf) {
+                throw new IllegalArgumentException(format("invalid value %s", value));
+            }
+        }
+        return new OneOf(new ArrayList<Object>(values));
+    }
+
+    List<Object> getValues() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        OneOf oneOf = (OneOf) o;
+
+        if (!values.equals(oneOf.values)) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return format("one of %s", values);
+    }
+}
@@ -0,0 +1,426 @@
+package com.qfu.matcher;
+
+import quickfix.Message;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static java.lang.String.format;
+
+/**
+ * Evaluates compiled expectations directly against a raw tag=value SOH delimited FIX message.
+ * <p>
+ * The message is scanned only until all expectations are resolved (or one of them fails) and values are compared
+ * in their encoded byte form. Fields are assigned to the header while they are header fields (as QuickFIX/J parser does)
+ * and the body ends with the first trailer field.
+ * <p>
+ * With the group layout of the message type (known from a data dictionary) fields are assigned to repeating group
+ * entries as QuickFIX/J parser does: the entries are delimited by the delimiter field of the group and the group ends
+ * with the first field that is not a field of its entries. Body expectations are resolved only against body fields and
+ * the result is the same as of matching the parsed message.
+ * <p>
+ * Without the layout a field of a group entry can't be told from a body field (the same tag can occur in both), so the
+ * scan is only a prefilter: an expectation is resolved by any occurrence of its field having the expected value and
+ * fails only if there is none. A group entry is delimited by the first field following the group counter field and
+ * the last entry spans until the end of the body. The prefilter never rejects a message the parsed one would match.
+ *
+ * @author agent
+ * @since 10/18/26 8:45 AM
+ */
+final class RawMessageScanner {
+
+    private static final ThreadLocal<ScanState> SCAN_STATE = new ThreadLocal<ScanState>() {
+        @Override
+        protected ScanState initialValue() {
+            return new ScanState();
+        }
+    };
+
+    private static final int WAITING_FOR_COUNTER = 0;
+    private static final int WAITING_FOR_DELIMITER = 1;
+    private static final int IN_GROUP = 2;
+    private static final int DONE = 3;
+
+    private final String unsupportedReason;
+    // null if the scan gives the same result as matching the parsed message
+    private final String prefilterOnlyReason;
+    // sorted tags of the groups of the message type and the sorted tags of their entries, null if not known
+    private final int[] bodyGroupTags;
+    private final int[][] bodyGroupEntryTags;
+    private final CheckTable headerTable;
+    private final CheckTable bodyTable;
+    private final int[] groupIndexes;
+    private final int[] groupTags;
+    private final int[] groupPresenceSlots;
+    private final int[] groupDelimiterTags;
+    private final int[][] groupEntryTags;
+    private final CheckTable[] groupTables;
+    private final int slotCount;
+    private final boolean neverMatches;
+
+    /**
+     * @param bodyGroups tags that can occur in the entries of each group of the message type by the group tag,
+     *                   null if not known
+     */
+    RawMessageScanner(Class<? extends Message> messageType, FieldCheck[] headerChecks, FieldCheck[] bodyChecks, GroupCheck[] groupChecks, SortedMap<Integer, int[]> bodyGroups) {
+        String beginString = null;
+        String msgType = null;
+        if (messageType != null) {
+            beginString = FIXTags.beginStringOf(messageType);
+            msgType = FIXTags.msgTypeOf(messageType);
+        }
+        if (messageType != null && messageType != Message.class && beginString == null && msgType == null) {
+            unsupportedReason = format("unable to resolve BeginString or MsgType of message type %s", messageType.getName());
+        } else {
+            unsupportedReason = null;
+        }
+        if (bodyGroups != null) {
+            bodyGroupTags = new int[bodyGroups.size()];
+            bodyGroupEntryTags = new int[bodyGroups.size()][];
+            int i = 0;
+            for (Map.Entry<Integer, int[]> bodyGroup : bodyGroups.entrySet()) {
+                bodyGroupTags[i] = bodyGroup.getKey();
+                bodyGroupEntryTags[i++] = bodyGroup.getValue();
+            }
+            prefilterOnlyReason = null;
+        } else {
+            bodyGroupTags = null;
+            bodyGroupEntryTags = null;
+            prefilterOnlyReason = (bodyChecks.length > 0 || groupChecks.length > 0)
+                    ? "fields of repeating groups can't be told from body fields of raw messages without a data dictionary and message type, use mayMatch(ByteBuffer) to prefilter them"
+                    : null;
+        }
+
+        FieldCheck[] allHeaderChecks = headerChecks;
+        if (beginString != null) {
+            allHeaderChecks = prepend(FieldCheck.fieldCheck(new FieldValue(FIXTags.BEGIN_STRING, beginString)), allHeaderChecks);
+        }
+        if (msgType != null) {
+            allHeaderChecks = prepend(FieldCheck.fieldCheck(new FieldValue(FIXTags.MSG_TYPE, msgType)), allHeaderChecks);
+        }
+
+        int slot = 0;
+        headerTable = new CheckTable(allHeaderChecks, slot);
+        slot += allHeaderChecks.length;
+        bodyTable = new CheckTable(bodyChecks, slot);
+        slot += bodyChecks.length;
+
+        groupIndexes = new int[groupChecks.length];
+        groupTags = new int[groupChecks.length];
+        groupPresenceSlots = new int[groupChecks.length];
+        groupDelimiterTags = new int[groupChecks.length];
+        groupEntryTags = new int[groupChecks.length][];
+        groupTables = new CheckTable[groupChecks.length];
+        for (int i = 0; i < groupChecks.length; i++) {
+            groupIndexes[i] = groupChecks[i].index;
+            groupTags[i] = groupChecks[i].groupTag;
+            groupPresenceSlots[i] = slot++;
+            groupDelimiterTags[i] = groupChecks[i].delimiterTag;
+            groupEntryTags[i] = groupChecks[i].entryTags;
+            groupTables[i] = new CheckTable(groupChecks[i].fieldChecks, slot);
+            slot += groupChecks[i].fieldChecks.length;
+        }
+        slotCount = slot;
+
+        boolean neverMatches = false;
+        for (int groupIndex : groupIndexes) {
+            // same as getGroup(index, tag) which can't find such group
+            neverMatches |= groupIndex < 1;
+        }
+        this.neverMatches = neverMatches;
+    }
+
+    /**
+     * @return null if the scan gives the same result as matching the parsed message, otherwise the reason why not
+     */
+    String getPrefilterOnlyReason() {
+        return prefilterOnlyReason;
+    }
+
+    boolean matches(byte[] bytes, int offset, int length) {
+        ScanState state = SCAN_STATE.get();
+        return matches(state.wrap(bytes), offset, offset + length, state);
+    }
+
+    boolean matches(ByteBuffer buffer) {
+        return matches(buffer, buffer.position(), buffer.limit(), SCAN_STATE.get());
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private boolean matches(ByteBuffer buffer, int from, int to, ScanState state) {
+        if (unsupportedReason != null) {
+            throw new IllegalStateException(unsupportedReason);
+        }
+        if (neverMatches) {
+            return false;
+        }
+        int pending = slotCount;
+        if (pending == 0) {
+            return true;
+        }
+        state.reset(slotCount, groupIndexes.length);
+        boolean[] resolved = state.resolved;
+        boolean exact = bodyGroupTags != null;
+
+        boolean inHeader = true;
+        // index of the group of the message type whose entries are being scanned (negative if none)
+        int bodyGroup = -1;
+        int dataTag = 0;
+        int dataLength = -1;
+        int pos = from;
+        while (pos < to) {
+            int tag = 0;
+            int tagStart = pos;
+            byte b;
+            while (pos < to && (b = buffer.get(pos)) != '=') {
+                int digit = b - '0';
+                if (digit < 0 || digit > 9 || pos - tagStart > 9) {
+                    return false;
+                }
+                tag = tag * 10 + digit;
+                pos++;
+            }
+            if (pos == to || pos == tagStart) {
+                return false;
+            }
+            int valueStart = ++pos;
+            int valueEnd;
+            if (tag == dataTag && dataLength >= 0) {
+                valueEnd = valueStart + dataLength;
+                if (valueEnd > to) {
+                    return false;
+                }
+            } else {
+                valueEnd = valueStart;
+                while (valueEnd < to && buffer.get(valueEnd) != FIXTags.SOH) {
+                    valueEnd++;
+                }
+            }
+            pos = valueEnd + 1;
+
+            dataTag = FIXTags.dataTagOf(tag);
+            if (dataTag != 0) {
+                long length = ValueParser.parseInt(buffer, valueStart, valueEnd);
+                dataLength = (length == ValueParser.INVALID) ? -1 : (int) length;
+            }
+
+            int resolvedCount;
+            if (inHeader && FIXTags.isHeaderTag(tag)) {
+                resolvedCount = headerTable.resolve(tag, buffer, valueStart, valueEnd, resolved, true);
+            } else if (FIXTags.isTrailerTag(tag)) {
+                // end of body - anything still pending is missing
+                return false;
+            } else {
+                inHeader = false;
+                boolean bodyField = true;
+                if (exact) {
+                    if (bodyGroup >= 0 && Arrays.binarySearch(bodyGroupEntryTags[bodyGroup], tag) >= 0) {
+                        bodyField = false;
+                    } else {
+                        bodyGroup = Arrays.binarySearch(bodyGroupTags, tag);
+                    }
+                }
+                resolvedCount = resolveGroupFields(tag, bodyField, exact, buffer, valueStart, valueEnd, state);
+                if (resolvedCount >= 0 && bodyField) {
+                    int bodyCount = bodyTable.resolve(tag, buffer, valueStart, valueEnd, resolved, exact);
+                    resolvedCount = bodyCount < 0 ? bodyCount : resolvedCount + bodyCount;
+                }
+            }
+
+            if (resolvedCount < 0) {
+                return false;
+            }
+            pending -= resolvedCount;
+            if (pending == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param bodyField false if the field is known to be a field of a group entry
+     * @param exact     false if the fields are only prefiltered (a failed check doesn't fail the scan)
+     */
+    private int resolveGroupFields(int tag, boolean bodyField, boolean exact, ByteBuffer buffer, int valueStart, int valueEnd, ScanState state) {
+        int resolvedCount = 0;
+        int[] groupState = state.groupState;
+        int[] groupEntry = state.groupEntry;
+        int[] groupDelimiter = state.groupDelimiter;
+        for (int i = 0; i < groupTags.length; i++) {
+            if (!exact && tag == groupTags[i] && groupState[i] != DONE) {
+                // the previous counter field might have been of a nested group of the same tag
+                groupState[i] = WAITING_FOR_COUNTER;
+            }
+            switch (groupState[i]) {
+                case WAITING_FOR_COUNTER:
+                    if (tag == groupTags[i] && bodyField) {
+                        long count = ValueParser.parseInt(buffer, valueStart, valueEnd);
+                        if (count == ValueParser.INVALID || count < groupIndexes[i]) {
+                            if (exact) {
+                                return -1;
+                            }
+                            break;
+                        }
+                        state.resolved[groupPresenceSlots[i]] = true;
+                        resolvedCount++;
+                        groupState[i] = groupTables[i].isEmpty() ? DONE : WAITING_FOR_DELIMITER;
+                    }
+                    break;
+                case WAITING_FOR_DELIMITER:
+                    if (groupDelimiterTags[i] != 0 && tag != groupDelimiterTags[i]) {
+                        // the entry doesn't start with the delimiter of the group
+                        return -1;
+                    }
+                    groupDelimiter[i] = tag;
+                    groupEntry[i] = 1;
+                    groupState[i] = IN_GROUP;
+                    break;
+                case IN_GROUP:
+                    if (groupEntryTags[i] != null && Arrays.binarySearch(groupEntryTags[i], tag) < 0) {
+                        // end of the group before all fields of the expected entry were found
+                        return -1;
+                    } else if (tag == groupDelimiter[i]) {
+                        if (groupEntry[i] == groupIndexes[i]) {
+                            // the expected entry is over and some of its fields were not found
+                            if (exact) {
+                                return -1;
+                            }
+                            groupState[i] = WAITING_FOR_COUNTER;
+                            continue;
+                        }
+                        groupEntry[i]++;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (groupState[i] == IN_GROUP && groupEntry[i] == groupIndexes[i]) {
+                int count = groupTables[i].resolve(tag, buffer, valueStart, valueEnd, state.resolved, exact);
+                if (count < 0) {
+                    return -1;
+                }
+                resolvedCount += count;
+                if (groupTables[i].isResolved(state.resolved)) {
+                    groupState[i] = DONE;
+                }
+            }
+        }
+        return resolvedCount;
+    }
+
+    private static FieldCheck[] prepend(FieldCheck fieldCheck, FieldCheck[] fieldChecks) {
+        FieldCheck[] result = new FieldCheck[fieldChecks.length + 1];
+        result[0] = fieldCheck;
+        System.arraycopy(fieldChecks, 0, result, 1, fieldChecks.length);
+        return result;
+    }
+
+    /**
+     * field checks sorted by tag, each one owning a slot in the resolved flags
+     */
+    private static final class CheckTable {
+
+        private final int[] tags;
+        private final FieldCheck[] fieldChecks;
+        private final int firstSlot;
+
+        CheckTable(FieldCheck[] fieldChecks, int firstSlot) {
+            FieldCheck[] sortedChecks = fieldChecks.clone();
+            // stable sort keeps the declaration order of checks on the same tag
+            Arrays.sort(sortedChecks, new Comparator<FieldCheck>() {
+                @Override
+                public int compare(FieldCheck check1, FieldCheck check2) {
+                    return check1.fieldId < check2.fieldId ? -1 : (check1.fieldId == check2.fieldId ? 0 : 1);
+                }
+            });
+            this.fieldChecks = sortedChecks;
+            this.tags = new int[sortedChecks.length];
+            for (int i = 0; i < sortedChecks.length; i++) {
+                tags[i] = sortedChecks[i].fieldId;
+            }
+            this.firstSlot = firstSlot;
+        }
+
+        boolean isEmpty() {
+            return tags.length == 0;
+        }
+
+        boolean isResolved(boolean[] resolved) {
+            for (int i = 0; i < tags.length; i++) {
+                if (!resolved[firstSlot + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param failOnMismatch false if a check stays unresolved (instead of failing) when the value doesn't match
+         * @return number of newly resolved checks or -1 if any of the checks failed
+         */
+        int resolve(int tag, ByteBuffer buffer, int valueStart, int valueEnd, boolean[] resolved, boolean failOnMismatch) {
+            int i = Arrays.binarySearch(tags, tag);
+            if (i < 0) {
+                return 0;
+            }
+            while (i > 0 && tags[i - 1] == tag) {
+                i--;
+            }
+            int count = 0;
+            for (; i < tags.length && tags[i] == tag; i++) {
+                int slot = firstSlot + i;
+                if (!resolved[slot]) {
+                    if (fieldChecks[i].matches(buffer, valueStart, valueEnd)) {
+                        resolved[slot] = true;
+                        count++;
+                    } else if (failOnMismatch) {
+                        return -1;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * per thread scratch space, so that scanning doesn't allocate
+     */
+    private static final class ScanState {
+
+        private boolean[] resolved = new boolean[16];
+        private int[] groupState = new int[4];
+        private int[] groupEntry = new int[4];
+        private int[] groupDelimiter = new int[4];
+        private ByteBuffer wrapped;
+
+        void reset(int slotCount, int groupCount) {
+            if (resolved.length < slotCount) {
+                resolved = new boolean[slotCount];
+            } else {
+                Arrays.fill(resolved, 0, slotCount, false);
+            }
+            if (groupState.length < groupCount) {
+                groupState = new int[groupCount];
+                groupEntry = new int[groupCount];
+                groupDelimiter = new int[groupCount];
+            } else {
+                Arrays.fill(groupState, 0, groupCount, WAITING_FOR_COUNTER);
+            }
+        }
+
+        ByteBuffer wrap(byte[] bytes) {
+            // the same array is usually passed in over and over again (e.g. read buffer), so the wrapper is reused
+            if (wrapped == null || wrapped.array() != bytes) {
+                wrapped = ByteBuffer.wrap(bytes);
+            }
+            return wrapped;
+        }
+    }
+}
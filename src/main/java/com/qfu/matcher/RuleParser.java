@@ -0,0 +1,500 @@
+package com.qfu.matcher;
+
+import quickfix.DataDictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.String.format;
+
+/**
+ * Parses matchers from a compact textual rule, e.g.:
+ * <pre>
+ *     35=8 &amp; 39 in (1,2) &amp; 44&gt;1.25 &amp; NoLegs[*].600=EURUSD
+ * </pre>
+ * A rule is a conjunction ({@code &}) of conditions {@code field operator value}:
+ * <ul>
+ * <li>field - tag or field name (the name of the QuickFIX/J field class or of the data dictionary field),
+ * header fields are expected in the header</li>
+ * <li>operator - {@code =} exact value, {@code in (v1, v2, ...)} any of the values,
+ * {@code > >= < <=} decimal comparison</li>
+ * <li>value - raw value, in double quotes if it contains spaces or any of {@code & ( ) ,}</li>
+ * <li>{@code group[n].field} - field of the n-th entry of a group, {@code group[*].field} - field of any entry.
+ * Conditions with the same group path are expected in the same entry and paths can be nested
+ * (e.g. {@code NoLegs[*].NoLegStipulations[1].688=X})</li>
+ * </ul>
+ * Without a data dictionary values are compared as raw strings. With a data dictionary they are validated and converted
+ * into the field types (as by {@link FIXMessageMatcher#using(DataDictionary)}), fields are validated against the message
+ * type given by a preceding {@code 35=type} condition.
+ * <p>
+ * A rule is parsed in a single pass over its characters, without regular expressions or intermediate tokens, so that
+ * large rule sets load fast. Invalid rules fail with a {@link RuleSyntaxException} pointing at the position of the error.
+ * The parser can be shared between threads.
+ *
+ * @author agent
+ * @since 10/18/26 9:39 AM
+ */
+public final class RuleParser {
+
+    private static final int MAX_TAG_DIGITS = 9;
+
+    private static final int EQUALS = 0;
+    private static final int IN = 1;
+    private static final int ABOVE = 2;
+    private static final int AT_LEAST = 3;
+    private static final int BELOW = 4;
+    private static final int AT_MOST = 5;
+
+    // null if no data dictionary is used
+    private final FieldTypeResolver typeResolver;
+    // resolved field names, -1 for unknown ones
+    private final ConcurrentMap<String, Integer> tagsByName = new ConcurrentHashMap<String, Integer>();
+
+    public RuleParser() {
+        this.typeResolver = null;
+    }
+
+    public RuleParser(DataDictionary dataDictionary) {
+        this.typeResolver = new FieldTypeResolver(dataDictionary);
+    }
+
+    public FIXMessageMatcher parse(String rule) {
+        return parse(rule, 0);
+    }
+
+    public CompiledFIXMessageMatcher compile(String rule) {
+        return parse(rule).compile();
+    }
+
+    /**
+     * Parses a rule per line. Blank lines and lines starting with # are skipped.
+     */
+    public List<FIXMessageMatcher> parseAll(Reader rules) throws IOException {
+        BufferedReader reader = rules instanceof BufferedReader ? (BufferedReader) rules : new BufferedReader(rules);
+        List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!isBlankOrComment(line)) {
+                matchers.add(parse(line, lineNumber));
+            }
+        }
+        return matchers;
+    }
+
+    /**
+     * Like {@link #parseAll(Reader)}, but compiles the parsed rules. Equal rules share the same compiled matcher.
+     */
+    public List<CompiledFIXMessageMatcher> compileAll(Reader rules) throws IOException {
+        List<FIXMessageMatcher> matchers = parseAll(rules);
+        Map<FIXMessageMatcher, CompiledFIXMessageMatcher> compiledByMatcher = new HashMap<FIXMessageMatcher, CompiledFIXMessageMatcher>();
+        List<CompiledFIXMessageMatcher> compiledMatchers = new ArrayList<CompiledFIXMessageMatcher>(matchers.size());
+        for (FIXMessageMatcher matcher : matchers) {
+            CompiledFIXMessageMatcher compiledMatcher = compiledByMatcher.get(matcher);
+            if (compiledMatcher == null) {
+                compiledMatcher = matcher.compile();
+                compiledByMatcher.put(matcher, compiledMatcher);
+            }
+            compiledMatchers.add(compiledMatcher);
+        }
+        return compiledMatchers;
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private FIXMessageMatcher parse(String rule, int lineNumber) {
+        Cursor cursor = new Cursor(rule, lineNumber);
+        RuleExpectations expectations = new RuleExpectations(typeResolver);
+        do {
+            cursor.skipSpaces();
+            parseCondition(cursor, expectations);
+            cursor.skipSpaces();
+        } while (cursor.consume('&'));
+        if (!cursor.atEnd()) {
+            throw cursor.error("expected '&' or end of rule");
+        }
+        return expectations.toMatcher();
+    }
+
+    private void parseCondition(Cursor cursor, RuleExpectations expectations) {
+        Group group = null;
+        int tagStart = cursor.pos;
+        int tag = parseTag(cursor);
+        while (cursor.consume('[')) {
+            // 0 for any entry
+            int index = 0;
+            if (!cursor.consume('*')) {
+                int indexStart = cursor.pos;
+                long number = parseNumber(cursor);
+                if (number == ValueParser.INVALID) {
+                    throw cursor.error("expected group index or *");
+                } else if (number < 1 || number > Integer.MAX_VALUE) {
+                    throw cursor.error("invalid group index", indexStart);
+                }
+                index = (int) number;
+            }
+            cursor.expect(']');
+            cursor.expect('.');
+            group = expectations.group(group, tag, index);
+
+            tagStart = cursor.pos;
+            tag = parseTag(cursor);
+        }
+
+        cursor.skipSpaces();
+        int operator = parseOperator(cursor);
+        cursor.skipSpaces();
+        int valueStart = cursor.pos;
+        Object value;
+        if (operator == EQUALS) {
+            value = parseValue(cursor);
+        } else if (operator == IN) {
+            cursor.expect('(');
+            List<String> values = new ArrayList<String>();
+            do {
+                cursor.skipSpaces();
+                values.add(parseValue(cursor));
+                cursor.skipSpaces();
+            } while (cursor.consume(','));
+            cursor.expect(')');
+            value = OneOf.oneOf(values);
+        } else {
+            BigDecimal bound;
+            try {
+                bound = new BigDecimal(parseValue(cursor));
+            } catch (NumberFormatException e) {
+                throw cursor.error("expected decimal value", valueStart);
+            }
+            value = operator == ABOVE ? Decimal.above(bound)
+                    : operator == AT_LEAST ? Decimal.atLeast(bound)
+                    : operator == BELOW ? Decimal.below(bound)
+                    : Decimal.atMost(bound);
+        }
+
+        FieldValue fieldValue = new FieldValue(tag, value);
+        if (typeResolver != null) {
+            fieldValue = resolve(cursor, expectations, group, fieldValue, tagStart, valueStart);
+        }
+        expectations.add(group, fieldValue, operator == EQUALS);
+    }
+
+    private FieldValue resolve(Cursor cursor, RuleExpectations expectations, Group group, FieldValue fieldValue, int tagStart, int valueStart) {
+        FieldValue resolvedValue;
+        try {
+            resolvedValue = typeResolver.resolve(fieldValue);
+        } catch (IllegalArgumentException e) {
+            throw cursor.error(e.getMessage(), valueStart);
+        }
+        try {
+            if (group == null) {
+                if (FIXTags.isHeaderTag(resolvedValue.getFieldId())) {
+                    return typeResolver.resolveHeaderField(resolvedValue);
+                }
+                return typeResolver.resolveBodyField(expectations.msgType, resolvedValue);
+            }
+            return typeResolver.resolveGroupField(expectations.msgType, expectations.groupPath(group), resolvedValue);
+        } catch (IllegalArgumentException e) {
+            throw cursor.error(e.getMessage(), tagStart);
+        }
+    }
+
+    private int parseTag(Cursor cursor) {
+        int tagStart = cursor.pos;
+        char c = cursor.peek();
+        if (c >= '0' && c <= '9') {
+            long tag = parseNumber(cursor);
+            if (tag == 0 || cursor.pos - tagStart > MAX_TAG_DIGITS) {
+                throw cursor.error("invalid tag", tagStart);
+            }
+            return (int) tag;
+        } else if (isNameCharacter(c)) {
+            while (isNameCharacter(cursor.peek())) {
+                cursor.pos++;
+            }
+            String name = cursor.rule.substring(tagStart, cursor.pos);
+            int tag = tagOf(name);
+            if (tag <= 0) {
+                throw cursor.error(format("unknown field %s", name), tagStart);
+            }
+            return tag;
+        }
+        throw cursor.error("expected field tag or name");
+    }
+
+    private int parseOperator(Cursor cursor) {
+        if (cursor.consume('=')) {
+            return EQUALS;
+        } else if (cursor.consume('>')) {
+            return cursor.consume('=') ? AT_LEAST : ABOVE;
+        } else if (cursor.consume('<')) {
+            return cursor.consume('=') ? AT_MOST : BELOW;
+        } else if (cursor.peek() == 'i' && cursor.peek(1) == 'n' && (cursor.peek(2) == '(' || isSpace(cursor.peek(2)))) {
+            cursor.pos += 2;
+            cursor.skipSpaces();
+            return IN;
+        }
+        throw cursor.error("expected operator (=, in, >, >=, <, <=)");
+    }
+
+    private String parseValue(Cursor cursor) {
+        int valueStart = cursor.pos;
+        if (cursor.consume('"')) {
+            int valueEnd = cursor.rule.indexOf('"', cursor.pos);
+            if (valueEnd < 0) {
+                throw cursor.error("unterminated quoted value", valueStart);
+            }
+            cursor.pos = valueEnd + 1;
+            return cursor.rule.substring(valueStart + 1, valueEnd);
+        }
+        while (isValueCharacter(cursor.peek())) {
+            cursor.pos++;
+        }
+        if (cursor.pos == valueStart) {
+            throw cursor.error("expected value");
+        }
+        return cursor.rule.substring(valueStart, cursor.pos);
+    }
+
+    /**
+     * @return the parsed non negative number or {@link ValueParser#INVALID} if there are no digits
+     */
+    private static long parseNumber(Cursor cursor) {
+        int start = cursor.pos;
+        long number = 0;
+        char c;
+        while ((c = cursor.peek()) >= '0' && c <= '9') {
+            if (cursor.pos - start < 18) {
+                number = number * 10 + (c - '0');
+            }
+            cursor.pos++;
+        }
+        return cursor.pos == start ? ValueParser.INVALID : number;
+    }
+
+    private int tagOf(String name) {
+        Integer tag = tagsByName.get(name);
+        if (tag == null) {
+            tag = lookupTag(name);
+            tagsByName.put(name, tag);
+        }
+        return tag;
+    }
+
+    private int lookupTag(String name) {
+        if (typeResolver != null) {
+            return typeResolver.getDataDictionary().getFieldTag(name);
+        }
+        try {
+            return Class.forName("quickfix.field." + name).getField("FIELD").getInt(null);
+        } catch (ClassNotFoundException e) {
+            return -1;
+        } catch (NoSuchFieldException e) {
+            return -1;
+        } catch (IllegalAccessException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isBlankOrComment(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (!isSpace(c)) {
+                return c == '#';
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNameCharacter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isValueCharacter(char c) {
+        return c != 0 && !isSpace(c) && c != '&' && c != '(' && c != ')' && c != ',' && c != '"';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Cursor {
+
+        private final String rule;
+        private final int lineNumber;
+        private int pos;
+
+        Cursor(String rule, int lineNumber) {
+            this.rule = rule;
+            this.lineNumber = lineNumber;
+        }
+
+        boolean atEnd() {
+            return pos >= rule.length();
+        }
+
+        /**
+         * @return current character or 0 at the end of the rule
+         */
+        char peek() {
+            return peek(0);
+        }
+
+        char peek(int offset) {
+            return pos + offset < rule.length() ? rule.charAt(pos + offset) : 0;
+        }
+
+        boolean consume(char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw error(format("expected '%s'", c));
+            }
+        }
+
+        void skipSpaces() {
+            while (isSpace(peek())) {
+                pos++;
+            }
+        }
+
+        RuleSyntaxException error(String reason) {
+            return error(reason, pos);
+        }
+
+        RuleSyntaxException error(String reason, int position) {
+            return new RuleSyntaxException(reason, rule, position, lineNumber);
+        }
+    }
+
+    /**
+     * expectations collected while parsing a rule
+     */
+    private static final class RuleExpectations {
+
+        private final FIXMessageMatcher matcher;
+        private Header header;
+        // group expectations with their parent groups (null for top level ones) at the same positions
+        private List<Group> groups;
+        private List<Group> parentGroups;
+        // MsgType given by the rule so far, if any
+        private String msgType;
+
+        RuleExpectations(FieldTypeResolver typeResolver) {
+            matcher = new FIXMessageMatcher();
+            if (typeResolver != null) {
+                matcher.using(typeResolver.getDataDictionary());
+            }
+        }
+
+        /**
+         * @param index entry index or 0 for any entry
+         * @return the group expectation of the path (created with the first condition of the path)
+         */
+        Group group(Group parentGroup, int groupTag, int index) {
+            if (groups == null) {
+                groups = new ArrayList<Group>(2);
+                parentGroups = new ArrayList<Group>(2);
+            }
+            // rules have just a few groups, so a scan is cheaper than keying them by their path
+            for (int i = 0; i < groups.size(); i++) {
+                GroupId groupId = groups.get(i).getGroupId();
+                if (parentGroups.get(i) == parentGroup && groupId.getGroupTag() == groupTag && groupId.getIndex() == index) {
+                    return groups.get(i);
+                }
+            }
+            Group group = index == 0 ? Group.anyGroup(groupTag) : Group.group(index, groupTag);
+            groups.add(group);
+            parentGroups.add(parentGroup);
+            return group;
+        }
+
+        /**
+         * @return tags of the top level group and of the groups nested in it down to the given group
+         */
+        int[] groupPath(Group group) {
+            int depth = 0;
+            for (Group pathGroup = group; pathGroup != null; pathGroup = parentOf(pathGroup)) {
+                depth++;
+            }
+            int[] groupPath = new int[depth];
+            for (Group pathGroup = group; pathGroup != null; pathGroup = parentOf(pathGroup)) {
+                groupPath[--depth] = pathGroup.getGroupId().getGroupTag();
+            }
+            return groupPath;
+        }
+
+        void add(Group group, FieldValue fieldValue, boolean exactValue) {
+            int fieldId = fieldValue.getFieldId();
+            if (group != null) {
+                group.with(fieldId, fieldValue.getValue());
+            } else if (FIXTags.isHeaderTag(fieldId)) {
+                if (header == null) {
+                    header = Header.header();
+                }
+                header.with(fieldId, fieldValue.getValue());
+                if (fieldId == FIXTags.MSG_TYPE && exactValue && fieldValue.getValue() instanceof String) {
+                    msgType = (String) fieldValue.getValue();
+                }
+            } else {
+                matcher.with(fieldId, fieldValue.getValue());
+            }
+        }
+
+        FIXMessageMatcher toMatcher() {
+            if (header != null) {
+                matcher.with(header);
+            }
+            if (groups != null) {
+                for (int i = 0; i < groups.size(); i++) {
+                    if (parentGroups.get(i) == null) {
+                        matcher.with(withNestedGroups(groups.get(i)));
+                    }
+                }
+            }
+            return matcher;
+        }
+
+        /**
+         * adds the nested groups bottom-up, as groups may be copied when added (so only once they are complete)
+         */
+        private Group withNestedGroups(Group group) {
+            for (int i = 0; i < groups.size(); i++) {
+                if (parentGroups.get(i) == group) {
+                    group.with(withNestedGroups(groups.get(i)));
+                }
+            }
+            return group;
+        }
+
+        private Group parentOf(Group group) {
+            // by identity, as groups of different paths may be equal
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i) == group) {
+                    return parentGroups.get(i);
+                }
+            }
+            return null;
+        }
+    }
+}
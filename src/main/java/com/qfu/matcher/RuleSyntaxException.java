@@ -0,0 +1,66 @@
+package com.qfu.matcher;
+
+import static java.lang.String.format;
+
+/**
+ * Invalid rule passed into {@link RuleParser}. The message points at the position of the error, e.g.:
+ * <pre>
+ *     expected decimal value at position 10
+ *     35=8 &amp; 44&gt;abc
+ *               ^
+ * </pre>
+ *
+ * @author agent
+ * @since 10/18/26 9:39 AM
+ */
+public class RuleSyntaxException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String rule;
+    private final int position;
+    private final int lineNumber;
+
+    RuleSyntaxException(String reason, String rule, int position, int lineNumber) {
+        super(message(reason, rule, position, lineNumber));
+        this.rule = rule;
+        this.position = position;
+        this.lineNumber = lineNumber;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    /**
+     * @return index of the character of the rule where the error is
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return number of the line with the rule (starting with 1) or 0 if the rule was not read from lines
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static String message(String reason, String rule, int position, int lineNumber) {
+        StringBuilder message = new StringBuilder(reason);
+        if (lineNumber > 0) {
+            message.append(format(" at line %d, position %d", lineNumber, position));
+        } else {
+            message.append(format(" at position %d", position));
+        }
+        message.append('\n').append(rule).append('\n');
+        for (int i = 0; i < position; i++) {
+            message.append(' ');
+        }
+        return message.append('^').toString();
+    }
+}
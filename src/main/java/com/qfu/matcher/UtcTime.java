@@ -0,0 +1,201 @@
+package com.qfu.matcher;
+
+import java.nio.ByteBuffer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Expected value of a UTCTimestamp, UTCTimeOnly or UTCDateOnly field with microsecond precision and an optional
+ * tolerance, e.g. {@code with(TransactTime.FIELD, utcTimestamp(sentAt).within(5, MILLISECONDS))}.
+ * <p>
+ * The raw field value is parsed directly into epoch micros (see {@link ValueParser#parseUtcTime(String)}), so matching
+ * doesn't create any Date or Calendar. A plain {@link Date} expected value still matches exactly (to the millisecond)
+ * and accepts any of the three field types.
+ *
+ * @author agent
+ * @since 10/18/26 9:14 AM
+ */
+public final class UtcTime {
+
+    enum Kind {
+        TIMESTAMP, TIME_ONLY, DATE_ONLY
+    }
+
+    private static final long MICROS_PER_MILLI = 1000L;
+
+    private final Kind kind;
+    // epoch micros, micros of day for TIME_ONLY
+    private final long expectedMicros;
+    private final long toleranceMicros;
+
+    private UtcTime(Kind kind, long expectedMicros, long toleranceMicros) {
+        this.kind = kind;
+        this.expectedMicros = expectedMicros;
+        this.toleranceMicros = toleranceMicros;
+    }
+
+    public static UtcTime utcTimestamp(Date timestamp) {
+        return new UtcTime(Kind.TIMESTAMP, timestamp.getTime() * MICROS_PER_MILLI, 0L);
+    }
+
+    public static UtcTime utcTimestampMicros(long epochMicros) {
+        return new UtcTime(Kind.TIMESTAMP, epochMicros, 0L);
+    }
+
+    /**
+     * time of day of the given date (the date part is ignored)
+     */
+    public static UtcTime utcTimeOnly(Date time) {
+        return utcTimeOnlyMicros(floorMod(time.getTime() * MICROS_PER_MILLI, ValueParser.MICROS_PER_DAY));
+    }
+
+    public static UtcTime utcTimeOnlyMicros(long microsOfDay) {
+        if (microsOfDay < 0 || microsOfDay >= ValueParser.MICROS_PER_DAY) {
+            throw new IllegalArgumentException(format("invalid micros of day %d", microsOfDay));
+        }
+        return new UtcTime(Kind.TIME_ONLY, microsOfDay, 0L);
+    }
+
+    /**
+     * @param month 1 - 12
+     */
+    public static UtcTime utcDateOnly(int year, int month, int day) {
+        String value = format("%04d%02d%02d", year, month, day);
+        long epochMicros = ValueParser.parseUtcDateOnly(value);
+        if (epochMicros == ValueParser.INVALID) {
+            throw new IllegalArgumentException(format("invalid date %s", value));
+        }
+        return new UtcTime(Kind.DATE_ONLY, epochMicros, 0L);
+    }
+
+    /**
+     * @return expectation matching values at most the given tolerance before or after this one
+     */
+    public UtcTime within(long tolerance, TimeUnit unit) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException(format("invalid tolerance %d", tolerance));
+        }
+        return new UtcTime(kind, expectedMicros, unit.toMicros(tolerance));
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        UtcTime utcTime = (UtcTime) o;
+
+        if (expectedMicros != utcTime.expectedMicros) return false;
+        if (toleranceMicros != utcTime.toleranceMicros) return false;
+        if (kind != utcTime.kind) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = kind.hashCode();
+        result = 31 * result + (int) (expectedMicros ^ (expectedMicros >>> 32));
+        result = 31 * result + (int) (toleranceMicros ^ (toleranceMicros >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        long epochMillis = floorDiv(expectedMicros, MICROS_PER_MILLI);
+        String value;
+        switch (kind) {
+            case TIMESTAMP:
+                value = utcFormat("yyyyMMdd-HH:mm:ss").format(new Date(epochMillis)) + format(".%06d", floorMod(expectedMicros, 1000000L));
+                break;
+            case TIME_ONLY:
+                value = utcFormat("HH:mm:ss").format(new Date(epochMillis)) + format(".%06d", floorMod(expectedMicros, 1000000L));
+                break;
+            default:
+                value = utcFormat("yyyyMMdd").format(new Date(epochMillis));
+                break;
+        }
+        return toleranceMicros == 0 ? value : format("%s +/- %d micros", value, toleranceMicros);
+    }
+
+    /**
+     * @param actualValue raw field value
+     */
+    boolean matches(String actualValue) {
+        long actualMicros;
+        switch (kind) {
+            case TIMESTAMP:
+                actualMicros = ValueParser.parseUtcTimestamp(actualValue);
+                break;
+            case TIME_ONLY:
+                actualMicros = ValueParser.parseUtcTimeOnly(actualValue);
+                break;
+            default:
+                actualMicros = ValueParser.parseUtcDateOnly(actualValue);
+                break;
+        }
+        return matches(actualMicros);
+    }
+
+    boolean matches(ByteBuffer buffer, int from, int to) {
+        long actualMicros;
+        switch (kind) {
+            case TIMESTAMP:
+                actualMicros = ValueParser.parseUtcTimestamp(buffer, from, to);
+                break;
+            case TIME_ONLY:
+                actualMicros = ValueParser.parseUtcTimeOnly(buffer, from, to);
+                break;
+            default:
+                actualMicros = ValueParser.parseUtcDateOnly(buffer, from, to);
+                break;
+        }
+        return matches(actualMicros);
+    }
+
+    /**
+     * exact match of a plain Date (to the millisecond) with the raw value of any of the three field types
+     */
+    static boolean matchesDate(long expectedMillis, String actualValue) {
+        long actualMicros = ValueParser.parseUtcTime(actualValue);
+        return actualMicros != ValueParser.INVALID && floorDiv(actualMicros, MICROS_PER_MILLI) == expectedMillis;
+    }
+
+    static boolean matchesDate(long expectedMillis, ByteBuffer buffer, int from, int to) {
+        long actualMicros = ValueParser.parseUtcTime(buffer, from, to);
+        return actualMicros != ValueParser.INVALID && floorDiv(actualMicros, MICROS_PER_MILLI) == expectedMillis;
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private boolean matches(long actualMicros) {
+        return actualMicros != ValueParser.INVALID
+                && actualMicros >= expectedMicros - toleranceMicros
+                && actualMicros <= expectedMicros + toleranceMicros;
+    }
+
+    private static long floorDiv(long value, long divisor) {
+        long result = value / divisor;
+        return (value % divisor < 0) ? result - 1 : result;
+    }
+
+    private static long floorMod(long value, long divisor) {
+        return value - floorDiv(value, divisor) * divisor;
+    }
+
+    private static SimpleDateFormat utcFormat(String pattern) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat;
+    }
+}
@@ -0,0 +1,506 @@
+package com.qfu.matcher;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parses raw FIX field values directly into primitives, without creating any intermediate objects.
+ * Invalid values are reported using the {@link #INVALID} sentinel (or {@code NaN} for doubles) instead of exceptions.
+ *
+ * @author agent
+ * @since 10/18/26 8:42 AM
+ */
+final class ValueParser {
+
+    static final long INVALID = Long.MIN_VALUE;
+    static final long MICROS_PER_DAY = 86400000000L;
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MICROS_DIGITS = 6;
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final long[] POW10_LONG = new long[MAX_LONG_DIGITS + 1];
+    private static final double[] POW10_DOUBLE = new double[23];
+
+    static {
+        long pow = 1L;
+        for (int i = 0; i < POW10_LONG.length; i++) {
+            POW10_LONG[i] = pow;
+            pow *= 10L;
+        }
+        double doublePow = 1.0d;
+        for (int i = 0; i < POW10_DOUBLE.length; i++) {
+            POW10_DOUBLE[i] = doublePow;
+            doublePow *= 10.0d;
+        }
+    }
+
+    private ValueParser() {
+    }
+
+    /**
+     * @return parsed int value or {@link #INVALID} if the value is not a valid FIX int
+     */
+    static long parseInt(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && value.charAt(0) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i == length || length - i > 10) {
+            return INVALID;
+        }
+        long result = 0L;
+        for (; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            result = result * 10L + digit;
+        }
+        result = negative ? -result : result;
+        return (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) ? INVALID : result;
+    }
+
+    /**
+     * @return all digits of the decimal value as one long (ignoring the decimal point)
+     * or {@link #INVALID} if the value is not a valid FIX decimal or has too many digits to fit a long
+     */
+    static long parseUnscaled(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && value.charAt(0) == '-') {
+            negative = true;
+            i++;
+        }
+        long result = 0L;
+        int digits = 0;
+        boolean hasDot = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (hasDot) {
+                    return INVALID;
+                }
+                hasDot = true;
+            } else {
+                int digit = c - '0';
+                if (digit < 0 || digit > 9) {
+                    return INVALID;
+                }
+                if (result != 0L || digit != 0) {
+                    if (++digits > MAX_LONG_DIGITS) {
+                        return INVALID;
+                    }
+                }
+                result = result * 10L + digit;
+            }
+        }
+        if (length == (negative ? 1 : 0) || (hasDot && length == (negative ? 2 : 1))) {
+            return INVALID;
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * @return number of digits after the decimal point
+     */
+    static int scale(String value) {
+        int dotIndex = value.indexOf('.');
+        return dotIndex < 0 ? 0 : value.length() - dotIndex - 1;
+    }
+
+    /**
+     * compares two decimals given as unscaled long values and their scales
+     *
+     * @return negative, zero or positive number as the first decimal is less than, equal to or greater than the other one
+     */
+    static int decimalCompare(long unscaled, int scale, long otherUnscaled, int otherScale) {
+        if (scale == otherScale) {
+            return Long.compare(unscaled, otherUnscaled);
+        } else if (scale > otherScale) {
+            long rescaled = rescale(otherUnscaled, scale - otherScale);
+            // overflow means the rescaled value is further from zero than any long
+            return rescaled == INVALID ? -Long.signum(otherUnscaled) : Long.compare(unscaled, rescaled);
+        } else {
+            long rescaled = rescale(unscaled, otherScale - scale);
+            return rescaled == INVALID ? Long.signum(unscaled) : Long.compare(rescaled, otherUnscaled);
+        }
+    }
+
+    /**
+     * @return parsed double value or {@code NaN} if the value is not a valid FIX float
+     */
+    static double parseDouble(String value) {
+        long unscaled = parseUnscaled(value);
+        if (unscaled != INVALID) {
+            int scale = scale(value);
+            // both operands are exact doubles, so the division gives the same correctly rounded result as Double.parseDouble
+            if (unscaled <= MAX_EXACT_DOUBLE && unscaled >= -MAX_EXACT_DOUBLE && scale < POW10_DOUBLE.length) {
+                return (double) unscaled / POW10_DOUBLE[scale];
+            }
+        } else if (!isDecimal(value)) {
+            return Double.NaN;
+        }
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * @return epoch micros of a UTCTimestamp (yyyyMMdd-HH:mm:ss[.s...]), a UTCTimeOnly (HH:mm:ss[.s...], as time on
+     * 1970-01-01) or a UTCDateOnly (yyyyMMdd, as midnight) value or {@link #INVALID} if the value is none of them
+     */
+    static long parseUtcTime(String value) {
+        int length = value.length();
+        if (length >= 17 && value.charAt(8) == '-') {
+            return parseUtcTimestamp(value);
+        } else if (length >= 8 && value.charAt(2) == ':') {
+            return parseUtcTimeOnly(value);
+        } else {
+            return parseUtcDateOnly(value);
+        }
+    }
+
+    /**
+     * @return epoch micros of a UTCTimestamp value (yyyyMMdd-HH:mm:ss[.s...]) or {@link #INVALID} if the value is not valid,
+     * fraction digits beyond micros are ignored
+     */
+    static long parseUtcTimestamp(String value) {
+        if (value.length() < 17 || value.charAt(8) != '-') {
+            return INVALID;
+        }
+        long epochDay = epochDay(value, 0);
+        long micros = microsOfDay(value, 9);
+        if (epochDay == INVALID || micros == INVALID) {
+            return INVALID;
+        }
+        return epochDay * MICROS_PER_DAY + micros;
+    }
+
+    /**
+     * @return micros of day of a UTCTimeOnly value (HH:mm:ss[.s...]) or {@link #INVALID} if the value is not valid
+     */
+    static long parseUtcTimeOnly(String value) {
+        return microsOfDay(value, 0);
+    }
+
+    /**
+     * @return epoch micros of midnight of a UTCDateOnly value (yyyyMMdd) or {@link #INVALID} if the value is not valid
+     */
+    static long parseUtcDateOnly(String value) {
+        if (value.length() != 8) {
+            return INVALID;
+        }
+        long epochDay = epochDay(value, 0);
+        return epochDay == INVALID ? INVALID : epochDay * MICROS_PER_DAY;
+    }
+
+    /* ============================== */
+    /* ---   raw (byte) values    --- */
+    /* ============================== */
+
+    /**
+     * @return parsed int value of bytes [from, to) or {@link #INVALID} if the value is not a valid FIX int
+     */
+    static long parseInt(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && buffer.get(i) == '-') {
+            negative = true;
+            i++;
+        }
+        if (i == to || to - i > 10) {
+            return INVALID;
+        }
+        long result = 0L;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            result = result * 10L + digit;
+        }
+        result = negative ? -result : result;
+        return (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) ? INVALID : result;
+    }
+
+    /**
+     * @see #parseUnscaled(String)
+     */
+    static long parseUnscaled(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && buffer.get(i) == '-') {
+            negative = true;
+            i++;
+        }
+        long result = 0L;
+        int digits = 0;
+        boolean hasDot = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '.') {
+                if (hasDot) {
+                    return INVALID;
+                }
+                hasDot = true;
+            } else {
+                int digit = b - '0';
+                if (digit < 0 || digit > 9) {
+                    return INVALID;
+                }
+                if (result != 0L || digit != 0) {
+                    if (++digits > MAX_LONG_DIGITS) {
+                        return INVALID;
+                    }
+                }
+                result = result * 10L + digit;
+            }
+        }
+        int length = to - from;
+        if (length == (negative ? 1 : 0) || (hasDot && length == (negative ? 2 : 1))) {
+            return INVALID;
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * @see #scale(String)
+     */
+    static int scale(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == '.') {
+                return to - i - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @see #parseDouble(String)
+     */
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        long unscaled = parseUnscaled(buffer, from, to);
+        if (unscaled != INVALID) {
+            int scale = scale(buffer, from, to);
+            if (unscaled <= MAX_EXACT_DOUBLE && unscaled >= -MAX_EXACT_DOUBLE && scale < POW10_DOUBLE.length) {
+                return (double) unscaled / POW10_DOUBLE[scale];
+            }
+        }
+        // rare case of too many digits or invalid value
+        String value = toString(buffer, from, to);
+        return isDecimal(value) ? Double.parseDouble(value) : Double.NaN;
+    }
+
+    /**
+     * @see #parseUtcTime(String)
+     */
+    static long parseUtcTime(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length >= 17 && buffer.get(from + 8) == '-') {
+            return parseUtcTimestamp(buffer, from, to);
+        } else if (length >= 8 && buffer.get(from + 2) == ':') {
+            return parseUtcTimeOnly(buffer, from, to);
+        } else {
+            return parseUtcDateOnly(buffer, from, to);
+        }
+    }
+
+    /**
+     * @see #parseUtcTimestamp(String)
+     */
+    static long parseUtcTimestamp(ByteBuffer buffer, int from, int to) {
+        if (to - from < 17 || buffer.get(from + 8) != '-') {
+            return INVALID;
+        }
+        long epochDay = epochDay(buffer, from);
+        long micros = microsOfDay(buffer, from + 9, to);
+        if (epochDay == INVALID || micros == INVALID) {
+            return INVALID;
+        }
+        return epochDay * MICROS_PER_DAY + micros;
+    }
+
+    /**
+     * @see #parseUtcTimeOnly(String)
+     */
+    static long parseUtcTimeOnly(ByteBuffer buffer, int from, int to) {
+        return microsOfDay(buffer, from, to);
+    }
+
+    /**
+     * @see #parseUtcDateOnly(String)
+     */
+    static long parseUtcDateOnly(ByteBuffer buffer, int from, int to) {
+        if (to - from != 8) {
+            return INVALID;
+        }
+        long epochDay = epochDay(buffer, from);
+        return epochDay == INVALID ? INVALID : epochDay * MICROS_PER_DAY;
+    }
+
+    static String toString(ByteBuffer buffer, int from, int to) {
+        char[] chars = new char[to - from];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (buffer.get(from + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static long rescale(long unscaled, int scaleDiff) {
+        if (unscaled == 0L) {
+            return 0L;
+        }
+        if (scaleDiff > MAX_LONG_DIGITS) {
+            return INVALID;
+        }
+        long bound = Long.MAX_VALUE / POW10_LONG[scaleDiff];
+        if (unscaled > bound || unscaled < -bound) {
+            // overflow means the value can't be equal to any long
+            return INVALID;
+        }
+        return unscaled * POW10_LONG[scaleDiff];
+    }
+
+    private static boolean isDecimal(String value) {
+        int length = value.length();
+        int i = (length > 0 && value.charAt(0) == '-') ? 1 : 0;
+        boolean hasDigit = false;
+        boolean hasDot = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && !hasDot) {
+                hasDot = true;
+            } else if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else {
+                return false;
+            }
+        }
+        return hasDigit;
+    }
+
+    private static int digits(ByteBuffer buffer, int from, int count) {
+        int result = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static int digits(String value, int from, int count) {
+        int result = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    // epoch day of yyyyMMdd at the offset
+    private static long epochDay(String value, int from) {
+        int year = digits(value, from, 4);
+        int month = digits(value, from + 4, 2);
+        int day = digits(value, from + 6, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        return epochDay(year, month, day);
+    }
+
+    private static long epochDay(ByteBuffer buffer, int from) {
+        int year = digits(buffer, from, 4);
+        int month = digits(buffer, from + 4, 2);
+        int day = digits(buffer, from + 6, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        return epochDay(year, month, day);
+    }
+
+    // micros of day of HH:mm:ss[.s...] spanning from the offset to the end of the value
+    private static long microsOfDay(String value, int from) {
+        int length = value.length() - from;
+        if (length < 8 || value.charAt(from + 2) != ':' || value.charAt(from + 5) != ':') {
+            return INVALID;
+        }
+        int hour = digits(value, from, 2);
+        int minute = digits(value, from + 3, 2);
+        int second = digits(value, from + 6, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return INVALID;
+        }
+        long micros = 0;
+        if (length > 8) {
+            if (value.charAt(from + 8) != '.' || length == 9) {
+                return INVALID;
+            }
+            for (int i = 9; i < length; i++) {
+                int digit = value.charAt(from + i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return INVALID;
+                }
+                if (i < 9 + MICROS_DIGITS) {
+                    micros = micros * 10 + digit;
+                }
+            }
+            for (int i = length; i < 9 + MICROS_DIGITS; i++) {
+                micros *= 10;
+            }
+        }
+        return ((hour * 60L + minute) * 60L + second) * 1000000L + micros;
+    }
+
+    private static long microsOfDay(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length < 8 || buffer.get(from + 2) != ':' || buffer.get(from + 5) != ':') {
+            return INVALID;
+        }
+        int hour = digits(buffer, from, 2);
+        int minute = digits(buffer, from + 3, 2);
+        int second = digits(buffer, from + 6, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return INVALID;
+        }
+        long micros = 0;
+        if (length > 8) {
+            if (buffer.get(from + 8) != '.' || length == 9) {
+                return INVALID;
+            }
+            for (int i = 9; i < length; i++) {
+                int digit = buffer.get(from + i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return INVALID;
+                }
+                if (i < 9 + MICROS_DIGITS) {
+                    micros = micros * 10 + digit;
+                }
+            }
+            for (int i = length; i < 9 + MICROS_DIGITS; i++) {
+                micros *= 10;
+            }
+        }
+        return ((hour * 60L + minute) * 60L + second) * 1000000L + micros;
+    }
+
+    // days since 1970-01-01 in the proleptic gregorian calendar
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468L;
+    }
+}
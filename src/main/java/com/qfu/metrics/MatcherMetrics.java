@@ -0,0 +1,211 @@
+package com.qfu.metrics;
+
+import com.qfu.matcher.MatchResult;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Counters of an {@link InstrumentedMatcher} - evaluations, hits, rejections by the expectation that rejected the
+ * message and a latency histogram with power of two buckets.
+ * <p>
+ * All counters are {@link LongAdder}s, so session threads evaluating the same matcher concurrently don't contend on
+ * a shared cache line, and recording an evaluation doesn't allocate. Counters are read without stopping the writers,
+ * so a snapshot taken under load is consistent per counter only.
+ *
+ * @author agent
+ * @since 10/18/26 9:19 AM
+ */
+public final class MatcherMetrics implements MatcherMetricsMXBean {
+
+    // bucket i counts latencies of i significant bits, i.e. up to 2^i - 1 nanos
+    static final int LATENCY_BUCKETS = 64;
+
+    private static final RejectionCounter[] NO_REJECTIONS = new RejectionCounter[0];
+
+    private final String name;
+    private final LongAdder evaluationCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BUCKETS];
+    private final LongAccumulator maxLatency = new LongAccumulator(new LongBinaryOperator() {
+        @Override
+        public long applyAsLong(long left, long right) {
+            return Math.max(left, right);
+        }
+    }, 0L);
+    // copy on write, a new counter is added only the first time an expectation rejects a message
+    private volatile RejectionCounter[] rejectionCounters = NO_REJECTIONS;
+
+    public MatcherMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < latencyBuckets.length; i++) {
+            latencyBuckets[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getEvaluationCount() {
+        return evaluationCount.sum();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public Map<String, Long> getRejectionCounts() {
+        return snapshot().getRejectionCounts();
+    }
+
+    @Override
+    public long getLatencyMedianNanos() {
+        return snapshot().getLatencyPercentileNanos(50.0);
+    }
+
+    @Override
+    public long getLatency99thPercentileNanos() {
+        return snapshot().getLatencyPercentileNanos(99.0);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return maxLatency.get();
+    }
+
+    @Override
+    public void reset() {
+        evaluationCount.reset();
+        hitCount.reset();
+        for (LongAdder latencyBucket : latencyBuckets) {
+            latencyBucket.reset();
+        }
+        maxLatency.reset();
+        synchronized (this) {
+            rejectionCounters = NO_REJECTIONS;
+        }
+    }
+
+    public MatcherMetricsSnapshot snapshot() {
+        long[] latencyHistogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            latencyHistogram[i] = latencyBuckets[i].sum();
+        }
+        RejectionCounter[] counters = rejectionCounters;
+        String[] rejectedBy = new String[counters.length];
+        long[] rejectionCounts = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            rejectedBy[i] = counters[i].describe();
+            rejectionCounts[i] = counters[i].count.sum();
+        }
+        return new MatcherMetricsSnapshot(
+                name, evaluationCount.sum(), hitCount.sum(), rejectedBy, rejectionCounts, latencyHistogram, maxLatency.get()
+        );
+    }
+
+    /**
+     * Registers these metrics into the server under the name {@code com.qfu:type=MatcherMetrics,name="<name>"}.
+     */
+    public ObjectName register(MBeanServer server) throws JMException {
+        ObjectName objectName = new ObjectName("com.qfu:type=MatcherMetrics,name=" + ObjectName.quote(name));
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    void record(MatchResult result, long latencyNanos) {
+        evaluationCount.increment();
+        if (result.matches()) {
+            hitCount.increment();
+        } else {
+            rejectionCounter(result).count.increment();
+        }
+        latencyBuckets[LATENCY_BUCKETS - Long.numberOfLeadingZeros(latencyNanos)].increment();
+        maxLatency.accumulate(latencyNanos);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private RejectionCounter rejectionCounter(MatchResult result) {
+        RejectionCounter counter = findRejectionCounter(rejectionCounters, result);
+        if (counter != null) {
+            return counter;
+        }
+        synchronized (this) {
+            RejectionCounter[] counters = rejectionCounters;
+            counter = findRejectionCounter(counters, result);
+            if (counter == null) {
+                counter = new RejectionCounter(result);
+                RejectionCounter[] newCounters = new RejectionCounter[counters.length + 1];
+                System.arraycopy(counters, 0, newCounters, 0, counters.length);
+                newCounters[counters.length] = counter;
+                rejectionCounters = newCounters;
+            }
+            return counter;
+        }
+    }
+
+    private static RejectionCounter findRejectionCounter(RejectionCounter[] counters, MatchResult result) {
+        for (RejectionCounter counter : counters) {
+            if (counter.isFor(result)) {
+                return counter;
+            }
+        }
+        return null;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class RejectionCounter {
+
+        private final MatchResult.Location location;
+        private final int fieldId;
+        private final int groupIndex;
+        private final int groupTag;
+        private final LongAdder count = new LongAdder();
+
+        RejectionCounter(MatchResult result) {
+            this.location = result.getLocation();
+            this.fieldId = result.getFieldId();
+            this.groupIndex = result.getGroupIndex();
+            this.groupTag = result.getGroupTag();
+        }
+
+        boolean isFor(MatchResult result) {
+            return location == result.getLocation()
+                    && fieldId == result.getFieldId()
+                    && groupIndex == result.getGroupIndex()
+                    && groupTag == result.getGroupTag();
+        }
+
+        String describe() {
+            switch (location) {
+                case TYPE:
+                    return "type";
+                case HEADER:
+                    return "header field " + fieldId;
+                case BODY:
+                    return "field " + fieldId;
+                default:
+                    if (groupIndex == 0) {
+                        return "group " + groupTag;
+                    }
+                    String group = groupIndex + ". group " + groupTag;
+                    return fieldId == 0 ? group + " missing" : group + " field " + fieldId;
+            }
+        }
+    }
+}
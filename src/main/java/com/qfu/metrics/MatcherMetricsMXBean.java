@@ -0,0 +1,31 @@
+package com.qfu.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link MatcherMetrics}.
+ *
+ * @author agent
+ * @since 10/18/26 9:19 AM
+ */
+public interface MatcherMetricsMXBean {
+
+    String getName();
+
+    long getEvaluationCount();
+
+    long getHitCount();
+
+    /**
+     * @return number of rejected messages by the expectation that rejected them (e.g. "field 38", "header field 50")
+     */
+    Map<String, Long> getRejectionCounts();
+
+    long getLatencyMedianNanos();
+
+    long getLatency99thPercentileNanos();
+
+    long getLatencyMaxNanos();
+
+    void reset();
+}
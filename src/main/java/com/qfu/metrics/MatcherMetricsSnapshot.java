@@ -0,0 +1,121 @@
+package com.qfu.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Immutable state of {@link MatcherMetrics} at the time of {@link MatcherMetrics#snapshot()}.
+ *
+ * @author agent
+ * @since 10/18/26 9:19 AM
+ */
+public final class MatcherMetricsSnapshot {
+
+    private final String name;
+    private final long evaluationCount;
+    private final long hitCount;
+    private final Map<String, Long> rejectionCounts;
+    private final long[] latencyHistogram;
+    private final long maxLatencyNanos;
+
+    MatcherMetricsSnapshot(String name, long evaluationCount, long hitCount, String[] rejectedBy, long[] rejectionCounts, long[] latencyHistogram, long maxLatencyNanos) {
+        this.name = name;
+        this.evaluationCount = evaluationCount;
+        this.hitCount = hitCount;
+        this.rejectionCounts = sortedByCount(rejectedBy, rejectionCounts);
+        this.latencyHistogram = latencyHistogram;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return number of rejected messages by the expectation that rejected them, the most rejecting one first
+     */
+    public Map<String, Long> getRejectionCounts() {
+        return rejectionCounts;
+    }
+
+    /**
+     * @return count of evaluations by bucket, bucket i counts evaluations that took up to 2^i - 1 nanos (and more than
+     * the previous bucket)
+     */
+    public long[] getLatencyHistogram() {
+        return latencyHistogram.clone();
+    }
+
+    /**
+     * @return upper bound of the latency bucket holding the percentile (an estimate within a factor of two)
+     */
+    public long getLatencyPercentileNanos(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException(format("invalid percentile %s", percentile));
+        }
+        long total = 0;
+        for (long count : latencyHistogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            seen += latencyHistogram[i];
+            if (seen >= rank) {
+                long upperBound = i == 0 ? 0L : (i == 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                return Math.min(upperBound, maxLatencyNanos);
+            }
+        }
+        return maxLatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return format("%s: evaluations=%d, hits=%d, rejections=%s, latency p50=%dns p99=%dns max=%dns",
+                name, evaluationCount, hitCount, rejectionCounts,
+                getLatencyPercentileNanos(50.0), getLatencyPercentileNanos(99.0), maxLatencyNanos);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static Map<String, Long> sortedByCount(String[] rejectedBy, final long[] rejectionCounts) {
+        List<Integer> indexes = new ArrayList<Integer>(rejectedBy.length);
+        for (int i = 0; i < rejectedBy.length; i++) {
+            indexes.add(i);
+        }
+        Collections.sort(indexes, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer index1, Integer index2) {
+                return Long.compare(rejectionCounts[index2], rejectionCounts[index1]);
+            }
+        });
+        Map<String, Long> sorted = new LinkedHashMap<String, Long>();
+        for (Integer index : indexes) {
+            sorted.put(rejectedBy[index], rejectionCounts[index]);
+        }
+        return Collections.unmodifiableMap(sorted);
+    }
+}
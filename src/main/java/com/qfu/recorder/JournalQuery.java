@@ -0,0 +1,103 @@
+package com.qfu.recorder;
+
+import com.qfu.matcher.FIXMessageMatcher;
+
+import static java.lang.String.format;
+
+/**
+ * Selects messages of a {@link MessageJournal}. Sequence, time, MsgType and direction criteria are resolved using the
+ * in-memory index of the journal, so only the remaining candidates are read and evaluated by the matcher.
+ *
+ * @author agent
+ * @since 10/18/26 10:06 AM
+ */
+public final class JournalQuery {
+
+    private FIXMessageMatcher matcher;
+    private String msgType;
+    private RecordedMessage.Direction direction;
+    private long fromSequence = 0;
+    private long toSequence = Long.MAX_VALUE;
+    private long fromTimestamp = Long.MIN_VALUE;
+    private long toTimestamp = Long.MAX_VALUE;
+
+    public static JournalQuery allMessages() {
+        return new JournalQuery();
+    }
+
+    public static JournalQuery messagesMatching(FIXMessageMatcher matcher) {
+        return new JournalQuery().matching(matcher);
+    }
+
+    /**
+     * The MsgType implied by the expected message type of the matcher is resolved using the index as well.
+     */
+    public JournalQuery matching(FIXMessageMatcher matcher) {
+        this.matcher = matcher;
+        return this;
+    }
+
+    public JournalQuery ofMsgType(String msgType) {
+        this.msgType = msgType;
+        return this;
+    }
+
+    public JournalQuery withDirection(RecordedMessage.Direction direction) {
+        this.direction = direction;
+        return this;
+    }
+
+    /**
+     * @param fromSequence inclusive
+     * @param toSequence   exclusive
+     */
+    public JournalQuery withSequenceBetween(long fromSequence, long toSequence) {
+        if (fromSequence > toSequence) {
+            throw new IllegalArgumentException(format("invalid sequence range [%d, %d)", fromSequence, toSequence));
+        }
+        this.fromSequence = fromSequence;
+        this.toSequence = toSequence;
+        return this;
+    }
+
+    /**
+     * @param fromTimestamp inclusive (in milliseconds since epoch)
+     * @param toTimestamp   exclusive (in milliseconds since epoch)
+     */
+    public JournalQuery recordedBetween(long fromTimestamp, long toTimestamp) {
+        if (fromTimestamp > toTimestamp) {
+            throw new IllegalArgumentException(format("invalid time range [%d, %d)", fromTimestamp, toTimestamp));
+        }
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+        return this;
+    }
+
+    FIXMessageMatcher getMatcher() {
+        return matcher;
+    }
+
+    String getMsgType() {
+        return msgType;
+    }
+
+    RecordedMessage.Direction getDirection() {
+        return direction;
+    }
+
+    long getFromSequence() {
+        return fromSequence;
+    }
+
+    long getToSequence() {
+        return toSequence;
+    }
+
+    long getFromTimestamp() {
+        return fromTimestamp;
+    }
+
+    long getToTimestamp() {
+        return toTimestamp;
+    }
+}
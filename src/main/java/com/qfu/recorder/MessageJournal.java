@@ -0,0 +1,648 @@
+package com.qfu.recorder;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import quickfix.Application;
+import quickfix.DataDictionary;
+import quickfix.DefaultMessageFactory;
+import quickfix.DoNotSend;
+import quickfix.FieldNotFound;
+import quickfix.IncorrectDataFormat;
+import quickfix.IncorrectTagValue;
+import quickfix.InvalidMessage;
+import quickfix.Message;
+import quickfix.MessageFactory;
+import quickfix.MessageUtils;
+import quickfix.RejectLogon;
+import quickfix.SessionID;
+import quickfix.UnsupportedMessageType;
+import quickfix.field.MsgType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.qfu.recorder.RecordedMessage.Direction.RECEIVED;
+import static com.qfu.recorder.RecordedMessage.Direction.SENT;
+import static java.lang.String.format;
+
+/**
+ * {@link Application} journaling all application messages received (fromApp) and sent (toApp) by its sessions into
+ * memory mapped segment files, so that long running (soak) tests can capture millions of messages without keeping them
+ * on the heap. Calls are passed to the delegate application (if there is any).
+ * <p>
+ * Messages are appended as raw FIX bytes into fixed size segments. Once a segment is full a new one is started and once
+ * there are more than the maximum number of segments the oldest one is deleted, together with its messages. Only a small
+ * index is held in memory: the position, timestamp, direction and session of each message and the messages of each
+ * MsgType. Queries resolve their sequence, time, MsgType and direction criteria using the index, prefilter the remaining
+ * candidates on their raw bytes and parse only the messages passing the prefilter - lazily, as they are iterated.
+ * <p>
+ * Groups are only parsed when a {@link DataDictionary} is provided, so matchers with group expectations need one.
+ * The index is not persisted, segment files are deleted once the journal is closed.
+ *
+ * @author agent
+ * @since 10/18/26 10:06 AM
+ */
+public final class MessageJournal implements Application, Closeable {
+
+    private static final Charset CHARSET = Charset.forName("ISO-8859-1");
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int INITIAL_INDEX_SIZE = 1024;
+    private static final int[] NO_ENTRIES = new int[0];
+
+    private final File directory;
+    private final Application delegate;
+
+    // guarded by this
+    private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private int maxSegments = Integer.MAX_VALUE;
+    private MessageFactory messageFactory = new DefaultMessageFactory();
+    private DataDictionary dataDictionary;
+    private final ArrayDeque<Segment> segments = new ArrayDeque<Segment>();
+    private final Map<SessionID, Integer> sessionIndexes = new HashMap<SessionID, Integer>();
+    // copied on change, so that queries can share it
+    private SessionID[] sessionIDs = new SessionID[0];
+    private long nextSequence;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private boolean closed;
+
+    public MessageJournal(File directory) {
+        this(directory, null);
+    }
+
+    public MessageJournal(File directory, Application delegate) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException(format("unable to create journal directory %s", directory));
+        }
+        this.directory = directory;
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param segmentSize size of segments started from now on (and so the maximum size of a message) in bytes
+     */
+    public synchronized MessageJournal withSegmentSize(int segmentSize) {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException(format("invalid segment size %d", segmentSize));
+        }
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * @param maxSegments maximum number of retained segments, the oldest one is deleted when a new one is started
+     */
+    public synchronized MessageJournal withMaxSegments(int maxSegments) {
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException(format("invalid max number of segments %d", maxSegments));
+        }
+        this.maxSegments = maxSegments;
+        return this;
+    }
+
+    /**
+     * @param dataDictionary used to parse groups of the journaled messages, may be null
+     */
+    public synchronized MessageJournal withParsing(MessageFactory messageFactory, DataDictionary dataDictionary) {
+        this.messageFactory = messageFactory;
+        this.dataDictionary = dataDictionary;
+        return this;
+    }
+
+    /**
+     * Journals the message in its current (serialized) form.
+     *
+     * @return sequence of the message
+     * @throws IllegalArgumentException if the message is larger than the segment size
+     * @throws IllegalStateException    if the journal is closed or a new segment can't be created
+     */
+    public long append(RecordedMessage.Direction direction, SessionID sessionID, Message message) {
+        long sequence = record(direction, sessionID, message);
+        if (sequence < 0) {
+            throw new IllegalStateException("journal is closed");
+        }
+        return sequence;
+    }
+
+    /**
+     * Lazily evaluated messages selected by the query, in the order they were journaled. Each iteration goes through
+     * the messages journaled (and still retained) at the time it started.
+     */
+    public Iterable<RecordedMessage> query(final JournalQuery query) {
+        return new Iterable<RecordedMessage>() {
+            @Override
+            public Iterator<RecordedMessage> iterator() {
+                return newIterator(query);
+            }
+        };
+    }
+
+    /**
+     * @return all retained messages matching the matcher, in the order they were journaled
+     */
+    public List<RecordedMessage> findAll(FIXMessageMatcher matcher) {
+        List<RecordedMessage> result = new ArrayList<RecordedMessage>();
+        for (RecordedMessage recordedMessage : query(JournalQuery.messagesMatching(matcher))) {
+            result.add(recordedMessage);
+        }
+        return result;
+    }
+
+    /**
+     * @return the first retained message matching the matcher or null if there is none
+     */
+    public RecordedMessage findFirst(FIXMessageMatcher matcher) {
+        Iterator<RecordedMessage> iterator = newIterator(JournalQuery.messagesMatching(matcher));
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * @return the message with the given sequence or null if it isn't retained (or journaled yet)
+     */
+    public RecordedMessage get(long sequence) {
+        if (sequence < 0 || sequence == Long.MAX_VALUE) {
+            return null;
+        }
+        Iterator<RecordedMessage> iterator = newIterator(JournalQuery.allMessages().withSequenceBetween(sequence, sequence + 1));
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * @return sequence the next journaled message will get
+     */
+    public synchronized long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * @return sequence of the oldest retained message
+     */
+    public synchronized long oldestSequence() {
+        return segments.isEmpty() ? nextSequence : segments.peekFirst().firstSequence;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Deletes the segment files, messages passed to the journal afterwards are no longer journaled.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Segment segment : segments) {
+            segment.delete();
+        }
+        segments.clear();
+    }
+
+    @Override
+    public void onCreate(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onCreate(sessionID);
+        }
+    }
+
+    @Override
+    public void onLogon(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onLogon(sessionID);
+        }
+    }
+
+    @Override
+    public void onLogout(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onLogout(sessionID);
+        }
+    }
+
+    @Override
+    public void toAdmin(Message message, SessionID sessionID) {
+        if (delegate != null) {
+            delegate.toAdmin(message, sessionID);
+        }
+    }
+
+    @Override
+    public void fromAdmin(Message message, SessionID sessionID) throws FieldNotFound, IncorrectDataFormat, IncorrectTagValue, RejectLogon {
+        if (delegate != null) {
+            delegate.fromAdmin(message, sessionID);
+        }
+    }
+
+    @Override
+    public void toApp(Message message, SessionID sessionID) throws DoNotSend {
+        // a message the delegate refuses to send is not journaled
+        if (delegate != null) {
+            delegate.toApp(message, sessionID);
+        }
+        record(SENT, sessionID, message);
+    }
+
+    @Override
+    public void fromApp(Message message, SessionID sessionID) throws FieldNotFound, IncorrectDataFormat, IncorrectTagValue, UnsupportedMessageType {
+        record(RECEIVED, sessionID, message);
+        if (delegate != null) {
+            delegate.fromApp(message, sessionID);
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    /**
+     * @return sequence of the message or -1 if the journal is closed
+     */
+    private long record(RecordedMessage.Direction direction, SessionID sessionID, Message message) {
+        // serialized outside of the lock
+        byte[] bytes = message.toString().getBytes(CHARSET);
+        String msgType = msgTypeOf(message);
+        synchronized (this) {
+            if (closed) {
+                return -1;
+            }
+            Segment segment = segments.peekLast();
+            if (segment == null || !segment.hasRoomFor(bytes.length)) {
+                if (bytes.length > segmentSize) {
+                    throw new IllegalArgumentException(format("message of %d bytes exceeds the segment size %d", bytes.length, segmentSize));
+                }
+                segment = startSegment();
+            }
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            lastTimestamp = timestamp;
+            int attributes = sessionIndexOf(sessionID) << 1 | (direction == SENT ? 1 : 0);
+            segment.append(bytes, timestamp, attributes, msgType);
+            return nextSequence++;
+        }
+    }
+
+    private Segment startSegment() {
+        if (segments.size() >= maxSegments) {
+            segments.pollFirst().delete();
+        }
+        File file = null;
+        try {
+            file = File.createTempFile("journal-", ".seg", directory);
+            Segment segment = new Segment(file, map(file, segmentSize), nextSequence);
+            segments.addLast(segment);
+            return segment;
+        } catch (IOException e) {
+            if (file != null) {
+                file.delete();
+            }
+            throw new IllegalStateException(format("unable to create journal segment in %s", directory), e);
+        }
+    }
+
+    private int sessionIndexOf(SessionID sessionID) {
+        Integer sessionIndex = sessionIndexes.get(sessionID);
+        if (sessionIndex == null) {
+            sessionIndex = sessionIDs.length;
+            sessionIDs = Arrays.copyOf(sessionIDs, sessionIndex + 1);
+            sessionIDs[sessionIndex] = sessionID;
+            sessionIndexes.put(sessionID, sessionIndex);
+        }
+        return sessionIndex;
+    }
+
+    private QueryIterator newIterator(JournalQuery query) {
+        // compiled outside of the lock, so that recording of messages doesn't wait for it
+        CompiledFIXMessageMatcher compiledMatcher = query.getMatcher() != null ? query.getMatcher().compile() : null;
+        String msgType = query.getMsgType();
+        String matcherMsgType = compiledMatcher != null ? compiledMatcher.getMsgType() : null;
+        synchronized (this) {
+            if (msgType == null) {
+                msgType = matcherMsgType;
+            } else if (matcherMsgType != null && !matcherMsgType.equals(msgType)) {
+                // the matcher can't match any message of the queried type
+                return new QueryIterator(query, compiledMatcher, new ArrayList<SegmentView>(), sessionIDs, messageFactory, dataDictionary);
+            }
+            List<SegmentView> segmentViews = new ArrayList<SegmentView>(segments.size());
+            for (Segment segment : segments) {
+                segmentViews.add(segment.view(msgType));
+            }
+            return new QueryIterator(query, compiledMatcher, segmentViews, sessionIDs, messageFactory, dataDictionary);
+        }
+    }
+
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(size);
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            // the mapping remains valid
+            randomAccessFile.close();
+        }
+    }
+
+    private static String msgTypeOf(Message message) {
+        try {
+            return message.getHeader().getString(MsgType.FIELD);
+        } catch (FieldNotFound e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return index of the first value equal or greater than the given one (values are sorted)
+     */
+    private static int lowerBound(long[] values, int count, long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(int[] values, int count, int value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * segment file and the index of its messages, changed only under the lock of the journal
+     */
+    private static final class Segment {
+
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private final ByteBuffer appendBuffer;
+        private final long firstSequence;
+
+        private int count;
+        // offsets[i] is the start of message i, offsets[count] the end of the last message
+        private int[] offsets = new int[INITIAL_INDEX_SIZE + 1];
+        private long[] timestamps = new long[INITIAL_INDEX_SIZE];
+        // session index << 1 | 1 if sent
+        private int[] attributes = new int[INITIAL_INDEX_SIZE];
+        private final Map<String, EntryList> entriesByMsgType = new HashMap<String, EntryList>();
+
+        private Segment(File file, MappedByteBuffer buffer, long firstSequence) {
+            this.file = file;
+            this.buffer = buffer;
+            // readers use their own duplicates, so the position of the mapped buffer never changes
+            this.appendBuffer = buffer.duplicate();
+            this.firstSequence = firstSequence;
+        }
+
+        boolean hasRoomFor(int length) {
+            return buffer.capacity() - offsets[count] >= length;
+        }
+
+        void append(byte[] bytes, long timestamp, int attributes, String msgType) {
+            if (count == timestamps.length) {
+                // arrays are replaced (not changed) so that views taken before keep their content
+                this.offsets = Arrays.copyOf(offsets, count * 2 + 1);
+                this.timestamps = Arrays.copyOf(timestamps, count * 2);
+                this.attributes = Arrays.copyOf(this.attributes, count * 2);
+            }
+            appendBuffer.put(bytes);
+            timestamps[count] = timestamp;
+            this.attributes[count] = attributes;
+            offsets[count + 1] = offsets[count] + bytes.length;
+            if (msgType != null) {
+                EntryList entries = entriesByMsgType.get(msgType);
+                if (entries == null) {
+                    entries = new EntryList();
+                    entriesByMsgType.put(msgType, entries);
+                }
+                entries.add(count);
+            }
+            count++;
+        }
+
+        /**
+         * @param msgType null for messages of all types
+         */
+        SegmentView view(String msgType) {
+            if (msgType == null) {
+                return new SegmentView(buffer, firstSequence, count, offsets, timestamps, attributes, null, 0);
+            }
+            EntryList entries = entriesByMsgType.get(msgType);
+            if (entries == null) {
+                return new SegmentView(buffer, firstSequence, count, offsets, timestamps, attributes, NO_ENTRIES, 0);
+            }
+            return new SegmentView(buffer, firstSequence, count, offsets, timestamps, attributes, entries.entries, entries.size);
+        }
+
+        void delete() {
+            // the file stays mapped until the buffer is garbage collected, which may prevent its deletion (e.g. on Windows)
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    private static final class EntryList {
+
+        private int[] entries = new int[16];
+        private int size;
+
+        void add(int entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+    }
+
+    /**
+     * content of a segment at the time the view was taken, safe to read without the lock
+     */
+    private static final class SegmentView {
+
+        private final MappedByteBuffer buffer;
+        private final long firstSequence;
+        private final int count;
+        private final int[] offsets;
+        private final long[] timestamps;
+        private final int[] attributes;
+        // null if all messages are candidates
+        private final int[] entries;
+        private final int entryCount;
+
+        private SegmentView(MappedByteBuffer buffer, long firstSequence, int count, int[] offsets, long[] timestamps, int[] attributes, int[] entries, int entryCount) {
+            this.buffer = buffer;
+            this.firstSequence = firstSequence;
+            this.count = count;
+            this.offsets = offsets;
+            this.timestamps = timestamps;
+            this.attributes = attributes;
+            this.entries = entries;
+            this.entryCount = entryCount;
+        }
+    }
+
+    private static final class QueryIterator implements Iterator<RecordedMessage> {
+
+        private final JournalQuery query;
+        private final CompiledFIXMessageMatcher compiledMatcher;
+        private final Iterator<SegmentView> segmentViews;
+        private final SessionID[] sessionIDs;
+        private final MessageFactory messageFactory;
+        private final DataDictionary dataDictionary;
+
+        private SegmentView segmentView;
+        private ByteBuffer rawMessage;
+        // candidate messages of the current segment: [position, end) or entries[position] < end
+        private int position;
+        private int end;
+        private RecordedMessage next;
+
+        private QueryIterator(JournalQuery query, CompiledFIXMessageMatcher compiledMatcher, List<SegmentView> segmentViews, SessionID[] sessionIDs, MessageFactory messageFactory, DataDictionary dataDictionary) {
+            this.query = query;
+            this.compiledMatcher = compiledMatcher;
+            this.segmentViews = segmentViews.iterator();
+            this.sessionIDs = sessionIDs;
+            this.messageFactory = messageFactory;
+            this.dataDictionary = dataDictionary;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = findNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public RecordedMessage next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RecordedMessage result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("journal is append only");
+        }
+
+        private RecordedMessage findNext() {
+            while (true) {
+                int index = nextCandidate();
+                if (index < 0) {
+                    if (!segmentViews.hasNext()) {
+                        return null;
+                    }
+                    startSegment(segmentViews.next());
+                    continue;
+                }
+                RecordedMessage recordedMessage = evaluate(index);
+                if (recordedMessage != null) {
+                    return recordedMessage;
+                }
+            }
+        }
+
+        private void startSegment(SegmentView segmentView) {
+            this.segmentView = segmentView;
+            this.rawMessage = segmentView.buffer.duplicate();
+            int count = segmentView.count;
+            int start = (int) Math.max(0, Math.min(count, query.getFromSequence() - segmentView.firstSequence));
+            int end = (int) Math.max(0, Math.min(count, query.getToSequence() - segmentView.firstSequence));
+            start = Math.max(start, lowerBound(segmentView.timestamps, count, query.getFromTimestamp()));
+            end = Math.min(end, lowerBound(segmentView.timestamps, count, query.getToTimestamp()));
+            this.position = segmentView.entries == null ? start : lowerBound(segmentView.entries, segmentView.entryCount, start);
+            this.end = end;
+        }
+
+        /**
+         * @return index (within the current segment) of the next message selected by the index, -1 if there is none
+         */
+        private int nextCandidate() {
+            if (segmentView == null) {
+                return -1;
+            }
+            int[] entries = segmentView.entries;
+            int[] attributes = segmentView.attributes;
+            RecordedMessage.Direction direction = query.getDirection();
+            while (true) {
+                int index;
+                if (entries == null) {
+                    index = position < end ? position : -1;
+                } else {
+                    index = position < segmentView.entryCount && entries[position] < end ? entries[position] : -1;
+                }
+                if (index < 0) {
+                    return -1;
+                }
+                position++;
+                if (direction == null || directionOf(attributes[index]) == direction) {
+                    return index;
+                }
+            }
+        }
+
+        private RecordedMessage evaluate(int index) {
+            rawMessage.limit(segmentView.offsets[index + 1]).position(segmentView.offsets[index]);
+            if (compiledMatcher != null && !compiledMatcher.mayMatch(rawMessage)) {
+                return null;
+            }
+            byte[] bytes = new byte[rawMessage.remaining()];
+            rawMessage.get(bytes);
+            long sequence = segmentView.firstSequence + index;
+            Message message = parse(new String(bytes, CHARSET), sequence);
+            if (compiledMatcher != null && !compiledMatcher.matches(message)) {
+                return null;
+            }
+            int attributes = segmentView.attributes[index];
+            return new RecordedMessage(sequence, directionOf(attributes), sessionIDs[attributes >>> 1], message, segmentView.timestamps[index]);
+        }
+
+        private Message parse(String rawMessage, long sequence) {
+            try {
+                String beginString = rawMessage.substring(2, rawMessage.indexOf('\u0001'));
+                Message message = messageFactory.create(beginString, MessageUtils.getMessageType(rawMessage));
+                message.fromString(rawMessage, dataDictionary, false);
+                return message;
+            } catch (InvalidMessage e) {
+                throw new IllegalStateException(format("unable to parse journaled message %d", sequence), e);
+            }
+        }
+
+        private static RecordedMessage.Direction directionOf(int attributes) {
+            return (attributes & 1) == 1 ? SENT : RECEIVED;
+        }
+    }
+}
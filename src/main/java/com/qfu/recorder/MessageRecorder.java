@@ -0,0 +1,282 @@
+package com.qfu.recorder;
+
+import com.qfu.matcher.CompiledFIXMessageMatcher;
+import com.qfu.matcher.FIXMessageMatcher;
+import com.qfu.matcher.MatchResult;
+import com.qfu.matcher.NearMiss;
+import com.qfu.matcher.NearMissFinder;
+import org.hamcrest.StringDescription;
+import quickfix.Application;
+import quickfix.DoNotSend;
+import quickfix.FieldNotFound;
+import quickfix.IncorrectDataFormat;
+import quickfix.IncorrectTagValue;
+import quickfix.Message;
+import quickfix.RejectLogon;
+import quickfix.SessionID;
+import quickfix.UnsupportedMessageType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.qfu.recorder.RecordedMessage.Direction.RECEIVED;
+import static com.qfu.recorder.RecordedMessage.Direction.SENT;
+import static java.lang.String.format;
+
+/**
+ * {@link Application} recording all application messages received (fromApp) and sent (toApp) by its sessions, so that
+ * tests can wait for expected messages. Calls are passed to the delegate application (if there is any).
+ * <p>
+ * Messages are stored in a bounded lock free ring buffer, once it is full the oldest messages are overwritten.
+ * Threads awaiting a message are parked and woken up by each new message, evaluating only messages they have not seen
+ * yet. Recorded messages are shared (not copied), so they should not be modified once passed to the session.
+ *
+ * @author agent
+ * @since 10/18/26 8:58 AM
+ */
+public class MessageRecorder implements Application {
+
+    // how many closest messages are described for each expectation not met within the timeout
+    private static final int MAX_DESCRIBED_NEAR_MISSES = 3;
+
+    private final Application delegate;
+    private final AtomicReferenceArray<RecordedMessage> slots;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<Thread>();
+
+    /**
+     * @param capacity maximum number of retained messages (rounded up to a power of two)
+     */
+    public MessageRecorder(int capacity) {
+        this(capacity, null);
+    }
+
+    public MessageRecorder(int capacity, Application delegate) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException(format("invalid capacity %d", capacity));
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.delegate = delegate;
+        this.slots = new AtomicReferenceArray<RecordedMessage>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the first matching message recorded at any time (and still retained) - waiting for it if necessary
+     * @throws TimeoutException if no such message is recorded within the timeout
+     */
+    public RecordedMessage await(FIXMessageMatcher matcher, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        return await(matcher, 0, timeout, unit);
+    }
+
+    /**
+     * @return the first matching message with sequence equal or greater than fromSequence - waiting for it if necessary
+     * @throws TimeoutException if no such message is recorded within the timeout
+     */
+    public RecordedMessage await(FIXMessageMatcher matcher, long fromSequence, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        return awaitAll(Collections.singletonList(matcher), fromSequence, timeout, unit).get(0);
+    }
+
+    /**
+     * @return for each matcher the first matching message recorded at any time (and still retained) - waiting for them if necessary
+     * @throws TimeoutException if not all matchers are satisfied within the timeout
+     */
+    public List<RecordedMessage> awaitAll(Collection<FIXMessageMatcher> matchers, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        return awaitAll(matchers, 0, timeout, unit);
+    }
+
+    /**
+     * Messages recorded before the call are evaluated regardless of the timeout, later ones only until it elapses.
+     *
+     * @return for each matcher the first matching message with sequence equal or greater than fromSequence (in the order of the matchers)
+     * @throws TimeoutException if not all matchers are satisfied within the timeout
+     */
+    public List<RecordedMessage> awaitAll(Collection<FIXMessageMatcher> matchers, long fromSequence, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        FIXMessageMatcher[] pendingMatchers = matchers.toArray(new FIXMessageMatcher[matchers.size()]);
+        CompiledFIXMessageMatcher[] compiledMatchers = new CompiledFIXMessageMatcher[pendingMatchers.length];
+        for (int i = 0; i < pendingMatchers.length; i++) {
+            compiledMatchers[i] = pendingMatchers[i].compile();
+        }
+        RecordedMessage[] found = new RecordedMessage[pendingMatchers.length];
+        int pendingCount = pendingMatchers.length;
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long sequence = Math.max(fromSequence, oldestSequence());
+        // messages recorded before the call are evaluated even if the timeout is zero
+        long awaitedSequence = nextSequence.get();
+        Thread thread = Thread.currentThread();
+        // registered before reading, so that a message recorded after the last read always wakes this thread up
+        waiters.add(thread);
+        try {
+            while (pendingCount > 0) {
+                if (sequence >= awaitedSequence && deadline - System.nanoTime() <= 0) {
+                    // also if messages keep coming, as they might keep this loop busy beyond the timeout
+                    throw new TimeoutException(timeoutMessage(pendingMatchers, found, timeout, unit));
+                }
+                RecordedMessage recordedMessage = slots.get(index(sequence));
+                if (recordedMessage != null && recordedMessage.getSequence() == sequence) {
+                    for (int i = 0; i < compiledMatchers.length; i++) {
+                        if (found[i] == null && compiledMatchers[i].matches(recordedMessage.getMessage())) {
+                            found[i] = recordedMessage;
+                            pendingCount--;
+                        }
+                    }
+                    sequence++;
+                } else if (recordedMessage != null && recordedMessage.getSequence() > sequence) {
+                    // overwritten before it was evaluated
+                    sequence = Math.max(sequence + 1, oldestSequence());
+                } else {
+                    // not recorded yet
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new TimeoutException(timeoutMessage(pendingMatchers, found, timeout, unit));
+                    }
+                    LockSupport.parkNanos(this, remainingNanos);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+        } finally {
+            waiters.remove(thread);
+        }
+        return Arrays.asList(found);
+    }
+
+    /**
+     * @return sequence the next recorded message will get
+     */
+    public long nextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * @return retained messages in the order they were recorded
+     */
+    public List<RecordedMessage> getRecordedMessages() {
+        List<RecordedMessage> result = new ArrayList<RecordedMessage>();
+        long endSequence = nextSequence.get();
+        for (long sequence = oldestSequence(); sequence < endSequence; sequence++) {
+            RecordedMessage recordedMessage = slots.get(index(sequence));
+            if (recordedMessage != null && recordedMessage.getSequence() == sequence) {
+                result.add(recordedMessage);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onCreate(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onCreate(sessionID);
+        }
+    }
+
+    @Override
+    public void onLogon(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onLogon(sessionID);
+        }
+    }
+
+    @Override
+    public void onLogout(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onLogout(sessionID);
+        }
+    }
+
+    @Override
+    public void toAdmin(Message message, SessionID sessionID) {
+        if (delegate != null) {
+            delegate.toAdmin(message, sessionID);
+        }
+    }
+
+    @Override
+    public void fromAdmin(Message message, SessionID sessionID) throws FieldNotFound, IncorrectDataFormat, IncorrectTagValue, RejectLogon {
+        if (delegate != null) {
+            delegate.fromAdmin(message, sessionID);
+        }
+    }
+
+    @Override
+    public void toApp(Message message, SessionID sessionID) throws DoNotSend {
+        // a message the delegate refuses to send is not recorded
+        if (delegate != null) {
+            delegate.toApp(message, sessionID);
+        }
+        record(SENT, sessionID, message);
+    }
+
+    @Override
+    public void fromApp(Message message, SessionID sessionID) throws FieldNotFound, IncorrectDataFormat, IncorrectTagValue, UnsupportedMessageType {
+        record(RECEIVED, sessionID, message);
+        if (delegate != null) {
+            delegate.fromApp(message, sessionID);
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void record(RecordedMessage.Direction direction, SessionID sessionID, Message message) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set(index(sequence), new RecordedMessage(sequence, direction, sessionID, message, System.currentTimeMillis()));
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private long oldestSequence() {
+        return Math.max(0, nextSequence.get() - slots.length());
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    /**
+     * lists the expectations not met together with the closest retained messages
+     */
+    private String timeoutMessage(FIXMessageMatcher[] matchers, RecordedMessage[] found, long timeout, TimeUnit unit) {
+        List<RecordedMessage> recordedMessages = getRecordedMessages();
+        List<Message> messages = new ArrayList<Message>(recordedMessages.size());
+        for (RecordedMessage recordedMessage : recordedMessages) {
+            messages.add(recordedMessage.getMessage());
+        }
+        NearMissFinder nearMissFinder = new NearMissFinder(MAX_DESCRIBED_NEAR_MISSES);
+
+        StringBuilder message = new StringBuilder(format("within %d %s no message recorded matching:", timeout, unit.toString().toLowerCase()));
+        for (int i = 0; i < matchers.length; i++) {
+            if (found[i] == null) {
+                message.append("\n  ").append(StringDescription.toString(matchers[i]));
+                for (NearMiss nearMiss : nearMissFinder.findClosest(matchers[i], messages)) {
+                    RecordedMessage recordedMessage = recordedMessages.get(nearMiss.getPosition());
+                    message.append(format("\n    closest %s message %d satisfied %d of %d expectations",
+                            recordedMessage.getDirection().toString().toLowerCase(), recordedMessage.getSequence(),
+                            nearMiss.getSatisfiedCount(), nearMiss.getExpectationCount()));
+                    List<MatchResult> mismatches = nearMiss.getMismatches();
+                    for (int j = 0; j < mismatches.size(); j++) {
+                        message.append(j == 0 ? ": " : ", ").append(mismatches.get(j));
+                    }
+                }
+            }
+        }
+        return message.toString();
+    }
+}
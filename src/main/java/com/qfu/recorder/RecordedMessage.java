@@ -0,0 +1,64 @@
+package com.qfu.recorder;
+
+import quickfix.Message;
+import quickfix.SessionID;
+
+import static java.lang.String.format;
+
+/**
+ * Message captured by {@link MessageRecorder} or {@link MessageJournal}.
+ *
+ * @author agent
+ * @since 10/18/26 8:58 AM
+ */
+public final class RecordedMessage {
+
+    public enum Direction {
+        RECEIVED, SENT
+    }
+
+    private final long sequence;
+    private final Direction direction;
+    private final SessionID sessionID;
+    private final Message message;
+    private final long timestamp;
+
+    RecordedMessage(long sequence, Direction direction, SessionID sessionID, Message message, long timestamp) {
+        this.sequence = sequence;
+        this.direction = direction;
+        this.sessionID = sessionID;
+        this.message = message;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return position of the message within all messages recorded by the recorder (starting with 0)
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public SessionID getSessionID() {
+        return sessionID;
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * @return time the message was recorded at (in milliseconds since epoch)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return format("RecordedMessage{sequence=%d, direction=%s, sessionID=%s, timestamp=%d, message=%s}", sequence, direction, sessionID, timestamp, message);
+    }
+}
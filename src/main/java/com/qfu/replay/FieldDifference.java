@@ -0,0 +1,53 @@
+package com.qfu.replay;
+
+import static java.lang.String.format;
+
+/**
+ * Different value of one field of a {@link MessageDiff}.
+ *
+ * @author agent
+ * @since 10/18/26 9:22 AM
+ */
+public final class FieldDifference {
+
+    private final String path;
+    private final String expectedValue;
+    private final String actualValue;
+
+    FieldDifference(String path, String expectedValue, String actualValue) {
+        this.path = path;
+        this.expectedValue = expectedValue;
+        this.actualValue = actualValue;
+    }
+
+    /**
+     * @return tag of the field, prefixed with the group entries it is nested in - e.g. "38" or "555[2].600"
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return expected raw value or null if the field was not expected
+     */
+    public String getExpectedValue() {
+        return expectedValue;
+    }
+
+    /**
+     * @return actual raw value or null if the field is missing
+     */
+    public String getActualValue() {
+        return actualValue;
+    }
+
+    @Override
+    public String toString() {
+        if (expectedValue == null) {
+            return format("%s unexpected %s", path, actualValue);
+        } else if (actualValue == null) {
+            return format("%s missing %s", path, expectedValue);
+        }
+        return format("%s %s instead of %s", path, actualValue, expectedValue);
+    }
+}
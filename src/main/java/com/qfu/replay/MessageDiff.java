@@ -0,0 +1,57 @@
+package com.qfu.replay;
+
+import quickfix.Message;
+
+import java.util.List;
+
+/**
+ * Differences between an expected and an actual message with the same correlation key.
+ *
+ * @author agent
+ * @since 10/18/26 9:22 AM
+ */
+public final class MessageDiff {
+
+    private final String key;
+    private final Message expected;
+    private final Message actual;
+    private final List<FieldDifference> differences;
+
+    MessageDiff(String key, Message expected, Message actual, List<FieldDifference> differences) {
+        this.key = key;
+        this.expected = expected;
+        this.actual = actual;
+        this.differences = differences;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Message getExpected() {
+        return expected;
+    }
+
+    public Message getActual() {
+        return actual;
+    }
+
+    public List<FieldDifference> getDifferences() {
+        return differences;
+    }
+
+    /**
+     * @return compact one line report, e.g. "8|17=exec-1: 38 50 instead of 100; 58 missing filled"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(key).append(": ");
+        for (int i = 0; i < differences.size(); i++) {
+            if (i > 0) {
+                text.append("; ");
+            }
+            text.append(differences.get(i));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.qfu.replay;
+
+import quickfix.Message;
+
+/**
+ * Receives outcomes of {@link ReplayReconciler#reconcile}, on the calling thread, as soon as they are known.
+ *
+ * @author agent
+ * @since 10/18/26 9:22 AM
+ */
+public interface ReconciliationListener {
+
+    /**
+     * expected and actual messages with the same correlation key that differ
+     */
+    void onMismatch(MessageDiff diff);
+
+    /**
+     * expected message without an actual one with the same correlation key within the window
+     */
+    void onMissing(String key, Message expected);
+
+    /**
+     * actual message without an expected one with the same correlation key within the window
+     */
+    void onUnexpected(String key, Message actual);
+}
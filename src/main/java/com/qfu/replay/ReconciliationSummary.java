@@ -0,0 +1,53 @@
+package com.qfu.replay;
+
+import static java.lang.String.format;
+
+/**
+ * Counts of the outcomes of {@link ReplayReconciler#reconcile}.
+ *
+ * @author agent
+ * @since 10/18/26 9:22 AM
+ */
+public final class ReconciliationSummary {
+
+    private final long matchedCount;
+    private final long mismatchedCount;
+    private final long missingCount;
+    private final long unexpectedCount;
+
+    ReconciliationSummary(long matchedCount, long mismatchedCount, long missingCount, long unexpectedCount) {
+        this.matchedCount = matchedCount;
+        this.mismatchedCount = mismatchedCount;
+        this.missingCount = missingCount;
+        this.unexpectedCount = unexpectedCount;
+    }
+
+    public long getMatchedCount() {
+        return matchedCount;
+    }
+
+    public long getMismatchedCount() {
+        return mismatchedCount;
+    }
+
+    public long getMissingCount() {
+        return missingCount;
+    }
+
+    public long getUnexpectedCount() {
+        return unexpectedCount;
+    }
+
+    /**
+     * @return true if every expected message has an equivalent actual one and there is no other actual message
+     */
+    public boolean isReconciled() {
+        return mismatchedCount == 0 && missingCount == 0 && unexpectedCount == 0;
+    }
+
+    @Override
+    public String toString() {
+        return format("ReconciliationSummary{matched=%d, mismatched=%d, missing=%d, unexpected=%d}",
+                matchedCount, mismatchedCount, missingCount, unexpectedCount);
+    }
+}
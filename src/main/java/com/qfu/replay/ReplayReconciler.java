@@ -0,0 +1,331 @@
+package com.qfu.replay;
+
+import quickfix.Field;
+import quickfix.FieldMap;
+import quickfix.FieldNotFound;
+import quickfix.Group;
+import quickfix.Message;
+import quickfix.field.BodyLength;
+import quickfix.field.CheckSum;
+import quickfix.field.ClOrdID;
+import quickfix.field.ExecID;
+import quickfix.field.MsgSeqNum;
+import quickfix.field.MsgType;
+import quickfix.field.OrderID;
+import quickfix.field.SendingTime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.lang.String.format;
+
+/**
+ * Reconciles an expected message stream (e.g. the recorded output of a previous release) with an actual one (the
+ * output of a replay) - pairs messages with the same correlation key and reports the differences of each pair and
+ * the messages without a counterpart.
+ * <p>
+ * The correlation key of a message is its MsgType and the value of the first correlation tag it has (ExecID, ClOrdID,
+ * OrderID by default). Messages with none of the tags are paired by their order within their MsgType, messages sharing
+ * the same key by their order within the key. Both streams are read alternately, one message at a time, and a message
+ * waits for its counterpart only until the other stream moves a window of messages past it, so messages can be
+ * reordered within the window and memory is bounded by the window size, not by the length of the streams.
+ * <p>
+ * Fields are compared by their raw values, including header, trailer and group entries. Tags that differ between runs
+ * by design (BodyLength, MsgSeqNum, SendingTime, CheckSum by default) are ignored.
+ *
+ * @author agent
+ * @since 10/18/26 9:22 AM
+ */
+public final class ReplayReconciler {
+
+    private static final int DEFAULT_WINDOW = 10000;
+
+    private int[] correlationTags = {ExecID.FIELD, ClOrdID.FIELD, OrderID.FIELD};
+    private final Set<Integer> ignoredTags = new HashSet<Integer>();
+    private int window = DEFAULT_WINDOW;
+
+    public ReplayReconciler() {
+        ignoring(BodyLength.FIELD, MsgSeqNum.FIELD, SendingTime.FIELD, CheckSum.FIELD);
+    }
+
+    /**
+     * @param tags correlation tags in the order of their priority (replaces the default ExecID, ClOrdID, OrderID)
+     */
+    public ReplayReconciler correlatedBy(int... tags) {
+        this.correlationTags = tags.clone();
+        return this;
+    }
+
+    /**
+     * adds tags to ignore (at any level, including group entries)
+     */
+    public ReplayReconciler ignoring(int... tags) {
+        for (int tag : tags) {
+            ignoredTags.add(tag);
+        }
+        return this;
+    }
+
+    /**
+     * @param window how many messages of the other stream a message waits for its counterpart
+     */
+    public ReplayReconciler withWindow(int window) {
+        if (window < 0) {
+            throw new IllegalArgumentException(format("invalid window %d", window));
+        }
+        this.window = window;
+        return this;
+    }
+
+    public ReconciliationSummary reconcile(Iterator<Message> expected, Iterator<Message> actual, ReconciliationListener listener) {
+        Reconciliation reconciliation = new Reconciliation(listener);
+        Stream expectedStream = new Stream(true);
+        Stream actualStream = new Stream(false);
+
+        while (expected.hasNext() || actual.hasNext()) {
+            if (expected.hasNext()) {
+                reconciliation.add(expected.next(), expectedStream, actualStream);
+            } else {
+                expectedStream.exhausted = true;
+            }
+            if (actual.hasNext()) {
+                reconciliation.add(actual.next(), actualStream, expectedStream);
+            } else {
+                actualStream.exhausted = true;
+            }
+            reconciliation.evict(expectedStream, actualStream);
+            reconciliation.evict(actualStream, expectedStream);
+        }
+        expectedStream.exhausted = true;
+        actualStream.exhausted = true;
+        reconciliation.evict(expectedStream, actualStream);
+        reconciliation.evict(actualStream, expectedStream);
+
+        return new ReconciliationSummary(
+                reconciliation.matchedCount, reconciliation.mismatchedCount, reconciliation.missingCount, reconciliation.unexpectedCount
+        );
+    }
+
+    /**
+     * @return differences of the two messages (ignoring the ignored tags), empty if they are equivalent
+     */
+    public List<FieldDifference> compare(Message expected, Message actual) {
+        List<FieldDifference> differences = new ArrayList<FieldDifference>();
+        compare("", expected.getHeader(), actual.getHeader(), differences);
+        compare("", expected, actual, differences);
+        compare("", expected.getTrailer(), actual.getTrailer(), differences);
+        return differences;
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private String correlationKey(Message message, Stream stream) {
+        String msgType = value(message.getHeader(), MsgType.FIELD);
+        for (int tag : correlationTags) {
+            String value = value(message, tag);
+            if (value == null) {
+                value = value(message.getHeader(), tag);
+            }
+            if (value != null) {
+                return msgType + "|" + tag + "=" + value;
+            }
+        }
+        // no correlation tag, paired by order within the message type
+        Integer count = stream.keylessCounts.get(msgType);
+        count = count == null ? 1 : count + 1;
+        stream.keylessCounts.put(msgType, count);
+        return msgType + "|#" + count;
+    }
+
+    private void compare(String path, FieldMap expected, FieldMap actual, List<FieldDifference> differences) {
+        Set<Integer> tags = new TreeSet<Integer>();
+        addFieldTags(expected, tags);
+        addFieldTags(actual, tags);
+        for (int tag : tags) {
+            if (ignoredTags.contains(tag)) {
+                continue;
+            }
+            String expectedValue = value(expected, tag);
+            String actualValue = value(actual, tag);
+            if (expectedValue == null ? actualValue != null : !expectedValue.equals(actualValue)) {
+                differences.add(new FieldDifference(path + tag, expectedValue, actualValue));
+            }
+        }
+
+        Set<Integer> groupTags = new TreeSet<Integer>();
+        addGroupTags(expected, groupTags);
+        addGroupTags(actual, groupTags);
+        for (int groupTag : groupTags) {
+            if (ignoredTags.contains(groupTag)) {
+                continue;
+            }
+            List<Group> expectedEntries = entries(expected, groupTag);
+            List<Group> actualEntries = entries(actual, groupTag);
+            int entryCount = Math.max(expectedEntries.size(), actualEntries.size());
+            for (int i = 0; i < entryCount; i++) {
+                compare(
+                        path + groupTag + "[" + (i + 1) + "].",
+                        i < expectedEntries.size() ? expectedEntries.get(i) : null,
+                        i < actualEntries.size() ? actualEntries.get(i) : null,
+                        differences
+                );
+            }
+        }
+    }
+
+    private static void addFieldTags(FieldMap fieldMap, Set<Integer> tags) {
+        if (fieldMap != null) {
+            Iterator<Field<?>> fields = fieldMap.iterator();
+            while (fields.hasNext()) {
+                tags.add(fields.next().getTag());
+            }
+        }
+    }
+
+    private static void addGroupTags(FieldMap fieldMap, Set<Integer> groupTags) {
+        if (fieldMap != null) {
+            Iterator<Integer> groupKeys = fieldMap.groupKeyIterator();
+            while (groupKeys.hasNext()) {
+                groupTags.add(groupKeys.next());
+            }
+        }
+    }
+
+    private static List<Group> entries(FieldMap fieldMap, int groupTag) {
+        // hasGroup(tag) doesn't register an empty group list in the message as getGroups(tag) would
+        return fieldMap != null && fieldMap.hasGroup(groupTag) ? fieldMap.getGroups(groupTag) : Collections.<Group>emptyList();
+    }
+
+    private static String value(FieldMap fieldMap, int tag) {
+        if (fieldMap == null || !fieldMap.isSetField(tag)) {
+            return null;
+        }
+        try {
+            return fieldMap.getString(tag);
+        } catch (FieldNotFound e) {
+            return null;
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Pending {
+
+        private final String key;
+        private final Message message;
+        private final long position;
+        private boolean paired;
+
+        Pending(String key, Message message, long position) {
+            this.key = key;
+            this.message = message;
+            this.position = position;
+        }
+    }
+
+    private static final class Stream {
+
+        private final boolean expected;
+        private final Map<String, ArrayDeque<Pending>> pendingByKey = new HashMap<String, ArrayDeque<Pending>>();
+        // in the order of arrival, paired messages are removed lazily
+        private final ArrayDeque<Pending> pendingInOrder = new ArrayDeque<Pending>();
+        private final Map<String, Integer> keylessCounts = new HashMap<String, Integer>();
+        private long position;
+        private boolean exhausted;
+
+        Stream(boolean expected) {
+            this.expected = expected;
+        }
+    }
+
+    private final class Reconciliation {
+
+        private final ReconciliationListener listener;
+        private long matchedCount;
+        private long mismatchedCount;
+        private long missingCount;
+        private long unexpectedCount;
+
+        Reconciliation(ReconciliationListener listener) {
+            this.listener = listener;
+        }
+
+        void add(Message message, Stream stream, Stream otherStream) {
+            String key = correlationKey(message, stream);
+            ArrayDeque<Pending> counterparts = otherStream.pendingByKey.get(key);
+            if (counterparts != null) {
+                Pending counterpart = counterparts.poll();
+                if (counterparts.isEmpty()) {
+                    otherStream.pendingByKey.remove(key);
+                }
+                counterpart.paired = true;
+                if (stream.expected) {
+                    pair(key, message, counterpart.message);
+                } else {
+                    pair(key, counterpart.message, message);
+                }
+            } else {
+                Pending pending = new Pending(key, message, stream.position);
+                ArrayDeque<Pending> sameKey = stream.pendingByKey.get(key);
+                if (sameKey == null) {
+                    sameKey = new ArrayDeque<Pending>();
+                    stream.pendingByKey.put(key, sameKey);
+                }
+                sameKey.add(pending);
+                stream.pendingInOrder.add(pending);
+            }
+            stream.position++;
+        }
+
+        /**
+         * reports messages of the stream whose counterpart can't come anymore
+         */
+        void evict(Stream stream, Stream otherStream) {
+            while (!stream.pendingInOrder.isEmpty()) {
+                Pending oldest = stream.pendingInOrder.peek();
+                if (!oldest.paired && !otherStream.exhausted && oldest.position + window >= otherStream.position) {
+                    return;
+                }
+                stream.pendingInOrder.poll();
+                if (oldest.paired) {
+                    continue;
+                }
+                // the oldest pending message is also the oldest one of its key
+                ArrayDeque<Pending> sameKey = stream.pendingByKey.get(oldest.key);
+                sameKey.poll();
+                if (sameKey.isEmpty()) {
+                    stream.pendingByKey.remove(oldest.key);
+                }
+                if (stream.expected) {
+                    missingCount++;
+                    listener.onMissing(oldest.key, oldest.message);
+                } else {
+                    unexpectedCount++;
+                    listener.onUnexpected(oldest.key, oldest.message);
+                }
+            }
+        }
+
+        private void pair(String key, Message expected, Message actual) {
+            List<FieldDifference> differences = compare(expected, actual);
+            if (differences.isEmpty()) {
+                matchedCount++;
+            } else {
+                mismatchedCount++;
+                listener.onMismatch(new MessageDiff(key, expected, actual, differences));
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.qfu.router;
+
+import quickfix.Message;
+import quickfix.SessionID;
+
+/**
+ * Handles messages routed by {@link MessageRouter}. Messages of one session are handled one at a time, in the order
+ * they were received.
+ *
+ * @author agent
+ * @since 10/18/26 9:56 AM
+ */
+public interface MessageHandler {
+
+    void onMessage(Message message, SessionID sessionID) throws Exception;
+}
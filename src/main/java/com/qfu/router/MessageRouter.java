@@ -0,0 +1,373 @@
+package com.qfu.router;
+
+import com.qfu.matcher.FIXMessageMatcher;
+import com.qfu.matcher.MatcherIndex;
+import org.hamcrest.StringDescription;
+import quickfix.Application;
+import quickfix.DoNotSend;
+import quickfix.FieldNotFound;
+import quickfix.IncorrectDataFormat;
+import quickfix.IncorrectTagValue;
+import quickfix.Message;
+import quickfix.RejectLogon;
+import quickfix.SessionID;
+import quickfix.UnsupportedMessageType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Application} routing received application messages (fromApp) to the handlers registered against matching
+ * {@link FIXMessageMatcher}s. Calls are passed to the delegate application (if there is any) first - a message the
+ * delegate rejects is not routed.
+ * <p>
+ * Matching routes are found by a {@link MatcherIndex}, so only routes with a chance to match are evaluated. The message
+ * is then handed off to the ordered executor of its session and the QuickFIX/J session thread returns immediately -
+ * slow handlers delay only later messages of their own session. Messages of one session are handled one at a time in
+ * the order they were received, each by all of its matching routes in the order of their registration. Sessions share
+ * the threads of the router's executor (a cached daemon thread pool by default, see also {@link #withVirtualThreads}).
+ * While the executor rejects a session (e.g. it is saturated or shut down), its messages are handled by the thread
+ * submitting them - the QuickFIX/J session thread.
+ * <p>
+ * Handler exceptions are counted by the route and passed to the uncaught exception handler of the handling thread,
+ * later messages are handled as usual. Queue depths of the sessions and latencies of the routes are available while
+ * the router runs. Routed messages are shared with the handlers (not copied), so they should not be modified.
+ *
+ * @author agent
+ * @since 10/18/26 9:56 AM
+ */
+public class MessageRouter implements Application {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final Route[] NO_ROUTES = new Route[0];
+
+    private final Application delegate;
+    private final Executor executor;
+    // executor created (and shut down) by this router, null if passed in
+    private final ExecutorService ownedExecutor;
+
+    private final List<Route> registeredRoutes = new ArrayList<Route>();
+    // null when a route was registered since the index was built
+    private volatile RouteTable routeTable;
+
+    private final ConcurrentMap<SessionID, SessionExecutor> sessionExecutors = new ConcurrentHashMap<SessionID, SessionExecutor>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Object idleLock = new Object();
+    // called once the routed message is handled and no longer counted in the queue depth of its session
+    private final Runnable handledCallback = new Runnable() {
+        @Override
+        public void run() {
+            handled();
+        }
+    };
+    private volatile boolean shutdown;
+
+    public MessageRouter() {
+        this(null);
+    }
+
+    public MessageRouter(Application delegate) {
+        this(delegate, null, Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "qfu-router-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }));
+    }
+
+    /**
+     * @param executor runs the handlers, it is not shut down by this router
+     */
+    public MessageRouter(Application delegate, Executor executor) {
+        this(delegate, executor, null);
+    }
+
+    private MessageRouter(Application delegate, Executor executor, ExecutorService ownedExecutor) {
+        this.delegate = delegate;
+        this.executor = ownedExecutor != null ? ownedExecutor : executor;
+        this.ownedExecutor = ownedExecutor;
+    }
+
+    /**
+     * @return router handling each message on a new virtual thread (still one message of a session at a time)
+     * @throws UnsupportedOperationException if the runtime doesn't support virtual threads (before Java 21)
+     */
+    public static MessageRouter withVirtualThreads(Application delegate) {
+        ExecutorService virtualThreadExecutor;
+        try {
+            virtualThreadExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("virtual threads are not supported by this runtime", e);
+        }
+        return new MessageRouter(delegate, null, virtualThreadExecutor);
+    }
+
+    /**
+     * Registers a route named by the matcher description. The matcher should not be changed afterwards.
+     */
+    public MessageRouter route(FIXMessageMatcher matcher, MessageHandler handler) {
+        return route(StringDescription.toString(matcher), matcher, handler);
+    }
+
+    /**
+     * Registers a route. The matcher should not be changed afterwards.
+     */
+    public MessageRouter route(String name, FIXMessageMatcher matcher, MessageHandler handler) {
+        synchronized (registeredRoutes) {
+            registeredRoutes.add(new Route(name, matcher, handler));
+            // the index is rebuilt once by the next routed message, not by each registration
+            routeTable = null;
+        }
+        return this;
+    }
+
+    public List<RouteMetrics> getRouteMetrics() {
+        List<RouteMetrics> metrics = new ArrayList<RouteMetrics>();
+        synchronized (registeredRoutes) {
+            for (Route route : registeredRoutes) {
+                metrics.add(route.metrics);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @return number of messages of the session waiting to be handled or being handled
+     */
+    public int getQueueDepth(SessionID sessionID) {
+        SessionExecutor sessionExecutor = sessionExecutors.get(sessionID);
+        return sessionExecutor != null ? sessionExecutor.getDepth() : 0;
+    }
+
+    public Map<SessionID, Integer> getQueueDepths() {
+        Map<SessionID, Integer> queueDepths = new HashMap<SessionID, Integer>();
+        for (Map.Entry<SessionID, SessionExecutor> entry : sessionExecutors.entrySet()) {
+            queueDepths.put(entry.getKey(), entry.getValue().getDepth());
+        }
+        return Collections.unmodifiableMap(queueDepths);
+    }
+
+    /**
+     * Waits until all routed messages are handled.
+     *
+     * @return false if some messages are still pending after the timeout
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idleLock) {
+            while (pendingCount.get() > 0) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(idleLock, remainingNanos);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops routing further messages (they are still passed to the delegate), waits until the routed ones are handled
+     * and shuts down the executor created by this router.
+     *
+     * @return false if some messages are still pending after the timeout
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        shutdown = true;
+        boolean idle = awaitIdle(timeout, unit);
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        return idle;
+    }
+
+    @Override
+    public void onCreate(SessionID sessionID) {
+        sessionExecutor(sessionID);
+        if (delegate != null) {
+            delegate.onCreate(sessionID);
+        }
+    }
+
+    @Override
+    public void onLogon(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onLogon(sessionID);
+        }
+    }
+
+    @Override
+    public void onLogout(SessionID sessionID) {
+        if (delegate != null) {
+            delegate.onLogout(sessionID);
+        }
+    }
+
+    @Override
+    public void toAdmin(Message message, SessionID sessionID) {
+        if (delegate != null) {
+            delegate.toAdmin(message, sessionID);
+        }
+    }
+
+    @Override
+    public void fromAdmin(Message message, SessionID sessionID) throws FieldNotFound, IncorrectDataFormat, IncorrectTagValue, RejectLogon {
+        if (delegate != null) {
+            delegate.fromAdmin(message, sessionID);
+        }
+    }
+
+    @Override
+    public void toApp(Message message, SessionID sessionID) throws DoNotSend {
+        if (delegate != null) {
+            delegate.toApp(message, sessionID);
+        }
+    }
+
+    @Override
+    public void fromApp(Message message, SessionID sessionID) throws FieldNotFound, IncorrectDataFormat, IncorrectTagValue, UnsupportedMessageType {
+        if (delegate != null) {
+            delegate.fromApp(message, sessionID);
+        }
+        if (shutdown) {
+            return;
+        }
+        Route[] routes = routeTable().findMatching(message);
+        if (routes.length == 0) {
+            return;
+        }
+        pendingCount.incrementAndGet();
+        sessionExecutor(sessionID).execute(new RoutedMessage(message, sessionID, routes));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private RouteTable routeTable() {
+        RouteTable routeTable = this.routeTable;
+        if (routeTable == null) {
+            synchronized (registeredRoutes) {
+                routeTable = this.routeTable;
+                if (routeTable == null) {
+                    routeTable = new RouteTable(registeredRoutes);
+                    this.routeTable = routeTable;
+                }
+            }
+        }
+        return routeTable;
+    }
+
+    private SessionExecutor sessionExecutor(SessionID sessionID) {
+        SessionExecutor sessionExecutor = sessionExecutors.get(sessionID);
+        if (sessionExecutor == null) {
+            SessionExecutor newSessionExecutor = new SessionExecutor(executor, handledCallback);
+            sessionExecutor = sessionExecutors.putIfAbsent(sessionID, newSessionExecutor);
+            if (sessionExecutor == null) {
+                sessionExecutor = newSessionExecutor;
+            }
+        }
+        return sessionExecutor;
+    }
+
+    private void handled() {
+        if (pendingCount.decrementAndGet() == 0) {
+            synchronized (idleLock) {
+                idleLock.notifyAll();
+            }
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Route {
+
+        private final FIXMessageMatcher matcher;
+        private final MessageHandler handler;
+        private final RouteMetrics metrics;
+
+        private Route(String name, FIXMessageMatcher matcher, MessageHandler handler) {
+            this.matcher = matcher;
+            this.handler = handler;
+            this.metrics = new RouteMetrics(name);
+        }
+    }
+
+    /**
+     * immutable snapshot of the registered routes
+     */
+    private static final class RouteTable {
+
+        private final Route[] routes;
+        private final MatcherIndex index;
+
+        private RouteTable(List<Route> routes) {
+            this.routes = routes.toArray(new Route[routes.size()]);
+            List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>(routes.size());
+            for (Route route : routes) {
+                matchers.add(route.matcher);
+            }
+            this.index = new MatcherIndex(matchers);
+        }
+
+        Route[] findMatching(Message message) {
+            if (routes.length == 0) {
+                return NO_ROUTES;
+            }
+            int[] routeIds = index.findMatchingIndexes(message);
+            if (routeIds.length == 0) {
+                return NO_ROUTES;
+            }
+            Route[] matchingRoutes = new Route[routeIds.length];
+            for (int i = 0; i < routeIds.length; i++) {
+                matchingRoutes[i] = routes[routeIds[i]];
+            }
+            return matchingRoutes;
+        }
+    }
+
+    private final class RoutedMessage implements Runnable {
+
+        private final Message message;
+        private final SessionID sessionID;
+        private final Route[] routes;
+
+        private RoutedMessage(Message message, SessionID sessionID, Route[] routes) {
+            this.message = message;
+            this.sessionID = sessionID;
+            this.routes = routes;
+        }
+
+        @Override
+        public void run() {
+            for (Route route : routes) {
+                long startNanos = System.nanoTime();
+                boolean failed = false;
+                try {
+                    route.handler.onMessage(message, sessionID);
+                } catch (Throwable e) {
+                    failed = true;
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                } finally {
+                    route.metrics.record(System.nanoTime() - startNanos, failed);
+                }
+            }
+        }
+    }
+}
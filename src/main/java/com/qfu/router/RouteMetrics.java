@@ -0,0 +1,74 @@
+package com.qfu.router;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+import static java.lang.String.format;
+
+/**
+ * Counters of a route of a {@link MessageRouter} - handled messages, failed handler calls and handler latency.
+ * Counters are {@link LongAdder}s updated by the session threads without contention and read without stopping them.
+ *
+ * @author agent
+ * @since 10/18/26 9:56 AM
+ */
+public final class RouteMetrics {
+
+    private final String name;
+    private final LongAdder handledCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(new LongBinaryOperator() {
+        @Override
+        public long applyAsLong(long left, long right) {
+            return Math.max(left, right);
+        }
+    }, 0L);
+
+    RouteMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return number of handler calls, including the failed ones
+     */
+    public long getHandledCount() {
+        return handledCount.sum();
+    }
+
+    /**
+     * @return number of handler calls which threw an exception
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getMeanLatencyNanos() {
+        long handledCount = this.handledCount.sum();
+        return handledCount == 0 ? 0 : totalLatencyNanos.sum() / handledCount;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    void record(long latencyNanos, boolean failed) {
+        handledCount.increment();
+        if (failed) {
+            failedCount.increment();
+        }
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    @Override
+    public String toString() {
+        return format("%s: handled=%d, failed=%d, meanLatency=%dns, maxLatency=%dns",
+                name, getHandledCount(), getFailedCount(), getMeanLatencyNanos(), getMaxLatencyNanos());
+    }
+}
@@ -0,0 +1,89 @@
+package com.qfu.router;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tasks of one session one at a time, in the order they were submitted, on a shared executor.
+ * <p>
+ * The session is scheduled on the executor only when its first task arrives and then drains its queue. After
+ * {@value #BATCH_SIZE} tasks it is rescheduled, so that a busy session doesn't hold a pooled thread forever.
+ * If the executor rejects the session (it is shut down or saturated), the thread scheduling it runs a batch of its tasks
+ * and tries again, so that the queued tasks are never left without a thread running them.
+ *
+ * @author agent
+ * @since 10/18/26 9:56 AM
+ */
+final class SessionExecutor implements Runnable {
+
+    static final int BATCH_SIZE = 64;
+
+    private final Executor executor;
+    // run after each task is done and no longer counted
+    private final Runnable afterTask;
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+    // queued and running tasks
+    private final AtomicInteger depth = new AtomicInteger();
+
+    SessionExecutor(Executor executor, Runnable afterTask) {
+        this.executor = executor;
+        this.afterTask = afterTask;
+    }
+
+    /**
+     * @param task must not throw exceptions
+     */
+    void execute(Runnable task) {
+        // queued before counted, so a counted task is always in the queue
+        tasks.add(task);
+        if (depth.getAndIncrement() == 0) {
+            schedule();
+        }
+    }
+
+    int getDepth() {
+        return depth.get();
+    }
+
+    @Override
+    public void run() {
+        if (runBatch()) {
+            schedule();
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void schedule() {
+        while (true) {
+            try {
+                executor.execute(this);
+                return;
+            } catch (RejectedExecutionException e) {
+                // the queued tasks are counted, so nobody else schedules this session - they are run by this thread instead
+                if (!runBatch()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if some tasks remain to be run
+     */
+    private boolean runBatch() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tasks.poll().run();
+            boolean empty = depth.decrementAndGet() == 0;
+            afterTask.run();
+            if (empty) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
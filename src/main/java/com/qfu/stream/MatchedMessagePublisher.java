@@ -0,0 +1,179 @@
+package com.qfu.stream;
+
+import com.qfu.matcher.FIXMessageMatcher;
+import com.qfu.matcher.MatcherIndex;
+import quickfix.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.String.format;
+
+/**
+ * Publishes messages (e.g. received by a FIX gateway) to subscribers, each of them getting only the messages matching
+ * its own {@link FIXMessageMatcher}. Follows the contract of {@code java.util.concurrent.Flow.Publisher}, see
+ * {@link MessageSubscriber} and {@link MessageSubscription}, but doesn't implement the {@code Flow} interfaces, as they
+ * are not available on Java 8.
+ * <p>
+ * Subscribers are matched through a {@link MatcherIndex}, so only subscriptions with a chance to match are evaluated.
+ * Each subscription buffers at most its capacity of messages and delivers them only as requested (demand based
+ * backpressure), in batches, on the given executor. When a buffer is full, its {@link OverflowPolicy} either blocks
+ * the publishing thread, drops the oldest message or conflates messages by key. Note that a blocking subscription
+ * holds back the delivery to the subscriptions evaluated after it.
+ *
+ * @author agent
+ * @since 10/18/26 10:01 AM
+ */
+public final class MatchedMessagePublisher {
+
+    private static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final Executor executor;
+    private final int maxBatchSize;
+
+    private final List<MessageSubscription> subscriptions = new ArrayList<MessageSubscription>();
+    // null when the subscriptions changed since the index was built
+    private volatile SubscriptionTable subscriptionTable;
+    private volatile boolean closed;
+
+    /**
+     * Publisher delivering on the common {@link ForkJoinPool} in batches of up to {@value #DEFAULT_BATCH_SIZE} messages.
+     */
+    public MatchedMessagePublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    public MatchedMessagePublisher(Executor executor, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException(format("invalid batch size %d", maxBatchSize));
+        }
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Subscribes to messages matching the matcher, which should not be changed afterwards. The subscriber gets its
+     * subscription via {@link MessageSubscriber#onSubscribe} (on the executor) and the messages published after this
+     * call once it requests them.
+     *
+     * @param capacity maximum number of buffered messages
+     */
+    public MessageSubscription subscribe(FIXMessageMatcher matcher, MessageSubscriber subscriber, int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(format("invalid capacity %d", capacity));
+        }
+        MessageSubscription subscription = new MessageSubscription(matcher, subscriber, capacity, overflowPolicy, maxBatchSize, executor, this);
+        synchronized (subscriptions) {
+            if (closed) {
+                subscription.complete();
+            } else {
+                subscriptions.add(subscription);
+                subscriptionTable = null;
+            }
+        }
+        subscription.start();
+        return subscription;
+    }
+
+    /**
+     * Passes the message to all subscriptions it matches.
+     *
+     * @throws IllegalStateException if the publisher is closed
+     */
+    public void publish(Message message) {
+        if (closed) {
+            throw new IllegalStateException("publisher is closed");
+        }
+        subscriptionTable().publish(message);
+    }
+
+    /**
+     * Completes the subscriptions - subscribers get the buffered messages (when they request them) and then the completion.
+     */
+    public void close() {
+        for (MessageSubscription subscription : closeSubscriptions()) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Terminates the subscriptions with the error, buffered messages are dropped.
+     */
+    public void closeExceptionally(Throwable error) {
+        for (MessageSubscription subscription : closeSubscriptions()) {
+            subscription.terminate(error);
+        }
+    }
+
+    public int getSubscriptionCount() {
+        synchronized (subscriptions) {
+            return subscriptions.size();
+        }
+    }
+
+    void unsubscribe(MessageSubscription subscription) {
+        synchronized (subscriptions) {
+            if (subscriptions.remove(subscription)) {
+                subscriptionTable = null;
+            }
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private List<MessageSubscription> closeSubscriptions() {
+        synchronized (subscriptions) {
+            closed = true;
+            return new ArrayList<MessageSubscription>(subscriptions);
+        }
+    }
+
+    private SubscriptionTable subscriptionTable() {
+        SubscriptionTable subscriptionTable = this.subscriptionTable;
+        if (subscriptionTable == null) {
+            synchronized (subscriptions) {
+                subscriptionTable = this.subscriptionTable;
+                if (subscriptionTable == null) {
+                    subscriptionTable = new SubscriptionTable(subscriptions);
+                    this.subscriptionTable = subscriptionTable;
+                }
+            }
+        }
+        return subscriptionTable;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * immutable snapshot of the subscriptions
+     */
+    private static final class SubscriptionTable {
+
+        private final MessageSubscription[] subscriptions;
+        private final MatcherIndex index;
+
+        private SubscriptionTable(List<MessageSubscription> subscriptions) {
+            this.subscriptions = subscriptions.toArray(new MessageSubscription[subscriptions.size()]);
+            List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>(subscriptions.size());
+            for (MessageSubscription subscription : subscriptions) {
+                matchers.add(subscription.getMatcher());
+            }
+            this.index = new MatcherIndex(matchers);
+        }
+
+        void publish(Message message) {
+            if (subscriptions.length == 0) {
+                return;
+            }
+            for (int subscriptionId : index.findMatchingIndexes(message)) {
+                subscriptions[subscriptionId].offer(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.qfu.stream;
+
+import quickfix.Message;
+
+import java.util.List;
+
+/**
+ * Receives matched messages from a {@link MatchedMessagePublisher}. Follows the contract of
+ * {@code java.util.concurrent.Flow.Subscriber} (which is not available on Java 8): after {@link #onSubscribe} the
+ * subscriber gets at most as many messages as it requested, then either {@link #onComplete} or {@link #onError}.
+ * Signals are never concurrent.
+ *
+ * @author agent
+ * @since 10/18/26 10:01 AM
+ */
+public interface MessageSubscriber {
+
+    void onSubscribe(MessageSubscription subscription);
+
+    /**
+     * @param messages batch of one or more messages in the order they were published, never more than requested
+     */
+    void onNext(List<Message> messages);
+
+    void onError(Throwable error);
+
+    void onComplete();
+}
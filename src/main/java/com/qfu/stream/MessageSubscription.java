@@ -0,0 +1,329 @@
+package com.qfu.stream;
+
+import com.qfu.matcher.FIXMessageMatcher;
+import quickfix.FieldNotFound;
+import quickfix.Message;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Subscription of a {@link MessageSubscriber} to the messages of a {@link MatchedMessagePublisher} matching its
+ * matcher. Follows the contract of {@code java.util.concurrent.Flow.Subscription}.
+ * <p>
+ * Matched messages wait in a bounded buffer until they are requested, what happens when the buffer is full is given
+ * by the {@link OverflowPolicy}. Messages are delivered on the publisher's executor, by one task at a time, in batches
+ * of up to the requested number of messages (and at most the publisher's batch size). If the executor rejects the
+ * delivery task (it is shut down or saturated), the messages are delivered by the thread signalling them instead.
+ *
+ * @author agent
+ * @since 10/18/26 10:01 AM
+ */
+public final class MessageSubscription {
+
+    private final FIXMessageMatcher matcher;
+    private final MessageSubscriber subscriber;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final MatchedMessagePublisher publisher;
+
+    // guarded by this
+    private final ArrayDeque<Message> queue;
+    private final LinkedHashMap<Object, Message> conflatedMessages;
+    private long droppedCount;
+    private boolean completed;
+    private Throwable error;
+    private volatile boolean cancelled;
+
+    private final AtomicLong requested = new AtomicLong();
+    // number of signals the delivery task has not seen yet
+    private final AtomicInteger pendingSignals = new AtomicInteger();
+    // accessed only by the delivery task
+    private boolean subscribed;
+    private boolean terminated;
+
+    MessageSubscription(FIXMessageMatcher matcher, MessageSubscriber subscriber, int capacity, OverflowPolicy overflowPolicy, int maxBatchSize, Executor executor, MatchedMessagePublisher publisher) {
+        this.matcher = matcher;
+        this.subscriber = subscriber;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+        this.publisher = publisher;
+        if (overflowPolicy.getKind() == OverflowPolicy.Kind.CONFLATE) {
+            this.queue = null;
+            this.conflatedMessages = new LinkedHashMap<Object, Message>();
+        } else {
+            this.queue = new ArrayDeque<Message>();
+            this.conflatedMessages = null;
+        }
+    }
+
+    /**
+     * Adds n messages to the demand. A non positive n cancels the subscription and signals an {@link IllegalArgumentException}.
+     */
+    public void request(long n) {
+        if (n <= 0) {
+            terminate(new IllegalArgumentException(format("non-positive request %d", n)));
+            return;
+        }
+        while (true) {
+            long current = requested.get();
+            long updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+            if (requested.compareAndSet(current, updated)) {
+                break;
+            }
+        }
+        signal();
+    }
+
+    /**
+     * Stops the delivery and drops the buffered messages. The subscriber may still get a batch being delivered.
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        synchronized (this) {
+            cancelled = true;
+            clear();
+            // wakes up publishing threads blocked by the full buffer
+            notifyAll();
+        }
+        publisher.unsubscribe(this);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public synchronized int getBufferedCount() {
+        return queue != null ? queue.size() : conflatedMessages.size();
+    }
+
+    /**
+     * @return number of messages dropped or replaced by a newer one (by the overflow policy)
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return outstanding demand of the subscriber
+     */
+    public long getRequestedCount() {
+        return requested.get();
+    }
+
+    FIXMessageMatcher getMatcher() {
+        return matcher;
+    }
+
+    void start() {
+        signal();
+    }
+
+    /**
+     * buffers the matched message according to the overflow policy
+     */
+    void offer(Message message) {
+        synchronized (this) {
+            if (cancelled || completed || error != null) {
+                return;
+            }
+            switch (overflowPolicy.getKind()) {
+                case BLOCK:
+                    while (queue.size() >= capacity) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            droppedCount++;
+                            return;
+                        }
+                        if (cancelled) {
+                            return;
+                        }
+                    }
+                    queue.add(message);
+                    break;
+                case DROP_OLDEST:
+                    if (queue.size() >= capacity) {
+                        queue.poll();
+                        droppedCount++;
+                    }
+                    queue.add(message);
+                    break;
+                case CONFLATE:
+                    Object key = conflationKey(message);
+                    if (conflatedMessages.containsKey(key)) {
+                        // keeps the position of the replaced message
+                        conflatedMessages.put(key, message);
+                        droppedCount++;
+                        return;
+                    }
+                    if (conflatedMessages.size() >= capacity) {
+                        Iterator<Message> oldest = conflatedMessages.values().iterator();
+                        oldest.next();
+                        oldest.remove();
+                        droppedCount++;
+                    }
+                    conflatedMessages.put(key, message);
+                    break;
+            }
+        }
+        signal();
+    }
+
+    /**
+     * buffered messages are delivered before the completion
+     */
+    void complete() {
+        synchronized (this) {
+            completed = true;
+        }
+        signal();
+    }
+
+    void terminate(Throwable error) {
+        synchronized (this) {
+            if (this.error == null) {
+                this.error = error;
+            }
+            clear();
+            notifyAll();
+        }
+        signal();
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private Object conflationKey(Message message) {
+        int keyTag = overflowPolicy.getKeyTag();
+        try {
+            if (message.isSetField(keyTag)) {
+                return message.getString(keyTag);
+            }
+        } catch (FieldNotFound e) {
+            // not conflated
+        }
+        // unique key
+        return new Object();
+    }
+
+    private void clear() {
+        if (queue != null) {
+            queue.clear();
+        } else {
+            conflatedMessages.clear();
+        }
+    }
+
+    private void signal() {
+        if (pendingSignals.getAndIncrement() == 0) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the signals are counted, so nobody else starts a delivery - it is run by this thread instead
+                deliver();
+            }
+        }
+    }
+
+    private void deliver() {
+        int signals = pendingSignals.get();
+        while (true) {
+            deliverAvailable();
+            signals = pendingSignals.addAndGet(-signals);
+            if (signals == 0) {
+                return;
+            }
+        }
+    }
+
+    private void deliverAvailable() {
+        if (terminated) {
+            return;
+        }
+        if (!subscribed) {
+            subscribed = true;
+            subscriber.onSubscribe(this);
+        }
+        while (!cancelled) {
+            List<Message> batch = null;
+            Throwable error;
+            boolean completed;
+            synchronized (this) {
+                error = this.error;
+                completed = this.completed;
+                long demand = requested.get();
+                int size = (int) Math.min(Math.min(demand, maxBatchSize), getBufferedCount());
+                if (error == null && size > 0) {
+                    batch = take(size);
+                    // frees space for publishing threads blocked by the full buffer
+                    notifyAll();
+                }
+            }
+            if (error != null) {
+                terminated = true;
+                cancel();
+                subscriber.onError(error);
+                return;
+            }
+            if (batch == null) {
+                if (completed && getBufferedCount() == 0) {
+                    terminated = true;
+                    publisher.unsubscribe(this);
+                    subscriber.onComplete();
+                }
+                return;
+            }
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.addAndGet(-batch.size());
+            }
+            try {
+                subscriber.onNext(batch);
+            } catch (Throwable e) {
+                terminated = true;
+                cancel();
+                subscriber.onError(e);
+                return;
+            }
+        }
+    }
+
+    private List<Message> take(int size) {
+        List<Message> batch = new ArrayList<Message>(size);
+        if (queue != null) {
+            for (int i = 0; i < size; i++) {
+                batch.add(queue.poll());
+            }
+        } else {
+            Iterator<Map.Entry<Object, Message>> entries = conflatedMessages.entrySet().iterator();
+            for (int i = 0; i < size; i++) {
+                batch.add(entries.next().getValue());
+                entries.remove();
+            }
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,69 @@
+package com.qfu.stream;
+
+import static java.lang.String.format;
+
+/**
+ * What a {@link MatchedMessagePublisher} does with a matched message when the buffer of a subscription is full.
+ *
+ * @author agent
+ * @since 10/18/26 10:01 AM
+ */
+public final class OverflowPolicy {
+
+    enum Kind {
+        BLOCK,
+        DROP_OLDEST,
+        CONFLATE
+    }
+
+    private static final OverflowPolicy BLOCK = new OverflowPolicy(Kind.BLOCK, 0);
+    private static final OverflowPolicy DROP_OLDEST = new OverflowPolicy(Kind.DROP_OLDEST, 0);
+
+    private final Kind kind;
+    private final int keyTag;
+
+    private OverflowPolicy(Kind kind, int keyTag) {
+        this.kind = kind;
+        this.keyTag = keyTag;
+    }
+
+    /**
+     * The publishing thread waits until the subscriber requests (and so frees) more messages.
+     */
+    public static OverflowPolicy block() {
+        return BLOCK;
+    }
+
+    /**
+     * The oldest buffered message is dropped to make room for the new one.
+     */
+    public static OverflowPolicy dropOldest() {
+        return DROP_OLDEST;
+    }
+
+    /**
+     * A buffered message with the same value of the key tag (e.g. ClOrdID) is replaced by the new one at any time,
+     * not only when the buffer is full, so the subscriber gets only the latest not yet delivered message per key.
+     * Messages without the key tag are never conflated. When the buffer is full of messages with other keys,
+     * the oldest one is dropped.
+     */
+    public static OverflowPolicy conflateBy(int keyTag) {
+        if (keyTag <= 0) {
+            throw new IllegalArgumentException(format("invalid key tag %d", keyTag));
+        }
+        return new OverflowPolicy(Kind.CONFLATE, keyTag);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    int getKeyTag() {
+        return keyTag;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.CONFLATE ? format("conflate by %d", keyTag) : kind.name().toLowerCase().replace('_', ' ');
+    }
+}
@@ -0,0 +1,196 @@
+package com.qfu.log;
+
+import com.qfu.matcher.FIXMessageMatcher;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import quickfix.DataDictionary;
+import quickfix.DefaultMessageFactory;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 8:56 AM
+ */
+public class MessageLogScannerTest {
+
+    private static final String[] SYMBOLS = {"EUR/USD", "GBP/USD", "USD/JPY"};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldFindMatchingMessagesWithOffsetsAndSequenceNumbers() throws IOException {
+        // Given
+        List<Message> messages = new ArrayList<Message>();
+        messages.add(newOrderSingle(1, "EUR/USD"));
+        messages.add(executionReport(2, "EUR/USD"));
+        messages.add(newOrderSingle(3, "GBP/USD"));
+        messages.add(newOrderSingle(4, "EUR/USD"));
+        List<Long> offsets = new ArrayList<Long>();
+        File logFile = writeLog(messages, offsets, true);
+
+        // When
+        List<LoggedMessage> found = new MessageLogScanner(logFile)
+                .findAll(isFIXMessage(NewOrderSingle.class).with(Symbol.FIELD, "EUR/USD"));
+
+        // Then
+        assertThat(found.size(), is(2));
+        assertThat(found.get(0).getSeqNum(), is(1));
+        assertThat(found.get(0).getOffset(), is(offsets.get(0)));
+        assertThat(found.get(0).getLength(), is(messages.get(0).toString().length()));
+        assertThat(found.get(0).getMessage(), instanceOf(NewOrderSingle.class));
+        assertThat(found.get(0).getMessage().toString(), equalTo(messages.get(0).toString()));
+        assertThat(found.get(1).getSeqNum(), is(4));
+        assertThat(found.get(1).getOffset(), is(offsets.get(3)));
+    }
+
+    @Test
+    public void shouldFindSameMessagesRegardlessOfChunkSize() throws IOException {
+        // Given
+        List<Message> messages = new ArrayList<Message>();
+        for (int seqNum = 1; seqNum <= 300; seqNum++) {
+            String symbol = SYMBOLS[random.nextInt(SYMBOLS.length)];
+            messages.add(random.nextBoolean() ? newOrderSingle(seqNum, symbol) : executionReport(seqNum, symbol));
+        }
+        File logFile = writeLog(messages, new ArrayList<Long>(), random.nextBoolean());
+        FIXMessageMatcher matcher = isFIXMessage().with(Symbol.FIELD, "USD/JPY");
+
+        List<Integer> expectedSeqNums = new ArrayList<Integer>();
+        for (int i = 0; i < messages.size(); i++) {
+            if (matcher.matches(messages.get(i))) {
+                expectedSeqNums.add(i + 1);
+            }
+        }
+
+        for (int chunkSize : new int[]{1, 7, 150, 4096, 1024 * 1024}) {
+            // When
+            List<LoggedMessage> found = new MessageLogScanner(logFile).withChunkSize(chunkSize).findAll(matcher);
+
+            // Then
+            assertThat(seqNumsOf(found), equalTo(expectedSeqNums));
+        }
+    }
+
+    @Test
+    public void shouldMatchGroupsWhenDataDictionaryIsProvided() throws Exception {
+        // Given
+        List<Message> messages = new ArrayList<Message>();
+        messages.add(newOrderSingle(1, "EUR/USD"));
+        NewOrderSingle withParty = newOrderSingle(2, "EUR/USD");
+        NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+        party.set(new PartyID("party-123"));
+        party.set(new PartyRole(PartyRole.CLIENT_ID));
+        withParty.addGroup(party);
+        messages.add(withParty);
+        File logFile = writeLog(messages, new ArrayList<Long>(), false);
+
+        MessageLogScanner scanner = new MessageLogScanner(logFile, new DefaultMessageFactory(), new DataDictionary("FIX44.xml"));
+
+        // When
+        List<LoggedMessage> found = scanner.findAll(isFIXMessage().with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-123")));
+
+        // Then
+        assertThat(seqNumsOf(found), equalTo(Arrays.asList(2)));
+    }
+
+    @Test
+    public void shouldSkipIncompleteMessages() throws IOException {
+        // Given
+        String complete = newOrderSingle(1, "EUR/USD").toString();
+        String truncated = newOrderSingle(2, "EUR/USD").toString();
+        truncated = truncated.substring(0, truncated.length() / 2);
+        File logFile = temporaryFolder.newFile();
+        OutputStream outputStream = new FileOutputStream(logFile);
+        try {
+            outputStream.write((complete + "\n" + truncated + "\nsome event\n" + complete).getBytes("ISO-8859-1"));
+        } finally {
+            outputStream.close();
+        }
+
+        // When
+        List<LoggedMessage> found = new MessageLogScanner(logFile).findAll(isFIXMessage(NewOrderSingle.class));
+
+        // Then
+        assertThat(seqNumsOf(found), equalTo(Arrays.asList(1, 1)));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private File writeLog(List<Message> messages, List<Long> offsets, boolean withTimestamps) throws IOException {
+        File logFile = temporaryFolder.newFile();
+        OutputStream outputStream = new FileOutputStream(logFile);
+        try {
+            long offset = 0;
+            for (Message message : messages) {
+                String prefix = withTimestamps ? "20261018-16:40:00.123: " : "";
+                byte[] line = (prefix + message.toString() + "\n").getBytes("ISO-8859-1");
+                offsets.add(offset + prefix.length());
+                outputStream.write(line);
+                offset += line.length;
+            }
+        } finally {
+            outputStream.close();
+        }
+        return logFile;
+    }
+
+    private NewOrderSingle newOrderSingle(int seqNum, String symbol) {
+        NewOrderSingle message = new NewOrderSingle(
+                new ClOrdID("clOrdId-" + seqNum), new Side(Side.BUY), new TransactTime(), new OrdType(OrdType.MARKET)
+        );
+        setHeader(message, seqNum);
+        message.set(new Symbol(symbol));
+        message.set(new OrderQty(100));
+        return message;
+    }
+
+    private ExecutionReport executionReport(int seqNum, String symbol) {
+        ExecutionReport message = new ExecutionReport(
+                new OrderID("orderId-" + seqNum), new ExecID("execId-" + seqNum), new ExecType(ExecType.NEW),
+                new OrdStatus(OrdStatus.NEW), new Side(Side.BUY), new LeavesQty(100), new CumQty(0), new AvgPx(0)
+        );
+        setHeader(message, seqNum);
+        message.set(new Symbol(symbol));
+        return message;
+    }
+
+    private void setHeader(Message message, int seqNum) {
+        message.getHeader().setField(new SenderCompID("sender"));
+        message.getHeader().setField(new TargetCompID("target"));
+        message.getHeader().setField(new MsgSeqNum(seqNum));
+        message.getHeader().setField(new SendingTime());
+    }
+
+    private List<Integer> seqNumsOf(List<LoggedMessage> loggedMessages) {
+        List<Integer> seqNums = new ArrayList<Integer>();
+        for (LoggedMessage loggedMessage : loggedMessages) {
+            seqNums.add(loggedMessage.getSeqNum());
+        }
+        return seqNums;
+    }
+
+}
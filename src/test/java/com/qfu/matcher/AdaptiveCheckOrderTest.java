@@ -0,0 +1,115 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:03 AM
+ */
+public class AdaptiveCheckOrderTest {
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldStartWithDeclaredOrder() {
+        // Given
+        CompiledFIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+                .with(header().with(SenderSubID.FIELD, "desk-A"))
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-1"))
+                .with(Side.FIELD, Side.BUY)
+                .compileAdaptive();
+
+        // When
+        List<String> order = matcher.getAdaptiveCheckOrder().currentOrder();
+
+        // Then
+        assertThat(order.toString(), equalTo("[type NewOrderSingle, field 55, field 54, header field 50, 1. group 453]"));
+        assertThat(isFIXMessage().compile().getAdaptiveCheckOrder() == null, is(true));
+    }
+
+    @Test
+    public void shouldMoveMostRejectingCheckFirstAndKeepGroupsLast() {
+        // Given
+        CompiledFIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(Side.FIELD, Side.BUY)
+                .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-1"))
+                .with(header().with(SenderSubID.FIELD, "desk-A"))
+                .compileAdaptive();
+        NewOrderSingle otherDesk = newOrderSingle("desk-B", "party-2");
+
+        // When
+        for (int i = 0; i < 20 * AdaptiveCheckOrder.SAMPLE_INTERVAL * AdaptiveCheckOrder.SAMPLES_PER_REORDER; i++) {
+            matcher.matches(otherDesk);
+        }
+
+        // Then
+        List<String> order = matcher.getAdaptiveCheckOrder().currentOrder();
+        assertThat(order.get(0), equalTo("header field 50"));
+        assertThat(order.get(order.size() - 1), equalTo("1. group 453"));
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsFixedOrder() {
+        // Given
+        FIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(Side.FIELD, Side.BUY)
+                .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-1"))
+                .with(header().with(SenderSubID.FIELD, "desk-A"));
+        CompiledFIXMessageMatcher fixedOrder = matcher.compile();
+        CompiledFIXMessageMatcher adaptiveOrder = matcher.compileAdaptive();
+
+        for (int i = 0; i < 50000; i++) {
+            Message message = randomMessage(i < 25000);
+
+            // When & Then
+            assertThat(adaptiveOrder.matches(message), equalTo(fixedOrder.matches(message)));
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private NewOrderSingle newOrderSingle(String senderSubId, String partyId) {
+        NewOrderSingle message = new NewOrderSingle();
+        message.getHeader().setField(new SenderSubID(senderSubId));
+        message.set(new Symbol("EUR/USD"));
+        message.set(new Side(Side.BUY));
+        NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+        party.set(new PartyID(partyId));
+        message.addGroup(party);
+        return message;
+    }
+
+    // the traffic changes half way through, so that the order gets adapted more than once
+    private Message randomMessage(boolean mostlyOtherDesks) {
+        Message message = random.nextInt(4) == 0 ? new ExecutionReport() : new NewOrderSingle();
+        boolean otherDesk = mostlyOtherDesks ? random.nextInt(10) > 0 : random.nextInt(10) == 0;
+        message.getHeader().setField(new SenderSubID(otherDesk ? "desk-B" : "desk-A"));
+        message.setField(new Symbol(random.nextInt(mostlyOtherDesks ? 10 : 2) == 0 ? "GBP/USD" : "EUR/USD"));
+        message.setField(new Side(random.nextInt(5) == 0 ? Side.SELL : Side.BUY));
+        if (random.nextInt(3) > 0) {
+            NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+            party.set(new PartyID(random.nextBoolean() ? "party-1" : "party-2"));
+            message.addGroup(party);
+        }
+        return message;
+    }
+}
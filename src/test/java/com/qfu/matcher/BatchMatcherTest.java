@@ -0,0 +1,118 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:11 AM
+ */
+public class BatchMatcherTest {
+
+    private static final String[] SYMBOLS = {"EUR/USD", "GBP/USD", "USD/JPY", "AUD/USD"};
+    private static final String[] SENDER_SUB_IDS = {"desk-A", "desk-B", "desk-C"};
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldMatchAllMessagesOfBatch() {
+        // Given
+        List<Message> messages = randomMessages(30000);
+        FIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class).with(Symbol.FIELD, "EUR/USD");
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            // When
+            BitSet parallel = new BatchMatcher(pool, 0).matchAll(messages, matcher);
+            BitSet sequential = new BatchMatcher(pool, Integer.MAX_VALUE).matchAll(messages, matcher);
+
+            // Then
+            BitSet expected = expectedMatches(messages, matcher);
+            assertThat(parallel, equalTo(expected));
+            assertThat(sequential, equalTo(expected));
+            assertThat(expected.cardinality() > 0, is(true));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldMatchBatchAgainstManyMatchers() {
+        // Given
+        List<Message> messages = randomMessages(20000);
+        List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>();
+        for (String symbol : SYMBOLS) {
+            for (String senderSubId : SENDER_SUB_IDS) {
+                matchers.add(isFIXMessage().with(Symbol.FIELD, symbol).with(header().with(SenderSubID.FIELD, senderSubId)));
+            }
+        }
+        matchers.add(isFIXMessage(ExecutionReport.class));
+        ForkJoinPool pool = new ForkJoinPool(3);
+
+        try {
+            // When
+            List<BitSet> result = new BatchMatcher(pool, 0).matchAll(messages, matchers);
+
+            // Then
+            assertThat(result.size(), is(matchers.size()));
+            for (int i = 0; i < matchers.size(); i++) {
+                assertThat(result.get(i), equalTo(expectedMatches(messages, matchers.get(i))));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldMatchSmallAndEmptyBatches() {
+        // Given
+        BatchMatcher batchMatcher = new BatchMatcher();
+        FIXMessageMatcher matcher = isFIXMessage().with(Symbol.FIELD, "EUR/USD");
+        List<Message> messages = randomMessages(100);
+
+        // When & Then
+        assertThat(batchMatcher.matchAll(messages, matcher), equalTo(expectedMatches(messages, matcher)));
+        assertThat(batchMatcher.matchAll(Collections.<Message>emptyList(), matcher).isEmpty(), is(true));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private BitSet expectedMatches(List<Message> messages, FIXMessageMatcher matcher) {
+        BitSet expected = new BitSet();
+        for (int i = 0; i < messages.size(); i++) {
+            if (matcher.matches(messages.get(i))) {
+                expected.set(i);
+            }
+        }
+        return expected;
+    }
+
+    private List<Message> randomMessages(int count) {
+        List<Message> messages = new ArrayList<Message>(count);
+        for (int i = 0; i < count; i++) {
+            Message message = random.nextBoolean() ? new NewOrderSingle() : new ExecutionReport();
+            message.getHeader().setField(new SenderSubID(SENDER_SUB_IDS[random.nextInt(SENDER_SUB_IDS.length)]));
+            message.setField(new Symbol(SYMBOLS[random.nextInt(SYMBOLS.length)]));
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,215 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderList;
+import quickfix.fix44.NewOrderSingle;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ * @since 10/18/26 8:42 AM
+ */
+public class CompiledFIXMessageMatcherTest {
+
+    private final Message message = new Message();
+
+    @Test
+    public void shouldMatchFIXMessageType() {
+        // Given
+        NewOrderSingle message = new NewOrderSingle();
+
+        // When & Then
+        assertThat(isFIXMessage(NewOrderSingle.class).compile().matches(message), is(true));
+        assertThat(isFIXMessage(Message.class).compile().matches(message), is(true));
+        assertThat(isFIXMessage(ExecutionReport.class).compile().matches(message), is(false));
+    }
+
+    @Test
+    public void shouldFindFieldIsMissing() {
+        // When & Then
+        assertThat(matches(ClOrdID.FIELD, "clOrdId-123"), is(false));
+        assertThat(matches(Side.FIELD, Side.BUY), is(false));
+        assertThat(matches(NumDaysInterest.FIELD, 3), is(false));
+        assertThat(matches(Price.FIELD, 1.25d), is(false));
+        assertThat(matches(Price.FIELD, new BigDecimal("1.25")), is(false));
+        assertThat(matches(TransactTime.FIELD, new Date()), is(false));
+        assertThat(matches(SolicitedFlag.FIELD, false), is(false));
+    }
+
+    @Test
+    public void shouldMatchStringFieldValue() {
+        // Given
+        message.setField(new ClOrdID("clOrdId-123"));
+
+        // When & Then
+        assertThat(matches(ClOrdID.FIELD, "clOrdId-123"), is(true));
+        assertThat(matches(ClOrdID.FIELD, "clOrdId-456"), is(false));
+    }
+
+    @Test
+    public void shouldMatchCharacterFieldValue() {
+        // Given
+        message.setField(new Side(Side.BUY));
+
+        // When & Then
+        assertThat(matches(Side.FIELD, Side.BUY), is(true));
+        assertThat(matches(Side.FIELD, Side.SELL), is(false));
+    }
+
+    @Test
+    public void shouldMatchIntegerFieldValue() {
+        // Given
+        message.setField(new NumDaysInterest(3));
+        message.setString(PriceType.FIELD, "-007");
+
+        // When & Then
+        assertThat(matches(NumDaysInterest.FIELD, 3), is(true));
+        assertThat(matches(NumDaysInterest.FIELD, 10), is(false));
+        assertThat(matches(PriceType.FIELD, -7), is(true));
+    }
+
+    @Test
+    public void shouldMatchDoubleFieldValue() {
+        // Given
+        message.setField(new Price(1.25d));
+        message.setString(StopPx.FIELD, "0.1000000000000000055511151231257827");
+
+        // When & Then
+        assertThat(matches(Price.FIELD, 1.25d), is(true));
+        assertThat(matches(Price.FIELD, 3.5d), is(false));
+        assertThat(matches(StopPx.FIELD, 0.1d), is(true));
+    }
+
+    @Test
+    public void shouldMatchBigDecimalFieldValue() {
+        // Given
+        message.setString(Price.FIELD, "1.250");
+        message.setString(StopPx.FIELD, "12345678901234567890.5");
+
+        // When & Then
+        assertThat(matches(Price.FIELD, new BigDecimal("1.25")), is(true));
+        assertThat(matches(Price.FIELD, new BigDecimal("1.2500000")), is(true));
+        assertThat(matches(Price.FIELD, new BigDecimal("3.5")), is(false));
+        assertThat(matches(StopPx.FIELD, new BigDecimal("12345678901234567890.50")), is(true));
+        assertThat(matches(StopPx.FIELD, new BigDecimal("12345678901234567890.4")), is(false));
+    }
+
+    @Test
+    public void shouldMatchDateFieldValue() {
+        // Given
+        Date now = new Date();
+        message.setField(new TransactTime(now));
+
+        // When & Then
+        assertThat(matches(TransactTime.FIELD, now), is(true));
+        assertThat(matches(TransactTime.FIELD, new Date(now.getTime() + 100L)), is(false));
+    }
+
+    @Test
+    public void shouldMatchBooleanFieldValue() {
+        // Given
+        message.setField(new SolicitedFlag(false));
+
+        // When & Then
+        assertThat(matches(SolicitedFlag.FIELD, false), is(true));
+        assertThat(matches(SolicitedFlag.FIELD, true), is(false));
+    }
+
+    @Test
+    public void shouldNotMatchUnparseableFieldValue() {
+        // Given
+        message.setString(NumDaysInterest.FIELD, "3x");
+        message.setString(Price.FIELD, "1.2.5");
+        message.setString(TransactTime.FIELD, "20131018-25:00:00");
+
+        // When & Then
+        assertThat(matches(NumDaysInterest.FIELD, 3), is(false));
+        assertThat(matches(Price.FIELD, 1.25d), is(false));
+        assertThat(matches(Price.FIELD, new BigDecimal("1.25")), is(false));
+        assertThat(matches(TransactTime.FIELD, new Date()), is(false));
+    }
+
+    @Test
+    public void shouldNotCompileUnsupportedValueType() {
+        try {
+            isFIXMessage().with(Price.FIELD, 1.25f).compile();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // this is expected
+        }
+    }
+
+    @Test
+    public void shouldMatchFIXMessageWithComplexMatchCriteria() {
+        // Given
+        Date now = new Date();
+        NewOrderList message = new NewOrderList();
+        message.getHeader().setField(new SenderSubID("senderSubId-123"));
+        message.set(new ListID("listId-123"));
+        message.set(new BidType(BidType.NON_DISCLOSED));
+        message.set(new TotNoOrders(1));
+        NewOrderList.NoOrders group = new NewOrderList.NoOrders();
+        group.set(new ClOrdID("clOrdId-123"));
+        group.set(new Side(Side.SELL));
+        group.setDecimal(Price.FIELD, new BigDecimal("1.25"));
+        group.set(new TransactTime(now));
+        group.set(new OrdType(OrdType.FOREX_MARKET));
+        message.addGroup(group);
+
+        FIXMessageMatcher matcher = isFIXMessage()
+                .ofType(NewOrderList.class)
+                .with(header().with(SenderSubID.FIELD, "senderSubId-123"))
+                .with(ListID.FIELD, "listId-123")
+                .with(BidType.FIELD, BidType.NON_DISCLOSED)
+                .with(TotNoOrders.FIELD, 1)
+                .with(group(1, NoOrders.FIELD)
+                        .with(ClOrdID.FIELD, "clOrdId-123")
+                        .with(Side.FIELD, Side.SELL)
+                        .with(Price.FIELD, new BigDecimal("1.25"))
+                        .with(TransactTime.FIELD, now)
+                        .with(OrdType.FIELD, OrdType.FOREX_MARKET)
+                );
+
+        // When & Then
+        assertThat(matcher.compile().matches(message), is(true));
+        assertThat(isFIXMessage().with(header().with(SenderSubID.FIELD, "other")).compile().matches(message), is(false));
+        assertThat(isFIXMessage().with(group(1, NoOrders.FIELD).with(Side.FIELD, Side.BUY)).compile().matches(message), is(false));
+        assertThat(isFIXMessage().with(group(2, NoOrders.FIELD)).compile().matches(message), is(false));
+        assertThat(isFIXMessage().with(group(1, NoOrders.FIELD)).compile().matches(message), is(true));
+    }
+
+    @Test
+    public void shouldNotBeAffectedByLaterChangesOfMatcher() {
+        // Given
+        message.setField(new ClOrdID("clOrdId-123"));
+        FIXMessageMatcher matcher = isFIXMessage().with(ClOrdID.FIELD, "clOrdId-123");
+
+        // When
+        CompiledFIXMessageMatcher compiledMatcher = matcher.compile();
+        matcher.with(Side.FIELD, Side.BUY);
+
+        // Then
+        assertThat(compiledMatcher.matches(message), is(true));
+        assertThat(matcher.compile().matches(message), is(false));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private boolean matches(int fieldId, Object value) {
+        return isFIXMessage().with(fieldId, value).compile().matches(message);
+    }
+}
@@ -0,0 +1,182 @@
+package com.qfu.matcher;
+
+import org.hamcrest.StringDescription;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import quickfix.ConfigError;
+import quickfix.DataDictionary;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.anyGroup;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:31 AM
+ */
+public class DataDictionaryMatcherTest {
+
+    private static DataDictionary dataDictionary;
+
+    @BeforeClass
+    public static void loadDataDictionary() throws ConfigError {
+        dataDictionary = new DataDictionary("FIX44.xml");
+    }
+
+    @Test
+    public void shouldRejectValuesIncompatibleWithFieldType() {
+        try {
+            isFIXMessage(NewOrderSingle.class).using(dataDictionary).with(OrderQty.FIELD, "lots");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("field 38 of type QTY can't have value lots of type String"));
+        }
+        try {
+            isFIXMessage().with(Symbol.FIELD, 5).using(dataDictionary);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("field 55 of type STRING can't have value 5 of type Integer"));
+        }
+        try {
+            isFIXMessage(NewOrderSingle.class).using(dataDictionary).with(Side.FIELD, 'Z');
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("Z is not a valid value of field 54"));
+        }
+    }
+
+    @Test
+    public void shouldRejectFieldsNotDefinedForMessageHeaderOrGroup() {
+        try {
+            isFIXMessage(NewOrderSingle.class).using(dataDictionary).with(LastPx.FIELD, 1.5);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("field 31 is not defined for message type D"));
+        }
+        try {
+            // message type defined after the fields is validated too
+            isFIXMessage().using(dataDictionary).with(LastPx.FIELD, 1.5).ofType(NewOrderSingle.class);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("field 31 is not defined for message type D"));
+        }
+        try {
+            header().using(dataDictionary).with(Symbol.FIELD, "EUR/USD");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("field 55 is not a header field"));
+        }
+        try {
+            isFIXMessage(NewOrderSingle.class).using(dataDictionary).with(group(1, NoPartyIDs.FIELD).with(Symbol.FIELD, "EUR/USD"));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("field 55 is not a field of group 453 of message type D"));
+        }
+        try {
+            isFIXMessage(NewOrderSingle.class).using(dataDictionary).with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "EUR"));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("field 555 is not a group of message type D"));
+        }
+    }
+
+    @Test
+    public void shouldConvertValuesIntoFieldTypes() {
+        // Given
+        Date transactTime = new Date(1382123456789L);
+        NewOrderSingle order = new NewOrderSingle();
+        order.setString(OrderQty.FIELD, "100.00");
+        order.setString(Price.FIELD, "1.3");
+        order.set(new Side(Side.BUY));
+        order.set(new TransactTime(transactTime));
+
+        FIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class).using(dataDictionary)
+                .with(OrderQty.FIELD, "100")
+                .with(Price.FIELD, 1.30)
+                .with(Side.FIELD, "1")
+                .with(TransactTime.FIELD, transactTime)
+                .with(header().using(dataDictionary).with(MsgType.FIELD, "D"));
+
+        // When & Then
+        assertThat(order, matcher);
+        assertThat(matcher.compile().matches(order), is(true));
+        assertThat(matcher.compile().matches(order.toString().getBytes()), is(true));
+        assertThat(matcher.getFieldValues().get(0).getValue(), equalTo((Object) Decimal.decimal("100")));
+        assertThat(matcher.getFieldValues().get(2).getValue(), equalTo((Object) Side.BUY));
+        assertThat(matcher.getFieldValues().get(3).getValue(), equalTo((Object) transactTime));
+
+        assertThat(order, not(isFIXMessage(NewOrderSingle.class).with(OrderQty.FIELD, "100")));
+        assertThat(order, not(isFIXMessage(NewOrderSingle.class).using(dataDictionary).with(OrderQty.FIELD, 100.5)));
+    }
+
+    @Test
+    public void shouldMatchDatesAsWithoutDataDictionary() {
+        // Given
+        Date millis = new Date(1792317600123L);
+        ExecutionReport executionReport = new ExecutionReport();
+        executionReport.setString(TransactTime.FIELD, "20261018-10:00:00.123456");
+        executionReport.setString(MDEntryTime.FIELD, "10:00:00.123");
+
+        for (Date expectedTime : new Date[]{millis, new Date(millis.getTime() + 1)}) {
+            FIXMessageMatcher withoutDictionary = isFIXMessage(ExecutionReport.class)
+                    .with(TransactTime.FIELD, expectedTime);
+            FIXMessageMatcher withDictionary = isFIXMessage(ExecutionReport.class).using(dataDictionary)
+                    .with(TransactTime.FIELD, expectedTime);
+            boolean expectedResult = expectedTime == millis;
+
+            // When & Then
+            for (FIXMessageMatcher matcher : new FIXMessageMatcher[]{withoutDictionary, withDictionary}) {
+                assertThat(matcher.matches(executionReport), is(expectedResult));
+                assertThat(matcher.compile().matches(executionReport), is(expectedResult));
+            }
+            assertThat(withDictionary.compile().matches(executionReport.toString().getBytes()), is(expectedResult));
+            assertThat(StringDescription.toString(withDictionary), equalTo(StringDescription.toString(withoutDictionary)));
+        }
+        // a date matches a time only field just as without the data dictionary
+        Date timeOfDay = new Date(36000123L);
+        assertThat(isFIXMessage().using(dataDictionary).with(MDEntryTime.FIELD, timeOfDay).matches(executionReport),
+                is(isFIXMessage().with(MDEntryTime.FIELD, timeOfDay).matches(executionReport)));
+        assertThat(isFIXMessage().using(dataDictionary).with(MDEntryTime.FIELD, millis).matches(executionReport),
+                is(isFIXMessage().with(MDEntryTime.FIELD, millis).matches(executionReport)));
+    }
+
+    @Test
+    public void shouldDelimitGroupsOfRawMessagesByDataDictionary() {
+        // Given
+        NewOrderSingle order = new NewOrderSingle();
+        NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+        party.set(new PartyID("party-A"));
+        order.addGroup(party);
+        order.set(new Symbol("EUR/USD"));
+        byte[] rawOrder = order.toString().getBytes();
+        // PartyRole after the group belongs to no entry
+        byte[] rawOrderWithFieldAfterGroup = "8=FIX.4.4\u00019=40\u000135=D\u0001453=1\u0001448=party-A\u000155=EUR/USD\u0001452=3\u000110=000\u0001".getBytes();
+
+        FIXMessageMatcher withoutRole = isFIXMessage(NewOrderSingle.class).using(dataDictionary)
+                .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-A"));
+        FIXMessageMatcher withRole = isFIXMessage(NewOrderSingle.class).using(dataDictionary)
+                .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-A").with(PartyRole.FIELD, 3));
+        FIXMessageMatcher withRoleWithoutDictionary = isFIXMessage(NewOrderSingle.class)
+                .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-A").with(PartyRole.FIELD, 3));
+
+        // When & Then
+        assertThat(withoutRole.compile().matches(rawOrder), is(true));
+        assertThat(withRole.compile().matches(rawOrder), is(false));
+        assertThat(withRole.compile().matches(rawOrderWithFieldAfterGroup), is(false));
+        assertThat(withRoleWithoutDictionary.compile().mayMatch(ByteBuffer.wrap(rawOrderWithFieldAfterGroup)), is(true));
+        assertThat(withRole, not(equalTo(withRoleWithoutDictionary)));
+        assertThat(new ExecutionReport(), not(withoutRole));
+    }
+}
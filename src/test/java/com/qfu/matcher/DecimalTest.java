@@ -0,0 +1,141 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static com.qfu.matcher.Decimal.above;
+import static com.qfu.matcher.Decimal.atLeast;
+import static com.qfu.matcher.Decimal.atMost;
+import static com.qfu.matcher.Decimal.below;
+import static com.qfu.matcher.Decimal.between;
+import static com.qfu.matcher.Decimal.decimal;
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:18 AM
+ */
+public class DecimalTest {
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldMatchExactValue() {
+        // Given
+        Message message = message("1.2500");
+
+        // When & Then
+        assertMatches(message, decimal("1.25"), true);
+        assertMatches(message, decimal("1.250000000000000000000000"), true);
+        assertMatches(message, decimal("1.2501"), false);
+        assertMatches(message, new BigDecimal("1.25"), true);
+    }
+
+    @Test
+    public void shouldMatchValueWithinTolerance() {
+        // Given
+        Message message = message("1.2345");
+
+        // When & Then
+        assertMatches(message, decimal("1.2346").within(new BigDecimal("0.0001")), true);
+        assertMatches(message, decimal("1.2344").within(new BigDecimal("0.0001")), true);
+        assertMatches(message, decimal("1.2347").within(new BigDecimal("0.0001")), false);
+        assertMatches(message, decimal("1.2").within(new BigDecimal("0.05")), true);
+    }
+
+    @Test
+    public void shouldMatchRanges() {
+        // Given
+        Message message = message("100");
+
+        // When & Then
+        assertMatches(message, above(new BigDecimal("99.99")), true);
+        assertMatches(message, above(new BigDecimal("100.00")), false);
+        assertMatches(message, atLeast(new BigDecimal("100.00")), true);
+        assertMatches(message, below(new BigDecimal("100")), false);
+        assertMatches(message, atMost(new BigDecimal("1E+2")), true);
+        assertMatches(message, between(new BigDecimal("-5"), new BigDecimal("100")), true);
+        assertMatches(message, between(new BigDecimal("100.0000001"), new BigDecimal("101")), false);
+    }
+
+    @Test
+    public void shouldMatchValuesTooLongForScaledLong() {
+        // Given
+        Message message = message("12345678901234567890.5");
+
+        // When & Then
+        assertMatches(message, decimal("12345678901234567890.50"), true);
+        assertMatches(message, above(new BigDecimal("12345678901234567890")), true);
+        assertMatches(message, atMost(new BigDecimal("0.000000000000000000001")), false);
+        assertMatches(message("0.5"), above(new BigDecimal("0.000000000000000000001")), true);
+        assertMatches(message("-0.5"), below(new BigDecimal("-0.4999999999999999999999")), true);
+        assertMatches(message("abc"), atLeast(BigDecimal.ZERO), false);
+    }
+
+    @Test
+    public void shouldCompareTheSameWayAsBigDecimal() {
+        for (int i = 0; i < 5000; i++) {
+            // Given
+            BigDecimal actual = randomDecimal();
+            BigDecimal low = randomDecimal();
+            BigDecimal high = low.add(randomDecimal().abs());
+            Message message = message(actual.toPlainString());
+
+            // When & Then
+            boolean expected = actual.compareTo(low) >= 0 && actual.compareTo(high) <= 0;
+            assertMatches(message, between(low, high), expected);
+            assertMatches(message, above(low), actual.compareTo(low) > 0);
+            assertMatches(message, below(high), actual.compareTo(high) < 0);
+        }
+    }
+
+    @Test
+    public void shouldDescribeExpectedValue() {
+        assertThat(decimal("1.25").toString(), equalTo("1.25"));
+        assertThat(decimal("1.25").within(new BigDecimal("0.01")).toString(), equalTo("between 1.24 and 1.26"));
+        assertThat(above(new BigDecimal("1E+2")).toString(), equalTo("above 100"));
+        assertThat(atMost(new BigDecimal("5")).toString(), equalTo("at most 5"));
+        assertThat(decimal("1.25"), equalTo(decimal("1.2500")));
+        assertThat(decimal("1.25").hashCode(), is(decimal("1.2500").hashCode()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnToleranceOfRange() {
+        atLeast(BigDecimal.ONE).within(BigDecimal.ONE);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void assertMatches(Message message, Object expectedValue, boolean expected) {
+        FIXMessageMatcher matcher = isFIXMessage().with(Price.FIELD, expectedValue);
+        assertThat(matcher.matches(message), is(expected));
+        assertThat(matcher.compile().matches(message), is(expected));
+        assertThat(matcher.compile().mayMatch(ByteBuffer.wrap(message.toString().getBytes())), is(expected));
+    }
+
+    private Message message(String rawPrice) {
+        Message message = new ExecutionReport();
+        message.setString(Price.FIELD, rawPrice);
+        return message;
+    }
+
+    private BigDecimal randomDecimal() {
+        int digits = 1 + random.nextInt(random.nextBoolean() ? 6 : 24);
+        StringBuilder value = new StringBuilder(random.nextBoolean() ? "-" : "");
+        for (int i = 0; i < digits; i++) {
+            value.append((char) ('0' + random.nextInt(10)));
+        }
+        return new BigDecimal(value.toString()).movePointLeft(random.nextInt(digits + 4));
+    }
+}
@@ -0,0 +1,208 @@
+package com.qfu.matcher;
+
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.qfu.matcher.FIXMatchers.containsFIXMessagesInAnyOrder;
+import static com.qfu.matcher.FIXMatchers.containsFIXMessagesInOrder;
+import static com.qfu.matcher.FIXMatchers.hasFIXMessages;
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:25 AM
+ */
+public class FIXMessageListMatcherTest {
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldMatchMessagesInOrder() {
+        // Given
+        List<Message> messages = Arrays.<Message>asList(order("EUR/USD", Side.BUY), order("GBP/USD", Side.SELL));
+
+        // When & Then
+        assertThat(messages, containsFIXMessagesInOrder(eurUsd(), isFIXMessage().with(Side.FIELD, Side.SELL)));
+        assertThat(messages, not(containsFIXMessagesInOrder(isFIXMessage().with(Side.FIELD, Side.SELL), eurUsd())));
+        assertThat(messages, not(containsFIXMessagesInOrder(eurUsd())));
+        assertThat(mismatch(containsFIXMessagesInOrder(eurUsd(), eurUsd()), messages),
+                equalTo("was 2 messages with message 2 was a message with values: [55 = GBP/USD]"));
+    }
+
+    @Test
+    public void shouldAssignAmbiguousExpectationsInAnyOrder() {
+        // Given
+        List<Message> messages = Arrays.<Message>asList(order("EUR/USD", Side.BUY), order("EUR/USD", Side.SELL));
+
+        // When & Then
+        // assigning the first message to the first (less specific) expectation would leave the second one unmatched
+        assertThat(messages, containsFIXMessagesInAnyOrder(eurUsd(), eurUsd().with(Side.FIELD, Side.BUY)));
+        assertThat(messages, containsFIXMessagesInAnyOrder(eurUsd(), eurUsd()));
+        assertThat(messages, not(containsFIXMessagesInAnyOrder(eurUsd())));
+        assertThat(messages, not(containsFIXMessagesInAnyOrder(eurUsd().with(Side.FIELD, Side.BUY), eurUsd().with(Side.FIELD, Side.BUY))));
+    }
+
+    @Test
+    public void shouldMatchSubsetOfMessages() {
+        // Given
+        List<Message> messages = Arrays.<Message>asList(order("EUR/USD", Side.BUY), order("GBP/USD", Side.SELL), new ExecutionReport());
+
+        // When & Then
+        assertThat(messages, hasFIXMessages(isFIXMessage(ExecutionReport.class), eurUsd()));
+        assertThat(messages, not(hasFIXMessages(eurUsd(), eurUsd())));
+    }
+
+    @Test
+    public void shouldDescribeUnmatchedExpectationsAndMessages() {
+        // Given
+        List<Message> messages = Arrays.<Message>asList(order("EUR/USD", Side.BUY), order("GBP/USD", Side.SELL));
+        FIXMessageListMatcher matcher = containsFIXMessagesInAnyOrder(eurUsd(), eurUsd());
+
+        // When
+        String description = StringDescription.toString(matcher);
+        String mismatch = mismatch(matcher, messages);
+
+        // Then
+        assertThat(description, equalTo("2 fix messages in any order: [1. a fix message with values: [55 = EUR/USD], 2. a fix message with values: [55 = EUR/USD]]"));
+        assertThat(mismatch.startsWith("was 2 messages with 1 unmatched expectations: [2. a fix message with values: [55 = EUR/USD]] with 1 unmatched messages: [2. 8=FIX.4.4"), is(true));
+    }
+
+    @Test
+    public void shouldEvaluateChangedMessagesAgain() {
+        // Given
+        List<Message> messages = Arrays.<Message>asList(order("GBP/USD", Side.BUY), order("GBP/USD", Side.SELL));
+        FIXMessageListMatcher matcher = containsFIXMessagesInAnyOrder(eurUsd(), isFIXMessage().with(Side.FIELD, Side.SELL));
+        assertThat(matcher.matches(messages), is(false));
+
+        // When
+        messages.set(0, order("EUR/USD", Side.BUY));
+
+        // Then
+        assertThat(matcher.matches(messages), is(true));
+        messages.set(1, order("EUR/USD", Side.BUY));
+        assertThat(matcher.matches(messages), is(false));
+        assertThat(mismatch(matcher, messages), equalTo("was 2 messages with 1 unmatched expectations: [2. a fix message with values: [54 = 2]]"
+                + " with 1 unmatched messages: [1. " + order("EUR/USD", Side.BUY) + "]"));
+    }
+
+    @Test
+    public void shouldFindMaximumAssignment() {
+        for (int round = 0; round < 300; round++) {
+            // Given
+            List<FIXMessageMatcher> expectations = new ArrayList<FIXMessageMatcher>();
+            int expectationCount = random.nextInt(8);
+            for (int i = 0; i < expectationCount; i++) {
+                expectations.add(randomExpectation());
+            }
+            List<Message> messages = new ArrayList<Message>();
+            int messageCount = random.nextInt(8);
+            for (int i = 0; i < messageCount; i++) {
+                messages.add(order(random.nextBoolean() ? "EUR/USD" : "GBP/USD", random.nextBoolean() ? Side.BUY : Side.SELL));
+            }
+
+            // When
+            MessageAssignment assignment = MessageAssignment.assign(expectations, messages);
+
+            // Then
+            int expectedSize = maximumMatchingSize(expectations, messages);
+            assertThat(expectationCount - assignment.unassignedExpectations().size(), is(expectedSize));
+            assertThat(messageCount - assignment.unassignedMessages().size(), is(expectedSize));
+        }
+    }
+
+    @Test
+    public void shouldMatchLargeLists() {
+        // Given
+        List<Message> messages = new ArrayList<Message>();
+        List<FIXMessageMatcher> expectations = new ArrayList<FIXMessageMatcher>();
+        for (int i = 0; i < 50000; i++) {
+            ExecutionReport executionReport = new ExecutionReport();
+            executionReport.set(new ExecID("exec-" + i));
+            executionReport.set(new ExecType(i % 10 == 0 ? ExecType.FILL : ExecType.NEW));
+            messages.add(executionReport);
+            expectations.add(i % 2 == 0
+                    ? isFIXMessage(ExecutionReport.class).with(ExecID.FIELD, "exec-" + i)
+                    : isFIXMessage(ExecutionReport.class).with(ExecType.FIELD, ExecType.NEW));
+        }
+        Collections.shuffle(messages, random);
+
+        // When & Then
+        assertThat(messages, containsFIXMessagesInAnyOrder(expectations));
+        expectations.set(1, isFIXMessage(ExecutionReport.class).with(ExecID.FIELD, "exec-missing"));
+        assertThat(messages, not(containsFIXMessagesInAnyOrder(expectations)));
+        assertThat(messages, hasFIXMessages(expectations.subList(2, expectations.size())));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private FIXMessageMatcher eurUsd() {
+        return isFIXMessage().with(Symbol.FIELD, "EUR/USD");
+    }
+
+    private FIXMessageMatcher randomExpectation() {
+        FIXMessageMatcher matcher = isFIXMessage();
+        if (random.nextBoolean()) {
+            matcher.with(Symbol.FIELD, random.nextBoolean() ? "EUR/USD" : "GBP/USD");
+        }
+        if (random.nextBoolean()) {
+            matcher.with(Side.FIELD, random.nextBoolean() ? Side.BUY : Side.SELL);
+        }
+        return matcher;
+    }
+
+    private NewOrderSingle order(String symbol, char side) {
+        NewOrderSingle order = new NewOrderSingle();
+        order.set(new Symbol(symbol));
+        order.set(new Side(side));
+        return order;
+    }
+
+    private String mismatch(FIXMessageListMatcher matcher, List<Message> messages) {
+        StringDescription description = new StringDescription();
+        matcher.matches(messages);
+        matcher.describeMismatch(messages, description);
+        return description.toString();
+    }
+
+    // simple augmenting path matching evaluating every pair
+    private int maximumMatchingSize(List<FIXMessageMatcher> expectations, List<Message> messages) {
+        int[] expectationOfMessage = new int[messages.size()];
+        Arrays.fill(expectationOfMessage, -1);
+        int size = 0;
+        for (int e = 0; e < expectations.size(); e++) {
+            if (augment(e, expectations, messages, expectationOfMessage, new boolean[messages.size()])) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private boolean augment(int e, List<FIXMessageMatcher> expectations, List<Message> messages, int[] expectationOfMessage, boolean[] visited) {
+        for (int m = 0; m < messages.size(); m++) {
+            if (!visited[m] && expectations.get(e).matches(messages.get(m))) {
+                visited[m] = true;
+                if (expectationOfMessage[m] < 0 || augment(expectationOfMessage[m], expectations, messages, expectationOfMessage, visited)) {
+                    expectationOfMessage[m] = e;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,263 @@
+package com.qfu.matcher;
+
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.NewOrderMultileg;
+
+import java.util.Random;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.allGroups;
+import static com.qfu.matcher.Group.anyGroup;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Group.groupCount;
+import static com.qfu.matcher.Group.noGroup;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:09 AM
+ */
+public class GroupQuantifierTest {
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldMatchAnyGroupEntry() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1", "AMT"), leg("leg-2", "MAXBONDS"), leg("leg-3"));
+
+        // When & Then
+        assertMatches(isFIXMessage().with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-2")), message, true);
+        assertMatches(isFIXMessage().with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-4")), message, false);
+        assertMatches(isFIXMessage().with(anyGroup(NoPartyIDs.FIELD)), message, false);
+    }
+
+    @Test
+    public void shouldMatchAllGroupEntries() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1", "AMT"), leg("leg-2", "AMT"));
+
+        // When & Then
+        assertMatches(isFIXMessage().with(allGroups(NoLegs.FIELD).with(LegSide.FIELD, Side.BUY)), message, true);
+        assertMatches(isFIXMessage().with(allGroups(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-1")), message, false);
+        assertMatches(isFIXMessage().with(allGroups(NoPartyIDs.FIELD)), message, false);
+    }
+
+    @Test
+    public void shouldMatchNoGroupEntry() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1"), leg("leg-2"));
+
+        // When & Then
+        assertMatches(isFIXMessage().with(noGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-3")), message, true);
+        assertMatches(isFIXMessage().with(noGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-2")), message, false);
+        assertMatches(isFIXMessage().with(noGroup(NoPartyIDs.FIELD)), message, true);
+    }
+
+    @Test
+    public void shouldMatchCountOfGroupEntries() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1", "AMT"), leg("leg-2"), leg("leg-3", "AMT"));
+
+        // When & Then
+        assertMatches(isFIXMessage().with(groupCount(3, NoLegs.FIELD)), message, true);
+        assertMatches(isFIXMessage().with(groupCount(2, NoLegs.FIELD)), message, false);
+        assertMatches(isFIXMessage().with(groupCount(2, NoLegs.FIELD).with(anyGroup(NoLegStipulations.FIELD))), message, true);
+        assertMatches(isFIXMessage().with(groupCount(0, NoPartyIDs.FIELD)), message, true);
+    }
+
+    @Test
+    public void shouldCountGroupEntriesAnewForEachEvaluation() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1", "AMT"), leg("leg-2", "MINBID"), leg("leg-3"));
+        CompiledFIXMessageMatcher twoLegsWithStipulation = isFIXMessage()
+                .with(groupCount(2, NoLegs.FIELD).with(anyGroup(NoLegStipulations.FIELD))).compile();
+        // the nested count is evaluated for each leg
+        CompiledFIXMessageMatcher noLegWithTwoStipulations = isFIXMessage()
+                .with(noGroup(NoLegs.FIELD).with(groupCount(2, NoLegStipulations.FIELD))).compile();
+
+        // When & Then
+        for (int i = 0; i < 3; i++) {
+            assertThat(twoLegsWithStipulation.matches(message), is(true));
+            assertThat(noLegWithTwoStipulations.matches(message), is(true));
+        }
+        assertThat(twoLegsWithStipulation.matches(multileg(leg("leg-1", "AMT"))), is(false));
+        assertThat(noLegWithTwoStipulations.matches(multileg(leg("leg-1", "AMT", "MINBID"))), is(false));
+    }
+
+    @Test
+    public void shouldMatchNestedGroups() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1", "AMT", "MAXBONDS"), leg("leg-2", "MINBID"));
+
+        // When & Then
+        assertMatches(isFIXMessage().with(anyGroup(NoLegs.FIELD)
+                .with(LegSymbol.FIELD, "leg-1")
+                .with(anyGroup(NoLegStipulations.FIELD).with(LegStipulationType.FIELD, "MAXBONDS"))), message, true);
+        assertMatches(isFIXMessage().with(anyGroup(NoLegs.FIELD)
+                .with(LegSymbol.FIELD, "leg-2")
+                .with(anyGroup(NoLegStipulations.FIELD).with(LegStipulationType.FIELD, "MAXBONDS"))), message, false);
+        assertMatches(isFIXMessage().with(group(2, NoLegs.FIELD)
+                .with(group(1, NoLegStipulations.FIELD).with(LegStipulationType.FIELD, "MINBID"))), message, true);
+        assertMatches(isFIXMessage().with(allGroups(NoLegs.FIELD)
+                .with(groupCount(1, NoLegStipulations.FIELD).with(LegStipulationType.FIELD, "AMT"))), message, false);
+    }
+
+    @Test
+    public void shouldCombineExpectationsOfTheSameGroup() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1", "AMT"), leg("leg-2"));
+
+        // When & Then
+        assertMatches(isFIXMessage()
+                .with(group(1, NoLegs.FIELD).with(LegSymbol.FIELD, "leg-1"))
+                .with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-2"))
+                .with(noGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-3"))
+                .with(groupCount(1, NoLegs.FIELD).with(anyGroup(NoLegStipulations.FIELD)))
+                .with(group(2, NoLegs.FIELD).with(noGroup(NoLegStipulations.FIELD))), message, true);
+        assertMatches(isFIXMessage()
+                .with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-2"))
+                .with(group(3, NoLegs.FIELD).with(noGroup(NoLegStipulations.FIELD))), message, false);
+    }
+
+    @Test
+    public void shouldDescribeFailedQuantifier() {
+        // Given
+        NewOrderMultileg message = multileg(leg("leg-1"));
+        FIXMessageMatcher matcher = isFIXMessage().with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-2"));
+
+        // When
+        MatchResult result = matcher.compile().evaluate(message);
+        StringDescription mismatch = new StringDescription();
+        matcher.describeMismatch(message, mismatch);
+
+        // Then
+        assertThat(result.getLocation(), is(MatchResult.Location.GROUP));
+        assertThat(result.getGroupTag(), is(NoLegs.FIELD));
+        assertThat(result.toString(), equalTo("with group 555 not matching any group 555 values: [600 = leg-2]"));
+        assertThat(StringDescription.toString(matcher), equalTo("a fix message with any group 555 values: [600 = leg-2]"));
+        assertThat(mismatch.toString(), equalTo("was a message with 1 entries of group 555 not matching any group 555 values: [600 = leg-2]"));
+    }
+
+    @Test
+    public void shouldNotMatchQuantifiersAgainstRawMessage() {
+        // Given
+        CompiledFIXMessageMatcher matcher = isFIXMessage().with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-2")).compile();
+        byte[] bytes = multileg(leg("leg-1")).toString().getBytes();
+
+        try {
+            // When
+            matcher.matches(bytes);
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // Then
+            assertThat(matcher.mayMatch(java.nio.ByteBuffer.wrap(bytes)), is(true));
+        }
+    }
+
+    @Test
+    public void shouldNotBeAffectedByLaterChangesOfGroup() {
+        // Given
+        Group legs = anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-1");
+        FIXMessageMatcher matcher = isFIXMessage().with(legs);
+
+        // When
+        legs.with(LegSymbol.FIELD, "leg-2");
+
+        // Then
+        assertMatches(matcher, multileg(leg("leg-1")), true);
+    }
+
+    @Test
+    public void shouldEvaluateQuantifiersTheSameWayWhenCompiled() {
+        for (int i = 0; i < 2000; i++) {
+            // Given
+            FIXMessageMatcher matcher = isFIXMessage().with(randomGroup(NoLegs.FIELD, LegSymbol.FIELD, true));
+            if (random.nextBoolean()) {
+                matcher.with(randomGroup(NoLegs.FIELD, LegSymbol.FIELD, true));
+            }
+            NewOrderMultileg message = randomMultileg();
+
+            // When & Then
+            assertThat(matcher.compile().matches(message), equalTo(matcher.matches(message)));
+            assertThat(matcher.compileAdaptive().matches(message), equalTo(matcher.matches(message)));
+            assertThat(matcher.compile().evaluate(message).matches(), equalTo(matcher.matches(message)));
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void assertMatches(FIXMessageMatcher matcher, Message message, boolean expected) {
+        assertThat(matcher.matches(message), is(expected));
+        assertThat(matcher.compile().matches(message), is(expected));
+    }
+
+    private NewOrderMultileg multileg(NewOrderMultileg.NoLegs... legs) {
+        NewOrderMultileg message = new NewOrderMultileg();
+        for (NewOrderMultileg.NoLegs leg : legs) {
+            message.addGroup(leg);
+        }
+        return message;
+    }
+
+    private NewOrderMultileg.NoLegs leg(String legSymbol, String... stipulationTypes) {
+        NewOrderMultileg.NoLegs leg = new NewOrderMultileg.NoLegs();
+        leg.set(new LegSymbol(legSymbol));
+        leg.set(new LegSide(Side.BUY));
+        for (String stipulationType : stipulationTypes) {
+            NewOrderMultileg.NoLegs.NoLegStipulations stipulation = new NewOrderMultileg.NoLegs.NoLegStipulations();
+            stipulation.set(new LegStipulationType(stipulationType));
+            leg.addGroup(stipulation);
+        }
+        return leg;
+    }
+
+    private Group randomGroup(int groupTag, int fieldId, boolean withNested) {
+        Group group;
+        switch (random.nextInt(5)) {
+            case 0:
+                group = group(1 + random.nextInt(3), groupTag);
+                break;
+            case 1:
+                group = anyGroup(groupTag);
+                break;
+            case 2:
+                group = allGroups(groupTag);
+                break;
+            case 3:
+                group = noGroup(groupTag);
+                break;
+            default:
+                group = groupCount(random.nextInt(3), groupTag);
+                break;
+        }
+        if (random.nextBoolean()) {
+            group.with(fieldId, fieldId == LegSymbol.FIELD ? "leg-" + random.nextInt(3) : "stip-" + random.nextInt(3));
+        }
+        if (withNested && random.nextBoolean()) {
+            group.with(randomGroup(NoLegStipulations.FIELD, LegStipulationType.FIELD, false));
+        }
+        return group;
+    }
+
+    private NewOrderMultileg randomMultileg() {
+        NewOrderMultileg message = new NewOrderMultileg();
+        int legCount = random.nextInt(4);
+        for (int i = 0; i < legCount; i++) {
+            String[] stipulationTypes = new String[random.nextInt(3)];
+            for (int j = 0; j < stipulationTypes.length; j++) {
+                stipulationTypes[j] = "stip-" + random.nextInt(3);
+            }
+            message.addGroup(leg("leg-" + random.nextInt(3), stipulationTypes));
+        }
+        return message;
+    }
+}
@@ -0,0 +1,236 @@
+package com.qfu.matcher;
+
+import org.hamcrest.StringDescription;
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderMultileg;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.anyGroup;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:54 AM
+ */
+public class ImmutableFIXMessageMatcherTest {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int ITERATIONS = 20000;
+
+    @Test
+    public void shouldMatchAndDescribeLikeBuilder() {
+        // Given
+        FIXMessageMatcher builder = isFIXMessage(ExecutionReport.class)
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(header().with(SenderSubID.FIELD, "sender-1"));
+        ExecutionReport message = executionReport("EUR/USD", "sender-1");
+
+        // When
+        ImmutableFIXMessageMatcher matcher = builder.build();
+
+        // Then
+        assertThat(message, matcher);
+        assertThat(executionReport("EUR/GBP", "sender-1"), not(matcher));
+        assertThat(StringDescription.toString(matcher), equalTo(StringDescription.toString(builder)));
+        assertThat(mismatchOf(matcher, executionReport("EUR/GBP", "sender-1")), equalTo("was a message with value 55 = EUR/GBP instead of 55 = EUR/USD"));
+        assertThat(mismatchOf(matcher, new Message()), equalTo("was a message of Type 'Message' instead of 'ExecutionReport'"));
+    }
+
+    @Test
+    public void shouldNotBeAffectedByLaterChangesOfBuilder() {
+        // Given
+        FIXMessageMatcher builder = isFIXMessage().with(Symbol.FIELD, "EUR/USD");
+        ImmutableFIXMessageMatcher matcher = builder.build();
+        String description = StringDescription.toString(matcher);
+
+        // When
+        builder.with(Symbol.FIELD, "EUR/GBP").with(group(1, NoLegs.FIELD).with(LegSymbol.FIELD, "EUR"));
+
+        // Then
+        assertThat(executionReport("EUR/USD", "sender-1"), matcher);
+        assertThat(StringDescription.toString(matcher), equalTo(description));
+    }
+
+    @Test
+    public void shouldBeEvaluatedConcurrentlyByManyThreads() throws Exception {
+        // Given
+        final ImmutableFIXMessageMatcher matcher = isFIXMessage(NewOrderMultileg.class)
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(Price.FIELD, new BigDecimal("1.25"))
+                .with(header().with(SenderSubID.FIELD, "sender-1"))
+                .with(group(1, NoLegs.FIELD).with(LegSymbol.FIELD, "EUR"))
+                .with(anyGroup(NoLegs.FIELD).with(LegSide.FIELD, '2'))
+                .build();
+        final String description = StringDescription.toString(matcher);
+        final String mismatch = mismatchOf(matcher, order("GBP"));
+
+        // When
+        List<Integer> failures = runConcurrently(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                // each session thread has its own messages
+                NewOrderMultileg hit = order("USD");
+                NewOrderMultileg miss = order("GBP");
+                int failures = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    if (!matcher.matches(hit) || matcher.matches(miss)) {
+                        failures++;
+                    }
+                    if (i % 100 == 0) {
+                        if (!description.equals(StringDescription.toString(matcher))
+                                || !mismatch.equals(mismatchOf(matcher, miss))) {
+                            failures++;
+                        }
+                    }
+                }
+                return failures;
+            }
+        });
+
+        // Then
+        for (int failureCount : failures) {
+            assertThat(failureCount, is(0));
+        }
+    }
+
+    @Test
+    public void shouldIsolateSnapshotsFromBuilderChangedConcurrently() throws Exception {
+        // Given
+        final Message message = new Message();
+        for (int i = 0; i < 50; i++) {
+            message.setString(5000 + i, "value-" + i);
+        }
+        final FIXMessageMatcher builder = isFIXMessage();
+        final AtomicReference<Snapshot> published = new AtomicReference<Snapshot>(new Snapshot(builder.build(), true));
+        final AtomicBoolean building = new AtomicBoolean(true);
+
+        // When
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> builderThread = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                // the builder keeps changing while earlier snapshots are evaluated
+                for (int i = 0; i < 100; i++) {
+                    builder.with(5000 + i, "value-" + i);
+                    published.set(new Snapshot(builder.build(), i < 50));
+                }
+                building.set(false);
+            }
+        });
+        List<Integer> failures = runConcurrently(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                int failures = 0;
+                int evaluations = 0;
+                while (building.get() || evaluations < ITERATIONS) {
+                    Snapshot snapshot = published.get();
+                    if (snapshot.matcher.matches(message) != snapshot.expectedMatch) {
+                        failures++;
+                    }
+                    evaluations++;
+                }
+                return failures;
+            }
+        });
+        builderThread.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        for (int failureCount : failures) {
+            assertThat(failureCount, is(0));
+        }
+        assertThat(published.get().matcher.matches(message), is(false));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static List<Integer> runConcurrently(final Callable<Integer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        start.await();
+                        return task.call();
+                    }
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<Integer>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String mismatchOf(ImmutableFIXMessageMatcher matcher, Message message) {
+        StringDescription description = new StringDescription();
+        matcher.describeMismatch(message, description);
+        return description.toString();
+    }
+
+    private static ExecutionReport executionReport(String symbol, String senderSubId) {
+        ExecutionReport executionReport = new ExecutionReport();
+        executionReport.getHeader().setField(new SenderSubID(senderSubId));
+        executionReport.set(new Symbol(symbol));
+        return executionReport;
+    }
+
+    private static NewOrderMultileg order(String secondLegSymbol) {
+        NewOrderMultileg order = new NewOrderMultileg();
+        order.getHeader().setField(new SenderSubID("sender-1"));
+        order.set(new Symbol("EUR/USD"));
+        order.set(new Price(1.25));
+        NewOrderMultileg.NoLegs leg = new NewOrderMultileg.NoLegs();
+        leg.set(new LegSymbol("EUR"));
+        leg.set(new LegSide('1'));
+        order.addGroup(leg);
+        leg.set(new LegSymbol(secondLegSymbol));
+        leg.set(new LegSide(secondLegSymbol.equals("USD") ? '2' : '1'));
+        order.addGroup(leg);
+        return order;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class Snapshot {
+
+        private final ImmutableFIXMessageMatcher matcher;
+        private final boolean expectedMatch;
+
+        private Snapshot(ImmutableFIXMessageMatcher matcher, boolean expectedMatch) {
+            this.matcher = matcher;
+            this.expectedMatch = expectedMatch;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Header.header;
+import static com.qfu.matcher.OneOf.oneOf;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 10:09 AM
+ */
+public class IndexedMessageStoreTest {
+
+    private static final String[] SYMBOLS = {"EUR/USD", "GBP/USD", "USD/JPY", "AUD/USD"};
+    private static final String[] ACCOUNTS = {"acc-1", "acc-2", "acc-3"};
+    private static final String[] SENDER_SUB_IDS = {"desk-A", "desk-B"};
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldIntersectPostingsOfIndexedExpectations() {
+        // Given
+        IndexedMessageStore store = new IndexedMessageStore(Symbol.FIELD, Side.FIELD);
+        store.add(newOrderSingle("EUR/USD", Side.BUY, "acc-1"));
+        store.add(newOrderSingle("EUR/USD", Side.SELL, "acc-1"));
+        store.add(executionReport("EUR/USD", Side.BUY, "acc-1"));
+        store.add(newOrderSingle("GBP/USD", Side.BUY, "acc-1"));
+        store.add(newOrderSingle("EUR/USD", Side.BUY, "acc-2"));
+        FIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(Side.FIELD, Side.BUY)
+                .with(Account.FIELD, "acc-2");
+
+        // When
+        int[] candidateIds = store.findCandidateIds(matcher);
+        int[] matchingIds = store.findMatchingIds(matcher);
+
+        // Then
+        assertThat(candidateIds, equalTo(new int[]{0, 4}));
+        assertThat(matchingIds, equalTo(new int[]{4}));
+        assertThat(store.findAll(matcher), equalTo(Arrays.asList(store.get(4))));
+    }
+
+    @Test
+    public void shouldUseIndexForOneOfAndNonCanonicalIntValues() {
+        // Given
+        IndexedMessageStore store = new IndexedMessageStore(Symbol.FIELD, MsgSeqNum.FIELD);
+        for (int i = 0; i < 4; i++) {
+            Message message = newOrderSingle(SYMBOLS[i], Side.BUY, "acc-1");
+            message.getHeader().setString(MsgSeqNum.FIELD, i == 2 ? "007" : Integer.toString(i + 10));
+            store.add(message);
+        }
+
+        // When
+        int[] symbolCandidates = store.findCandidateIds(isFIXMessage().with(Symbol.FIELD, oneOf("USD/JPY", "EUR/USD", "CHF/JPY")));
+        int[] seqNumMatches = store.findMatchingIds(isFIXMessage().with(header().with(MsgSeqNum.FIELD, 7)));
+        int[] bodySeqNumCandidates = store.findCandidateIds(isFIXMessage().with(MsgSeqNum.FIELD, 7));
+
+        // Then
+        assertThat(symbolCandidates, equalTo(new int[]{0, 2}));
+        assertThat(seqNumMatches, equalTo(new int[]{2}));
+        // the index holds header values only
+        assertThat(bodySeqNumCandidates, nullValue());
+    }
+
+    @Test
+    public void shouldFindSameMessagesAsEvaluatingEachOne() {
+        // Given
+        IndexedMessageStore store = new IndexedMessageStore(Symbol.FIELD, Side.FIELD, Account.FIELD, SenderSubID.FIELD);
+        List<Message> messages = new ArrayList<Message>();
+        for (int i = 0; i < 2000; i++) {
+            Message message = randomMessage();
+            messages.add(message);
+            store.add(message);
+        }
+        List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>();
+        for (int i = 0; i < 100; i++) {
+            matchers.add(randomMatcher());
+        }
+
+        for (FIXMessageMatcher matcher : matchers) {
+            // When
+            List<Message> found = store.findAll(matcher);
+
+            // Then
+            List<Message> expected = new ArrayList<Message>();
+            for (Message message : messages) {
+                if (matcher.matches(message)) {
+                    expected.add(message);
+                }
+            }
+            assertThat(found, equalTo(expected));
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private Message randomMessage() {
+        Message message = random.nextBoolean()
+                ? newOrderSingle(pick(SYMBOLS), random.nextBoolean() ? Side.BUY : Side.SELL, pick(ACCOUNTS))
+                : executionReport(pick(SYMBOLS), random.nextBoolean() ? Side.BUY : Side.SELL, pick(ACCOUNTS));
+        if (random.nextBoolean()) {
+            message.getHeader().setField(new SenderSubID(pick(SENDER_SUB_IDS)));
+        }
+        return message;
+    }
+
+    private FIXMessageMatcher randomMatcher() {
+        int type = random.nextInt(3);
+        FIXMessageMatcher matcher = type == 0 ? isFIXMessage() : isFIXMessage(type == 1 ? NewOrderSingle.class : ExecutionReport.class);
+        if (random.nextBoolean()) {
+            matcher.with(Symbol.FIELD, random.nextBoolean() ? pick(SYMBOLS) : oneOf(pick(SYMBOLS), pick(SYMBOLS)));
+        }
+        if (random.nextBoolean()) {
+            matcher.with(Side.FIELD, random.nextBoolean() ? Side.BUY : Side.SELL);
+        }
+        if (random.nextInt(3) == 0) {
+            matcher.with(Account.FIELD, pick(ACCOUNTS));
+        }
+        if (random.nextInt(3) == 0) {
+            matcher.with(header().with(SenderSubID.FIELD, pick(SENDER_SUB_IDS)));
+        }
+        if (random.nextInt(4) == 0) {
+            // not indexed
+            matcher.with(OrdType.FIELD, OrdType.LIMIT);
+        }
+        return matcher;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private NewOrderSingle newOrderSingle(String symbol, char side, String account) {
+        NewOrderSingle message = new NewOrderSingle();
+        message.set(new Symbol(symbol));
+        message.set(new Side(side));
+        message.set(new Account(account));
+        if (random.nextBoolean()) {
+            message.set(new OrdType(OrdType.LIMIT));
+        }
+        return message;
+    }
+
+    private ExecutionReport executionReport(String symbol, char side, String account) {
+        ExecutionReport message = new ExecutionReport();
+        message.set(new Symbol(symbol));
+        message.set(new Side(side));
+        message.set(new Account(account));
+        return message;
+    }
+}
@@ -0,0 +1,149 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:06 AM
+ */
+public class MatchResultTest {
+
+    private final CompiledFIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+            .with(header().with(SenderSubID.FIELD, "desk-A"))
+            .with(Symbol.FIELD, "EUR/USD")
+            .with(OrderQty.FIELD, 100.0)
+            .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-1"))
+            .compile();
+
+    @Test
+    public void shouldReportMatch() {
+        // Given
+        NewOrderSingle message = matchingMessage();
+
+        // When
+        MatchResult result = matcher.evaluate(message);
+
+        // Then
+        assertThat(result.matches(), is(true));
+        assertThat(result.getLocation(), is(nullValue()));
+        assertThat(result.toString(), equalTo("matched"));
+    }
+
+    @Test
+    public void shouldReportTypeMismatch() {
+        // When
+        MatchResult result = matcher.evaluate(new ExecutionReport());
+
+        // Then
+        assertThat(result.matches(), is(false));
+        assertThat(result.getLocation(), is(MatchResult.Location.TYPE));
+        assertThat(result.getExpectedValue(), equalTo((Object) NewOrderSingle.class));
+        assertThat(result.getActualValue(), equalTo((Object) ExecutionReport.class));
+        assertThat(result.toString(), equalTo("was a message of Type 'ExecutionReport' instead of 'NewOrderSingle'"));
+    }
+
+    @Test
+    public void shouldReportFirstFailedBodyField() {
+        // Given
+        NewOrderSingle message = matchingMessage();
+        message.set(new OrderQty(50));
+        message.getHeader().setField(new SenderSubID("desk-B"));
+
+        // When
+        MatchResult result = matcher.evaluate(message);
+
+        // Then
+        assertThat(result.getLocation(), is(MatchResult.Location.BODY));
+        assertThat(result.getFieldId(), is(OrderQty.FIELD));
+        assertThat(result.getExpectedValue(), equalTo((Object) 100.0));
+        assertThat(result.getActualValue(), equalTo((Object) "50"));
+        assertThat(result.toString(), equalTo("with value 38 = 50 instead of 38 = 100.0"));
+    }
+
+    @Test
+    public void shouldReportUndefinedHeaderField() {
+        // Given
+        NewOrderSingle message = matchingMessage();
+        message.getHeader().removeField(SenderSubID.FIELD);
+
+        // When
+        MatchResult result = matcher.evaluate(message);
+
+        // Then
+        assertThat(result.getLocation(), is(MatchResult.Location.HEADER));
+        assertThat(result.getFieldId(), is(SenderSubID.FIELD));
+        assertThat(result.getActualValue(), is(nullValue()));
+        assertThat(result.toString(), equalTo("with header value 50 is undefined instead of 50 = desk-A"));
+    }
+
+    @Test
+    public void shouldReportGroupMismatch() {
+        // Given
+        NewOrderSingle otherParty = matchingMessage();
+        otherParty.removeGroup(NoPartyIDs.FIELD);
+        NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+        party.set(new PartyID("party-2"));
+        otherParty.addGroup(party);
+        NewOrderSingle noParty = matchingMessage();
+        noParty.removeGroup(NoPartyIDs.FIELD);
+
+        // When
+        MatchResult otherPartyResult = matcher.evaluate(otherParty).copy();
+        MatchResult noPartyResult = matcher.evaluate(noParty);
+
+        // Then
+        assertThat(otherPartyResult.getLocation(), is(MatchResult.Location.GROUP));
+        assertThat(otherPartyResult.getGroupIndex(), is(1));
+        assertThat(otherPartyResult.getGroupTag(), is(NoPartyIDs.FIELD));
+        assertThat(otherPartyResult.getFieldId(), is(PartyID.FIELD));
+        assertThat(otherPartyResult.toString(), equalTo("with 1. group 453 value 448 = party-2 instead of 448 = party-1"));
+        assertThat(noPartyResult.getLocation(), is(MatchResult.Location.GROUP));
+        assertThat(noPartyResult.getFieldId(), is(0));
+        assertThat(noPartyResult.toString(), equalTo("with 1. group 453 missing"));
+    }
+
+    @Test
+    public void shouldReuseResultOfTheSameThread() {
+        // Given
+        MatchResult ownResult = new MatchResult();
+
+        // When
+        MatchResult firstResult = matcher.evaluate(new ExecutionReport());
+        MatchResult secondResult = matcher.evaluate(matchingMessage());
+
+        // Then
+        assertThat(secondResult, sameInstance(firstResult));
+        assertThat(secondResult.matches(), is(true));
+        assertThat(matcher.evaluate(new ExecutionReport(), ownResult), sameInstance(ownResult));
+        assertThat(ownResult, not(sameInstance(firstResult)));
+        assertThat(ownResult.matches(), is(false));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private NewOrderSingle matchingMessage() {
+        NewOrderSingle message = new NewOrderSingle();
+        message.getHeader().setField(new SenderSubID("desk-A"));
+        message.set(new Symbol("EUR/USD"));
+        message.set(new OrderQty(100));
+        NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+        party.set(new PartyID("party-1"));
+        message.addGroup(party);
+        return message;
+    }
+}
@@ -0,0 +1,110 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.field.*;
+import quickfix.fix44.NewOrderMultileg;
+import quickfix.fix44.NewOrderSingle;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.anyGroup;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:12 AM
+ */
+public class MatcherCacheTest {
+
+    @Test
+    public void shouldShareCompiledMatcherOfStructurallyEqualMatchers() {
+        // Given
+        MatcherCache cache = new MatcherCache(16);
+
+        // When
+        CompiledFIXMessageMatcher first = cache.compile(orderMatcher("EUR/USD"));
+        CompiledFIXMessageMatcher second = cache.compile(orderMatcher("EUR/USD"));
+        CompiledFIXMessageMatcher other = cache.compile(orderMatcher("GBP/USD"));
+
+        // Then
+        assertThat(second, sameInstance(first));
+        assertThat(other, not(sameInstance(first)));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void shouldNotBeAffectedByLaterChangesOfMatcher() {
+        // Given
+        MatcherCache cache = new MatcherCache(16);
+        FIXMessageMatcher matcher = orderMatcher("EUR/USD");
+        CompiledFIXMessageMatcher compiledMatcher = cache.compile(matcher);
+
+        // When
+        matcher.with(Side.FIELD, Side.SELL);
+
+        // Then
+        assertThat(cache.compile(matcher), not(sameInstance(compiledMatcher)));
+        assertThat(cache.compile(orderMatcher("EUR/USD")), sameInstance(compiledMatcher));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedMatcher() {
+        // Given
+        MatcherCache cache = new MatcherCache(2);
+        CompiledFIXMessageMatcher eurUsd = cache.compile(orderMatcher("EUR/USD"));
+        cache.compile(orderMatcher("GBP/USD"));
+        cache.compile(orderMatcher("EUR/USD"));
+
+        // When
+        cache.compile(orderMatcher("USD/JPY"));
+
+        // Then
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getEvictionCount(), is(1L));
+        assertThat(cache.compile(orderMatcher("EUR/USD")), sameInstance(eurUsd));
+        assertThat(cache.getMissCount(), is(3L));
+        cache.compile(orderMatcher("GBP/USD"));
+        assertThat(cache.getMissCount(), is(4L));
+        assertThat(cache.getHitRate(), equalTo(2.0 / 6.0));
+    }
+
+    @Test
+    public void shouldShareCompiledMatcherOfEqualGroupExpectations() {
+        // Given
+        MatcherCache cache = new MatcherCache(16);
+
+        // When
+        CompiledFIXMessageMatcher first = cache.compile(legMatcher());
+        CompiledFIXMessageMatcher second = cache.compile(legMatcher());
+
+        // Then
+        assertThat(second, sameInstance(first));
+        assertThat(legMatcher(), equalTo(legMatcher()));
+        assertThat(legMatcher().hashCode(), is(legMatcher().hashCode()));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private FIXMessageMatcher orderMatcher(String symbol) {
+        return isFIXMessage(NewOrderSingle.class)
+                .with(header().with(SenderSubID.FIELD, "desk-A"))
+                .with(Symbol.FIELD, symbol)
+                .with(OrderQty.FIELD, 100);
+    }
+
+    private FIXMessageMatcher legMatcher() {
+        return isFIXMessage(NewOrderMultileg.class)
+                .with(group(1, NoLegs.FIELD).with(LegSymbol.FIELD, "leg-1"))
+                .with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "leg-2")
+                        .with(anyGroup(NoLegStipulations.FIELD).with(LegStipulationType.FIELD, "AMT")));
+    }
+}
@@ -0,0 +1,125 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderMultileg;
+import quickfix.fix44.NewOrderSingle;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.qfu.matcher.Decimal.above;
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.anyGroup;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static com.qfu.matcher.OneOf.oneOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:51 AM
+ */
+public class MatcherClassGeneratorTest {
+
+    @Test
+    public void shouldGenerateSpecializedMatcher() {
+        // When
+        CompiledFIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class).with(Symbol.FIELD, "EUR/USD").compileSpecialized();
+
+        // Then
+        assertThat(matcher.isSpecialized(), is(MatcherClassGenerator.isSupported()));
+        assertThat(isFIXMessage(NewOrderSingle.class).compile().isSpecialized(), is(false));
+    }
+
+    @Test
+    public void shouldMatchSameMessagesAsInterpretedMatcher() {
+        // Given
+        Date transactTime = new Date(1382097600123L);
+        List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>();
+        matchers.add(isFIXMessage(NewOrderSingle.class));
+        matchers.add(isFIXMessage(ExecutionReport.class));
+        matchers.add(isFIXMessage().with(Symbol.FIELD, "EUR/USD"));
+        matchers.add(isFIXMessage().with(Symbol.FIELD, "EUR/GBP"));
+        matchers.add(isFIXMessage().with(Side.FIELD, Side.BUY));
+        matchers.add(isFIXMessage().with(Side.FIELD, Side.SELL));
+        matchers.add(isFIXMessage().with(NumDaysInterest.FIELD, -7));
+        matchers.add(isFIXMessage().with(NumDaysInterest.FIELD, 7));
+        matchers.add(isFIXMessage().with(Price.FIELD, 1.25d));
+        matchers.add(isFIXMessage().with(Price.FIELD, 1.5d));
+        matchers.add(isFIXMessage().with(StopPx.FIELD, 1.25d));
+        matchers.add(isFIXMessage().with(Price.FIELD, new BigDecimal("1.250")));
+        matchers.add(isFIXMessage().with(Price.FIELD, above(new BigDecimal("1.3"))));
+        matchers.add(isFIXMessage().with(SolicitedFlag.FIELD, true));
+        matchers.add(isFIXMessage().with(SolicitedFlag.FIELD, false));
+        matchers.add(isFIXMessage().with(TransactTime.FIELD, transactTime));
+        matchers.add(isFIXMessage().with(OrdType.FIELD, oneOf(OrdType.MARKET, OrdType.LIMIT)));
+        matchers.add(isFIXMessage().with(ClOrdID.FIELD, "missing"));
+        matchers.add(isFIXMessage().with(header().with(SenderSubID.FIELD, "sender-1")));
+        matchers.add(isFIXMessage().with(header().with(SenderSubID.FIELD, "sender-2")));
+        matchers.add(isFIXMessage(NewOrderSingle.class)
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(Side.FIELD, Side.BUY)
+                .with(NumDaysInterest.FIELD, -7)
+                .with(Price.FIELD, 1.25d)
+                .with(header().with(SenderSubID.FIELD, "sender-1")));
+
+        NewOrderSingle message = new NewOrderSingle();
+        message.getHeader().setField(new SenderSubID("sender-1"));
+        message.setField(new Symbol("EUR/USD"));
+        message.setField(new Side(Side.BUY));
+        message.setString(NumDaysInterest.FIELD, "-007");
+        message.setField(new Price(1.25));
+        message.setString(StopPx.FIELD, "1.2x");
+        message.setField(new SolicitedFlag(true));
+        message.setField(new TransactTime(transactTime));
+        message.setField(new OrdType(OrdType.LIMIT));
+
+        // When & Then
+        for (FIXMessageMatcher matcher : matchers) {
+            boolean expected = matcher.compile().matches(message);
+            assertThat(matcher.toString(), matcher.compileSpecialized().matches(message), is(expected));
+            assertThat(matcher.toString(), matcher.compileSpecialized().matches(new Message()), is(matcher.compile().matches(new Message())));
+        }
+    }
+
+    @Test
+    public void shouldMatchGroups() {
+        // Given
+        NewOrderMultileg order = new NewOrderMultileg();
+        NewOrderMultileg.NoLegs leg = new NewOrderMultileg.NoLegs();
+        leg.set(new LegSymbol("EUR"));
+        order.addGroup(leg);
+        leg.set(new LegSymbol("USD"));
+        order.addGroup(leg);
+
+        // When & Then
+        assertThat(isFIXMessage().with(group(2, NoLegs.FIELD).with(LegSymbol.FIELD, "USD")).compileSpecialized().matches(order), is(true));
+        assertThat(isFIXMessage().with(group(1, NoLegs.FIELD).with(LegSymbol.FIELD, "USD")).compileSpecialized().matches(order), is(false));
+        assertThat(isFIXMessage().with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "USD")).compileSpecialized().matches(order), is(true));
+        assertThat(isFIXMessage().with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "GBP")).compileSpecialized().matches(order), is(false));
+    }
+
+    @Test
+    public void shouldFallBackToInterpretedMatcherWhenDisabled() {
+        // Given
+        System.setProperty(MatcherClassGenerator.ENABLED_PROPERTY, "false");
+        try {
+            // When
+            CompiledFIXMessageMatcher matcher = isFIXMessage().with(Symbol.FIELD, "EUR/USD").compileSpecialized();
+
+            // Then
+            assertThat(matcher.isSpecialized(), is(false));
+            Message message = new Message();
+            message.setField(new Symbol("EUR/USD"));
+            assertThat(matcher.matches(message), is(true));
+        } finally {
+            System.clearProperty(MatcherClassGenerator.ENABLED_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+import quickfix.fix44.OrderCancelRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 8:47 AM
+ */
+public class MatcherIndexTest {
+
+    private static final String[] SYMBOLS = {"EUR/USD", "GBP/USD", "USD/JPY", "AUD/USD"};
+    private static final String[] ACCOUNTS = {"acc-1", "acc-2", "acc-3"};
+    private static final String[] SENDER_SUB_IDS = {"desk-A", "desk-B"};
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldFindMatchingMatchersInOriginalOrder() {
+        // Given
+        FIXMessageMatcher eurUsd = isFIXMessage(NewOrderSingle.class).with(Symbol.FIELD, "EUR/USD");
+        FIXMessageMatcher anyBuy = isFIXMessage().with(Side.FIELD, Side.BUY);
+        FIXMessageMatcher executionReport = isFIXMessage(ExecutionReport.class).with(Symbol.FIELD, "EUR/USD");
+        FIXMessageMatcher anyMessage = isFIXMessage();
+        FIXMessageMatcher deskA = isFIXMessage(Message.class).with(header().with(SenderSubID.FIELD, "desk-A"));
+        MatcherIndex index = new MatcherIndex(Arrays.asList(eurUsd, anyBuy, executionReport, anyMessage, deskA));
+
+        NewOrderSingle message = new NewOrderSingle();
+        message.getHeader().setField(new SenderSubID("desk-A"));
+        message.set(new Symbol("EUR/USD"));
+        message.set(new Side(Side.SELL));
+
+        // When
+        List<FIXMessageMatcher> matching = index.findMatching(message);
+
+        // Then
+        assertThat(matching, equalTo(Arrays.asList(eurUsd, anyMessage, deskA)));
+        assertThat(index.size(), is(5));
+    }
+
+    @Test
+    public void shouldMatchNonCanonicalIntValues() {
+        // Given
+        MatcherIndex index = new MatcherIndex(Arrays.asList(
+                isFIXMessage().with(PriceType.FIELD, 7),
+                isFIXMessage().with(PriceType.FIELD, "007")
+        ));
+        Message message = new Message();
+        message.setString(PriceType.FIELD, "007");
+
+        // When & Then
+        assertThat(index.findMatchingIndexes(message), equalTo(new int[]{0, 1}));
+    }
+
+    @Test
+    public void shouldFindSameMatchersAsEvaluatingEachOfThem() {
+        // Given
+        List<FIXMessageMatcher> matchers = new ArrayList<FIXMessageMatcher>();
+        for (int i = 0; i < 2000; i++) {
+            matchers.add(randomMatcher());
+        }
+        MatcherIndex index = new MatcherIndex(matchers);
+
+        for (int i = 0; i < 500; i++) {
+            Message message = randomMessage();
+
+            List<FIXMessageMatcher> expected = new ArrayList<FIXMessageMatcher>();
+            for (FIXMessageMatcher matcher : matchers) {
+                if (matcher.matches(message)) {
+                    expected.add(matcher);
+                }
+            }
+
+            // When
+            List<FIXMessageMatcher> actual = index.findMatching(message);
+
+            // Then
+            assertThat(actual, equalTo(expected));
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private FIXMessageMatcher randomMatcher() {
+        FIXMessageMatcher matcher = isFIXMessage();
+        switch (random.nextInt(4)) {
+            case 0:
+                matcher.ofType(NewOrderSingle.class);
+                break;
+            case 1:
+                matcher.ofType(ExecutionReport.class);
+                break;
+            case 2:
+                matcher.ofType(quickfix.fix44.Message.class);
+                break;
+            default:
+                break;
+        }
+        if (random.nextInt(3) > 0) {
+            matcher.with(Symbol.FIELD, pick(SYMBOLS));
+        }
+        if (random.nextBoolean()) {
+            matcher.with(Account.FIELD, pick(ACCOUNTS));
+        }
+        if (random.nextBoolean()) {
+            matcher.with(header().with(SenderSubID.FIELD, pick(SENDER_SUB_IDS)));
+        }
+        if (random.nextInt(4) == 0) {
+            matcher.with(Side.FIELD, random.nextBoolean() ? Side.BUY : Side.SELL);
+        }
+        if (random.nextInt(4) == 0) {
+            matcher.with(OrderQty.FIELD, (double) (1 + random.nextInt(3)));
+        }
+        if (random.nextInt(8) == 0) {
+            matcher.with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, pick(ACCOUNTS)));
+        }
+        return matcher;
+    }
+
+    private Message randomMessage() {
+        Message message;
+        switch (random.nextInt(3)) {
+            case 0:
+                message = new NewOrderSingle();
+                break;
+            case 1:
+                message = new ExecutionReport();
+                break;
+            default:
+                message = new OrderCancelRequest();
+                break;
+        }
+        message.getHeader().setField(new SenderSubID(pick(SENDER_SUB_IDS)));
+        message.setField(new Symbol(pick(SYMBOLS)));
+        if (random.nextInt(4) > 0) {
+            message.setField(new Account(pick(ACCOUNTS)));
+        }
+        message.setField(new Side(random.nextBoolean() ? Side.BUY : Side.SELL));
+        message.setField(new OrderQty(1 + random.nextInt(3)));
+        if (random.nextBoolean()) {
+            NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+            party.set(new PartyID(pick(ACCOUNTS)));
+            message.addGroup(party);
+        }
+        return message;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,178 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ * @since 10/18/26 10:12 AM
+ */
+public class NearMissFinderTest {
+
+    private static final String[] SYMBOLS = {"EUR/USD", "GBP/USD", "USD/JPY", "AUD/USD"};
+    private static final String[] ACCOUNTS = {"acc-1", "acc-2", "acc-3"};
+
+    private final Random random = new Random(42L);
+
+    @Test
+    public void shouldFindClosestMessagesWithTheirMismatches() {
+        // Given
+        List<Message> messages = Arrays.<Message>asList(
+                newOrderSingle("GBP/USD", Side.SELL, "acc-2"),
+                executionReport("EUR/USD", Side.BUY, "acc-1"),
+                newOrderSingle("EUR/USD", Side.SELL, "acc-1"),
+                newOrderSingle("EUR/USD", Side.BUY, "acc-2"),
+                newOrderSingle("USD/JPY", Side.BUY, "acc-2")
+        );
+        FIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+                .with(Symbol.FIELD, "EUR/USD")
+                .with(Side.FIELD, Side.BUY)
+                .with(Account.FIELD, "acc-1");
+
+        // When
+        List<NearMiss> closest = new NearMissFinder(3).findClosest(matcher, messages);
+
+        // Then
+        assertThat(positionsOf(closest), equalTo(Arrays.asList(1, 2, 3)));
+        NearMiss nearMiss = closest.get(0);
+        assertThat(nearMiss.getMessage(), is(messages.get(1)));
+        assertThat(nearMiss.getSatisfiedCount(), is(3));
+        assertThat(nearMiss.getExpectationCount(), is(4));
+        assertThat(nearMiss.getMismatches().size(), is(1));
+        assertThat(nearMiss.getMismatches().get(0).getLocation(), is(MatchResult.Location.TYPE));
+        MatchResult mismatch = closest.get(1).getMismatches().get(0);
+        assertThat(mismatch.getLocation(), is(MatchResult.Location.BODY));
+        assertThat(mismatch.getFieldId(), is(Side.FIELD));
+        assertThat(mismatch.getActualValue(), equalTo((Object) "2"));
+        assertThat(closest.get(1).toString(), equalTo("message 2 satisfying 3 of 4 expectations: " + mismatch));
+    }
+
+    @Test
+    public void shouldCountEachGroupFieldAsExpectation() {
+        // Given
+        NewOrderSingle withoutParty = newOrderSingle("EUR/USD", Side.BUY, "acc-1");
+        NewOrderSingle withOtherParty = newOrderSingle("EUR/USD", Side.BUY, "acc-1");
+        NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+        party.set(new PartyID("party-2"));
+        party.set(new PartyRole(PartyRole.CLIENT_ID));
+        withOtherParty.addGroup(party);
+        FIXMessageMatcher matcher = isFIXMessage(NewOrderSingle.class)
+                .with(group(1, NoPartyIDs.FIELD).with(PartyID.FIELD, "party-1").with(PartyRole.FIELD, PartyRole.CLIENT_ID));
+
+        // When
+        List<NearMiss> closest = new NearMissFinder(2).findClosest(matcher, Arrays.asList(withoutParty, withOtherParty));
+
+        // Then
+        assertThat(positionsOf(closest), equalTo(Arrays.asList(1, 0)));
+        assertThat(closest.get(0).getSatisfiedCount(), is(2));
+        assertThat(closest.get(0).getMismatches().get(0).getFieldId(), is(PartyID.FIELD));
+        assertThat(closest.get(1).getSatisfiedCount(), is(1));
+        assertThat(closest.get(1).getMismatches().get(0).getFieldId(), is(0));
+        assertThat(closest.get(1).getExpectationCount(), is(3));
+    }
+
+    @Test
+    public void shouldFindSameClosenessInIndexedStoreAsInCollection() {
+        // Given
+        IndexedMessageStore store = new IndexedMessageStore(Symbol.FIELD, Side.FIELD, SenderSubID.FIELD);
+        List<Message> messages = new ArrayList<Message>();
+        for (int i = 0; i < 3000; i++) {
+            Message message = random.nextBoolean()
+                    ? newOrderSingle(pick(SYMBOLS), random.nextBoolean() ? Side.BUY : Side.SELL, pick(ACCOUNTS))
+                    : executionReport(pick(SYMBOLS), random.nextBoolean() ? Side.BUY : Side.SELL, pick(ACCOUNTS));
+            if (random.nextBoolean()) {
+                message.getHeader().setField(new SenderSubID(random.nextBoolean() ? "desk-A" : "desk-B"));
+            }
+            messages.add(message);
+            store.add(message);
+        }
+        NearMissFinder nearMissFinder = new NearMissFinder(5);
+
+        for (int i = 0; i < 50; i++) {
+            FIXMessageMatcher matcher = isFIXMessage(random.nextBoolean() ? NewOrderSingle.class : ExecutionReport.class)
+                    .with(Symbol.FIELD, "CHF/JPY")
+                    .with(Side.FIELD, random.nextBoolean() ? Side.BUY : Side.SELL)
+                    .with(Account.FIELD, pick(ACCOUNTS))
+                    .with(header().with(SenderSubID.FIELD, "desk-A"));
+
+            // When
+            List<NearMiss> fromStore = nearMissFinder.findClosest(matcher, store);
+
+            // Then
+            List<NearMiss> fromCollection = nearMissFinder.findClosest(matcher, messages);
+            assertThat(satisfiedCountsOf(fromStore), equalTo(satisfiedCountsOf(fromCollection)));
+            for (NearMiss nearMiss : fromStore) {
+                assertThat(nearMiss.getMessage(), is(messages.get(nearMiss.getPosition())));
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidMaxResults() {
+        try {
+            // When
+            new NearMissFinder(0);
+
+            // Then
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected.getMessage(), equalTo("invalid max number of results 0"));
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static List<Integer> positionsOf(List<NearMiss> nearMisses) {
+        List<Integer> positions = new ArrayList<Integer>();
+        for (NearMiss nearMiss : nearMisses) {
+            positions.add(nearMiss.getPosition());
+        }
+        return positions;
+    }
+
+    private static List<Integer> satisfiedCountsOf(List<NearMiss> nearMisses) {
+        List<Integer> satisfiedCounts = new ArrayList<Integer>();
+        for (NearMiss nearMiss : nearMisses) {
+            satisfiedCounts.add(nearMiss.getSatisfiedCount());
+        }
+        return satisfiedCounts;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static NewOrderSingle newOrderSingle(String symbol, char side, String account) {
+        NewOrderSingle message = new NewOrderSingle();
+        message.set(new Symbol(symbol));
+        message.set(new Side(side));
+        message.set(new Account(account));
+        return message;
+    }
+
+    private static ExecutionReport executionReport(String symbol, char side, String account) {
+        ExecutionReport message = new ExecutionReport();
+        message.set(new Symbol(symbol));
+        message.set(new Side(side));
+        message.set(new Account(account));
+        return message;
+    }
+}
@@ -0,0 +1,257 @@
+package com.qfu.matcher;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import quickfix.ConfigError;
+import quickfix.DataDictionary;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.AllocationInstruction;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderList;
+import quickfix.fix44.NewOrderSingle;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ * @since 10/18/26 8:45 AM
+ */
+public class RawMessageScannerTest {
+
+    private static DataDictionary dataDictionary;
+
+    private final Date now = new Date();
+
+    @BeforeClass
+    public static void loadDataDictionary() throws ConfigError {
+        dataDictionary = new DataDictionary("FIX44.xml");
+    }
+
+    @Test
+    public void shouldMatchRawMessageType() {
+        // Given
+        byte[] bytes = newOrderList().toString().getBytes();
+
+        // When & Then
+        assertThat(isFIXMessage(NewOrderList.class).compile().matches(bytes), is(true));
+        assertThat(isFIXMessage(quickfix.fix44.Message.class).compile().matches(bytes), is(true));
+        assertThat(isFIXMessage(Message.class).compile().matches(bytes), is(true));
+        assertThat(isFIXMessage(ExecutionReport.class).compile().matches(bytes), is(false));
+        assertThat(isFIXMessage(quickfix.fix42.NewOrderList.class).compile().matches(bytes), is(false));
+    }
+
+    @Test
+    public void shouldMatchRawHeaderAndBodyFields() {
+        // Given
+        byte[] bytes = newOrderList().toString().getBytes();
+
+        // When & Then
+        assertThat(isFIXMessage(NewOrderList.class).using(dataDictionary)
+                .with(header().with(SenderSubID.FIELD, "senderSubId-123"))
+                .with(ListID.FIELD, "listId-123")
+                .with(BidType.FIELD, BidType.NON_DISCLOSED)
+                .with(TotNoOrders.FIELD, 2)
+                .compile().matches(bytes), is(true));
+        assertThat(isFIXMessage().with(header().with(SenderSubID.FIELD, "other")).compile().matches(bytes), is(false));
+        assertThat(isFIXMessage().with(header().with(ListID.FIELD, "listId-123")).compile().matches(bytes), is(false));
+        assertThat(isFIXMessage(NewOrderList.class).using(dataDictionary).with(ListID.FIELD, "other").compile().matches(bytes), is(false));
+    }
+
+    @Test
+    public void shouldMatchRawGroupFields() {
+        // Given
+        byte[] bytes = newOrderList().toString().getBytes();
+
+        // When & Then
+        assertThat(newOrderListMatcher()
+                .with(group(1, NoOrders.FIELD)
+                        .with(ClOrdID.FIELD, "clOrdId-123")
+                        .with(Side.FIELD, Side.SELL)
+                        .with(Price.FIELD, new BigDecimal("1.25"))
+                        .with(TransactTime.FIELD, now))
+                .with(group(2, NoOrders.FIELD)
+                        .with(ClOrdID.FIELD, "clOrdId-456")
+                        .with(Side.FIELD, Side.BUY))
+                .compile().matches(bytes), is(true));
+        assertThat(newOrderListMatcher().with(group(2, NoOrders.FIELD)).compile().matches(bytes), is(true));
+        assertThat(newOrderListMatcher().with(group(3, NoOrders.FIELD)).compile().matches(bytes), is(false));
+        assertThat(newOrderListMatcher().with(group(1, NoOrders.FIELD).with(ClOrdID.FIELD, "clOrdId-456")).compile().matches(bytes), is(false));
+        // Price is only set in the first entry
+        assertThat(newOrderListMatcher().with(group(1, NoOrders.FIELD).with(Price.FIELD, 1.25d)).compile().matches(bytes), is(true));
+        assertThat(newOrderListMatcher().with(group(2, NoOrders.FIELD).with(Price.FIELD, 1.25d)).compile().matches(bytes), is(false));
+    }
+
+    @Test
+    public void shouldMatchRawFieldOfBodyAndGroupAsParsedMessage() {
+        // Given
+        AllocationInstruction inGroupOnly = allocationInstruction("1.5");
+        AllocationInstruction inGroupAndBody = allocationInstruction("1.5");
+        inGroupAndBody.set(new AccruedInterestAmt(2.5));
+        // AccruedInterestAmt is a field of the message as well as of its NoAllocs entries (which come first)
+        FIXMessageMatcher groupValue = isFIXMessage(AllocationInstruction.class).using(dataDictionary).with(AccruedInterestAmt.FIELD, 1.5);
+        FIXMessageMatcher bodyValue = isFIXMessage(AllocationInstruction.class).using(dataDictionary).with(AccruedInterestAmt.FIELD, 2.5);
+
+        // When & Then
+        for (FIXMessageMatcher matcher : new FIXMessageMatcher[]{groupValue, bodyValue}) {
+            for (Message message : new Message[]{inGroupOnly, inGroupAndBody}) {
+                CompiledFIXMessageMatcher compiledMatcher = matcher.compile();
+                assertThat(compiledMatcher.matches(message.toString().getBytes()), is(compiledMatcher.matches(message)));
+            }
+        }
+        assertThat(bodyValue.compile().matches(inGroupAndBody.toString().getBytes()), is(true));
+        assertThat(groupValue.compile().matches(inGroupOnly.toString().getBytes()), is(false));
+    }
+
+    @Test
+    public void shouldOnlyPrefilterRawFieldsWithoutDataDictionary() {
+        // Given
+        NewOrderSingle order = new NewOrderSingle();
+        NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+        party.set(new PartyID("P1"));
+        order.addGroup(party);
+        ByteBuffer buffer = ByteBuffer.wrap(order.toString().getBytes());
+        CompiledFIXMessageMatcher compiledMatcher = isFIXMessage().with(PartyID.FIELD, "P1").compile();
+
+        // When & Then
+        assertThat(compiledMatcher.matches(order), is(false));
+        assertThat(compiledMatcher.mayMatch(buffer), is(true));
+        assertThat(isFIXMessage().with(PartyID.FIELD, "P2").compile().mayMatch(buffer), is(false));
+        assertThat(isFIXMessage().with(SenderSubID.FIELD, "senderSubId-123").compile().mayMatch(ByteBuffer.wrap(newOrderList().toString().getBytes())), is(false));
+        try {
+            compiledMatcher.matches(buffer);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("without a data dictionary and message type"));
+        }
+    }
+
+    @Test
+    public void shouldNotRejectRawMessageByGroupFieldWhenPrefiltering() {
+        // Given
+        byte[] bytes = "8=FIX.4.4\u00019=40\u000135=D\u0001453=1\u0001448=P2\u000155=EUR/USD\u0001448=P1\u000110=000\u0001".getBytes();
+
+        // When & Then
+        assertThat(isFIXMessage().with(PartyID.FIELD, "P1").compile().mayMatch(ByteBuffer.wrap(bytes)), is(true));
+        assertThat(isFIXMessage().with(PartyID.FIELD, "P3").compile().mayMatch(ByteBuffer.wrap(bytes)), is(false));
+    }
+
+    @Test
+    public void shouldMatchRawMessageInByteBuffer() {
+        // Given
+        byte[] bytes = newOrderList().toString().getBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 10);
+        buffer.put(new byte[10]).put(bytes).flip().position(10);
+
+        // When
+        boolean matches = newOrderListMatcher()
+                .with(group(2, NoOrders.FIELD).with(ClOrdID.FIELD, "clOrdId-456"))
+                .compile().matches(buffer);
+
+        // Then
+        assertThat(matches, is(true));
+        assertThat(buffer.position(), is(10));
+    }
+
+    @Test
+    public void shouldMatchRawMessageSlice() {
+        // Given
+        byte[] message = newOrderList().toString().getBytes();
+        byte[] bytes = new byte[message.length + 20];
+        System.arraycopy(message, 0, bytes, 10, message.length);
+
+        // When & Then
+        assertThat(isFIXMessage(NewOrderList.class).compile().matches(bytes, 10, message.length), is(true));
+        assertThat(isFIXMessage(NewOrderList.class).compile().matches(bytes, 10, 12), is(false));
+    }
+
+    @Test
+    public void shouldSkipDataFieldsContainingSOH() {
+        // Given
+        NewOrderSingle message = new NewOrderSingle();
+        message.setField(new RawDataLength(7));
+        message.setField(new RawData("35=8\u000156"));
+        message.set(new ClOrdID("clOrdId-123"));
+        byte[] bytes = message.toString().getBytes();
+
+        // When & Then
+        assertThat(isFIXMessage(NewOrderSingle.class).using(dataDictionary).with(ClOrdID.FIELD, "clOrdId-123").compile().matches(bytes), is(true));
+        assertThat(isFIXMessage().with(56, "").compile().mayMatch(ByteBuffer.wrap(bytes)), is(false));
+    }
+
+    @Test
+    public void shouldNotMatchMalformedMessage() {
+        // When & Then
+        assertThat(isFIXMessage().with(ClOrdID.FIELD, "A").compile().mayMatch(ByteBuffer.wrap("8=FIX.4.4\u000111A=A\u0001".getBytes())), is(false));
+        assertThat(isFIXMessage().with(ClOrdID.FIELD, "A").compile().mayMatch(ByteBuffer.wrap("8=FIX.4.4\u000111".getBytes())), is(false));
+    }
+
+    @Test
+    public void shouldFailForMessageTypeWithoutMsgType() {
+        try {
+            isFIXMessage(CustomMessage.class).compile().matches(newOrderList().toString().getBytes());
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // this is expected
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static FIXMessageMatcher newOrderListMatcher() {
+        return isFIXMessage(NewOrderList.class).using(dataDictionary);
+    }
+
+    private static AllocationInstruction allocationInstruction(String accruedInterestAmt) {
+        AllocationInstruction message = new AllocationInstruction();
+        message.set(new AllocID("allocId-123"));
+        AllocationInstruction.NoAllocs allocation = new AllocationInstruction.NoAllocs();
+        allocation.set(new AllocAccount("account"));
+        allocation.setString(AccruedInterestAmt.FIELD, accruedInterestAmt);
+        message.addGroup(allocation);
+        return message;
+    }
+
+    private NewOrderList newOrderList() {
+        NewOrderList message = new NewOrderList();
+        message.getHeader().setField(new SenderCompID("sender"));
+        message.getHeader().setField(new TargetCompID("target"));
+        message.getHeader().setField(new SenderSubID("senderSubId-123"));
+        message.set(new ListID("listId-123"));
+        message.set(new BidType(BidType.NON_DISCLOSED));
+        message.set(new TotNoOrders(2));
+
+        NewOrderList.NoOrders group = new NewOrderList.NoOrders();
+        group.set(new ClOrdID("clOrdId-123"));
+        group.set(new ListSeqNo(1));
+        group.set(new Side(Side.SELL));
+        group.setDecimal(Price.FIELD, new BigDecimal("1.250"));
+        group.set(new TransactTime(now));
+        group.set(new OrdType(OrdType.LIMIT));
+        message.addGroup(group);
+
+        group = new NewOrderList.NoOrders();
+        group.set(new ClOrdID("clOrdId-456"));
+        group.set(new ListSeqNo(2));
+        group.set(new Side(Side.BUY));
+        group.set(new TransactTime(now));
+        group.set(new OrdType(OrdType.MARKET));
+        message.addGroup(group);
+        return message;
+    }
+
+    public static class CustomMessage extends Message {
+    }
+}
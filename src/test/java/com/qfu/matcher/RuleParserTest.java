@@ -0,0 +1,197 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.DataDictionary;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderMultileg;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Group.anyGroup;
+import static com.qfu.matcher.Group.group;
+import static com.qfu.matcher.Header.header;
+import static com.qfu.matcher.OneOf.oneOf;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:39 AM
+ */
+public class RuleParserTest {
+
+    private final RuleParser parser = new RuleParser();
+
+    @Test
+    public void shouldParseRuleIntoEquivalentMatcher() {
+        // When
+        FIXMessageMatcher matcher = parser.parse("35=8 & 39 in (1,2) & Price>1.25 & NoLegs[*].600=EURUSD & NoLegs[*].LegSide=1");
+
+        // Then
+        assertThat(matcher, equalTo(isFIXMessage()
+                .with(OrdStatus.FIELD, oneOf("1", "2"))
+                .with(Price.FIELD, Decimal.above(new BigDecimal("1.25")))
+                .with(header().with(MsgType.FIELD, "8"))
+                .with(anyGroup(NoLegs.FIELD).with(LegSymbol.FIELD, "EURUSD").with(LegSide.FIELD, "1"))));
+    }
+
+    @Test
+    public void shouldMatchMessagesByParsedRule() {
+        // Given
+        ExecutionReport executionReport = new ExecutionReport();
+        executionReport.set(new OrdStatus(OrdStatus.PARTIALLY_FILLED));
+        executionReport.set(new Price(1.3));
+        executionReport.set(new Text("partially filled & open"));
+        CompiledFIXMessageMatcher matcher = parser.compile("35 = 8 & 39 in ( 1 , 2 ) & 44 >= 1.3 & 44 < 1.5 & 58=\"partially filled & open\"");
+
+        // When & Then
+        assertThat(matcher.matches(executionReport), is(true));
+        assertThat(matcher.mayMatch(ByteBuffer.wrap(executionReport.toString().getBytes())), is(true));
+        executionReport.set(new OrdStatus(OrdStatus.CANCELED));
+        assertThat(matcher.matches(executionReport), is(false));
+    }
+
+    @Test
+    public void shouldMatchNestedGroupsInSameEntry() {
+        // Given
+        NewOrderMultileg order = new NewOrderMultileg();
+        order.addGroup(leg("EUR", '1'));
+        order.addGroup(leg("USD", '2'));
+        FIXMessageMatcher sameLeg = parser.parse("NoLegs[*].LegSymbol=USD & NoLegs[*].LegSide=2");
+        FIXMessageMatcher differentLegs = parser.parse("NoLegs[*].LegSymbol=USD & NoLegs[*].LegSide=1");
+        FIXMessageMatcher secondLeg = parser.parse("NoLegs[2].LegSymbol=USD & NoLegs[2].NoLegStipulations[*].LegStipulationType=CPN");
+
+        // When & Then
+        assertThat(order, sameLeg);
+        assertThat(order, not(differentLegs));
+        assertThat(order, not(secondLeg));
+        order.getGroups(NoLegs.FIELD).get(1).addGroup(stipulation("CPN"));
+        assertThat(order, secondLeg);
+    }
+
+    @Test
+    public void shouldPointAtPositionOfError() {
+        assertError("35=8 & 44>abc", "expected decimal value at position 10\n35=8 & 44>abc\n          ^");
+        assertError("35=8 44=1", "expected '&' or end of rule at position 5\n35=8 44=1\n     ^");
+        assertError("35=8 & UnknownField=1", "unknown field UnknownField at position 7\n35=8 & UnknownField=1\n       ^");
+        assertError("NoLegs[x].600=EUR", "expected group index or * at position 7\nNoLegs[x].600=EUR\n       ^");
+        assertError("39 in (1,", "expected value at position 9\n39 in (1,\n         ^");
+        assertError("58=\"open", "unterminated quoted value at position 3\n58=\"open\n   ^");
+        assertError("", "expected field tag or name at position 0\n\n^");
+        assertError("55!=EUR", "expected operator (=, in, >, >=, <, <=) at position 2\n55!=EUR\n  ^");
+    }
+
+    @Test
+    public void shouldValidateRulesAgainstDataDictionary() throws Exception {
+        // Given
+        RuleParser dictionaryParser = new RuleParser(new DataDictionary("FIX44.xml"));
+
+        // When
+        FIXMessageMatcher matcher = dictionaryParser.parse("35=8 & OrderQty=100 & Side in (1,2)");
+
+        // Then
+        assertThat(matcher.getFieldValues().get(0).getValue(), equalTo((Object) Decimal.decimal("100")));
+        assertThat(matcher.getFieldValues().get(1).getValue(), equalTo((Object) oneOf('1', '2')));
+        try {
+            dictionaryParser.parse("35=8 & Side=X");
+            fail("Expected RuleSyntaxException");
+        } catch (RuleSyntaxException e) {
+            assertThat(e.getPosition(), is(12));
+            assertThat(e.getMessage().startsWith("X is not a valid value of field 54 at position 12"), is(true));
+        }
+        try {
+            dictionaryParser.parse("35=D & LastPx=1.5");
+            fail("Expected RuleSyntaxException");
+        } catch (RuleSyntaxException e) {
+            assertThat(e.getPosition(), is(7));
+            assertThat(e.getMessage().startsWith("field 31 is not defined for message type D at position 7"), is(true));
+        }
+    }
+
+    @Test
+    public void shouldValidateNestedGroupFieldsAgainstDataDictionary() throws Exception {
+        // Given
+        DataDictionary dataDictionary = new DataDictionary("FIX44.xml");
+        RuleParser dictionaryParser = new RuleParser(dataDictionary);
+
+        // When
+        FIXMessageMatcher matcher = dictionaryParser.parse("35=AB & NoLegs[*].NoLegStipulations[1].LegStipulationType=CPN");
+
+        // Then
+        assertThat(matcher, equalTo(isFIXMessage().using(dataDictionary)
+                .with(header().with(MsgType.FIELD, "AB"))
+                .with(anyGroup(NoLegs.FIELD).with(group(1, NoLegStipulations.FIELD).with(LegStipulationType.FIELD, "CPN")))));
+        try {
+            dictionaryParser.parse("35=AB & NoLegs[*].NoLegStipulations[1].55=X");
+            fail("Expected RuleSyntaxException");
+        } catch (RuleSyntaxException e) {
+            assertThat(e.getPosition(), is(39));
+            assertThat(e.getMessage().startsWith("field 55 is not a field of group 683 of message type AB at position 39"), is(true));
+        }
+        try {
+            dictionaryParser.parse("35=AB & NoLegs[*].NoOrders[1].11=X");
+            fail("Expected RuleSyntaxException");
+        } catch (RuleSyntaxException e) {
+            assertThat(e.getMessage().startsWith("field 73 is not a group of message type AB"), is(true));
+        }
+    }
+
+    @Test
+    public void shouldLoadRulesPerLine() throws Exception {
+        // Given
+        StringBuilder rules = new StringBuilder("# execution reports\n\n");
+        for (int i = 0; i < 100000; i++) {
+            rules.append("35=8 & 55=symbol-").append(i % 1000).append(" & 39 in (1,2) & 44>").append(i % 100).append(".25\n");
+        }
+
+        // When
+        List<CompiledFIXMessageMatcher> matchers = parser.compileAll(new StringReader(rules.toString()));
+
+        // Then
+        assertThat(matchers.size(), is(100000));
+        assertThat(matchers.get(1000), sameInstance(matchers.get(0)));
+        assertThat(matchers.get(1), not(sameInstance(matchers.get(0))));
+        try {
+            parser.parseAll(new StringReader("35=8\n# comment\n35=8 &"));
+            fail("Expected RuleSyntaxException");
+        } catch (RuleSyntaxException e) {
+            assertThat(e.getLineNumber(), is(3));
+            assertThat(e.getMessage().startsWith("expected field tag or name at line 3, position 6"), is(true));
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void assertError(String rule, String expectedMessage) {
+        try {
+            parser.parse(rule);
+            fail("Expected RuleSyntaxException");
+        } catch (RuleSyntaxException e) {
+            assertThat(e.getMessage(), equalTo(expectedMessage));
+        }
+    }
+
+    private NewOrderMultileg.NoLegs leg(String symbol, char side) {
+        NewOrderMultileg.NoLegs leg = new NewOrderMultileg.NoLegs();
+        leg.set(new LegSymbol(symbol));
+        leg.set(new LegSide(side));
+        return leg;
+    }
+
+    private NewOrderMultileg.NoLegs.NoLegStipulations stipulation(String type) {
+        NewOrderMultileg.NoLegs.NoLegStipulations stipulation = new NewOrderMultileg.NoLegs.NoLegStipulations();
+        stipulation.set(new LegStipulationType(type));
+        return stipulation;
+    }
+}
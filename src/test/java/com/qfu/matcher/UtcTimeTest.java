@@ -0,0 +1,123 @@
+package com.qfu.matcher;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.UtcTime.utcDateOnly;
+import static com.qfu.matcher.UtcTime.utcTimeOnly;
+import static com.qfu.matcher.UtcTime.utcTimeOnlyMicros;
+import static com.qfu.matcher.UtcTime.utcTimestamp;
+import static com.qfu.matcher.UtcTime.utcTimestampMicros;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:14 AM
+ */
+public class UtcTimeTest {
+
+    // 2013-10-18 19:10:56.789 UTC
+    private static final long EPOCH_MILLIS = 1382123456789L;
+    private static final long EPOCH_MICROS = EPOCH_MILLIS * 1000L + 123L;
+
+    @Test
+    public void shouldMatchTimestampWithMicros() {
+        // Given
+        Message message = message(TransactTime.FIELD, "20131018-19:10:56.789123");
+
+        // When & Then
+        assertMatches(message, TransactTime.FIELD, utcTimestampMicros(EPOCH_MICROS), true);
+        assertMatches(message, TransactTime.FIELD, utcTimestampMicros(EPOCH_MICROS + 1), false);
+        assertMatches(message, TransactTime.FIELD, utcTimestamp(new Date(EPOCH_MILLIS)), false);
+        assertMatches(message, TransactTime.FIELD, new Date(EPOCH_MILLIS), true);
+        assertMatches(message(TransactTime.FIELD, "20131018-19:10:56.789123456"), TransactTime.FIELD, utcTimestampMicros(EPOCH_MICROS), true);
+        assertMatches(message(TransactTime.FIELD, "20131018-19:10:56.789"), TransactTime.FIELD, utcTimestamp(new Date(EPOCH_MILLIS)), true);
+        assertMatches(message(TransactTime.FIELD, "20131018-19:10:56"), TransactTime.FIELD, utcTimestamp(new Date(EPOCH_MILLIS - 789L)), true);
+    }
+
+    @Test
+    public void shouldMatchTimestampWithinTolerance() {
+        // Given
+        Message message = message(TransactTime.FIELD, "20131018-19:10:56.789123");
+        UtcTime expected = utcTimestamp(new Date(EPOCH_MILLIS + 5L));
+
+        // When & Then
+        assertMatches(message, TransactTime.FIELD, expected.within(5, MILLISECONDS), true);
+        assertMatches(message, TransactTime.FIELD, expected.within(4, MILLISECONDS), false);
+        assertMatches(message, TransactTime.FIELD, utcTimestampMicros(EPOCH_MICROS - 10).within(10, MICROSECONDS), true);
+        assertMatches(message, TransactTime.FIELD, utcTimestampMicros(EPOCH_MICROS - 11).within(10, MICROSECONDS), false);
+    }
+
+    @Test
+    public void shouldMatchTimeOnlyAndDateOnly() {
+        // Given
+        Message message = new ExecutionReport();
+        message.setString(MDEntryTime.FIELD, "19:10:56.789123");
+        message.setString(MDEntryDate.FIELD, "20131018");
+
+        // When & Then
+        assertMatches(message, MDEntryTime.FIELD, utcTimeOnlyMicros(((19 * 60 + 10) * 60 + 56) * 1000000L + 789123L), true);
+        assertMatches(message, MDEntryTime.FIELD, utcTimeOnly(new Date(EPOCH_MILLIS)).within(1, MILLISECONDS), true);
+        assertMatches(message, MDEntryTime.FIELD, utcTimeOnly(new Date(EPOCH_MILLIS)), false);
+        assertMatches(message, MDEntryTime.FIELD, utcTimestamp(new Date(EPOCH_MILLIS)).within(1, MILLISECONDS), false);
+        assertMatches(message, MDEntryDate.FIELD, utcDateOnly(2013, 10, 18), true);
+        assertMatches(message, MDEntryDate.FIELD, utcDateOnly(2013, 10, 19), false);
+    }
+
+    @Test
+    public void shouldMatchDateAgainstAllTimeFieldTypes() {
+        // Given
+        Message message = new ExecutionReport();
+        message.setUtcTimeStamp(TransactTime.FIELD, new Date(EPOCH_MILLIS), true);
+        message.setUtcTimeOnly(MDEntryTime.FIELD, new Date(EPOCH_MILLIS), true);
+        message.setUtcDateOnly(MDEntryDate.FIELD, new Date(EPOCH_MILLIS));
+
+        // When & Then
+        assertMatches(message, TransactTime.FIELD, new Date(EPOCH_MILLIS), true);
+        // the way QuickFIX/J represents time only and date only values
+        assertMatches(message, MDEntryTime.FIELD, new Date(EPOCH_MILLIS % 86400000L), true);
+        assertMatches(message, MDEntryDate.FIELD, new Date(EPOCH_MILLIS - EPOCH_MILLIS % 86400000L), true);
+        assertMatches(message, MDEntryDate.FIELD, new Date(EPOCH_MILLIS), false);
+    }
+
+    @Test
+    public void shouldDescribeExpectedTime() {
+        assertThat(utcTimestampMicros(EPOCH_MICROS).toString(), equalTo("20131018-19:10:56.789123"));
+        assertThat(utcTimestamp(new Date(EPOCH_MILLIS)).within(5, MILLISECONDS).toString(), equalTo("20131018-19:10:56.789000 +/- 5000 micros"));
+        assertThat(utcTimeOnly(new Date(EPOCH_MILLIS)).toString(), equalTo("19:10:56.789000"));
+        assertThat(utcDateOnly(2013, 10, 18).toString(), equalTo("20131018"));
+        assertThat(utcDateOnly(2013, 10, 18), equalTo(utcDateOnly(2013, 10, 18)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnInvalidDate() {
+        utcDateOnly(2013, 13, 18);
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private void assertMatches(Message message, int fieldId, Object expectedValue, boolean expected) {
+        FIXMessageMatcher matcher = isFIXMessage().with(fieldId, expectedValue);
+        assertThat(matcher.matches(message), is(expected));
+        assertThat(matcher.compile().matches(message), is(expected));
+        assertThat(matcher.compile().mayMatch(ByteBuffer.wrap(message.toString().getBytes())), is(expected));
+    }
+
+    private Message message(int fieldId, String rawValue) {
+        Message message = new ExecutionReport();
+        message.setString(fieldId, rawValue);
+        return message;
+    }
+}
@@ -0,0 +1,150 @@
+package com.qfu.metrics;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.matcher.Header.header;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:19 AM
+ */
+public class InstrumentedMatcherTest {
+
+    private final InstrumentedMatcher matcher = new InstrumentedMatcher("eur-usd-buys", isFIXMessage(NewOrderSingle.class)
+            .with(Symbol.FIELD, "EUR/USD")
+            .with(Side.FIELD, Side.BUY)
+            .with(header().with(SenderSubID.FIELD, "desk-A")));
+
+    @Test
+    public void shouldCountEvaluationsHitsAndRejections() {
+        // When
+        assertThat(matcher.matches(order("EUR/USD", Side.BUY, "desk-A")), is(true));
+        assertThat(matcher.matches(order("GBP/USD", Side.BUY, "desk-A")), is(false));
+        assertThat(matcher.matches(order("GBP/USD", Side.SELL, "desk-A")), is(false));
+        assertThat(matcher.matches(order("EUR/USD", Side.SELL, "desk-A")), is(false));
+        assertThat(matcher.matches(order("EUR/USD", Side.BUY, "desk-B")), is(false));
+        assertThat(matcher.matches(new ExecutionReport()), is(false));
+
+        // Then
+        MatcherMetricsSnapshot snapshot = matcher.getMetrics().snapshot();
+        assertThat(snapshot.getName(), equalTo("eur-usd-buys"));
+        assertThat(snapshot.getEvaluationCount(), is(6L));
+        assertThat(snapshot.getHitCount(), is(1L));
+        assertThat(snapshot.getRejectionCounts().toString(), equalTo("{field 55=2, field 54=1, header field 50=1, type=1}"));
+        assertThat(snapshot.getMaxLatencyNanos() > 0, is(true));
+        assertThat(snapshot.getLatencyPercentileNanos(100.0), is(snapshot.getMaxLatencyNanos()));
+    }
+
+    @Test
+    public void shouldCountConcurrentEvaluations() throws Exception {
+        // Given
+        final int threadCount = 4;
+        final int evaluationsPerThread = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    Message hit = order("EUR/USD", Side.BUY, "desk-A");
+                    Message miss = order("GBP/USD", Side.BUY, "desk-A");
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < evaluationsPerThread; j++) {
+                        matcher.matches(j % 4 == 0 ? hit : miss);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        // When
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        MatcherMetricsSnapshot snapshot = matcher.getMetrics().snapshot();
+        assertThat(snapshot.getEvaluationCount(), is((long) threadCount * evaluationsPerThread));
+        assertThat(snapshot.getHitCount(), is((long) threadCount * evaluationsPerThread / 4));
+        assertThat(snapshot.getRejectionCounts().get("field 55"), is((long) threadCount * evaluationsPerThread * 3 / 4));
+        long histogramTotal = 0;
+        for (long count : snapshot.getLatencyHistogram()) {
+            histogramTotal += count;
+        }
+        assertThat(histogramTotal, is(snapshot.getEvaluationCount()));
+    }
+
+    @Test
+    public void shouldExposeMetricsViaJmx() throws Exception {
+        // Given
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = matcher.getMetrics().register(server);
+        matcher.matches(order("EUR/USD", Side.BUY, "desk-A"));
+        matcher.matches(order("EUR/USD", Side.SELL, "desk-A"));
+
+        try {
+            // When
+            Long evaluationCount = (Long) server.getAttribute(objectName, "EvaluationCount");
+            Long hitCount = (Long) server.getAttribute(objectName, "HitCount");
+            TabularData rejectionCounts = (TabularData) server.getAttribute(objectName, "RejectionCounts");
+            server.invoke(objectName, "reset", new Object[0], new String[0]);
+
+            // Then
+            assertThat(objectName.toString(), equalTo("com.qfu:type=MatcherMetrics,name=\"eur-usd-buys\""));
+            assertThat(evaluationCount, is(2L));
+            assertThat(hitCount, is(1L));
+            assertThat(rejectionCounts.size(), is(1));
+            assertThat((Long) server.getAttribute(objectName, "EvaluationCount"), is(0L));
+        } finally {
+            server.unregisterMBean(objectName);
+        }
+    }
+
+    @Test
+    public void shouldResetMetrics() {
+        // Given
+        matcher.matches(order("GBP/USD", Side.BUY, "desk-A"));
+
+        // When
+        matcher.getMetrics().reset();
+
+        // Then
+        MatcherMetricsSnapshot snapshot = matcher.getMetrics().snapshot();
+        Map<String, Long> rejectionCounts = snapshot.getRejectionCounts();
+        assertThat(snapshot.getEvaluationCount(), is(0L));
+        assertThat(rejectionCounts.isEmpty(), is(true));
+        assertThat(snapshot.getLatencyPercentileNanos(50.0), is(0L));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private Message order(String symbol, char side, String senderSubId) {
+        NewOrderSingle order = new NewOrderSingle();
+        order.getHeader().setField(new SenderSubID(senderSubId));
+        order.set(new Symbol(symbol));
+        order.set(new Side(side));
+        return order;
+    }
+}
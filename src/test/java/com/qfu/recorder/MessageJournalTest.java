@@ -0,0 +1,168 @@
+package com.qfu.recorder;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import quickfix.Application;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.ClOrdID;
+import quickfix.field.Symbol;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.recorder.JournalQuery.allMessages;
+import static com.qfu.recorder.JournalQuery.messagesMatching;
+import static com.qfu.recorder.RecordedMessage.Direction.RECEIVED;
+import static com.qfu.recorder.RecordedMessage.Direction.SENT;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author agent
+ * @since 10/18/26 10:06 AM
+ */
+public class MessageJournalTest {
+
+    private final SessionID sessionID = new SessionID("FIX.4.4", "sender", "target");
+    private final SessionID otherSessionID = new SessionID("FIX.4.4", "sender", "other");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldFindJournaledMessages() throws Exception {
+        // Given
+        Application application = mock(Application.class);
+        MessageJournal journal = new MessageJournal(temporaryFolder.newFolder(), application);
+        Message order = newOrderSingle("clOrdId-1", "EUR/USD");
+        journal.toApp(newOrderSingle("clOrdId-0", "GBP/USD"), sessionID);
+        journal.toApp(order, sessionID);
+        journal.fromApp(executionReport("clOrdId-1", "EUR/USD"), otherSessionID);
+
+        // When
+        List<RecordedMessage> found = journal.findAll(isFIXMessage().with(Symbol.FIELD, "EUR/USD"));
+
+        // Then
+        assertThat(found.size(), is(2));
+        assertThat(found.get(0).getSequence(), is(1L));
+        assertThat(found.get(0).getDirection(), is(SENT));
+        assertThat(found.get(0).getSessionID(), is(sessionID));
+        assertThat(found.get(0).getMessage(), instanceOf(NewOrderSingle.class));
+        assertThat(found.get(0).getMessage().toString(), equalTo(order.toString()));
+        assertThat(found.get(1).getSequence(), is(2L));
+        assertThat(found.get(1).getDirection(), is(RECEIVED));
+        assertThat(found.get(1).getSessionID(), is(otherSessionID));
+        assertThat(found.get(1).getMessage(), instanceOf(ExecutionReport.class));
+        verify(application).toApp(order, sessionID);
+        journal.close();
+    }
+
+    @Test
+    public void shouldSelectMessagesUsingIndex() throws Exception {
+        // Given
+        MessageJournal journal = new MessageJournal(temporaryFolder.newFolder()).withSegmentSize(1024);
+        for (int i = 0; i < 30; i++) {
+            journal.toApp(newOrderSingle("clOrdId-" + i, "EUR/USD"), sessionID);
+            journal.fromApp(executionReport("clOrdId-" + i, "EUR/USD"), sessionID);
+        }
+        long now = System.currentTimeMillis();
+
+        // When
+        List<String> executionReports = clOrdIdsOf(journal.query(messagesMatching(isFIXMessage(ExecutionReport.class)).withSequenceBetween(20, 26)));
+        List<String> sentMessages = clOrdIdsOf(journal.query(allMessages().withDirection(SENT).withSequenceBetween(0, 6)));
+        List<String> orders = clOrdIdsOf(journal.query(allMessages().ofMsgType(NewOrderSingle.MSGTYPE).withSequenceBetween(57, 100)));
+        List<String> futureMessages = clOrdIdsOf(journal.query(allMessages().recordedBetween(now + 1, Long.MAX_VALUE)));
+
+        // Then
+        assertThat(journal.getSegmentCount() > 1, is(true));
+        assertThat(executionReports, is(Arrays.asList("clOrdId-10", "clOrdId-11", "clOrdId-12")));
+        assertThat(sentMessages, is(Arrays.asList("clOrdId-0", "clOrdId-1", "clOrdId-2")));
+        assertThat(orders, is(Arrays.asList("clOrdId-29")));
+        assertThat(futureMessages.isEmpty(), is(true));
+        assertThat(journal.get(59).getMessage(), instanceOf(ExecutionReport.class));
+        assertThat(journal.get(60), nullValue());
+        journal.close();
+    }
+
+    @Test
+    public void shouldDeleteOldestSegmentsBeyondRetention() throws Exception {
+        // Given
+        File directory = temporaryFolder.newFolder();
+        MessageJournal journal = new MessageJournal(directory).withSegmentSize(1024).withMaxSegments(2);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            journal.toApp(newOrderSingle("clOrdId-" + i, "EUR/USD"), sessionID);
+        }
+
+        // Then
+        assertThat(journal.getSegmentCount(), is(2));
+        assertThat(directory.list().length, is(2));
+        long oldestSequence = journal.oldestSequence();
+        assertThat(oldestSequence > 0, is(true));
+        assertThat(journal.get(oldestSequence - 1), nullValue());
+        List<RecordedMessage> found = journal.findAll(isFIXMessage(NewOrderSingle.class));
+        assertThat(found.size(), is((int) (100 - oldestSequence)));
+        assertThat(found.get(0).getSequence(), is(oldestSequence));
+        assertThat(journal.findFirst(isFIXMessage().with(ClOrdID.FIELD, "clOrdId-99")).getSequence(), is(99L));
+
+        journal.close();
+        assertThat(directory.list().length, is(0));
+    }
+
+    @Test
+    public void shouldRejectMessageLargerThanSegment() throws Exception {
+        // Given
+        MessageJournal journal = new MessageJournal(temporaryFolder.newFolder()).withSegmentSize(32);
+
+        try {
+            // When
+            journal.append(SENT, sessionID, newOrderSingle("clOrdId-1", "EUR/USD"));
+
+            // Then
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertThat(journal.nextSequence(), is(0L));
+        }
+        journal.close();
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static List<String> clOrdIdsOf(Iterable<RecordedMessage> recordedMessages) throws Exception {
+        List<String> clOrdIds = new ArrayList<String>();
+        for (RecordedMessage recordedMessage : recordedMessages) {
+            clOrdIds.add(recordedMessage.getMessage().getString(ClOrdID.FIELD));
+        }
+        return clOrdIds;
+    }
+
+    private static NewOrderSingle newOrderSingle(String clOrdId, String symbol) {
+        NewOrderSingle order = new NewOrderSingle();
+        order.set(new ClOrdID(clOrdId));
+        order.set(new Symbol(symbol));
+        return order;
+    }
+
+    private static ExecutionReport executionReport(String clOrdId, String symbol) {
+        ExecutionReport executionReport = new ExecutionReport();
+        executionReport.set(new ClOrdID(clOrdId));
+        executionReport.set(new Symbol(symbol));
+        return executionReport;
+    }
+}
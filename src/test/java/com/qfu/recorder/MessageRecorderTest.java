@@ -0,0 +1,327 @@
+package com.qfu.recorder;
+
+import com.qfu.matcher.FIXMessageMatcher;
+import org.junit.Test;
+import quickfix.Application;
+import quickfix.DoNotSend;
+import quickfix.FieldNotFound;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.field.ClOrdID;
+import quickfix.field.Symbol;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.recorder.RecordedMessage.Direction.RECEIVED;
+import static com.qfu.recorder.RecordedMessage.Direction.SENT;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author agent
+ * @since 10/18/26 8:58 AM
+ */
+public class MessageRecorderTest {
+
+    private final SessionID sessionID = new SessionID("FIX.4.4", "sender", "target");
+
+    @Test
+    public void shouldFindAlreadyRecordedMessage() throws Exception {
+        // Given
+        MessageRecorder recorder = new MessageRecorder(16);
+        Message order = newOrderSingle("clOrdId-1");
+        recorder.toApp(newOrderSingle("clOrdId-0"), sessionID);
+        recorder.toApp(order, sessionID);
+
+        // When
+        RecordedMessage recordedMessage = recorder.await(isFIXMessage().with(ClOrdID.FIELD, "clOrdId-1"), 0, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(recordedMessage.getMessage(), sameInstance(order));
+        assertThat(recordedMessage.getSequence(), is(1L));
+        assertThat(recordedMessage.getDirection(), is(SENT));
+        assertThat(recordedMessage.getSessionID(), is(sessionID));
+    }
+
+    @Test
+    public void shouldAwaitMessageRecordedLater() throws Exception {
+        // Given
+        final MessageRecorder recorder = new MessageRecorder(16);
+        final Message executionReport = executionReport("clOrdId-1");
+        Thread counterparty = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                    recorder.fromApp(executionReport("clOrdId-0"), sessionID);
+                    Thread.sleep(50);
+                    recorder.fromApp(executionReport, sessionID);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        counterparty.start();
+
+        // When
+        RecordedMessage recordedMessage = recorder.await(
+                isFIXMessage(ExecutionReport.class).with(ClOrdID.FIELD, "clOrdId-1"), 5, TimeUnit.SECONDS
+        );
+
+        // Then
+        assertThat(recordedMessage.getMessage(), sameInstance(executionReport));
+        assertThat(recordedMessage.getDirection(), is(RECEIVED));
+        counterparty.join();
+    }
+
+    @Test
+    public void shouldFailWhenNoMessageMatchesWithinTimeout() throws Exception {
+        // Given
+        MessageRecorder recorder = new MessageRecorder(16);
+        recorder.fromApp(executionReport("clOrdId-0"), sessionID);
+
+        try {
+            // When
+            recorder.await(isFIXMessage(ExecutionReport.class).with(ClOrdID.FIELD, "clOrdId-1"), 20, TimeUnit.MILLISECONDS);
+            fail("expected TimeoutException");
+        } catch (TimeoutException expected) {
+            // Then
+            assertThat(expected.getMessage(), containsString("clOrdId-1"));
+        }
+    }
+
+    @Test
+    public void shouldFailWithinTimeoutWhileMessagesKeepComing() throws Exception {
+        // Given
+        final MessageRecorder recorder = new MessageRecorder(16);
+        final AtomicBoolean stop = new AtomicBoolean();
+        Thread counterparty = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                    // faster than the messages are evaluated
+                    while (!stop.get() && System.nanoTime() < end) {
+                        SlowExecutionReport executionReport = new SlowExecutionReport();
+                        executionReport.set(new ClOrdID("clOrdId-0"));
+                        recorder.fromApp(executionReport, sessionID);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        counterparty.start();
+
+        long start = System.nanoTime();
+        try {
+            // When
+            recorder.await(isFIXMessage(ExecutionReport.class).with(ClOrdID.FIELD, "clOrdId-1"), 50, TimeUnit.MILLISECONDS);
+            fail("expected TimeoutException");
+        } catch (TimeoutException expected) {
+            // Then
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000, is(true));
+        } finally {
+            stop.set(true);
+            counterparty.join();
+        }
+    }
+
+    @Test
+    public void shouldDescribeClosestMessagesOnTimeout() throws Exception {
+        // Given
+        MessageRecorder recorder = new MessageRecorder(16);
+        recorder.toApp(newOrderSingle("clOrdId-1"), sessionID);
+        recorder.fromApp(executionReport("clOrdId-0"), sessionID);
+
+        try {
+            // When
+            recorder.await(isFIXMessage(ExecutionReport.class).with(ClOrdID.FIELD, "clOrdId-1"), 20, TimeUnit.MILLISECONDS);
+            fail("expected TimeoutException");
+        } catch (TimeoutException expected) {
+            // Then
+            String[] lines = expected.getMessage().split("\n");
+            assertThat(lines.length, is(4));
+            assertThat(lines[2], containsString("closest sent message 0 satisfied 1 of 2 expectations: was a message of Type 'NewOrderSingle'"));
+            assertThat(lines[3], containsString("closest received message 1 satisfied 1 of 2 expectations: with value 11"));
+        }
+    }
+
+    @Test
+    public void shouldAwaitMessagesFromGivenSequence() throws Exception {
+        // Given
+        MessageRecorder recorder = new MessageRecorder(16);
+        recorder.fromApp(executionReport("clOrdId-1"), sessionID);
+        long fromSequence = recorder.nextSequence();
+        recorder.fromApp(executionReport("clOrdId-1"), sessionID);
+
+        // When
+        RecordedMessage recordedMessage = recorder.await(isFIXMessage().with(ClOrdID.FIELD, "clOrdId-1"), fromSequence, 0, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(recordedMessage.getSequence(), is(1L));
+    }
+
+    @Test
+    public void shouldAwaitAllMatchers() throws Exception {
+        // Given
+        MessageRecorder recorder = new MessageRecorder(16);
+        recorder.toApp(newOrderSingle("clOrdId-1"), sessionID);
+        recorder.fromApp(executionReport("clOrdId-2"), sessionID);
+        recorder.fromApp(executionReport("clOrdId-1"), sessionID);
+
+        // When
+        List<RecordedMessage> recordedMessages = recorder.awaitAll(Arrays.asList(
+                isFIXMessage(ExecutionReport.class).with(ClOrdID.FIELD, "clOrdId-1"),
+                isFIXMessage().with(ClOrdID.FIELD, "clOrdId-1"),
+                isFIXMessage(ExecutionReport.class)
+        ), 0, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(recordedMessages.get(0).getSequence(), is(2L));
+        assertThat(recordedMessages.get(1).getSequence(), is(0L));
+        assertThat(recordedMessages.get(2).getSequence(), is(1L));
+    }
+
+    @Test
+    public void shouldRetainOnlyLatestMessagesWhenFull() throws Exception {
+        // Given
+        MessageRecorder recorder = new MessageRecorder(3);
+        for (int i = 0; i < 10; i++) {
+            recorder.fromApp(executionReport("clOrdId-" + i), sessionID);
+        }
+
+        // When
+        List<RecordedMessage> recordedMessages = recorder.getRecordedMessages();
+
+        // Then
+        assertThat(recordedMessages.size(), is(4));
+        assertThat(recordedMessages.get(0).getSequence(), is(6L));
+        assertThat(recordedMessages.get(3).getSequence(), is(9L));
+        assertThat(recorder.await(isFIXMessage(), 0, TimeUnit.SECONDS).getSequence(), is(6L));
+    }
+
+    @Test
+    public void shouldPassCallsToDelegate() throws Exception {
+        // Given
+        Application delegate = mock(Application.class);
+        MessageRecorder recorder = new MessageRecorder(16, delegate);
+        Message received = executionReport("clOrdId-1");
+        Message refused = newOrderSingle("clOrdId-2");
+        doThrow(new DoNotSend()).when(delegate).toApp(refused, sessionID);
+
+        // When
+        recorder.fromApp(received, sessionID);
+        try {
+            recorder.toApp(refused, sessionID);
+            fail("expected DoNotSend");
+        } catch (DoNotSend expected) {
+            // ok
+        }
+
+        // Then
+        verify(delegate).fromApp(received, sessionID);
+        assertThat(recorder.getRecordedMessages().size(), is(1));
+        assertThat(recorder.getRecordedMessages().get(0).getMessage(), sameInstance(received));
+    }
+
+    @Test
+    public void shouldRecordMessagesFromConcurrentSessions() throws Exception {
+        // Given
+        final MessageRecorder recorder = new MessageRecorder(64 * 1024);
+        final int threadCount = 4;
+        final int messageCount = 5000;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> sessions = new ArrayList<Thread>();
+        List<FIXMessageMatcher> lastMessages = new ArrayList<FIXMessageMatcher>();
+        for (int t = 0; t < threadCount; t++) {
+            final String symbol = "symbol-" + t;
+            lastMessages.add(isFIXMessage().with(Symbol.FIELD, symbol).with(ClOrdID.FIELD, "clOrdId-" + (messageCount - 1)));
+            Thread session = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < messageCount; i++) {
+                            ExecutionReport executionReport = executionReport("clOrdId-" + i);
+                            executionReport.set(new Symbol(symbol));
+                            recorder.fromApp(executionReport, sessionID);
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            };
+            session.start();
+            sessions.add(session);
+        }
+
+        // When
+        start.countDown();
+        List<RecordedMessage> recordedMessages = recorder.awaitAll(lastMessages, 10, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(recordedMessages.size(), is(threadCount));
+        for (Thread session : sessions) {
+            session.join();
+        }
+        List<RecordedMessage> allMessages = recorder.getRecordedMessages();
+        assertThat(allMessages.size(), is(threadCount * messageCount));
+        for (int i = 0; i < allMessages.size(); i++) {
+            assertThat(allMessages.get(i).getSequence(), is((long) i));
+        }
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private NewOrderSingle newOrderSingle(String clOrdId) {
+        NewOrderSingle message = new NewOrderSingle();
+        message.set(new ClOrdID(clOrdId));
+        return message;
+    }
+
+    private ExecutionReport executionReport(String clOrdId) {
+        ExecutionReport message = new ExecutionReport();
+        message.set(new ClOrdID(clOrdId));
+        return message;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    /**
+     * takes longer to evaluate than to record, so that a waiting recorder doesn't catch up with the recorded messages
+     */
+    private static class SlowExecutionReport extends ExecutionReport {
+
+        private boolean read;
+
+        @Override
+        public String getString(int field) throws FieldNotFound {
+            if (!read) {
+                read = true;
+                LockSupport.parkNanos(1000000);
+            }
+            return super.getString(field);
+        }
+    }
+}
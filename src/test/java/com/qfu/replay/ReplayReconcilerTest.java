@@ -0,0 +1,196 @@
+package com.qfu.replay;
+
+import org.junit.Test;
+import quickfix.Message;
+import quickfix.field.*;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:22 AM
+ */
+public class ReplayReconcilerTest {
+
+    private final RecordingListener listener = new RecordingListener();
+
+    @Test
+    public void shouldReconcileEquivalentStreamsIgnoringSessionFields() {
+        // Given
+        List<Message> expected = new ArrayList<Message>();
+        List<Message> actual = new ArrayList<Message>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(executionReport("exec-" + i, "order-" + i, 100, i, new Date(1000L * i)));
+            actual.add(executionReport("exec-" + i, "order-" + i, 100, 1000 + i, new Date(2000L * i)));
+        }
+
+        // When
+        ReconciliationSummary summary = new ReplayReconciler().reconcile(expected.iterator(), actual.iterator(), listener);
+
+        // Then
+        assertThat(summary.getMatchedCount(), is(100L));
+        assertThat(summary.isReconciled(), is(true));
+        assertThat(listener.events.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldReportDifferencesOfCorrelatedMessages() {
+        // Given
+        ExecutionReport expected = executionReport("exec-1", "order-1", 100, 1, new Date());
+        expected.set(new Text("filled"));
+        ExecutionReport actual = executionReport("exec-1", "order-1", 50, 1, new Date());
+        actual.getHeader().setString(SenderSubID.FIELD, "desk-B");
+
+        // When
+        ReconciliationSummary summary = new ReplayReconciler().reconcile(iterator(expected), iterator(actual), listener);
+
+        // Then
+        assertThat(summary.getMismatchedCount(), is(1L));
+        assertThat(listener.events, equalTo(Collections.singletonList("mismatch 8|17=exec-1: 50 unexpected desk-B; 38 50 instead of 100; 58 missing filled")));
+    }
+
+    @Test
+    public void shouldCompareGroupEntries() {
+        // Given
+        NewOrderSingle expected = order("order-1", "party-A", "party-B");
+        NewOrderSingle actual = order("order-1", "party-A", "party-C", "party-D");
+
+        // When
+        List<FieldDifference> differences = new ReplayReconciler().compare(expected, actual);
+
+        // Then
+        assertThat(differences.toString(), equalTo("[453 3 instead of 2, 453[2].448 party-C instead of party-B, 453[3].448 unexpected party-D]"));
+    }
+
+    @Test
+    public void shouldTolerateReorderingWithinWindow() {
+        // Given
+        List<Message> expected = new ArrayList<Message>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add(executionReport("exec-" + i, "order-" + (i / 3), 100, i, new Date()));
+        }
+        // each message moved by less than 20 positions
+        List<Message> actual = new ArrayList<Message>(expected);
+        Random random = new Random(42L);
+        for (int i = 0; i < actual.size(); i += 20) {
+            Collections.shuffle(actual.subList(i, Math.min(actual.size(), i + 20)), random);
+        }
+
+        // When
+        ReconciliationSummary withinWindow = new ReplayReconciler().withWindow(20).reconcile(expected.iterator(), actual.iterator(), listener);
+        ReconciliationSummary noWindow = new ReplayReconciler().withWindow(0).reconcile(expected.iterator(), actual.iterator(), new RecordingListener());
+
+        // Then
+        assertThat(withinWindow.getMatchedCount(), is(1000L));
+        assertThat(withinWindow.isReconciled(), is(true));
+        assertThat(noWindow.isReconciled(), is(false));
+        assertThat(noWindow.getMissingCount(), is(noWindow.getUnexpectedCount()));
+    }
+
+    @Test
+    public void shouldReportMissingAndUnexpectedMessages() {
+        // Given
+        List<Message> expected = new ArrayList<Message>();
+        List<Message> actual = new ArrayList<Message>();
+        for (int i = 0; i < 50; i++) {
+            if (i != 10) {
+                expected.add(executionReport("exec-" + i, "order-" + i, 100, i, new Date()));
+            }
+            if (i != 20) {
+                actual.add(executionReport("exec-" + i, "order-" + i, 100, i, new Date()));
+            }
+        }
+        actual.add(executionReport("exec-99", "order-99", 100, 99, new Date()));
+
+        // When
+        ReconciliationSummary summary = new ReplayReconciler().withWindow(5).reconcile(expected.iterator(), actual.iterator(), listener);
+
+        // Then
+        assertThat(summary.toString(), equalTo("ReconciliationSummary{matched=48, mismatched=0, missing=1, unexpected=2}"));
+        assertThat(listener.events, equalTo(Arrays.asList("unexpected 8|17=exec-10", "missing 8|17=exec-20", "unexpected 8|17=exec-99")));
+    }
+
+    @Test
+    public void shouldCorrelateByConfiguredTagsAndIgnoreConfiguredTags() {
+        // Given
+        ExecutionReport expected1 = executionReport("exec-1", "order-1", 100, 1, new Date());
+        ExecutionReport expected2 = executionReport("exec-2", "order-1", 200, 2, new Date());
+        ExecutionReport actual1 = executionReport("exec-A", "order-1", 100, 1, new Date());
+        ExecutionReport actual2 = executionReport("exec-B", "order-1", 200, 2, new Date());
+
+        // When
+        ReconciliationSummary summary = new ReplayReconciler()
+                .correlatedBy(ClOrdID.FIELD)
+                .ignoring(ExecID.FIELD)
+                .reconcile(iterator(expected1, expected2), iterator(actual2, actual1), listener);
+
+        // Then
+        assertThat(summary.getMismatchedCount(), is(2L));
+        assertThat(listener.events, equalTo(Arrays.asList("mismatch 8|11=order-1: 38 200 instead of 100", "mismatch 8|11=order-1: 38 100 instead of 200")));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private ExecutionReport executionReport(String execId, String clOrdId, int orderQty, int seqNum, Date sendingTime) {
+        ExecutionReport executionReport = new ExecutionReport();
+        executionReport.getHeader().setInt(MsgSeqNum.FIELD, seqNum);
+        executionReport.getHeader().setUtcTimeStamp(SendingTime.FIELD, sendingTime, true);
+        executionReport.set(new ExecID(execId));
+        executionReport.set(new ClOrdID(clOrdId));
+        executionReport.set(new OrderQty(orderQty));
+        return executionReport;
+    }
+
+    private NewOrderSingle order(String clOrdId, String... partyIds) {
+        NewOrderSingle order = new NewOrderSingle();
+        order.set(new ClOrdID(clOrdId));
+        for (String partyId : partyIds) {
+            NewOrderSingle.NoPartyIDs party = new NewOrderSingle.NoPartyIDs();
+            party.set(new PartyID(partyId));
+            order.addGroup(party);
+        }
+        return order;
+    }
+
+    private Iterator<Message> iterator(Message... messages) {
+        return Arrays.asList(messages).iterator();
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static class RecordingListener implements ReconciliationListener {
+
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void onMismatch(MessageDiff diff) {
+            events.add("mismatch " + diff);
+        }
+
+        @Override
+        public void onMissing(String key, Message expected) {
+            events.add("missing " + key);
+        }
+
+        @Override
+        public void onUnexpected(String key, Message actual) {
+            events.add("unexpected " + key);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.qfu.router;
+
+import org.junit.Test;
+import quickfix.Application;
+import quickfix.Message;
+import quickfix.SessionID;
+import quickfix.UnsupportedMessageType;
+import quickfix.field.ClOrdID;
+import quickfix.field.Symbol;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author agent
+ * @since 10/18/26 9:56 AM
+ */
+public class MessageRouterTest {
+
+    private final SessionID sessionA = new SessionID("FIX.4.4", "sender", "target-A");
+    private final SessionID sessionB = new SessionID("FIX.4.4", "sender", "target-B");
+
+    @Test
+    public void shouldRouteMessagesToMatchingHandlers() throws Exception {
+        // Given
+        Application delegate = mock(Application.class);
+        List<String> eurUsdOrders = Collections.synchronizedList(new ArrayList<String>());
+        List<String> orders = Collections.synchronizedList(new ArrayList<String>());
+        List<String> executionReports = Collections.synchronizedList(new ArrayList<String>());
+        MessageRouter router = new MessageRouter(delegate)
+                .route(isFIXMessage(NewOrderSingle.class).with(Symbol.FIELD, "EUR/USD"), recordingHandler(eurUsdOrders))
+                .route(isFIXMessage(NewOrderSingle.class), recordingHandler(orders))
+                .route(isFIXMessage(ExecutionReport.class), recordingHandler(executionReports));
+        NewOrderSingle order = newOrderSingle("clOrdId-1", "EUR/USD");
+
+        // When
+        router.fromApp(order, sessionA);
+        router.fromApp(newOrderSingle("clOrdId-2", "EUR/GBP"), sessionA);
+        router.fromApp(new Message(), sessionA);
+
+        // Then
+        assertThat(router.awaitIdle(5, TimeUnit.SECONDS), is(true));
+        assertThat(eurUsdOrders, is(Arrays.asList("clOrdId-1")));
+        assertThat(orders, is(Arrays.asList("clOrdId-1", "clOrdId-2")));
+        assertThat(executionReports.isEmpty(), is(true));
+        verify(delegate).fromApp(order, sessionA);
+        router.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldNotRouteMessageRejectedByDelegate() throws Exception {
+        // Given
+        Application delegate = mock(Application.class);
+        NewOrderSingle order = newOrderSingle("clOrdId-1", "EUR/USD");
+        doThrow(new UnsupportedMessageType()).when(delegate).fromApp(order, sessionA);
+        List<String> orders = Collections.synchronizedList(new ArrayList<String>());
+        MessageRouter router = new MessageRouter(delegate).route(isFIXMessage(), recordingHandler(orders));
+
+        // When
+        try {
+            router.fromApp(order, sessionA);
+            fail("Expected UnsupportedMessageType");
+        } catch (UnsupportedMessageType e) {
+            // expected
+        }
+
+        // Then
+        assertThat(router.awaitIdle(5, TimeUnit.SECONDS), is(true));
+        assertThat(orders.isEmpty(), is(true));
+        router.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldHandleSessionsIndependentlyAndInOrder() throws Exception {
+        // Given
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> handledA = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch handledB = new CountDownLatch(1);
+        MessageRouter router = new MessageRouter().route(isFIXMessage(NewOrderSingle.class), new MessageHandler() {
+            @Override
+            public void onMessage(Message message, SessionID sessionID) throws Exception {
+                if (sessionID.equals(sessionA)) {
+                    // slow handler of session A
+                    release.await();
+                    handledA.add(message.getString(ClOrdID.FIELD));
+                } else {
+                    handledB.countDown();
+                }
+            }
+        });
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            router.fromApp(newOrderSingle("clOrdId-" + i, "EUR/USD"), sessionA);
+        }
+        router.fromApp(newOrderSingle("clOrdId-B", "EUR/USD"), sessionB);
+
+        // Then
+        assertThat(handledB.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(router.getQueueDepth(sessionA), is(1000));
+        assertThat(router.getQueueDepths().get(sessionA), is(1000));
+        release.countDown();
+        assertThat(router.awaitIdle(5, TimeUnit.SECONDS), is(true));
+        assertThat(router.getQueueDepth(sessionA), is(0));
+        assertThat(handledA.size(), is(1000));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(handledA.get(i), is("clOrdId-" + i));
+        }
+        router.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldHandleMessagesOfSessionRejectedByExecutor() throws Exception {
+        // Given
+        final AtomicInteger submissionCount = new AtomicInteger();
+        Executor saturatedExecutor = new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                // only the first submission gets a thread
+                if (submissionCount.incrementAndGet() > 1) {
+                    throw new RejectedExecutionException("saturated");
+                }
+                new Thread(task).start();
+            }
+        };
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> handled = Collections.synchronizedList(new ArrayList<String>());
+        MessageRouter router = new MessageRouter(null, saturatedExecutor).route(isFIXMessage(NewOrderSingle.class), new MessageHandler() {
+            @Override
+            public void onMessage(Message message, SessionID sessionID) throws Exception {
+                release.await();
+                handled.add(message.getString(ClOrdID.FIELD));
+            }
+        });
+        int messageCount = 3 * SessionExecutor.BATCH_SIZE;
+        for (int i = 0; i < messageCount; i++) {
+            router.fromApp(newOrderSingle("clOrdId-" + i, "EUR/USD"), sessionA);
+        }
+
+        // When
+        release.countDown();
+
+        // Then
+        assertThat(router.awaitIdle(5, TimeUnit.SECONDS), is(true));
+        assertThat(submissionCount.get() > 1, is(true));
+        router.fromApp(newOrderSingle("clOrdId-" + messageCount, "EUR/USD"), sessionA);
+        assertThat(router.getQueueDepth(sessionA), is(0));
+        assertThat(handled.size(), is(messageCount + 1));
+        for (int i = 0; i <= messageCount; i++) {
+            assertThat(handled.get(i), is("clOrdId-" + i));
+        }
+        assertThat(router.shutdown(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void shouldReportHandlerLatencyAndFailures() throws Exception {
+        // Given
+        MessageRouter router = new MessageRouter()
+                .route("failing", isFIXMessage().with(Symbol.FIELD, "EUR/GBP"), new MessageHandler() {
+                    @Override
+                    public void onMessage(Message message, SessionID sessionID) {
+                        throw new IllegalStateException("handler failure");
+                    }
+                })
+                .route("sleeping", isFIXMessage(NewOrderSingle.class), new MessageHandler() {
+                    @Override
+                    public void onMessage(Message message, SessionID sessionID) throws Exception {
+                        Thread.sleep(10);
+                    }
+                });
+
+        // When
+        Thread.UncaughtExceptionHandler defaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+        final List<Throwable> uncaughtExceptions = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(Thread thread, Throwable e) {
+                uncaughtExceptions.add(e);
+            }
+        });
+        try {
+            router.fromApp(newOrderSingle("clOrdId-1", "EUR/GBP"), sessionA);
+            router.fromApp(newOrderSingle("clOrdId-2", "EUR/USD"), sessionA);
+            assertThat(router.awaitIdle(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+        }
+
+        // Then
+        RouteMetrics failing = router.getRouteMetrics().get(0);
+        assertThat(failing.getName(), is("failing"));
+        assertThat(failing.getHandledCount(), is(1L));
+        assertThat(failing.getFailedCount(), is(1L));
+        assertThat(uncaughtExceptions.size(), is(1));
+        assertThat(uncaughtExceptions.get(0).getMessage(), is("handler failure"));
+        RouteMetrics sleeping = router.getRouteMetrics().get(1);
+        assertThat(sleeping.getHandledCount(), is(2L));
+        assertThat(sleeping.getFailedCount(), is(0L));
+        assertThat(sleeping.getMeanLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(10), is(true));
+        assertThat(sleeping.getMaxLatencyNanos() >= sleeping.getMeanLatencyNanos(), is(true));
+        router.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldHandleMessagesOnVirtualThreadsIfSupported() throws Exception {
+        // Given
+        MessageRouter router;
+        try {
+            router = MessageRouter.withVirtualThreads(null);
+        } catch (UnsupportedOperationException e) {
+            // runtime before Java 21
+            return;
+        }
+        final List<Boolean> virtualThreads = Collections.synchronizedList(new ArrayList<Boolean>());
+        router.route(isFIXMessage(), new MessageHandler() {
+            @Override
+            public void onMessage(Message message, SessionID sessionID) throws Exception {
+                virtualThreads.add((Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            }
+        });
+
+        // When
+        router.fromApp(newOrderSingle("clOrdId-1", "EUR/USD"), sessionA);
+
+        // Then
+        assertThat(router.shutdown(5, TimeUnit.SECONDS), is(true));
+        assertThat(virtualThreads, is(Arrays.asList(true)));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static MessageHandler recordingHandler(final List<String> clOrdIds) {
+        return new MessageHandler() {
+            @Override
+            public void onMessage(Message message, SessionID sessionID) throws Exception {
+                clOrdIds.add(message.getString(ClOrdID.FIELD));
+            }
+        };
+    }
+
+    private static NewOrderSingle newOrderSingle(String clOrdId, String symbol) {
+        NewOrderSingle order = new NewOrderSingle();
+        order.set(new ClOrdID(clOrdId));
+        order.set(new Symbol(symbol));
+        return order;
+    }
+}
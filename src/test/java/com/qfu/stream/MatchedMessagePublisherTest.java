@@ -0,0 +1,266 @@
+package com.qfu.stream;
+
+import org.junit.Test;
+import quickfix.FieldNotFound;
+import quickfix.Message;
+import quickfix.field.ClOrdID;
+import quickfix.field.OrdStatus;
+import quickfix.fix44.ExecutionReport;
+import quickfix.fix44.NewOrderSingle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.qfu.matcher.FIXMatchers.isFIXMessage;
+import static com.qfu.stream.OverflowPolicy.block;
+import static com.qfu.stream.OverflowPolicy.conflateBy;
+import static com.qfu.stream.OverflowPolicy.dropOldest;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author agent
+ * @since 10/18/26 10:01 AM
+ */
+public class MatchedMessagePublisherTest {
+
+    private static final Executor CALLING_THREAD = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final MatchedMessagePublisher publisher = new MatchedMessagePublisher(CALLING_THREAD, 2);
+
+    @Test
+    public void shouldDeliverMatchingMessagesAsRequestedInBatches() throws Exception {
+        // Given
+        RecordingSubscriber orders = new RecordingSubscriber(0);
+        RecordingSubscriber executionReports = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(isFIXMessage(NewOrderSingle.class), orders, 100, block());
+        publisher.subscribe(isFIXMessage(ExecutionReport.class), executionReports, 100, block());
+        for (int i = 1; i <= 5; i++) {
+            publisher.publish(order("order-" + i));
+        }
+        publisher.publish(executionReport("order-1", OrdStatus.NEW));
+
+        // When
+        orders.subscription.request(3);
+
+        // Then
+        assertThat(orders.batches, is(Arrays.asList(Arrays.asList("order-1", "order-2"), Arrays.asList("order-3"))));
+        assertThat(orders.subscription.getBufferedCount(), is(2));
+        orders.subscription.request(10);
+        assertThat(orders.received(), is(Arrays.asList("order-1", "order-2", "order-3", "order-4", "order-5")));
+        assertThat(executionReports.received(), is(Arrays.asList("order-1")));
+    }
+
+    @Test
+    public void shouldDropOldestMessagesOfFullBuffer() throws Exception {
+        // Given
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        MessageSubscription subscription = publisher.subscribe(isFIXMessage(), subscriber, 3, dropOldest());
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            publisher.publish(order("order-" + i));
+        }
+
+        // Then
+        assertThat(subscription.getDroppedCount(), is(2L));
+        subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.received(), is(Arrays.asList("order-3", "order-4", "order-5")));
+    }
+
+    @Test
+    public void shouldConflateMessagesByKey() throws Exception {
+        // Given
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        MessageSubscription subscription = publisher.subscribe(isFIXMessage(ExecutionReport.class), subscriber, 2, conflateBy(ClOrdID.FIELD));
+
+        // When
+        publisher.publish(executionReport("order-1", OrdStatus.NEW));
+        publisher.publish(executionReport("order-2", OrdStatus.NEW));
+        publisher.publish(executionReport("order-1", OrdStatus.PARTIALLY_FILLED));
+        publisher.publish(executionReport("order-1", OrdStatus.FILLED));
+
+        // Then
+        assertThat(subscription.getDroppedCount(), is(2L));
+        assertThat(subscription.getBufferedCount(), is(2));
+        subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.received(), is(Arrays.asList("order-1", "order-2")));
+        assertThat(subscriber.messages.get(0).getChar(OrdStatus.FIELD), is(OrdStatus.FILLED));
+    }
+
+    @Test
+    public void shouldBlockPublisherUntilSubscriberRequestsMore() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        final MatchedMessagePublisher publisher = new MatchedMessagePublisher(executor, 16);
+        final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        MessageSubscription subscription = publisher.subscribe(isFIXMessage(), subscriber, 2, block());
+        final CountDownLatch published = new CountDownLatch(1);
+        Thread publishingThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 1; i <= 4; i++) {
+                    publisher.publish(order("order-" + i));
+                }
+                published.countDown();
+            }
+        });
+
+        // When
+        publishingThread.start();
+
+        // Then
+        assertThat(published.await(200, TimeUnit.MILLISECONDS), is(false));
+        assertThat(subscription.getBufferedCount(), is(2));
+        subscription.request(4);
+        assertThat(published.await(5, TimeUnit.SECONDS), is(true));
+        publisher.close();
+        assertThat(subscriber.completion.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(subscriber.received(), is(Arrays.asList("order-1", "order-2", "order-3", "order-4")));
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldCompleteAfterBufferedMessagesAreDelivered() throws Exception {
+        // Given
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        MessageSubscription subscription = publisher.subscribe(isFIXMessage(), subscriber, 10, block());
+        publisher.publish(order("order-1"));
+
+        // When
+        publisher.close();
+
+        // Then
+        assertThat(subscriber.completion.getCount(), is(1L));
+        subscription.request(1);
+        assertThat(subscriber.received(), is(Arrays.asList("order-1")));
+        assertThat(subscriber.completion.getCount(), is(0L));
+        assertThat(publisher.getSubscriptionCount(), is(0));
+    }
+
+    @Test
+    public void shouldSignalErrorOfInvalidRequest() throws Exception {
+        // Given
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        MessageSubscription subscription = publisher.subscribe(isFIXMessage(), subscriber, 10, block());
+
+        // When
+        subscription.request(0);
+
+        // Then
+        assertThat(subscriber.error, instanceOf(IllegalArgumentException.class));
+        assertThat(subscription.isCancelled(), is(true));
+        assertThat(publisher.getSubscriptionCount(), is(0));
+        publisher.publish(order("order-1"));
+        assertThat(subscriber.messages.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldDeliverOnPublishingThreadWhenExecutorRejectsDelivery() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        MatchedMessagePublisher publisher = new MatchedMessagePublisher(executor, 16);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        MessageSubscription subscription = publisher.subscribe(isFIXMessage(), subscriber, 10, block());
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+
+        // When
+        publisher.publish(order("order-1"));
+        subscription.request(2);
+        publisher.publish(order("order-2"));
+
+        // Then
+        assertThat(subscriber.received(), is(Arrays.asList("order-1", "order-2")));
+        publisher.publish(order("order-3"));
+        subscription.request(1);
+        assertThat(subscriber.received(), is(Arrays.asList("order-1", "order-2", "order-3")));
+    }
+
+    /* ============================== */
+    /* ---     helper methods     --- */
+    /* ============================== */
+
+    private static NewOrderSingle order(String clOrdId) {
+        NewOrderSingle order = new NewOrderSingle();
+        order.set(new ClOrdID(clOrdId));
+        return order;
+    }
+
+    private static ExecutionReport executionReport(String clOrdId, char ordStatus) {
+        ExecutionReport executionReport = new ExecutionReport();
+        executionReport.set(new ClOrdID(clOrdId));
+        executionReport.set(new OrdStatus(ordStatus));
+        return executionReport;
+    }
+
+    /* ============================== */
+    /* ---     helper classes     --- */
+    /* ============================== */
+
+    private static final class RecordingSubscriber implements MessageSubscriber {
+
+        private final long initialRequest;
+        private final List<Message> messages = new ArrayList<Message>();
+        private final List<List<String>> batches = new ArrayList<List<String>>();
+        private final CountDownLatch completion = new CountDownLatch(1);
+        private volatile MessageSubscription subscription;
+        private volatile Throwable error;
+
+        private RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(MessageSubscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public synchronized void onNext(List<Message> messages) {
+            this.messages.addAll(messages);
+            batches.add(clOrdIds(messages));
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completion.countDown();
+        }
+
+        synchronized List<String> received() {
+            return clOrdIds(messages);
+        }
+
+        private static List<String> clOrdIds(List<Message> messages) {
+            List<String> clOrdIds = new ArrayList<String>();
+            for (Message message : messages) {
+                try {
+                    clOrdIds.add(message.getString(ClOrdID.FIELD));
+                } catch (FieldNotFound e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return clOrdIds;
+        }
+    }
+}